@@ -0,0 +1,65 @@
+package io.flowpay.flowpayinterview.benchmark;
+
+import io.flowpay.flowpayinterview.mapper.CommonMapper;
+import io.flowpay.flowpayinterview.model.dto.CompanyDTO;
+import io.flowpay.flowpayinterview.model.entity.Company;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the mapping between company entities and DTOs for companies of increasing size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CommonMapperBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int representatives;
+
+    private final CommonMapper commonMapper = Mappers.getMapper(CommonMapper.class);
+
+    private Company company;
+
+    private CompanyDTO companyDTO;
+
+    private Company target;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        company = Fixtures.company(1, representatives);
+        companyDTO = Fixtures.companyDto(1, representatives);
+        // The DTO carries the representatives the target already has, so every update starts from the same state.
+        target = Fixtures.company(1, representatives);
+    }
+
+    @Benchmark
+    public CompanyDTO companyToDto() {
+        return commonMapper.companyToDto(company);
+    }
+
+    /**
+     * Updates a company from a DTO carrying the same representatives, dominated by {@code afterUpdateCompanyFromDto}.
+     */
+    @Benchmark
+    public Company updateCompanyFromDto() {
+        commonMapper.updateCompanyFromDto(companyDTO, target);
+        return target;
+    }
+}
@@ -0,0 +1,58 @@
+package io.flowpay.flowpayinterview.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.flowpay.flowpayinterview.model.dto.CompanyDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the Jackson serialization of company DTO lists, as returned by the listing endpoints.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompanySerializationBenchmark {
+
+    @Param({"100", "1000"})
+    private int companies;
+
+    @Param({"10", "100"})
+    private int representatives;
+
+    // Configured like the one Spring Boot uses for the HTTP message converters.
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private List<CompanyDTO> companyDTOs;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        companyDTOs = new ArrayList<>(companies);
+        for (int i = 1; i <= companies; i++) {
+            companyDTOs.add(Fixtures.companyDto(i, representatives));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeCompanies() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(companyDTOs);
+    }
+}
@@ -0,0 +1,131 @@
+package io.flowpay.flowpayinterview.benchmark;
+
+import io.flowpay.flowpayinterview.FlowpayInterviewApplication;
+import io.flowpay.flowpayinterview.model.dto.BulkItemResultDTO;
+import io.flowpay.flowpayinterview.model.dto.CompanyDTO;
+import io.flowpay.flowpayinterview.model.dto.CompanyPageDTO;
+import io.flowpay.flowpayinterview.model.dto.RepresentativeDTO;
+import io.flowpay.flowpayinterview.model.dto.TaggedDTO;
+import io.flowpay.flowpayinterview.service.CompanyService;
+import io.flowpay.flowpayinterview.service.RepresentativeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the read paths of {@link CompanyService} against an embedded H2 database,
+ * running the full application context with its caches and Liquibase migrations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompanyServiceBenchmark {
+
+    private static final String[] APPLICATION_ARGUMENTS = {
+            "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+            "--logging.level.root=WARN"
+    };
+
+    @Param({"1000"})
+    private int companies;
+
+    @Param({"10"})
+    private int representativesPerCompany;
+
+    private ConfigurableApplicationContext context;
+
+    private CompanyService companyService;
+
+    private List<Long> companyIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(FlowpayInterviewApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(APPLICATION_ARGUMENTS);
+        companyService = context.getBean(CompanyService.class);
+        RepresentativeService representativeService = context.getBean(RepresentativeService.class);
+
+        List<RepresentativeDTO> representatives = new ArrayList<>(companies * representativesPerCompany);
+        for (int i = 0; i < companies * representativesPerCompany; i++) {
+            representatives.add(new RepresentativeDTO(null, "John" + i, "Doe" + i));
+        }
+        List<BulkItemResultDTO> representativeResults = representativeService.createRepresentatives(representatives);
+
+        List<CompanyDTO> companyDTOs = new ArrayList<>(companies);
+        for (int c = 0; c < companies; c++) {
+            Set<RepresentativeDTO> companyRepresentatives = new HashSet<>();
+            for (int r = 0; r < representativesPerCompany; r++) {
+                Long representativeId = representativeResults.get(c * representativesPerCompany + r).getId();
+                companyRepresentatives.add(new RepresentativeDTO(representativeId, null, null));
+            }
+            companyDTOs.add(new CompanyDTO(null, "Company " + c, companyRepresentatives));
+        }
+        companyIds = companyService.createCompanies(companyDTOs).stream()
+                .map(BulkItemResultDTO::getId)
+                .toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Looks up random companies by ID, served from the in-process cache once warmed up.
+     */
+    @Benchmark
+    public TaggedDTO<CompanyDTO> getCompanyById() {
+        return companyService.getTaggedCompanyById(randomCompanyId());
+    }
+
+    @Benchmark
+    public List<CompanyDTO> getCompanyByName() {
+        return companyService.getCompanyByName("Company " + ThreadLocalRandom.current().nextInt(companies));
+    }
+
+    @Benchmark
+    public Set<RepresentativeDTO> getAllRepresentativesForCompany() {
+        return companyService.getAllRepresentativesForCompany(randomCompanyId());
+    }
+
+    @Benchmark
+    public CompanyPageDTO getCompaniesPage() {
+        return companyService.getCompaniesPage(null, 100);
+    }
+
+    @Benchmark
+    public List<CompanyDTO> getAllCompanies() {
+        return companyService.getAllCompanies();
+    }
+
+    private Long randomCompanyId() {
+        return companyIds.get(ThreadLocalRandom.current().nextInt(companyIds.size()));
+    }
+}
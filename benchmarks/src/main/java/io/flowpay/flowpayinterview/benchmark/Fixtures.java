@@ -0,0 +1,42 @@
+package io.flowpay.flowpayinterview.benchmark;
+
+import io.flowpay.flowpayinterview.model.dto.CompanyDTO;
+import io.flowpay.flowpayinterview.model.dto.RepresentativeDTO;
+import io.flowpay.flowpayinterview.model.entity.Company;
+import io.flowpay.flowpayinterview.model.entity.Representative;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Builds the companies and representatives the benchmarks operate on.
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    /**
+     * Creates a company entity with the given number of representatives, with IDs assigned as if persisted.
+     */
+    static Company company(long id, int representatives) {
+        Set<Representative> representativeSet = new HashSet<>(representatives * 2);
+        for (int i = 0; i < representatives; i++) {
+            long representativeId = id * 1_000_000 + i;
+            representativeSet.add(new Representative(representativeId, "John" + i, "Doe" + representativeId));
+        }
+        return new Company(id, "Company " + id, representativeSet);
+    }
+
+    /**
+     * Creates a company DTO with the given number of representatives, with IDs assigned as if persisted.
+     */
+    static CompanyDTO companyDto(long id, int representatives) {
+        Set<RepresentativeDTO> representativeSet = new HashSet<>(representatives * 2);
+        for (int i = 0; i < representatives; i++) {
+            long representativeId = id * 1_000_000 + i;
+            representativeSet.add(new RepresentativeDTO(representativeId, "John" + i, "Doe" + representativeId));
+        }
+        return new CompanyDTO(id, "Company " + id, representativeSet);
+    }
+}
@@ -0,0 +1,116 @@
+package io.flowpay.flowpayinterview.benchmark;
+
+import org.h2.jdbcx.JdbcDataSource;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.logging.Logger;
+
+/**
+ * H2 data source delaying the execution of every statement, standing in for the network round trip to a
+ * database server. The delay blocks the calling thread while it holds the connection, as a remote database would.
+ * <p>
+ * Meant to be configured as the {@code dataSourceClassName} of the HikariCP pool, which sets the {@code url}
+ * and {@code latencyMillis} properties from its {@code dataSourceProperties}.
+ */
+public class SimulatedLatencyDataSource implements DataSource {
+
+    private final JdbcDataSource delegate = new JdbcDataSource();
+    private long latencyMillis;
+
+    public void setUrl(String url) {
+        delegate.setURL(url);
+    }
+
+    public void setUser(String user) {
+        delegate.setUser(user);
+    }
+
+    public void setPassword(String password) {
+        delegate.setPassword(password);
+    }
+
+    public void setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return (Connection) delayed(Connection.class, delegate.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return (Connection) delayed(Connection.class, delegate.getConnection(username, password));
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return delegate.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        delegate.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        delegate.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return delegate.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> type) throws SQLException {
+        return delegate.unwrap(type);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> type) throws SQLException {
+        return delegate.isWrapperFor(type);
+    }
+
+    /**
+     * Wraps a connection or statement, so that statements created by it are wrapped in turn and
+     * their {@code execute*} methods are delayed.
+     */
+    private Object delayed(Class<?> type, Object target) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (instance, method, args) -> {
+            if (target instanceof Statement && method.getName().startsWith("execute")) {
+                Thread.sleep(latencyMillis);
+            }
+            Object result = invoke(target, method, args);
+            Class<?> returnType = method.getReturnType();
+            if (returnType == Statement.class || returnType == PreparedStatement.class || returnType == CallableStatement.class) {
+                return delayed(returnType, result);
+            }
+            return result;
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
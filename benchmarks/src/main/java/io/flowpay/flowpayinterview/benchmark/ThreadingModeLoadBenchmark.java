@@ -0,0 +1,169 @@
+package io.flowpay.flowpayinterview.benchmark;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.flowpay.flowpayinterview.FlowpayInterviewApplication;
+import io.flowpay.flowpayinterview.model.dto.BulkItemResultDTO;
+import io.flowpay.flowpayinterview.model.dto.CompanyDTO;
+import io.flowpay.flowpayinterview.model.dto.RepresentativeDTO;
+import io.flowpay.flowpayinterview.service.CompanyService;
+import io.flowpay.flowpayinterview.service.RepresentativeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares serving requests on Tomcat's platform thread pool with serving them on virtual threads, while
+ * every statement takes {@code latencyMillis} as against a slow database. More clients than Tomcat has
+ * platform threads call the company endpoints over HTTP; the sampled times give the p99 latency and the
+ * throughput mode the requests served per second.
+ * <p>
+ * Virtual threads keep the requests beyond the connection pool waiting for a permit of the transaction
+ * concurrency limiter instead of occupying Tomcat's threads, so the throughput stays bound by the pool while
+ * the tail latency drops. The {@code virtual} mode requires running the jar on Java 21.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(400)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ThreadingModeLoadBenchmark {
+
+    private static final String JDBC_URL = "jdbc:h2:mem:load;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH";
+
+    private static final String[] APPLICATION_ARGUMENTS = {
+            "--server.port=0",
+            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+            "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+            "--spring.jpa.properties.hibernate.cache.use_query_cache=false",
+            "--flowpay.name-index.enabled=false",
+            "--logging.level.root=WARN"
+    };
+
+    @Param({"platform", "virtual"})
+    private String threading;
+
+    @Param({"5"})
+    private long latencyMillis;
+
+    @Param({"50"})
+    private int maximumPoolSize;
+
+    @Param({"200"})
+    private int companies;
+
+    private ConfigurableApplicationContext context;
+
+    private HttpClient httpClient;
+
+    private String baseUrl;
+
+    private List<Long> companyIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("virtual".equals(threading) && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads require Java 21, running on " + Runtime.version());
+        }
+        context = new SpringApplicationBuilder(FlowpayInterviewApplication.class)
+                .initializers(applicationContext -> ((GenericApplicationContext) applicationContext)
+                        .registerBean(HikariDataSource.class, this::dataSource))
+                .run(applicationArguments());
+        baseUrl = "http://127.0.0.1:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        RepresentativeService representativeService = context.getBean(RepresentativeService.class);
+        List<RepresentativeDTO> representatives = new ArrayList<>(companies);
+        for (int i = 0; i < companies; i++) {
+            representatives.add(new RepresentativeDTO(null, "John" + i, "Doe" + i));
+        }
+        List<BulkItemResultDTO> representativeResults = representativeService.createRepresentatives(representatives);
+
+        List<CompanyDTO> companyDTOs = new ArrayList<>(companies);
+        for (int c = 0; c < companies; c++) {
+            Set<RepresentativeDTO> companyRepresentatives = new HashSet<>();
+            companyRepresentatives.add(new RepresentativeDTO(representativeResults.get(c).getId(), null, null));
+            companyDTOs.add(new CompanyDTO(null, "Company " + c, companyRepresentatives));
+        }
+        companyIds = context.getBean(CompanyService.class).createCompanies(companyDTOs).stream()
+                .map(BulkItemResultDTO::getId)
+                .toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Fetches a page of companies, taking a connection for every request as the second-level cache is disabled.
+     */
+    @Benchmark
+    public int getCompaniesPage() throws IOException, InterruptedException {
+        return get("/api/companies/page?size=20");
+    }
+
+    /**
+     * Fetches the representatives of a random company, which is likewise read from the database every time.
+     */
+    @Benchmark
+    public int getAllRepresentativesForCompany() throws IOException, InterruptedException {
+        Long companyId = companyIds.get(ThreadLocalRandom.current().nextInt(companyIds.size()));
+        return get("/api/companies/" + companyId + "/representatives");
+    }
+
+    private int get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + path + " returned " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    private String[] applicationArguments() {
+        List<String> arguments = new ArrayList<>(List.of(APPLICATION_ARGUMENTS));
+        arguments.add("--spring.threads.virtual.enabled=" + "virtual".equals(threading));
+        return arguments.toArray(String[]::new);
+    }
+
+    private HikariDataSource dataSource() {
+        HikariConfig config = new HikariConfig();
+        config.setDataSourceClassName(SimulatedLatencyDataSource.class.getName());
+        config.addDataSourceProperty("url", JDBC_URL);
+        config.addDataSourceProperty("user", "sa");
+        config.addDataSourceProperty("password", "");
+        config.addDataSourceProperty("latencyMillis", latencyMillis);
+        config.setMaximumPoolSize(maximumPoolSize);
+        return new HikariDataSource(config);
+    }
+}
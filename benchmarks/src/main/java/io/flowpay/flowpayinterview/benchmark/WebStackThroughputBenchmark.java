@@ -0,0 +1,195 @@
+package io.flowpay.flowpayinterview.benchmark;
+
+import io.flowpay.flowpayinterview.FlowpayInterviewApplication;
+import io.flowpay.flowpayinterview.model.dto.BulkItemResultDTO;
+import io.flowpay.flowpayinterview.model.dto.CompanyDTO;
+import io.flowpay.flowpayinterview.model.dto.RepresentativeDTO;
+import io.flowpay.flowpayinterview.service.CompanyService;
+import io.flowpay.flowpayinterview.service.RepresentativeService;
+import io.flowpay.flowpayinterviewreactive.FlowpayInterviewReactiveApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput of the read endpoints served by the servlet application on Tomcat with the same
+ * endpoints served by the reactive application on Netty, both reading the same embedded H2 database.
+ * The servlet application always runs, as it migrates the schema and creates the data; with the
+ * {@code reactive} stack the requests go to the reactive application instead.
+ * <p>
+ * Caches are disabled, so that every request reaches the database. R2DBC H2 executes statements on the
+ * calling thread, so the comparison covers the overhead of the stacks rather than waiting on a remote database.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(64)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WebStackThroughputBenchmark {
+
+    private static final String DATABASE_OPTIONS = ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH";
+
+    private static final String[] SERVLET_ARGUMENTS = {
+            "--server.port=0",
+            "--spring.datasource.url=jdbc:h2:mem:stack" + DATABASE_OPTIONS,
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+            "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+            "--spring.jpa.properties.hibernate.cache.use_query_cache=false",
+            "--spring.cache.type=none",
+            "--flowpay.name-index.enabled=false",
+            "--logging.level.root=WARN"
+    };
+
+    private static final String[] REACTIVE_ARGUMENTS = {
+            "--server.port=0",
+            "--spring.r2dbc.url=r2dbc:h2:mem:///stack" + DATABASE_OPTIONS,
+            "--spring.r2dbc.username=sa",
+            "--spring.r2dbc.password=",
+            // Replaces the exclusion of the R2DBC stack configured for the servlet application
+            "--spring.autoconfigure.exclude="
+                    + "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration,"
+                    + "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration,"
+                    + "org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration,"
+                    + "org.springframework.boot.autoconfigure.liquibase.LiquibaseAutoConfiguration",
+            "--logging.level.root=WARN"
+    };
+
+    @Param({"servlet", "reactive"})
+    private String stack;
+
+    @Param({"1000"})
+    private int companies;
+
+    @Param({"10"})
+    private int representativesPerCompany;
+
+    private ConfigurableApplicationContext servletContext;
+
+    private ConfigurableApplicationContext reactiveContext;
+
+    private HttpClient httpClient;
+
+    private String baseUrl;
+
+    private List<Long> companyIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        servletContext = new SpringApplicationBuilder(FlowpayInterviewApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run(SERVLET_ARGUMENTS);
+        createData();
+
+        ConfigurableApplicationContext target = servletContext;
+        if ("reactive".equals(stack)) {
+            // Tomcat is on the classpath as well and would be preferred over Netty
+            reactiveContext = new SpringApplicationBuilder(FlowpayInterviewReactiveApplication.class)
+                    .web(WebApplicationType.REACTIVE)
+                    .initializers(applicationContext -> ((GenericApplicationContext) applicationContext)
+                            .registerBean(NettyReactiveWebServerFactory.class))
+                    .run(REACTIVE_ARGUMENTS);
+            target = reactiveContext;
+        }
+        baseUrl = "http://127.0.0.1:" + ((WebServerApplicationContext) target).getWebServer().getPort();
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (reactiveContext != null) {
+            reactiveContext.close();
+        }
+        servletContext.close();
+    }
+
+    @Benchmark
+    public int getCompanyById() throws IOException, InterruptedException {
+        return get("/api/companies/" + randomCompanyId());
+    }
+
+    @Benchmark
+    public int getAllRepresentativesForCompany() throws IOException, InterruptedException {
+        return get("/api/companies/" + randomCompanyId() + "/representatives");
+    }
+
+    @Benchmark
+    public int getCompaniesPage() throws IOException, InterruptedException {
+        return get("/api/companies/page?size=100");
+    }
+
+    /**
+     * Streams all companies with their representatives as newline delimited JSON.
+     */
+    @Benchmark
+    public int exportCompanies() throws IOException, InterruptedException {
+        return get("/api/companies/export");
+    }
+
+    private int get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + path + " returned " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    private void createData() {
+        RepresentativeService representativeService = servletContext.getBean(RepresentativeService.class);
+        List<RepresentativeDTO> representatives = new ArrayList<>(companies * representativesPerCompany);
+        for (int i = 0; i < companies * representativesPerCompany; i++) {
+            representatives.add(new RepresentativeDTO(null, "John" + i, "Doe" + i));
+        }
+        List<BulkItemResultDTO> representativeResults = representativeService.createRepresentatives(representatives);
+
+        List<CompanyDTO> companyDTOs = new ArrayList<>(companies);
+        for (int c = 0; c < companies; c++) {
+            Set<RepresentativeDTO> companyRepresentatives = new HashSet<>();
+            for (int r = 0; r < representativesPerCompany; r++) {
+                Long representativeId = representativeResults.get(c * representativesPerCompany + r).getId();
+                companyRepresentatives.add(new RepresentativeDTO(representativeId, null, null));
+            }
+            companyDTOs.add(new CompanyDTO(null, "Company " + c, companyRepresentatives));
+        }
+        companyIds = servletContext.getBean(CompanyService.class).createCompanies(companyDTOs).stream()
+                .map(BulkItemResultDTO::getId)
+                .toList();
+    }
+
+    private Long randomCompanyId() {
+        return companyIds.get(ThreadLocalRandom.current().nextInt(companyIds.size()));
+    }
+}
@@ -0,0 +1,16 @@
+package io.flowpay.flowpayinterviewreactive;
+
+import io.flowpay.flowpayinterview.config.FlowpayProperties;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+
+@SpringBootApplication
+@EnableConfigurationProperties(FlowpayProperties.class)
+public class FlowpayInterviewReactiveApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(FlowpayInterviewReactiveApplication.class, args);
+	}
+
+}
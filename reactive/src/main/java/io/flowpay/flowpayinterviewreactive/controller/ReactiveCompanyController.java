@@ -0,0 +1,88 @@
+package io.flowpay.flowpayinterviewreactive.controller;
+
+import io.flowpay.flowpayinterview.config.ApiUrls;
+import io.flowpay.flowpayinterview.model.dto.CompanyDTO;
+import io.flowpay.flowpayinterview.model.dto.CompanyPageDTO;
+import io.flowpay.flowpayinterview.model.dto.RepresentativeDTO;
+import io.flowpay.flowpayinterviewreactive.service.ReactiveCompanyService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Controller for the non-blocking reads of companies, served under the same URLs and with the same
+ * payloads as the servlet application's {@code CompanyController}.
+ */
+@RestController
+@RequestMapping(ApiUrls.URL_COMPANIES)
+public class ReactiveCompanyController {
+
+    private final ReactiveCompanyService companyService;
+
+    public ReactiveCompanyController(ReactiveCompanyService companyService) {
+        this.companyService = companyService;
+    }
+
+    /**
+     * Endpoint to retrieve a company by its ID.
+     *
+     * @param id The ID of the company to retrieve.
+     * @return The company DTO.
+     */
+    @GetMapping(ApiUrls.URL_COMPANIES_BY_ID)
+    public Mono<CompanyDTO> getCompanyById(@PathVariable Long id) {
+        return companyService.getCompanyById(id);
+    }
+
+    /**
+     * Endpoint to retrieve companies by their name.
+     *
+     * @param name The name of the companies to retrieve.
+     * @return The company DTOs, written as a JSON array.
+     */
+    @GetMapping(ApiUrls.URL_COMPANIES_BY_NAME)
+    public Flux<CompanyDTO> getCompaniesByName(@PathVariable String name) {
+        return companyService.getCompanyByName(name);
+    }
+
+    /**
+     * Endpoint to retrieve a page of companies using keyset pagination.
+     *
+     * @param cursor The cursor returned with the previous page, or {@code null} for the first page.
+     * @param size The requested page size; capped at the configured maximum.
+     * @return The page DTO.
+     */
+    @GetMapping(ApiUrls.URL_COMPANIES_PAGE)
+    public Mono<CompanyPageDTO> getCompaniesPage(@RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer size) {
+        return companyService.getCompaniesPage(cursor, size);
+    }
+
+    /**
+     * Endpoint to export all companies with their representatives.
+     * The response is streamed as newline delimited JSON, one company per line, and companies are read
+     * from the database only as fast as the client receives them.
+     *
+     * @return The company DTOs.
+     */
+    @GetMapping(value = ApiUrls.URL_COMPANIES_EXPORT, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<CompanyDTO> exportCompanies() {
+        return companyService.exportCompanies();
+    }
+
+    /**
+     * Endpoint to retrieve all representatives of a company.
+     *
+     * @param companyId The ID of the company.
+     * @return The representative DTOs, written as a JSON array.
+     */
+    @GetMapping(ApiUrls.URL_COMPANY_REPRESENTATIVES_ALL)
+    public Flux<RepresentativeDTO> getAllRepresentativesForCompany(@PathVariable Long companyId) {
+        return companyService.getAllRepresentativesForCompany(companyId);
+    }
+}
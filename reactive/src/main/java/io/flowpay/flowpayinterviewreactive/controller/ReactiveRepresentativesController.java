@@ -0,0 +1,51 @@
+package io.flowpay.flowpayinterviewreactive.controller;
+
+import io.flowpay.flowpayinterview.config.ApiUrls;
+import io.flowpay.flowpayinterview.model.dto.RepresentativeDTO;
+import io.flowpay.flowpayinterviewreactive.service.ReactiveRepresentativeService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Controller for the non-blocking reads of representatives, served under the same URLs and with the same
+ * payloads as the servlet application's {@code RepresentativesController}.
+ */
+@RestController
+@RequestMapping(ApiUrls.URL_REPRESENTATIVES)
+public class ReactiveRepresentativesController {
+
+    private final ReactiveRepresentativeService representativeService;
+
+    public ReactiveRepresentativesController(ReactiveRepresentativeService representativeService) {
+        this.representativeService = representativeService;
+    }
+
+    /**
+     * Retrieves a representative by ID.
+     *
+     * @param id The ID of the representative to retrieve.
+     * @return The representative DTO.
+     */
+    @GetMapping(ApiUrls.URL_REPRESENTATIVES_BY_ID)
+    public Mono<RepresentativeDTO> getRepresentativeById(@PathVariable Long id) {
+        return representativeService.getRepresentativeById(id);
+    }
+
+    /**
+     * Retrieves representatives by first and last name.
+     *
+     * @param firstName The first name of the representative(s) to retrieve.
+     * @param lastName The last name of the representative(s) to retrieve.
+     * @return The representative DTOs, written as a JSON array.
+     */
+    @GetMapping(ApiUrls.URL_REPRESENTATIVES_BY_FIRST_AND_LAST_NAME)
+    public Flux<RepresentativeDTO> getRepresentativesByFirstNameAndLastName(@RequestParam String firstName,
+                                                                            @RequestParam String lastName) {
+        return representativeService.getRepresentativesByFirstNameAndLastName(firstName, lastName);
+    }
+}
@@ -0,0 +1,49 @@
+package io.flowpay.flowpayinterviewreactive.exception;
+
+import io.flowpay.flowpayinterview.exception.ErrorResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.List;
+
+/**
+ * Provides global exception handling for the reactive controllers.
+ * Errors are reported with the same {@link ErrorResponse} payload and status codes as by the servlet application.
+ */
+@RestControllerAdvice
+public class ReactiveExceptionHandler {
+
+    /**
+     * Handles not found exceptions thrown by the application.
+     *
+     * @param ex The caught ResourceNotFoundException.
+     * @param exchange The exchange of the request that resulted in the exception.
+     * @return A ResponseEntity containing the ErrorResponse and HTTP status code.
+     */
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleResourceNotFoundException(ResourceNotFoundException ex, ServerWebExchange exchange) {
+        ErrorResponse errorResponse = new ErrorResponse(ex.getMessage(), List.of(describe(exchange)));
+        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Handles invalid arguments supplied by the client, such as malformed cursors.
+     *
+     * @param ex The caught IllegalArgumentException.
+     * @param exchange The exchange of the request that resulted in the exception.
+     * @return A ResponseEntity containing the ErrorResponse and HTTP status code.
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException ex, ServerWebExchange exchange) {
+        ErrorResponse errorResponse = new ErrorResponse(ex.getMessage(), List.of(describe(exchange)));
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    // Matches the description of the request given by the servlet application
+    private static String describe(ServerWebExchange exchange) {
+        return "uri=" + exchange.getRequest().getPath().value();
+    }
+}
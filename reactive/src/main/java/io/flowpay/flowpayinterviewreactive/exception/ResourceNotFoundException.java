@@ -0,0 +1,11 @@
+package io.flowpay.flowpayinterviewreactive.exception;
+
+/**
+ * Thrown when a requested company or representative does not exist.
+ */
+public class ResourceNotFoundException extends RuntimeException {
+
+    public ResourceNotFoundException(String message) {
+        super(message);
+    }
+}
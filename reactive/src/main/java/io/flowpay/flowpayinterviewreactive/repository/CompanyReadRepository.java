@@ -0,0 +1,87 @@
+package io.flowpay.flowpayinterviewreactive.repository;
+
+import io.flowpay.flowpayinterview.model.dto.CompanyDTO;
+import io.flowpay.flowpayinterview.model.dto.RepresentativeDTO;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.util.Collection;
+import java.util.HashSet;
+
+/**
+ * Reads companies and their representatives through R2DBC, straight into DTOs.
+ * Companies are returned without representatives, which are loaded separately by company IDs.
+ */
+@Repository
+public class CompanyReadRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public CompanyReadRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<CompanyDTO> findById(long id) {
+        return databaseClient.sql("SELECT id, name FROM companies WHERE id = :id")
+                .bind("id", id)
+                .map(CompanyReadRepository::toCompany)
+                .one();
+    }
+
+    public Flux<CompanyDTO> findAllByName(String name) {
+        return databaseClient.sql("SELECT id, name FROM companies WHERE name = :name ORDER BY id")
+                .bind("name", name)
+                .map(CompanyReadRepository::toCompany)
+                .all();
+    }
+
+    /**
+     * Finds the companies following the given ID in ID order, as a page of keyset pagination.
+     */
+    public Flux<CompanyDTO> findAllAfter(long afterId, int limit) {
+        return databaseClient.sql("SELECT id, name FROM companies WHERE id > :afterId ORDER BY id LIMIT :limit")
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(CompanyReadRepository::toCompany)
+                .all();
+    }
+
+    /**
+     * Finds all companies in ID order. The rows are fetched from the database as they are demanded,
+     * {@code fetchSize} at a time, so the result set is never held in memory as a whole.
+     */
+    public Flux<CompanyDTO> findAll(int fetchSize) {
+        return databaseClient.sql("SELECT id, name FROM companies ORDER BY id")
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(CompanyReadRepository::toCompany)
+                .all();
+    }
+
+    /**
+     * Finds the representatives of the given companies, paired with the ID of the company they belong to.
+     */
+    public Flux<Tuple2<Long, RepresentativeDTO>> findRepresentativesByCompanyIds(Collection<Long> companyIds) {
+        return databaseClient.sql("SELECT cr.company_id, r.id, r.firstname, r.lastname FROM company_representatives cr "
+                        + "JOIN representatives r ON r.id = cr.representative_id WHERE cr.company_id IN (:companyIds)")
+                .bind("companyIds", companyIds)
+                .map(row -> Tuples.of(row.get("company_id", Long.class), RepresentativeReadRepository.toRepresentative(row)))
+                .all();
+    }
+
+    public Flux<RepresentativeDTO> findRepresentativesByCompanyId(long companyId) {
+        return databaseClient.sql("SELECT r.id, r.firstname, r.lastname FROM company_representatives cr "
+                        + "JOIN representatives r ON r.id = cr.representative_id WHERE cr.company_id = :companyId")
+                .bind("companyId", companyId)
+                .map(RepresentativeReadRepository::toRepresentative)
+                .all();
+    }
+
+    private static CompanyDTO toCompany(Readable row) {
+        return new CompanyDTO(row.get("id", Long.class), row.get("name", String.class), new HashSet<>());
+    }
+}
@@ -0,0 +1,41 @@
+package io.flowpay.flowpayinterviewreactive.repository;
+
+import io.flowpay.flowpayinterview.model.dto.RepresentativeDTO;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reads representatives through R2DBC, straight into DTOs.
+ */
+@Repository
+public class RepresentativeReadRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public RepresentativeReadRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<RepresentativeDTO> findById(long id) {
+        return databaseClient.sql("SELECT id, firstname, lastname FROM representatives WHERE id = :id")
+                .bind("id", id)
+                .map(RepresentativeReadRepository::toRepresentative)
+                .one();
+    }
+
+    public Flux<RepresentativeDTO> findAllByFirstNameAndLastName(String firstName, String lastName) {
+        return databaseClient.sql("SELECT id, firstname, lastname FROM representatives "
+                        + "WHERE firstname = :firstName AND lastname = :lastName")
+                .bind("firstName", firstName)
+                .bind("lastName", lastName)
+                .map(RepresentativeReadRepository::toRepresentative)
+                .all();
+    }
+
+    static RepresentativeDTO toRepresentative(Readable row) {
+        return new RepresentativeDTO(row.get("id", Long.class), row.get("firstname", String.class), row.get("lastname", String.class));
+    }
+}
@@ -0,0 +1,135 @@
+package io.flowpay.flowpayinterviewreactive.service;
+
+import io.flowpay.flowpayinterview.config.FlowpayProperties;
+import io.flowpay.flowpayinterview.model.dto.CompanyDTO;
+import io.flowpay.flowpayinterview.model.dto.CompanyPageDTO;
+import io.flowpay.flowpayinterview.model.dto.RepresentativeDTO;
+import io.flowpay.flowpayinterview.service.KeysetCursor;
+import io.flowpay.flowpayinterviewreactive.exception.ResourceNotFoundException;
+import io.flowpay.flowpayinterviewreactive.repository.CompanyReadRepository;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Provides the non-blocking read operations on companies, mirroring the read side of the servlet
+ * application's {@code CompanyService}.
+ * <p>
+ * Representatives are loaded with one query per batch of companies, and batches are requested one at a time,
+ * so a slow consumer holds back the reading of further companies instead of having them buffered.
+ */
+@Service
+public class ReactiveCompanyService {
+
+    private final CompanyReadRepository companyReadRepository;
+    private final FlowpayProperties.Pagination pagination;
+    private final int fetchBatchSize;
+
+    public ReactiveCompanyService(CompanyReadRepository companyReadRepository, FlowpayProperties flowpayProperties) {
+        this.companyReadRepository = companyReadRepository;
+        this.pagination = flowpayProperties.getPagination();
+        this.fetchBatchSize = flowpayProperties.getFetch().getBatchSize();
+    }
+
+    /**
+     * Retrieves a company by its ID.
+     *
+     * @param id The ID of the company.
+     * @return The DTO representing the retrieved company, or an error if the company does not exist.
+     */
+    public Mono<CompanyDTO> getCompanyById(Long id) {
+        return findCompanyById(id)
+                .flatMap(company -> companyReadRepository.findRepresentativesByCompanyId(id)
+                        .collect(Collectors.toSet())
+                        .map(representatives -> {
+                            company.setRepresentatives(representatives);
+                            return company;
+                        }));
+    }
+
+    /**
+     * Retrieves companies by their name.
+     *
+     * @param name The name of the companies to retrieve.
+     * @return The DTOs representing the retrieved companies, ordered by ID.
+     */
+    public Flux<CompanyDTO> getCompanyByName(String name) {
+        return withRepresentatives(companyReadRepository.findAllByName(name));
+    }
+
+    /**
+     * Retrieves a page of companies ordered by ID, starting after the given cursor.
+     *
+     * @param cursor The cursor returned with the previous page, or {@code null} for the first page.
+     * @param size   The requested page size, or {@code null} for the default; capped at the configured maximum.
+     * @return The DTO representing the page, including the cursor of the next page if there is one.
+     */
+    public Mono<CompanyPageDTO> getCompaniesPage(String cursor, Integer size) {
+        return Mono.defer(() -> {
+            long afterId = KeysetCursor.decode(cursor);
+            int pageSize = resolvePageSize(size);
+            // Fetch one extra company to find out whether another page follows without a count query.
+            return companyReadRepository.findAllAfter(afterId, pageSize + 1).collectList().flatMap(companies -> {
+                boolean hasNext = companies.size() > pageSize;
+                List<CompanyDTO> page = hasNext ? companies.subList(0, pageSize) : companies;
+                String nextCursor = hasNext ? KeysetCursor.encode(page.get(page.size() - 1).getId()) : null;
+                return withRepresentatives(Flux.fromIterable(page))
+                        .collectList()
+                        .map(items -> new CompanyPageDTO(items, nextCursor));
+            });
+        });
+    }
+
+    /**
+     * Retrieves all representatives of a company.
+     *
+     * @param companyId The ID of the company.
+     * @return The DTOs representing the company's representatives, or an error if the company does not exist.
+     */
+    public Flux<RepresentativeDTO> getAllRepresentativesForCompany(Long companyId) {
+        return findCompanyById(companyId)
+                .thenMany(companyReadRepository.findRepresentativesByCompanyId(companyId));
+    }
+
+    /**
+     * Streams all companies with their representatives, ordered by ID. Companies are read from the
+     * database only as fast as the subscriber consumes them.
+     *
+     * @return The DTOs representing the existing companies.
+     */
+    public Flux<CompanyDTO> exportCompanies() {
+        return withRepresentatives(companyReadRepository.findAll(fetchBatchSize));
+    }
+
+    private Mono<CompanyDTO> findCompanyById(Long id) {
+        return companyReadRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Company not found with id " + id)));
+    }
+
+    private Flux<CompanyDTO> withRepresentatives(Flux<CompanyDTO> companies) {
+        return companies.buffer(fetchBatchSize).concatMap(this::attachRepresentatives, 1);
+    }
+
+    private Flux<CompanyDTO> attachRepresentatives(List<CompanyDTO> companies) {
+        Map<Long, CompanyDTO> companiesById = companies.stream()
+                .collect(Collectors.toMap(CompanyDTO::getId, Function.identity()));
+        return companyReadRepository.findRepresentativesByCompanyIds(companiesById.keySet())
+                .doOnNext(row -> companiesById.get(row.getT1()).getRepresentatives().add(row.getT2()))
+                .thenMany(Flux.fromIterable(companies));
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return Math.min(pagination.getDefaultPageSize(), pagination.getMaxPageSize());
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        return Math.min(size, pagination.getMaxPageSize());
+    }
+}
@@ -0,0 +1,44 @@
+package io.flowpay.flowpayinterviewreactive.service;
+
+import io.flowpay.flowpayinterview.model.dto.RepresentativeDTO;
+import io.flowpay.flowpayinterviewreactive.exception.ResourceNotFoundException;
+import io.flowpay.flowpayinterviewreactive.repository.RepresentativeReadRepository;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Provides the non-blocking read operations on representatives, mirroring the read side of the servlet
+ * application's {@code RepresentativeService}.
+ */
+@Service
+public class ReactiveRepresentativeService {
+
+    private final RepresentativeReadRepository representativeReadRepository;
+
+    public ReactiveRepresentativeService(RepresentativeReadRepository representativeReadRepository) {
+        this.representativeReadRepository = representativeReadRepository;
+    }
+
+    /**
+     * Retrieves a representative by its ID.
+     *
+     * @param id The ID of the representative.
+     * @return The DTO representing the retrieved representative, or an error if it does not exist.
+     */
+    public Mono<RepresentativeDTO> getRepresentativeById(Long id) {
+        return representativeReadRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Representative not found with id: " + id)));
+    }
+
+    /**
+     * Retrieves representatives by their first and last name.
+     *
+     * @param firstName The first name of the representatives.
+     * @param lastName  The last name of the representatives.
+     * @return The DTOs representing the retrieved representatives.
+     */
+    public Flux<RepresentativeDTO> getRepresentativesByFirstNameAndLastName(String firstName, String lastName) {
+        return representativeReadRepository.findAllByFirstNameAndLastName(firstName, lastName);
+    }
+}
@@ -0,0 +1,140 @@
+package io.flowpay.flowpayinterviewreactive.controller;
+
+import io.flowpay.flowpayinterview.model.dto.CompanyDTO;
+import io.flowpay.flowpayinterview.model.dto.RepresentativeDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureWebTestClient
+@ActiveProfiles("test")
+public class ReactiveCompanyControllerTest {
+
+    private static final RepresentativeDTO JOHN = new RepresentativeDTO(1L, "John", "Doe");
+    private static final RepresentativeDTO JANE = new RepresentativeDTO(2L, "Jane", "Roe");
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    public void setup() {
+        Flux.concat(
+                        databaseClient.sql("DELETE FROM company_representatives").then(),
+                        databaseClient.sql("DELETE FROM companies").then(),
+                        databaseClient.sql("DELETE FROM representatives").then(),
+                        databaseClient.sql("INSERT INTO companies (id, name) VALUES (1, 'Acme'), (2, 'Globex'), (3, 'Acme')").then(),
+                        databaseClient.sql("INSERT INTO representatives (id, firstname, lastname) VALUES (1, 'John', 'Doe'), (2, 'Jane', 'Roe')").then(),
+                        databaseClient.sql("INSERT INTO company_representatives (company_id, representative_id) VALUES (1, 1), (1, 2), (3, 2)").then())
+                .blockLast();
+    }
+
+    @Test
+    public void testGetCompanyById() {
+        webTestClient.get().uri("/api/companies/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(CompanyDTO.class)
+                .isEqualTo(new CompanyDTO(1L, "Acme", Set.of(JOHN, JANE)));
+    }
+
+    @Test
+    public void testGetCompanyByIdNotFound() {
+        webTestClient.get().uri("/api/companies/99")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Company not found with id 99")
+                .jsonPath("$.details[0]").isEqualTo("uri=/api/companies/99");
+    }
+
+    @Test
+    public void testGetCompaniesByName() {
+        webTestClient.get().uri("/api/companies/name/Acme")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(CompanyDTO.class)
+                .isEqualTo(List.of(
+                        new CompanyDTO(1L, "Acme", Set.of(JOHN, JANE)),
+                        new CompanyDTO(3L, "Acme", Set.of(JANE))));
+    }
+
+    @Test
+    public void testGetCompaniesPage() {
+        webTestClient.get().uri("/api/companies/page?size=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items.length()").isEqualTo(2)
+                .jsonPath("$.items[0].id").isEqualTo(1)
+                .jsonPath("$.items[0].representatives.length()").isEqualTo(2)
+                .jsonPath("$.items[1].id").isEqualTo(2)
+                .jsonPath("$.nextCursor").isEqualTo("Mg");
+
+        webTestClient.get().uri("/api/companies/page?size=2&cursor=Mg")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items.length()").isEqualTo(1)
+                .jsonPath("$.items[0].id").isEqualTo(3)
+                .jsonPath("$.nextCursor").doesNotExist();
+    }
+
+    @Test
+    public void testGetCompaniesPageInvalidCursor() {
+        webTestClient.get().uri("/api/companies/page?cursor=not-a-cursor")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Invalid cursor: not-a-cursor");
+    }
+
+    @Test
+    public void testExportCompanies() {
+        Flux<CompanyDTO> companies = webTestClient.get().uri("/api/companies/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(CompanyDTO.class)
+                .getResponseBody();
+
+        StepVerifier.create(companies)
+                .expectNext(new CompanyDTO(1L, "Acme", Set.of(JOHN, JANE)))
+                .expectNext(new CompanyDTO(2L, "Globex", Set.of()))
+                .expectNext(new CompanyDTO(3L, "Acme", Set.of(JANE)))
+                .verifyComplete();
+    }
+
+    @Test
+    public void testGetAllRepresentativesForCompany() {
+        webTestClient.get().uri("/api/companies/1/representatives")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(RepresentativeDTO.class)
+                .value(representatives -> assertThat(representatives).containsExactlyInAnyOrder(JOHN, JANE));
+    }
+
+    @Test
+    public void testGetAllRepresentativesForCompanyNotFound() {
+        webTestClient.get().uri("/api/companies/99/representatives")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
@@ -0,0 +1,62 @@
+package io.flowpay.flowpayinterviewreactive.controller;
+
+import io.flowpay.flowpayinterview.model.dto.RepresentativeDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+@SpringBootTest
+@AutoConfigureWebTestClient
+@ActiveProfiles("test")
+public class ReactiveRepresentativesControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    public void setup() {
+        Flux.concat(
+                        databaseClient.sql("DELETE FROM company_representatives").then(),
+                        databaseClient.sql("DELETE FROM representatives").then(),
+                        databaseClient.sql("INSERT INTO representatives (id, firstname, lastname) VALUES (1, 'John', 'Doe'), (2, 'Jane', 'Roe')").then())
+                .blockLast();
+    }
+
+    @Test
+    public void testGetRepresentativeById() {
+        webTestClient.get().uri("/api/representatives/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(RepresentativeDTO.class)
+                .isEqualTo(new RepresentativeDTO(1L, "John", "Doe"));
+    }
+
+    @Test
+    public void testGetRepresentativeByIdNotFound() {
+        webTestClient.get().uri("/api/representatives/99")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Representative not found with id: 99");
+    }
+
+    @Test
+    public void testGetRepresentativesByFirstNameAndLastName() {
+        webTestClient.get().uri("/api/representatives/name?firstName=Jane&lastName=Roe")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(RepresentativeDTO.class)
+                .isEqualTo(List.of(new RepresentativeDTO(2L, "Jane", "Roe")));
+    }
+}
@@ -9,14 +9,26 @@ public class ApiUrls {
 
     // Base endpoint for companies-related operations
     public static final String URL_COMPANIES = "/api/companies";
+    // Endpoint for creating companies in bulk
+    public static final String URL_COMPANIES_BULK = "/bulk";
     // Endpoint for specific company operations by ID
     public static final String URL_COMPANIES_BY_ID = "/{id}";
     // Endpoint for fetching companies by name
     public static final String URL_COMPANIES_BY_NAME = "/name/{name}";
+    // Endpoint for searching companies by prefix, substring or similarity of their name
+    public static final String URL_COMPANIES_SEARCH = "/search";
     // Endpoint for listing companies without any representatives
     public static final String URL_COMPANIES_WITHOUT_REPRESENTATIVE = "/no-representative";
     // Endpoint for fetching all companies
     public static final String URL_COMPANIES_ALL = "/all";
+    // Endpoint for paging through all companies using a keyset cursor
+    public static final String URL_COMPANIES_PAGE = "/page";
+    // Endpoint for exporting all companies with their representatives as NDJSON
+    public static final String URL_COMPANIES_EXPORT = "/export";
+    // Endpoint for importing companies with their representatives from CSV
+    public static final String URL_COMPANIES_IMPORT = "/import";
+    // Endpoint for looking up companies by a list of IDs too long for the query string
+    public static final String URL_COMPANIES_LOOKUP = "/lookup";
     // Endpoint for listing all representatives of a specific company
     public static final String URL_COMPANY_REPRESENTATIVES_ALL = "/{companyId}/representatives";
     // Endpoint for assigning a representative to a company
@@ -25,13 +37,24 @@ public class ApiUrls {
     public static final String URL_UNASSIGN_REPRESENTATIVE_FROM_COMPANY = "/{companyId}/representatives/{representativeId}/unassign";
     // Endpoint for transferring a representative between companies
     public static final String URL_TRANSFER_REPRESENTATIVE_BETWEEN_COMPANIES = "/transfer/representative/";
+    // Endpoint for transferring several representatives between companies at once
+    public static final String URL_TRANSFER_REPRESENTATIVES_BETWEEN_COMPANIES = "/transfer/representatives";
 
     // Base endpoint for representatives-related operations
     public static final String URL_REPRESENTATIVES = "/api/representatives";
+    // Endpoint for creating representatives in bulk
+    public static final String URL_REPRESENTATIVES_BULK = "/bulk";
     // Endpoint for specific representative operations by ID
     public static final String URL_REPRESENTATIVES_BY_ID = "/{id}";
     // Endpoint for fetching representatives by first and last name
     public static final String URL_REPRESENTATIVES_BY_FIRST_AND_LAST_NAME = "/name";
     // Endpoint for fetching all representatives
     public static final String URL_REPRESENTATIVES_ALL = "/all";
+    // Endpoint for looking up representatives by a list of IDs too long for the query string
+    public static final String URL_REPRESENTATIVES_LOOKUP = "/lookup";
+
+    // Endpoint for reading the changes of companies and representatives incrementally
+    public static final String URL_CHANGES = "/api/changes";
+    // Endpoint for subscribing to the changes of companies and representatives as Server-Sent Events
+    public static final String URL_CHANGES_STREAM = "/stream";
 }
@@ -0,0 +1,41 @@
+package io.flowpay.flowpayinterview.config;
+
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for the in-process caches of company and representative DTOs.
+ * Cache names, size and expiry are configured through the {@code spring.cache.*} properties.
+ */
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    // Cache holding CompanyDTOs tagged with their entity tags, keyed by company ID
+    public static final String CACHE_COMPANIES = "companies";
+    // Cache holding RepresentativeDTOs tagged with their entity tags, keyed by representative ID
+    public static final String CACHE_REPRESENTATIVES = "representatives";
+
+    /**
+     * Creates the Caffeine backed cache manager. Cache puts and evictions issued within a transaction
+     * take effect only after it commits, so a concurrent read cannot repopulate an entry with data
+     * that is about to change.
+     *
+     * @param cacheProperties The cache properties holding the cache names and the Caffeine specification.
+     * @return CacheManager instance used by the caching annotations.
+     */
+    @Bean
+    public CacheManager cacheManager(CacheProperties cacheProperties) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+        caffeineCacheManager.setCacheSpecification(cacheProperties.getCaffeine().getSpec());
+        caffeineCacheManager.setCacheNames(cacheProperties.getCacheNames());
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
@@ -0,0 +1,58 @@
+package io.flowpay.flowpayinterview.config;
+
+import io.flowpay.flowpayinterview.service.ChangeService;
+import io.flowpay.flowpayinterview.service.ChangeStream;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration class for the change stream, which sends the changes to its subscribers on an executor of its own
+ * rather than the application task executor, so slow clients blocking their sends cannot starve other tasks.
+ * The executor is not a bean, which would make Spring Boot back off from creating the application task executor.
+ * <p>
+ * Every subscription has at most one send task scheduled at a time, and the stream one more to read missed
+ * changes from the log, so the executor never holds more than {@code flowpay.changes.max-subscribers} + 1 tasks.
+ */
+@Configuration
+public class ChangeStreamConfig {
+
+    private static final String THREAD_NAME_PREFIX = "change-stream-";
+
+    /**
+     * Creates the change stream. When serving on virtual threads, every send runs on a virtual thread of its own:
+     * a client whose socket blocks parks its thread rather than occupying a carrier thread, and the number of
+     * threads is bounded by the subscriber limit. Otherwise the sends run on a fixed pool of
+     * {@code flowpay.changes.sender-threads} platform threads; each sends the buffered changes of one subscription
+     * at a time, so the pool size is the number of blocked clients tolerated before the others are delayed.
+     * Its queue takes a task for every subscription, so scheduling a send never fails below the subscriber limit.
+     *
+     * @param changeService     The service reading the change log, for replays and missed changes.
+     * @param flowpayProperties The application properties holding the number of threads and the subscriber limit.
+     * @param environment       The environment telling whether requests are served on virtual threads.
+     * @return ChangeStream instance pushing the committed changes, shutting its executor down when closed.
+     */
+    @Bean
+    public ChangeStream changeStream(ChangeService changeService, FlowpayProperties flowpayProperties,
+                                     Environment environment) {
+        Executor executor;
+        if (Threading.VIRTUAL.isActive(environment)) {
+            executor = new VirtualThreadTaskExecutor(THREAD_NAME_PREFIX);
+        } else {
+            FlowpayProperties.Changes changes = flowpayProperties.getChanges();
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(THREAD_NAME_PREFIX);
+            threadFactory.setDaemon(true);
+            executor = new ThreadPoolExecutor(changes.getSenderThreads(), changes.getSenderThreads(),
+                    0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(changes.getMaxSubscribers() + 1), threadFactory);
+        }
+        return new ChangeStream(changeService, executor, flowpayProperties);
+    }
+}
@@ -0,0 +1,317 @@
+package io.flowpay.flowpayinterview.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Application specific configuration properties bound from the {@code flowpay.*} namespace.
+ * Groups the tunables of the individual features so they can be adjusted per environment.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "flowpay")
+public class FlowpayProperties {
+
+    private Pagination pagination = new Pagination();
+
+    private Fetch fetch = new Fetch();
+
+    private Export export = new Export();
+
+    private Bulk bulk = new Bulk();
+
+    private CsvImport csvImport = new CsvImport();
+
+    private Search search = new Search();
+
+    private Changes changes = new Changes();
+
+    private NameIndex nameIndex = new NameIndex();
+
+    private ReadReplicas readReplicas = new ReadReplicas();
+
+    private StatementCounter statementCounter = new StatementCounter();
+
+    private VirtualThreads virtualThreads = new VirtualThreads();
+
+    /**
+     * Settings for listing endpoints returning potentially large result sets.
+     */
+    @Getter
+    @Setter
+    public static class Pagination {
+
+        /**
+         * Page size used when the client does not request one.
+         */
+        private int defaultPageSize = 100;
+
+        /**
+         * Upper bound for the page size a client may request.
+         */
+        private int maxPageSize = 1000;
+
+        /**
+         * Hard cap on the number of rows returned by the legacy, non-paginated listing endpoints.
+         */
+        private int unpagedMaxRows = 10000;
+    }
+
+    /**
+     * Settings for loading entity graphs in batches.
+     */
+    @Getter
+    @Setter
+    public static class Fetch {
+
+        /**
+         * Maximum number of IDs bound to a single IN query when loading entities with their associations.
+         */
+        private int batchSize = 500;
+
+        /**
+         * Maximum number of distinct IDs accepted by a single lookup of several companies or representatives.
+         */
+        private int maxLookupIds = 1000;
+    }
+
+    /**
+     * Settings for the streaming export endpoints.
+     */
+    @Getter
+    @Setter
+    public static class Export {
+
+        /**
+         * Number of rows read from the database cursor after which the persistence context is cleared
+         * and the output is flushed to the client. Also used as the JDBC fetch size.
+         */
+        private int clearInterval = 1000;
+    }
+
+    /**
+     * Settings for the bulk create and transfer endpoints.
+     */
+    @Getter
+    @Setter
+    public static class Bulk {
+
+        /**
+         * Maximum number of items accepted in a single bulk request.
+         */
+        private int maxItems = 100000;
+
+        /**
+         * Number of inserts sent to the database in one JDBC batch.
+         */
+        private int batchSize = 500;
+
+        /**
+         * Maximum number of representatives moved by a single bulk transfer. The IDs are bound to one
+         * statement, so this stays well below the number of bind parameters PostgreSQL accepts.
+         */
+        private int maxTransferItems = 10000;
+    }
+
+    /**
+     * Settings for the CSV import of companies and representatives.
+     */
+    @Getter
+    @Setter
+    public static class CsvImport {
+
+        /**
+         * Maximum number of rejected rows reported individually in the result of an import.
+         */
+        private int maxReportedRejects = 100;
+    }
+
+    /**
+     * Settings for the company name search.
+     */
+    @Getter
+    @Setter
+    public static class Search {
+
+        /**
+         * Number of companies returned when the client does not request a page size.
+         */
+        private int defaultPageSize = 10;
+
+        /**
+         * Minimum length of substring and fuzzy queries. Shorter queries yield no trigrams
+         * to look up in the index and would match almost every company.
+         */
+        private int minTrigramQueryLength = 3;
+    }
+
+    /**
+     * Settings for the incremental change feed of companies and representatives.
+     */
+    @Getter
+    @Setter
+    public static class Changes {
+
+        /**
+         * Number of change log entries returned when the client does not request a limit.
+         */
+        private int defaultLimit = 1000;
+
+        /**
+         * Upper bound for the number of change log entries a client may request at once.
+         */
+        private int maxLimit = 10000;
+
+        /**
+         * Number of changes buffered for a subscriber of the change stream. A subscriber falling further
+         * behind is disconnected and resumes from the last change it received.
+         */
+        private int subscriberBufferSize = 256;
+
+        /**
+         * Upper bound for the number of concurrent subscribers of the change stream.
+         */
+        private int maxSubscribers = 10000;
+
+        /**
+         * Number of platform threads sending the changes to the subscribers of the change stream, each serving
+         * one subscription at a time; unused when serving on virtual threads, which send on a thread per task.
+         * A client whose connection blocks holds a thread, so this is the number of such clients tolerated
+         * before the changes of the others are delayed.
+         */
+        private int senderThreads = 16;
+
+        /**
+         * Time after which a subscription of the change stream is closed, for the client to reconnect.
+         * Bounds how long a client that went away unnoticed is kept subscribed.
+         */
+        private Duration streamTimeout = Duration.ofMinutes(30);
+    }
+
+    /**
+     * Settings for the in-memory index of representatives by name.
+     */
+    @Getter
+    @Setter
+    public static class NameIndex {
+
+        /**
+         * Whether lookups of representatives by name are served from memory instead of the database.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Number of representatives read from the database per query while warming up the index.
+         */
+        private int warmUpPageSize = 10000;
+    }
+
+    /**
+     * Settings for routing read-only transactions to PostgreSQL read replicas.
+     */
+    @Getter
+    @Setter
+    public static class ReadReplicas {
+
+        /**
+         * Whether read-only transactions are routed to the replicas instead of the primary.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Replicas the read-only transactions are spread over in round-robin order.
+         */
+        private List<Replica> nodes = new ArrayList<>();
+
+        /**
+         * Interval between the health and lag checks of the replicas.
+         */
+        private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+        /**
+         * Maximum replication lag of a replica still serving reads. Lagging replicas are ejected
+         * until they catch up; while no replica is healthy, reads go to the primary.
+         */
+        private Duration maxLag = Duration.ofSeconds(10);
+
+        /**
+         * Query returning the replication lag of a replica in seconds, or blank to only check that
+         * the replica is reachable. A replica that has replayed all WAL it received reports no lag,
+         * even if the primary has been idle since.
+         */
+        private String lagQuery = "SELECT CASE WHEN NOT pg_is_in_recovery() "
+                + "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+                + "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+
+        /**
+         * Connection settings of a single replica.
+         */
+        @Getter
+        @Setter
+        public static class Replica {
+
+            /**
+             * JDBC URL of the replica.
+             */
+            private String url;
+
+            /**
+             * Login username of the replica, defaulting to the one of the primary.
+             */
+            private String username;
+
+            /**
+             * Login password of the replica, defaulting to the one of the primary.
+             */
+            private String password;
+        }
+    }
+
+    /**
+     * Settings for counting the SQL statements and collection initializations of each HTTP request.
+     */
+    @Getter
+    @Setter
+    public static class StatementCounter {
+
+        /**
+         * Whether the statements of each request are counted.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Whether the counts are returned in response headers. Meant for development and testing, not production.
+         */
+        private boolean headerEnabled = true;
+
+        /**
+         * Number of statements above which a request is logged as a warning, hinting at an N+1 query pattern.
+         */
+        private int warnThreshold = 50;
+    }
+
+    /**
+     * Settings applying when requests are served on virtual threads ({@code spring.threads.virtual.enabled}).
+     */
+    @Getter
+    @Setter
+    public static class VirtualThreads {
+
+        /**
+         * Maximum number of transactions running at once. Unlike a platform thread pool, virtual threads do not
+         * bound the concurrency, so without a limit every request would queue inside the connection pool.
+         * Zero derives the limit from the maximum sizes of the connection pools of the primary and the read replicas.
+         */
+        private int maxConcurrentTransactions = 0;
+
+        /**
+         * Maximum time a transaction waits for a permit before the request is rejected as unavailable.
+         */
+        private Duration permitTimeout = Duration.ofSeconds(10);
+    }
+}
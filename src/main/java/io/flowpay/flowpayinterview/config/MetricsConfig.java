@@ -0,0 +1,53 @@
+package io.flowpay.flowpayinterview.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Configuration class for the application specific metrics, exported together with the HTTP, Hibernate
+ * and HikariCP metrics on {@code /actuator/prometheus}. Histograms and percentiles of the timers are
+ * configured through the {@code management.metrics.distribution.*} properties.
+ */
+@Configuration
+public class MetricsConfig {
+
+    // Timer of the service methods, tagged by class, method, exception and endpoint
+    public static final String METRIC_SERVICE = "flowpay.service";
+    // Tag value used when a call is not made on behalf of an HTTP request
+    public static final String NO_ENDPOINT = "none";
+
+    /**
+     * Creates the aspect recording the methods of the classes annotated with {@code @Timed}. Besides the
+     * class, method and thrown exception, each call is tagged with the endpoint it serves, i.e. the pattern
+     * of the matched {@link ApiUrls} constants, so slow calls can be tied to the requests issuing them.
+     *
+     * @param meterRegistry The registry the timers are recorded in.
+     * @return TimedAspect instance recording the annotated methods.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry, (ProceedingJoinPoint joinPoint) -> Tags.of(
+                "class", joinPoint.getStaticPart().getSignature().getDeclaringType().getSimpleName(),
+                "method", joinPoint.getStaticPart().getSignature().getName(),
+                "endpoint", currentEndpoint()));
+    }
+
+    /**
+     * Returns the URL pattern of the handler serving the current HTTP request.
+     */
+    public static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return NO_ENDPOINT;
+        }
+        Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return pattern != null ? pattern.toString() : NO_ENDPOINT;
+    }
+}
@@ -0,0 +1,115 @@
+package io.flowpay.flowpayinterview.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.flowpay.flowpayinterview.datasource.PrimaryReadRouting;
+import io.flowpay.flowpayinterview.datasource.ReadFromPrimary;
+import io.flowpay.flowpayinterview.datasource.ReadWriteRoutingDataSource;
+import io.flowpay.flowpayinterview.datasource.ReplicaPool;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuration class routing read-only transactions to PostgreSQL read replicas, enabled through
+ * {@code flowpay.read-replicas.enabled}. The primary keeps being configured by the {@code spring.datasource.*}
+ * properties, the replicas by {@code flowpay.read-replicas.*}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "flowpay.read-replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    // Lower bound Hikari accepts for the connection timeout
+    private static final Duration MIN_CONNECTION_TIMEOUT = Duration.ofMillis(250);
+
+    /**
+     * Creates the connection pool of the primary, which serves all transactions that are not read-only.
+     *
+     * @param dataSourceProperties The properties of the primary.
+     * @return The connection pool of the primary.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Creates the connection pools of the replicas and starts their periodic health checks.
+     * Waiting for a connection of a replica is bounded by the check interval, so requests hitting a replica
+     * that just went down fail fast rather than hanging until it is ejected.
+     *
+     * @param dataSourceProperties The properties of the primary, supplying the default credentials.
+     * @param flowpayProperties    The application properties holding the replica settings.
+     * @param meterRegistry        The registry the metrics of the replica connection pools are recorded in, if any.
+     * @return The pool of replicas.
+     */
+    @Bean(destroyMethod = "close")
+    public ReplicaPool replicaPool(DataSourceProperties dataSourceProperties, FlowpayProperties flowpayProperties,
+                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        FlowpayProperties.ReadReplicas properties = flowpayProperties.getReadReplicas();
+        Duration interval = properties.getHealthCheckInterval();
+        Duration connectionTimeout = interval.compareTo(MIN_CONNECTION_TIMEOUT) < 0 ? MIN_CONNECTION_TIMEOUT : interval;
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<FlowpayProperties.ReadReplicas.Replica> nodes = properties.getNodes();
+        for (int i = 0; i < nodes.size(); i++) {
+            FlowpayProperties.ReadReplicas.Replica node = nodes.get(i);
+            String name = "replica-" + (i + 1);
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName(name);
+            replica.setJdbcUrl(node.getUrl());
+            replica.setUsername(node.getUsername() != null ? node.getUsername() : dataSourceProperties.determineUsername());
+            replica.setPassword(node.getPassword() != null ? node.getPassword() : dataSourceProperties.determinePassword());
+            replica.setReadOnly(true);
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            // Replicas that are down at startup are ejected by the health check instead of failing the startup.
+            replica.setInitializationFailTimeout(-1);
+            // The replica pools are no beans, so their metrics are not bound automatically like the primary's.
+            meterRegistry.ifAvailable(registry -> replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.put(name, replica);
+        }
+
+        ReplicaPool replicaPool = new ReplicaPool(replicas, properties.getLagQuery(), properties.getMaxLag(), interval);
+        replicaPool.start(interval);
+        return replicaPool;
+    }
+
+    /**
+     * Creates the data source used by JPA, JDBC and Liquibase, routing each transaction to the primary
+     * or one of the replicas once its read-only flag is known.
+     *
+     * @param primaryDataSource The connection pool of the primary.
+     * @param replicaPool       The pool of replicas.
+     * @return The routing data source.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaPool replicaPool) {
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(primaryDataSource, replicaPool);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * Creates the aspect sending the reads of the methods annotated with {@link ReadFromPrimary} to the primary.
+     *
+     * @return The aspect routing the reads to the primary.
+     */
+    @Bean
+    public PrimaryReadRouting primaryReadRouting() {
+        return new PrimaryReadRouting();
+    }
+}
@@ -0,0 +1,55 @@
+package io.flowpay.flowpayinterview.config;
+
+import io.flowpay.flowpayinterview.monitoring.StatementCountingFilter;
+import io.flowpay.flowpayinterview.monitoring.StatementCountingIntegrator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.List;
+
+/**
+ * Configuration class for counting the SQL statements and collection initializations of each HTTP request,
+ * enabled through {@code flowpay.statement-counter.enabled}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "flowpay.statement-counter", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class StatementCounterConfig {
+
+    /**
+     * Registers the statement inspector and the collection initialization listener with Hibernate.
+     *
+     * @return HibernatePropertiesCustomizer instance adding the counting hooks.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer statementCountingHibernateCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, StatementCountingIntegrator.STATEMENT_INSPECTOR);
+            properties.put("hibernate.integrator_provider",
+                    (IntegratorProvider) () -> List.of(new StatementCountingIntegrator()));
+        };
+    }
+
+    /**
+     * Registers the filter counting the statements, ahead of all other filters so that its window
+     * covers everything done while serving the request.
+     *
+     * @param flowpayProperties The application properties holding the counter settings.
+     * @param meterRegistry     The registry the counts per endpoint are recorded in.
+     * @return FilterRegistrationBean instance registering the filter.
+     */
+    @Bean
+    public FilterRegistrationBean<StatementCountingFilter> statementCountingFilter(FlowpayProperties flowpayProperties,
+                                                                                   MeterRegistry meterRegistry) {
+        FilterRegistrationBean<StatementCountingFilter> registration =
+                new FilterRegistrationBean<>(new StatementCountingFilter(flowpayProperties, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,85 @@
+package io.flowpay.flowpayinterview.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.flowpay.flowpayinterview.datasource.ReplicaPool;
+import io.flowpay.flowpayinterview.datasource.TransactionConcurrencyLimiter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Configuration class for serving requests on virtual threads, active with {@code spring.threads.virtual.enabled}
+ * on Java 21 (e.g. through the {@code virtual-threads} profile). Spring Boot moves the request handling onto
+ * virtual threads; this class bounds how many of them run transactions at once.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    // Pool size assumed for a connection pool that is not a HikariCP pool
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    /**
+     * Creates the aspect limiting the concurrent transactions.
+     * Unless configured, the limit is the number of connections the transactions can be routed to: the maximum
+     * size of the primary connection pool plus those of the read replica pools, since a transaction holds
+     * a connection from its first statement to its end. The limit is shared by reads and writes, so writes
+     * may still queue in the primary pool while the replicas have connections to spare.
+     *
+     * @param flowpayProperties The application properties holding the limit and the permit timeout.
+     * @param dataSources       The HikariCP pools, of which the primary one sizes the default limit.
+     * @param replicaPool       The pool of read replicas, if routing to replicas is enabled.
+     * @param meterRegistry     The registry the active and waiting transactions are reported to.
+     * @return TransactionConcurrencyLimiter instance limiting the transactional service calls.
+     */
+    @Bean
+    public TransactionConcurrencyLimiter transactionConcurrencyLimiter(FlowpayProperties flowpayProperties,
+                                                                       ObjectProvider<HikariDataSource> dataSources,
+                                                                       ObjectProvider<ReplicaPool> replicaPool,
+                                                                       MeterRegistry meterRegistry) {
+        FlowpayProperties.VirtualThreads settings = flowpayProperties.getVirtualThreads();
+        int limit = settings.getMaxConcurrentTransactions();
+        if (limit > 0) {
+            log.info("Limiting concurrent transactions to {} as configured", limit);
+        } else {
+            limit = poolSize(dataSources.getIfUnique(), "primary");
+            ReplicaPool replicas = replicaPool.getIfAvailable();
+            int replicaConnections = 0;
+            if (replicas != null) {
+                for (Map.Entry<String, DataSource> replica : replicas.getReplicas().entrySet()) {
+                    replicaConnections += poolSize(replica.getValue(), replica.getKey());
+                }
+            }
+            limit += replicaConnections;
+            log.info("Limiting concurrent transactions to {}, the connections of the primary and {} of the replicas",
+                    limit, replicaConnections);
+        }
+        TransactionConcurrencyLimiter limiter = new TransactionConcurrencyLimiter(limit, settings.getPermitTimeout());
+        Gauge.builder("flowpay.transactions.active", limiter, TransactionConcurrencyLimiter::getActive)
+                .description("Transactions holding a permit of the concurrency limiter")
+                .register(meterRegistry);
+        Gauge.builder("flowpay.transactions.waiting", limiter, TransactionConcurrencyLimiter::getWaiting)
+                .description("Transactions waiting for a permit of the concurrency limiter")
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    private static int poolSize(DataSource dataSource, String name) {
+        if (dataSource instanceof HikariDataSource pool) {
+            return pool.getMaximumPoolSize();
+        }
+        log.warn("The {} connection pool is not a single HikariCP pool, assuming {} connections", name, DEFAULT_POOL_SIZE);
+        return DEFAULT_POOL_SIZE;
+    }
+}
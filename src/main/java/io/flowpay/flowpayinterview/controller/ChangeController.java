@@ -0,0 +1,117 @@
+package io.flowpay.flowpayinterview.controller;
+
+import io.flowpay.flowpayinterview.config.ApiUrls;
+import io.flowpay.flowpayinterview.config.FlowpayProperties;
+import io.flowpay.flowpayinterview.model.dto.ChangeDTO;
+import io.flowpay.flowpayinterview.model.dto.ChangePageDTO;
+import io.flowpay.flowpayinterview.service.ChangeService;
+import io.flowpay.flowpayinterview.service.ChangeStream;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/**
+ * Controller for the incremental change feed of companies and representatives.
+ * Lets replicas synchronize by reading the changes since their last synchronization instead of all entities,
+ * and dashboards follow the changes live as Server-Sent Events.
+ */
+@RestController
+@RequestMapping(ApiUrls.URL_CHANGES)
+public class ChangeController {
+
+    private final ChangeService changeService;
+    private final ChangeStream changeStream;
+    private final FlowpayProperties flowpayProperties;
+
+    public ChangeController(ChangeService changeService, ChangeStream changeStream, FlowpayProperties flowpayProperties) {
+        this.changeService = changeService;
+        this.changeStream = changeStream;
+        this.flowpayProperties = flowpayProperties;
+    }
+
+    /**
+     * Endpoint to read the changes of companies and representatives following a sequence number.
+     *
+     * @param since The sequence number of the last change already processed; omitted to read from the start.
+     * @param limit The requested number of changes; capped at the configured maximum.
+     * @return A {@link ResponseEntity} containing the {@link ChangePageDTO} and HTTP status code.
+     */
+    @Operation(summary = "Get changes since a sequence number", description = "Retrieves the changed and deleted companies and representatives in the order the changes were committed. The current state of the changed entities is read through the lookup endpoints. Pass the returned nextSince to fetch the following changes.")
+    @GetMapping
+    public ResponseEntity<ChangePageDTO> getChanges(@Parameter(description = "Sequence number of the last change already processed")
+                                                    @RequestParam(required = false) Long since,
+                                                    @Parameter(description = "Maximum number of changes to return")
+                                                    @RequestParam(required = false) Integer limit) {
+        ChangePageDTO page = changeService.getChanges(since, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Endpoint to subscribe to the changes of companies and representatives as Server-Sent Events.
+     * Each change is sent as a {@code change} event carrying its sequence number as the event ID, so a reconnecting
+     * {@code EventSource} resumes after the last change it received.
+     *
+     * @param companyId   The ID of the company whose changes are streamed; omitted to stream all changes.
+     * @param since       The sequence number of the last change already processed; omitted to start now.
+     * @param lastEventId The ID of the last event received before reconnecting; takes precedence over {@code since}.
+     * @return The {@link SseEmitter} sending the events.
+     */
+    @Operation(summary = "Subscribe to changes", description = "Streams the changes of companies and representatives, or of a single company, as Server-Sent Events once they are committed. Starts with an open event, followed by a change event per change with its sequence number as the event ID. A subscriber falling too far behind receives an overflow event and is disconnected; reconnecting with the Last-Event-ID header resumes after the last change received.")
+    @GetMapping(value = ApiUrls.URL_CHANGES_STREAM, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@Parameter(description = "ID of the company whose changes are streamed")
+                                    @RequestParam(required = false) Long companyId,
+                                    @Parameter(description = "Sequence number of the last change already processed")
+                                    @RequestParam(required = false) Long since,
+                                    @Parameter(description = "ID of the last event received, sent by reconnecting clients")
+                                    @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(flowpayProperties.getChanges().getStreamTimeout().toMillis());
+        ChangeStream.Subscription subscription = changeStream.subscribe(companyId,
+                lastEventId != null ? lastEventId : since, new EmitterSink(emitter));
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(error -> subscription.cancel());
+        return emitter;
+    }
+
+    /**
+     * Sends the changes of a subscription as Server-Sent Events.
+     */
+    private static class EmitterSink implements ChangeStream.Sink {
+
+        private final SseEmitter emitter;
+
+        EmitterSink(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void open(long since) throws IOException {
+            emitter.send(SseEmitter.event().name("open").id(Long.toString(since)).data(since));
+        }
+
+        @Override
+        public void change(ChangeDTO change) throws IOException {
+            emitter.send(SseEmitter.event().name("change").id(Long.toString(change.getSeq()))
+                    .data(change, MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void overflow(long resumeAfter) throws IOException {
+            emitter.send(SseEmitter.event().name("overflow").id(Long.toString(resumeAfter)).data(resumeAfter));
+        }
+
+        @Override
+        public void close() {
+            emitter.complete();
+        }
+    }
+}
@@ -1,19 +1,36 @@
 package io.flowpay.flowpayinterview.controller;
 
 import io.flowpay.flowpayinterview.config.ApiUrls;
+import io.flowpay.flowpayinterview.model.dto.BulkItemResultDTO;
 import io.flowpay.flowpayinterview.model.dto.CompanyDTO;
+import io.flowpay.flowpayinterview.model.dto.CompanyImportResultDTO;
+import io.flowpay.flowpayinterview.model.dto.CompanyLookupDTO;
+import io.flowpay.flowpayinterview.model.dto.CompanyNameMatch;
+import io.flowpay.flowpayinterview.model.dto.CompanyPageDTO;
+import io.flowpay.flowpayinterview.model.dto.CompanySearchPageDTO;
 import io.flowpay.flowpayinterview.model.dto.RepresentativeDTO;
+import io.flowpay.flowpayinterview.model.dto.RepresentativeTransferDTO;
+import io.flowpay.flowpayinterview.model.dto.TaggedDTO;
+import io.flowpay.flowpayinterview.service.CompanyExportService;
+import io.flowpay.flowpayinterview.service.CompanyImportService;
 import io.flowpay.flowpayinterview.service.CompanyService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
 import org.springframework.validation.annotation.Validated;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -27,9 +44,14 @@ import java.util.Set;
 public class CompanyController {
 
     private final CompanyService companyService;
+    private final CompanyExportService companyExportService;
+    private final CompanyImportService companyImportService;
 
-    public CompanyController(CompanyService companyService) {
+    public CompanyController(CompanyService companyService, CompanyExportService companyExportService,
+                             CompanyImportService companyImportService) {
         this.companyService = companyService;
+        this.companyExportService = companyExportService;
+        this.companyImportService = companyImportService;
     }
 
     /**
@@ -45,18 +67,81 @@ public class CompanyController {
         return new ResponseEntity<>(createdCompany, HttpStatus.CREATED);
     }
 
+    /**
+     * Endpoint to create multiple companies at once.
+     *
+     * @param companies The list of {@link CompanyDTO} containing the details of the companies to be created.
+     * @return A {@link ResponseEntity} containing the per-item results and HTTP status code.
+     */
+    @Operation(summary = "Create companies in bulk", description = "Validates all provided companies and creates them in batches. Either all companies are created or none.")
+    @PostMapping(ApiUrls.URL_COMPANIES_BULK)
+    public ResponseEntity<List<BulkItemResultDTO>> createCompanies(@RequestBody List<CompanyDTO> companies) {
+        List<BulkItemResultDTO> results = companyService.createCompanies(companies);
+        return new ResponseEntity<>(results, HttpStatus.CREATED);
+    }
+
+    /**
+     * Endpoint to import companies and representatives from a CSV file.
+     * The request body is streamed into the database as it is received.
+     *
+     * @param csv The CSV file with a header and the columns company_name, first_name and last_name.
+     * @return A {@link ResponseEntity} containing the {@link CompanyImportResultDTO} and HTTP status code.
+     */
+    @Operation(summary = "Import companies from CSV", description = "Imports companies and their representatives from CSV with a header and the columns company_name, first_name and last_name. Existing companies and representatives are matched by name and reused; invalid rows are skipped and reported.")
+    @PostMapping(value = ApiUrls.URL_COMPANIES_IMPORT, consumes = "text/csv")
+    public ResponseEntity<CompanyImportResultDTO> importCompanies(InputStream csv) {
+        CompanyImportResultDTO result = companyImportService.importCsv(csv);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Endpoint to retrieve several companies by their IDs.
+     *
+     * @param ids The IDs of the companies to retrieve.
+     * @return A {@link ResponseEntity} containing the {@link CompanyLookupDTO} and HTTP status code.
+     */
+    @Operation(summary = "Get companies by IDs", description = "Retrieves the companies with the given IDs, with their representatives, in the requested order. IDs of companies that do not exist are listed as missing.")
+    @GetMapping(params = "ids")
+    public ResponseEntity<CompanyLookupDTO> getCompaniesByIds(@Parameter(description = "Comma-separated IDs of the companies to retrieve", required = true)
+                                                              @RequestParam List<Long> ids) {
+        CompanyLookupDTO lookup = companyService.getCompaniesByIds(ids);
+        return ResponseEntity.ok(lookup);
+    }
+
+    /**
+     * Endpoint to retrieve several companies by IDs passed in the request body,
+     * for lists too long for the query string.
+     *
+     * @param ids The IDs of the companies to retrieve.
+     * @return A {@link ResponseEntity} containing the {@link CompanyLookupDTO} and HTTP status code.
+     */
+    @Operation(summary = "Get companies by IDs in the request body", description = "Retrieves the companies with the IDs given as a JSON array, with their representatives, in the requested order. IDs of companies that do not exist are listed as missing.")
+    @PostMapping(ApiUrls.URL_COMPANIES_LOOKUP)
+    public ResponseEntity<CompanyLookupDTO> lookupCompanies(@RequestBody List<Long> ids) {
+        CompanyLookupDTO lookup = companyService.getCompaniesByIds(ids);
+        return ResponseEntity.ok(lookup);
+    }
+
     /**
      * Endpoint to retrieve a company by its ID.
      *
      * @param id The ID of the company to retrieve.
-     * @return A {@link ResponseEntity} containing the {@link CompanyDTO} and HTTP status code.
+     * @param request The web request, carrying the {@code If-None-Match} header of a revalidation.
+     * @return A {@link ResponseEntity} containing the {@link CompanyDTO} and HTTP status code,
+     *         or {@code null} once answered with 304 Not Modified.
      */
-    @Operation(summary = "Get a company by ID", description = "Retrieves a company using its unique identifier.")
+    @Operation(summary = "Get a company by ID", description = "Retrieves a company using its unique identifier. Answers 304 Not Modified when If-None-Match carries the current ETag.")
     @GetMapping(ApiUrls.URL_COMPANIES_BY_ID)
     public ResponseEntity<CompanyDTO> getCompanyById(@Parameter(description = "ID of the company to retrieve", required = true)
-                                                     @PathVariable Long id) {
-        CompanyDTO company = companyService.getCompanyById(id);
-        return ResponseEntity.ok(company);
+                                                     @PathVariable Long id,
+                                                     WebRequest request) {
+        // A revalidation reads the versions only; the company is loaded, or taken from the cache, once it changed.
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(companyService.getCompanyETag(id))) {
+            return null;
+        }
+        TaggedDTO<CompanyDTO> company = companyService.getTaggedCompanyById(id);
+        return ResponseEntity.ok().eTag(company.getETag()).body(company.getContent());
     }
 
     /**
@@ -73,6 +158,29 @@ public class CompanyController {
         return ResponseEntity.ok(companies);
     }
 
+    /**
+     * Endpoint to search companies by name, e.g. for type-ahead suggestions.
+     *
+     * @param query The text to search for.
+     * @param match How the name is matched against the query; prefix matching by default.
+     * @param page The zero-based number of the page.
+     * @param size The requested page size; capped at the configured maximum.
+     * @return A {@link ResponseEntity} containing the {@link CompanySearchPageDTO} and HTTP status code.
+     */
+    @Operation(summary = "Search companies by name", description = "Finds companies whose name starts with, contains or is similar to the query, ignoring case. Substring and fuzzy results are ranked by similarity.")
+    @GetMapping(ApiUrls.URL_COMPANIES_SEARCH)
+    public ResponseEntity<CompanySearchPageDTO> searchCompanies(@Parameter(description = "Text to search for", required = true)
+                                                                @RequestParam String query,
+                                                                @Parameter(description = "How the name is matched against the query")
+                                                                @RequestParam(required = false) CompanyNameMatch match,
+                                                                @Parameter(description = "Zero-based number of the page")
+                                                                @RequestParam(required = false) Integer page,
+                                                                @Parameter(description = "Maximum number of companies to return")
+                                                                @RequestParam(required = false) Integer size) {
+        CompanySearchPageDTO result = companyService.searchCompanies(query, match, page, size);
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Endpoint to retrieve companies without any assigned representatives.
      *
@@ -86,44 +194,96 @@ public class CompanyController {
     }
 
     /**
-     * Endpoint to retrieve all companies.
+     * Endpoint to retrieve all companies, limited by a hard row cap.
      *
      * @return A {@link ResponseEntity} containing a list of all {@link CompanyDTO} and HTTP status code.
      */
-    @Operation(summary = "Get all companies", description = "Retrieves all existing companies.")
+    @Operation(summary = "Get all companies", description = "Retrieves all existing companies up to a configured row cap. Use the paginated endpoint for larger data sets.")
     @GetMapping(ApiUrls.URL_COMPANIES_ALL)
     public ResponseEntity<List<CompanyDTO>> getAllCompanies() {
         List<CompanyDTO> companies = companyService.getAllCompanies();
         return ResponseEntity.ok(companies);
     }
 
+    /**
+     * Endpoint to page through all companies in ID order.
+     *
+     * @param cursor The cursor returned with the previous page; omitted for the first page.
+     * @param size The requested page size; capped at the configured maximum.
+     * @return A {@link ResponseEntity} containing the {@link CompanyPageDTO} and HTTP status code.
+     */
+    @Operation(summary = "Get a page of companies", description = "Retrieves companies ordered by ID using keyset pagination. Pass the returned nextCursor to fetch the following page.")
+    @GetMapping(ApiUrls.URL_COMPANIES_PAGE)
+    public ResponseEntity<CompanyPageDTO> getCompaniesPage(@Parameter(description = "Cursor returned with the previous page")
+                                                           @RequestParam(required = false) String cursor,
+                                                           @Parameter(description = "Maximum number of companies to return")
+                                                           @RequestParam(required = false) Integer size) {
+        CompanyPageDTO page = companyService.getCompaniesPage(cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Endpoint to export all companies with their representatives.
+     * The response is streamed as newline delimited JSON, one company per line.
+     *
+     * @return A {@link ResponseEntity} containing the streamed body and HTTP status code.
+     */
+    @Operation(summary = "Export all companies", description = "Streams all companies with their representatives as newline delimited JSON.")
+    @GetMapping(value = ApiUrls.URL_COMPANIES_EXPORT, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportCompanies() {
+        StreamingResponseBody body = companyExportService::exportCompanies;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     /**
      * Endpoint to update a company by its ID.
      *
      * @param id The ID of the company to update.
+     * @param ifMatch The ETag the client last read, to update the company only if it has not changed since.
      * @param company The {@link CompanyDTO} containing the updated company details.
      * @return A {@link ResponseEntity} containing the updated {@link CompanyDTO} and HTTP status code.
      */
-    @Operation(summary = "Update a company", description = "Updates the details of an existing company.")
+    @Operation(summary = "Update a company", description = "Updates the details of an existing company. With If-Match, answers 412 Precondition Failed if the company has changed.")
     @PutMapping(ApiUrls.URL_COMPANIES_BY_ID)
     public ResponseEntity<CompanyDTO> updateCompany(@Parameter(description = "ID of the company to update", required = true)
                                                     @PathVariable Long id,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                                     @Valid @RequestBody CompanyDTO company) {
-        CompanyDTO updatedCompany = companyService.updateCompany(id, company);
+        CompanyDTO updatedCompany = companyService.updateCompany(id, company, ifMatch);
         return ResponseEntity.ok(updatedCompany);
     }
 
+    /**
+     * Endpoint to partially update a company by its ID with a JSON Merge Patch document.
+     *
+     * @param id The ID of the company to update.
+     * @param patch The merge patch document containing the fields to change.
+     * @return A {@link ResponseEntity} with HTTP status code indicating the outcome of the operation.
+     */
+    @Operation(summary = "Partially update a company", description = "Changes the fields given in a JSON Merge Patch document with a single update, without reading the company. Only the name can be patched.")
+    @PatchMapping(value = ApiUrls.URL_COMPANIES_BY_ID, consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Void> patchCompany(@Parameter(description = "ID of the company to update", required = true)
+                                             @PathVariable Long id,
+                                             @RequestBody Map<String, Object> patch) {
+        companyService.patchCompany(id, patch);
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Endpoint to delete a company by its ID.
      *
      * @param id The ID of the company to delete.
+     * @param ifMatch The ETag the client last read, to delete the company only if it has not changed since.
      * @return A {@link ResponseEntity} with HTTP status code indicating the outcome of the operation.
      */
-    @Operation(summary = "Delete a company", description = "Deletes a company using its unique identifier.")
+    @Operation(summary = "Delete a company", description = "Deletes a company using its unique identifier. With If-Match, answers 412 Precondition Failed if the company has changed.")
     @DeleteMapping(ApiUrls.URL_COMPANIES_BY_ID)
     public ResponseEntity<Void> deleteCompany(@Parameter(description = "ID of the company to delete", required = true)
-                                              @PathVariable Long id) {
-        companyService.deleteCompany(id);
+                                              @PathVariable Long id,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        companyService.deleteCompany(id, ifMatch);
         return ResponseEntity.noContent().build();
     }
 
@@ -134,7 +294,9 @@ public class CompanyController {
      * @param representativeId The ID of the representative to be assigned to the company.
      * @return A {@link ResponseEntity} with the updated {@link CompanyDTO} containing the assigned representative.
      */
-    @Operation(summary = "Assign a representative to a company", description = "Assigns an existing representative to an existing company.")
+    @Operation(summary = "Assign a representative to a company", description = "Assigns an existing representative to an existing company. Assigning an already assigned representative has no effect.")
+    @ApiResponse(responseCode = "200", description = "The company with the assigned representative")
+    @ApiResponse(responseCode = "404", description = "The company or the representative does not exist")
     @PostMapping(ApiUrls.URL_ASSIGN_REPRESENTATIVE_TO_COMPANY)
     public ResponseEntity<CompanyDTO> assignRepresentativeToCompany(
             @Parameter(description = "ID of the company to which the representative will be assigned", required = true)
@@ -167,15 +329,23 @@ public class CompanyController {
      * Retrieves all representatives associated with a specific company.
      *
      * @param companyId The ID of the company for which to retrieve all representatives.
-     * @return A {@link ResponseEntity} with a set of {@link RepresentativeDTO} for the specified company.
+     * @param request The web request, carrying the {@code If-None-Match} header of a revalidation.
+     * @return A {@link ResponseEntity} with a set of {@link RepresentativeDTO} for the specified company,
+     *         or {@code null} once answered with 304 Not Modified.
      */
-    @Operation(summary = "Get all representatives for a company", description = "Retrieves all representatives associated with a specific company.")
+    @Operation(summary = "Get all representatives for a company", description = "Retrieves all representatives associated with a specific company. Answers 304 Not Modified when If-None-Match carries the current ETag of the company.")
     @GetMapping(ApiUrls.URL_COMPANY_REPRESENTATIVES_ALL)
     public ResponseEntity<Set<RepresentativeDTO>> getAllRepresentativesForCompany(
             @Parameter(description = "ID of the company for which to retrieve all representatives", required = true)
-            @PathVariable Long companyId) {
-        Set<RepresentativeDTO> representatives = companyService.getAllRepresentativesForCompany(companyId);
-        return new ResponseEntity<>(representatives, HttpStatus.OK);
+            @PathVariable Long companyId,
+            WebRequest request) {
+        // Only a revalidation reads the tag on its own; otherwise it is computed from the loaded representatives.
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(companyService.getCompanyETag(companyId))) {
+            return null;
+        }
+        TaggedDTO<Set<RepresentativeDTO>> representatives = companyService.getTaggedRepresentativesForCompany(companyId);
+        return ResponseEntity.ok().eTag(representatives.getETag()).body(representatives.getContent());
     }
 
     /**
@@ -198,5 +368,17 @@ public class CompanyController {
         companyService.transferRepresentative(currentCompanyId, newCompanyId, representativeId);
         return ResponseEntity.noContent().build();
     }
-}
 
+    /**
+     * Transfers several representatives from one company to another at once.
+     *
+     * @param transfer The {@link RepresentativeTransferDTO} describing the companies and the representatives to transfer.
+     * @return A {@link ResponseEntity} with HTTP status code indicating the outcome of the operation.
+     */
+    @Operation(summary = "Transfer representatives to another company", description = "Transfers several representatives from one company to another. Either all representatives are transferred or none.")
+    @PostMapping(ApiUrls.URL_TRANSFER_REPRESENTATIVES_BETWEEN_COMPANIES)
+    public ResponseEntity<Void> transferRepresentatives(@Valid @RequestBody RepresentativeTransferDTO transfer) {
+        companyService.transferRepresentatives(transfer);
+        return ResponseEntity.noContent().build();
+    }
+}
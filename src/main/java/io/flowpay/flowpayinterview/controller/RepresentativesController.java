@@ -1,17 +1,24 @@
 package io.flowpay.flowpayinterview.controller;
 
 import io.flowpay.flowpayinterview.config.ApiUrls;
+import io.flowpay.flowpayinterview.model.dto.BulkItemResultDTO;
 import io.flowpay.flowpayinterview.model.dto.RepresentativeDTO;
+import io.flowpay.flowpayinterview.model.dto.RepresentativeLookupDTO;
+import io.flowpay.flowpayinterview.model.dto.TaggedDTO;
 import io.flowpay.flowpayinterview.service.RepresentativeService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import jakarta.validation.Valid;
 import org.springframework.validation.annotation.Validated;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -42,18 +49,64 @@ public class RepresentativesController {
         return new ResponseEntity<>(createdRepresentative, HttpStatus.CREATED);
     }
 
+    /**
+     * Creates multiple representatives at once.
+     *
+     * @param representatives DTOs containing the details of the representatives to be created.
+     * @return ResponseEntity containing the per-item results.
+     */
+    @Operation(summary = "Create representatives in bulk", description = "Validates all provided representatives and creates them in batches. Either all representatives are created or none.")
+    @PostMapping(ApiUrls.URL_REPRESENTATIVES_BULK)
+    public ResponseEntity<List<BulkItemResultDTO>> createRepresentatives(@RequestBody List<RepresentativeDTO> representatives) {
+        List<BulkItemResultDTO> results = representativeService.createRepresentatives(representatives);
+        return new ResponseEntity<>(results, HttpStatus.CREATED);
+    }
+
     /**
      * Retrieves a representative by ID.
      *
      * @param id The ID of the representative to retrieve.
-     * @return ResponseEntity containing the representative DTO.
+     * @param request The web request, carrying the {@code If-None-Match} header of a revalidation.
+     * @return ResponseEntity containing the representative DTO, or {@code null} once answered with 304 Not Modified.
      */
-    @Operation(summary = "Get a representative by ID", description = "Retrieves a representative using its unique identifier.")
+    @Operation(summary = "Get a representative by ID", description = "Retrieves a representative using its unique identifier. Answers 304 Not Modified when If-None-Match carries the current ETag.")
     @GetMapping(ApiUrls.URL_REPRESENTATIVES_BY_ID)
     public ResponseEntity<RepresentativeDTO> getRepresentativeById(@Parameter(description = "ID of the representative to retrieve", required = true)
-                                                                   @PathVariable Long id) {
-        RepresentativeDTO representative = representativeService.getRepresentativeById(id);
-        return ResponseEntity.ok(representative);
+                                                                   @PathVariable Long id,
+                                                                   WebRequest request) {
+        // The tag is cached with the representative, so a revalidation of a cached representative needs no query at all.
+        TaggedDTO<RepresentativeDTO> representative = representativeService.getTaggedRepresentativeById(id);
+        if (request.checkNotModified(representative.getETag())) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(representative.getETag()).body(representative.getContent());
+    }
+
+    /**
+     * Retrieves several representatives by their IDs.
+     *
+     * @param ids The IDs of the representatives to retrieve.
+     * @return ResponseEntity containing the found representatives and the missing IDs.
+     */
+    @Operation(summary = "Get representatives by IDs", description = "Retrieves the representatives with the given IDs in the requested order. IDs of representatives that do not exist are listed as missing.")
+    @GetMapping(params = "ids")
+    public ResponseEntity<RepresentativeLookupDTO> getRepresentativesByIds(@Parameter(description = "Comma-separated IDs of the representatives to retrieve", required = true)
+                                                                           @RequestParam List<Long> ids) {
+        RepresentativeLookupDTO lookup = representativeService.getRepresentativesByIds(ids);
+        return ResponseEntity.ok(lookup);
+    }
+
+    /**
+     * Retrieves several representatives by IDs passed in the request body, for lists too long for the query string.
+     *
+     * @param ids The IDs of the representatives to retrieve.
+     * @return ResponseEntity containing the found representatives and the missing IDs.
+     */
+    @Operation(summary = "Get representatives by IDs in the request body", description = "Retrieves the representatives with the IDs given as a JSON array in the requested order. IDs of representatives that do not exist are listed as missing.")
+    @PostMapping(ApiUrls.URL_REPRESENTATIVES_LOOKUP)
+    public ResponseEntity<RepresentativeLookupDTO> lookupRepresentatives(@RequestBody List<Long> ids) {
+        RepresentativeLookupDTO lookup = representativeService.getRepresentativesByIds(ids);
+        return ResponseEntity.ok(lookup);
     }
 
     /**
@@ -89,29 +142,62 @@ public class RepresentativesController {
      * Updates an existing representative.
      *
      * @param id The ID of the representative to update.
+     * @param ifMatch The ETag the client last read, to update the representative only if it has not changed since.
      * @param representative DTO containing the updated representative details.
      * @return ResponseEntity containing the updated representative DTO.
      */
-    @Operation(summary = "Update a representative", description = "Updates the details of an existing representative.")
+    @Operation(summary = "Update a representative", description = "Updates the details of an existing representative. With If-Match, answers 412 Precondition Failed if the representative has changed.")
     @PutMapping(ApiUrls.URL_REPRESENTATIVES_BY_ID)
     public ResponseEntity<RepresentativeDTO> updateRepresentative(@Parameter(description = "ID of the representative to update", required = true)
                                                                   @PathVariable Long id,
+                                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                                                   @Valid @RequestBody RepresentativeDTO representative) {
-        RepresentativeDTO updatedRepresentative = representativeService.updateRepresentative(id, representative);
+        RepresentativeDTO updatedRepresentative = representativeService.updateRepresentative(id, representative, ifMatch);
         return ResponseEntity.ok(updatedRepresentative);
     }
 
+    /**
+     * Partially updates a representative with a JSON Merge Patch document.
+     *
+     * @param id The ID of the representative to update.
+     * @param patch The merge patch document containing the fields to change.
+     * @return ResponseEntity with HTTP status indicating the outcome.
+     */
+    @Operation(summary = "Partially update a representative", description = "Changes the fields given in a JSON Merge Patch document with a single update, without reading the representative. The first and last name can be patched.")
+    @PatchMapping(value = ApiUrls.URL_REPRESENTATIVES_BY_ID, consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Void> patchRepresentative(@Parameter(description = "ID of the representative to update", required = true)
+                                                    @PathVariable Long id,
+                                                    @RequestBody Map<String, Object> patch) {
+        representativeService.patchRepresentative(id, patch);
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Deletes a representative by ID.
      *
      * @param id The ID of the representative to delete.
+     * @param ifMatch The ETag the client last read, to delete the representative only if it has not changed since.
      * @return ResponseEntity with HTTP status indicating the outcome.
      */
-    @Operation(summary = "Delete a representative", description = "Deletes a representative using its unique identifier.")
+    @Operation(summary = "Delete a representative", description = "Deletes a representative using its unique identifier. With If-Match, answers 412 Precondition Failed if the representative has changed.")
     @DeleteMapping(ApiUrls.URL_REPRESENTATIVES_BY_ID)
     public ResponseEntity<Void> deleteRepresentative(@Parameter(description = "ID of the representative to delete", required = true)
-                                                     @PathVariable Long id) {
-        representativeService.deleteRepresentative(id);
+                                                     @PathVariable Long id,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        representativeService.deleteRepresentative(id, ifMatch);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Deletes multiple representatives by their IDs.
+     *
+     * @param ids The IDs of the representatives to delete.
+     * @return ResponseEntity with HTTP status indicating the outcome.
+     */
+    @Operation(summary = "Delete representatives in bulk", description = "Deletes the representatives with the given IDs along with their company assignments. IDs of representatives that do not exist are ignored.")
+    @DeleteMapping
+    public ResponseEntity<Void> deleteRepresentatives(@RequestBody List<Long> ids) {
+        representativeService.deleteRepresentatives(ids);
         return ResponseEntity.noContent().build();
     }
 }
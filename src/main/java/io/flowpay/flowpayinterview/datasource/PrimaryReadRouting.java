@@ -0,0 +1,34 @@
+package io.flowpay.flowpayinterview.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+
+/**
+ * Aspect sending the connections of the methods annotated with {@link ReadFromPrimary} to the primary,
+ * by flagging the calling thread for the {@link ReadWriteRoutingDataSource} while the method runs.
+ * <p>
+ * Ordered before the transaction interceptor, so that the flag is set when the connection is fetched.
+ */
+@Aspect
+public class PrimaryReadRouting implements Ordered {
+
+    @Around("@annotation(io.flowpay.flowpayinterview.datasource.ReadFromPrimary)")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (ReadWriteRoutingDataSource.isPrimaryRead()) {
+            return joinPoint.proceed();
+        }
+        ReadWriteRoutingDataSource.setPrimaryRead(true);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReadWriteRoutingDataSource.setPrimaryRead(false);
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+}
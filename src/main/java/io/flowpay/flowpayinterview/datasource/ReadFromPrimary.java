@@ -0,0 +1,21 @@
+package io.flowpay.flowpayinterview.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read-only transactional method whose reads must be served by the primary even when replicas are enabled,
+ * because their result outlives the request: it is cached, or compared against the state of later writes.
+ * A lagging replica could otherwise answer with a row the primary has already updated, and the caches would
+ * keep serving it after the eviction that followed the update.
+ * <p>
+ * Only takes effect when the method starts the transaction, or joins one that has not fetched its connection yet.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadFromPrimary {
+}
@@ -0,0 +1,55 @@
+package io.flowpay.flowpayinterview.datasource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Data source sending the connections of read-only transactions to a healthy replica of the pool,
+ * and all other connections to the primary. Falls back to the primary while no replica is healthy.
+ * Read-only transactions of methods annotated with {@link ReadFromPrimary} are sent to the primary as well.
+ * <p>
+ * The read-only flag of a transaction is only known once it has begun, so this data source must be
+ * wrapped in a {@link LazyConnectionDataSourceProxy}, which defers fetching the connection until the
+ * first statement is executed.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> PRIMARY_READ = new ThreadLocal<>();
+
+    private final ReplicaPool replicaPool;
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaPool replicaPool) {
+        this.replicaPool = replicaPool;
+        Map<Object, Object> targets = new HashMap<>(replicaPool.getReplicas());
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || isPrimaryRead()) {
+            return PRIMARY;
+        }
+        return replicaPool.next().orElse(PRIMARY);
+    }
+
+    static boolean isPrimaryRead() {
+        return PRIMARY_READ.get() != null;
+    }
+
+    static void setPrimaryRead(boolean primaryRead) {
+        if (primaryRead) {
+            PRIMARY_READ.set(Boolean.TRUE);
+        } else {
+            PRIMARY_READ.remove();
+        }
+    }
+}
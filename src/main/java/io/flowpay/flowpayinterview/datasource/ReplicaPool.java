@@ -0,0 +1,160 @@
+package io.flowpay.flowpayinterview.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of read replicas, handing out the healthy ones in round-robin order.
+ * <p>
+ * A background task periodically checks every replica: a replica that cannot be reached, or whose
+ * replication lag exceeds the allowed maximum, is ejected until a later check finds it healthy again.
+ * The set of healthy replicas is replaced as a whole on every check, so callers never need a lock.
+ */
+public class ReplicaPool implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaPool.class);
+
+    private final Map<String, DataSource> replicas;
+    private final String lagQuery;
+    private final Duration maxLag;
+    private final int checkTimeoutSeconds;
+
+    private final AtomicInteger counter = new AtomicInteger();
+    private volatile List<String> healthy = List.of();
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param replicas     The data sources of the replicas keyed by their names, in round-robin order.
+     * @param lagQuery     The query returning the replication lag in seconds, or blank to only check connectivity.
+     * @param maxLag       The maximum replication lag of a healthy replica.
+     * @param checkTimeout The time after which a single check of a replica is considered failed.
+     */
+    public ReplicaPool(Map<String, DataSource> replicas, String lagQuery, Duration maxLag, Duration checkTimeout) {
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        this.checkTimeoutSeconds = (int) Math.max(1, checkTimeout.toSeconds());
+    }
+
+    /**
+     * Returns the data sources of all replicas, healthy or not, keyed by their names.
+     */
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Returns the names of the replicas found healthy by the last check.
+     */
+    public List<String> getHealthy() {
+        return healthy;
+    }
+
+    /**
+     * Picks the next healthy replica in round-robin order.
+     *
+     * @return The name of the replica, or empty if no replica is healthy.
+     */
+    public Optional<String> next() {
+        List<String> current = healthy;
+        if (current.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(current.get(Math.floorMod(counter.getAndIncrement(), current.size())));
+    }
+
+    /**
+     * Checks all replicas and replaces the set of healthy ones, logging the replicas ejected or restored.
+     */
+    public void checkHealth() {
+        List<String> previous = healthy;
+        List<String> current = replicas.keySet().stream()
+                .filter(this::isHealthy)
+                .toList();
+        healthy = current;
+        for (String name : replicas.keySet()) {
+            if (previous.contains(name) && !current.contains(name)) {
+                log.warn("Replica {} ejected from the read pool", name);
+            } else if (!previous.contains(name) && current.contains(name)) {
+                log.info("Replica {} serving reads", name);
+            }
+        }
+    }
+
+    /**
+     * Checks the replicas once and then periodically in a background thread.
+     *
+     * @param interval The delay between the end of a check and the start of the next one.
+     */
+    public synchronized void start(Duration interval) {
+        checkHealth();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::checkHealth, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the health checks and closes the data sources of the replicas.
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        for (DataSource dataSource : replicas.values()) {
+            if (dataSource instanceof Closeable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close replica data source", e);
+                }
+            }
+        }
+    }
+
+    private boolean isHealthy(String name) {
+        try (Connection connection = replicas.get(name).getConnection()) {
+            if (!StringUtils.hasText(lagQuery)) {
+                return connection.isValid(checkTimeoutSeconds);
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(checkTimeoutSeconds);
+                try (ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                    if (!resultSet.next()) {
+                        return false;
+                    }
+                    double lagSeconds = resultSet.getDouble(1);
+                    // A NULL lag means the replica has not replayed any transaction yet.
+                    if (resultSet.wasNull() || lagSeconds * 1000 > maxLag.toMillis()) {
+                        log.debug("Replica {} lags behind the primary by {} s", name, lagSeconds);
+                        return false;
+                    }
+                    return true;
+                }
+            }
+        } catch (SQLException e) {
+            log.debug("Health check of replica {} failed", name, e);
+            return false;
+        }
+    }
+}
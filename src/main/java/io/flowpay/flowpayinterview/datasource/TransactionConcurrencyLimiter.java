@@ -0,0 +1,76 @@
+package io.flowpay.flowpayinterview.datasource;
+
+import io.flowpay.flowpayinterview.exception.ConcurrencyLimitExceededException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aspect bounding the number of transactional service calls running at once, sized to the JDBC connection pool.
+ * Excess calls wait for a permit before their transaction begins, rather than inside the connection pool
+ * while holding whatever they acquired before. Nested transactional calls reuse the permit of the outermost one,
+ * so a thread never waits for a second permit while holding one.
+ * <p>
+ * Ordered before the transaction interceptor, so that the permit is held for the whole transaction.
+ */
+@Aspect
+public class TransactionConcurrencyLimiter implements Ordered {
+
+    private static final ThreadLocal<Boolean> HOLDS_PERMIT = new ThreadLocal<>();
+
+    private final Semaphore permits;
+    private final int maxConcurrentTransactions;
+    private final long timeoutNanos;
+
+    public TransactionConcurrencyLimiter(int maxConcurrentTransactions, Duration timeout) {
+        this.permits = new Semaphore(maxConcurrentTransactions, true);
+        this.maxConcurrentTransactions = maxConcurrentTransactions;
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    @Around("@within(org.springframework.transaction.annotation.Transactional) "
+            + "|| @annotation(org.springframework.transaction.annotation.Transactional)")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (HOLDS_PERMIT.get() != null) {
+            return joinPoint.proceed();
+        }
+        if (!permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+            throw new ConcurrencyLimitExceededException("Too many concurrent requests, please retry later");
+        }
+        HOLDS_PERMIT.set(Boolean.TRUE);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            HOLDS_PERMIT.remove();
+            permits.release();
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    /**
+     * Returns the number of transactions currently running.
+     */
+    public int getActive() {
+        return maxConcurrentTransactions - permits.availablePermits();
+    }
+
+    /**
+     * Returns the estimated number of calls waiting for a permit.
+     */
+    public int getWaiting() {
+        return permits.getQueueLength();
+    }
+
+    public int getMaxConcurrentTransactions() {
+        return maxConcurrentTransactions;
+    }
+}
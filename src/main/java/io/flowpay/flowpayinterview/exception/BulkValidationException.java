@@ -0,0 +1,23 @@
+package io.flowpay.flowpayinterview.exception;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Thrown when one or more items of a bulk request fail validation.
+ * No item of such a request is persisted.
+ */
+@Getter
+public class BulkValidationException extends RuntimeException {
+
+    /**
+     * Validation errors, each prefixed with the index of the offending item.
+     */
+    private final List<String> details;
+
+    public BulkValidationException(List<String> details) {
+        super("Validation failed");
+        this.details = details;
+    }
+}
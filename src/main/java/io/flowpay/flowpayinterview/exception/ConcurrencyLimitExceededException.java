@@ -0,0 +1,12 @@
+package io.flowpay.flowpayinterview.exception;
+
+/**
+ * Thrown when a transaction cannot start because the configured number of concurrent transactions
+ * is exhausted for longer than the permitted wait. Nothing of such a transaction is executed.
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    public ConcurrencyLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -2,7 +2,9 @@ package io.flowpay.flowpayinterview.exception;
 
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -32,6 +34,87 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Handles invalid input supplied by the client, such as malformed cursors.
+     * Other illegal arguments are internal errors and handled as such.
+     *
+     * @param ex The caught InvalidRequestException.
+     * @param request Details about the web request that resulted in the exception.
+     * @return A ResponseEntity containing the ErrorResponse and HTTP status code.
+     */
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidRequestException(InvalidRequestException ex, WebRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(ex.getMessage(), List.of(request.getDescription(false)));
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles transfers of representatives that are not part of the company they are transferred from,
+     * or already part of the company they are transferred to.
+     *
+     * @param ex The caught TransferConflictException.
+     * @param request Details about the web request that resulted in the exception.
+     * @return A ResponseEntity containing the ErrorResponse and HTTP status code.
+     */
+    @ExceptionHandler(TransferConflictException.class)
+    public ResponseEntity<ErrorResponse> handleTransferConflictException(TransferConflictException ex, WebRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(ex.getMessage(), List.of(request.getDescription(false)));
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handles changes whose {@code If-Match} precondition does not hold for the current state of the resource.
+     *
+     * @param ex The caught PreconditionFailedException.
+     * @param request Details about the web request that resulted in the exception.
+     * @return A ResponseEntity containing the ErrorResponse and HTTP status code.
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreconditionFailedException(PreconditionFailedException ex, WebRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(ex.getMessage(), List.of(request.getDescription(false)));
+        return new ResponseEntity<>(errorResponse, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    /**
+     * Handles updates of entities that were changed by a concurrent transaction after they had been read.
+     *
+     * @param ex The caught OptimisticLockingFailureException.
+     * @param request Details about the web request that resulted in the exception.
+     * @return A ResponseEntity containing the ErrorResponse and HTTP status code.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex, WebRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse("Resource was changed concurrently", List.of(request.getDescription(false)));
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handles requests rejected because the database is saturated, so that clients back off and retry.
+     *
+     * @param ex The caught ConcurrencyLimitExceededException.
+     * @param request Details about the web request that resulted in the exception.
+     * @return A ResponseEntity containing the ErrorResponse and HTTP status code.
+     */
+    @ExceptionHandler(ConcurrencyLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleConcurrencyLimitExceededException(ConcurrencyLimitExceededException ex, WebRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(ex.getMessage(), List.of(request.getDescription(false)));
+        return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * Handles subscriptions to the change stream rejected because too many clients are subscribed.
+     *
+     * @param ex The caught SubscriptionLimitExceededException.
+     * @param request Details about the web request that resulted in the exception.
+     * @return A ResponseEntity containing the ErrorResponse and HTTP status code.
+     */
+    @ExceptionHandler(SubscriptionLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleSubscriptionLimitExceededException(SubscriptionLimitExceededException ex, WebRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(ex.getMessage(), List.of(request.getDescription(false)));
+        // Typed explicitly, as the subscribing clients only accept event streams
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).contentType(MediaType.APPLICATION_JSON).body(errorResponse);
+    }
+
     /**
      * Handles generic exceptions not specifically addressed by other exception handlers.
      *
@@ -64,6 +147,19 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handles validation failures of bulk requests, reporting the errors of all invalid items.
+     *
+     * @param ex The caught BulkValidationException.
+     * @param request Details about the web request that resulted in the exception.
+     * @return A ResponseEntity containing the validation error details and HTTP status code.
+     */
+    @ExceptionHandler(BulkValidationException.class)
+    public ResponseEntity<ErrorResponse> handleBulkValidationException(BulkValidationException ex, WebRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(ex.getMessage(), ex.getDetails());
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Handles database integrity violations, such as unique constraint violations.
      *
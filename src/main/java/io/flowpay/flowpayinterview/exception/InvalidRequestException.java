@@ -0,0 +1,16 @@
+package io.flowpay.flowpayinterview.exception;
+
+/**
+ * Thrown when a request is rejected because of the input given by the client, such as a malformed cursor,
+ * an empty patch or too many items. Other illegal arguments are programming errors and not reported as such.
+ */
+public class InvalidRequestException extends IllegalArgumentException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+
+    public InvalidRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
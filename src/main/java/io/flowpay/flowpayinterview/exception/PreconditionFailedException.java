@@ -0,0 +1,12 @@
+package io.flowpay.flowpayinterview.exception;
+
+/**
+ * Thrown when the entity tag given in an {@code If-Match} header does not match the current state
+ * of the resource to be changed, or the resource does not exist. Nothing is changed.
+ */
+public class PreconditionFailedException extends IllegalStateException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
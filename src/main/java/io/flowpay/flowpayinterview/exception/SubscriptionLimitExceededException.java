@@ -0,0 +1,12 @@
+package io.flowpay.flowpayinterview.exception;
+
+/**
+ * Thrown when a subscription to the change stream cannot be opened because the configured number
+ * of concurrent subscribers is reached.
+ */
+public class SubscriptionLimitExceededException extends RuntimeException {
+
+    public SubscriptionLimitExceededException(String message) {
+        super(message);
+    }
+}
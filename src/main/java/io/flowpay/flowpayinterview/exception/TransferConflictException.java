@@ -0,0 +1,13 @@
+package io.flowpay.flowpayinterview.exception;
+
+/**
+ * Thrown when representatives cannot be transferred because they are not part of the company
+ * they are transferred from, or already part of the company they are transferred to.
+ * No representative of such a transfer is moved.
+ */
+public class TransferConflictException extends IllegalStateException {
+
+    public TransferConflictException(String message) {
+        super(message);
+    }
+}
@@ -1,11 +1,10 @@
 package io.flowpay.flowpayinterview.mapper;
 
+import io.flowpay.flowpayinterview.exception.InvalidRequestException;
 import io.flowpay.flowpayinterview.model.dto.CompanyDTO;
 import io.flowpay.flowpayinterview.model.dto.RepresentativeDTO;
 import io.flowpay.flowpayinterview.model.entity.Company;
 import io.flowpay.flowpayinterview.model.entity.Representative;
-import org.mapstruct.AfterMapping;
-import org.mapstruct.Context;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
@@ -17,22 +16,29 @@ import java.util.stream.Collectors;
 public interface CommonMapper {
 
     CompanyDTO companyToDto(Company company);
+    @Mapping(target = "version", ignore = true)
     Company companyDtoToEntity(CompanyDTO companyDTO);
+    // Replacing the collection would delete and reinsert every join row and remove the dropped representatives
+    // as orphans; the service applies only the difference to the join table instead.
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "representatives", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateCompanyFromDto(CompanyDTO dto, @MappingTarget Company entity);
-    @AfterMapping
-    default void afterUpdateCompanyFromDto(CompanyDTO dto, @MappingTarget Company entity) {
-        if (dto.getRepresentatives() != null) {
-            Set<Representative> representatives = dto.getRepresentatives().stream()
-                    .map(this::representativeDtoToEntity)
-                    .collect(Collectors.toSet());
-            entity.setRepresentatives(representatives);
-        }
+    default Set<Long> representativeIds(CompanyDTO dto) {
+        return dto.getRepresentatives() == null ? null : dto.getRepresentatives().stream()
+                .map(representative -> {
+                    if (representative == null || representative.getId() == null) {
+                        throw new InvalidRequestException("Representatives must be referenced by ID");
+                    }
+                    return representative.getId();
+                })
+                .collect(Collectors.toSet());
     }
     RepresentativeDTO representativeToDto(Representative representative);
+    @Mapping(target = "version", ignore = true)
     Representative representativeDtoToEntity(RepresentativeDTO representativeDTO);
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateRepresentativeFromDto(RepresentativeDTO dto, @MappingTarget Representative entity);
 
 }
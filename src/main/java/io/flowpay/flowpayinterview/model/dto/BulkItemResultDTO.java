@@ -0,0 +1,28 @@
+package io.flowpay.flowpayinterview.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object representing the outcome of a single item of a bulk request.
+ */
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class BulkItemResultDTO {
+
+    /**
+     * Zero-based position of the item in the request payload.
+     */
+    private int index;
+
+    /**
+     * Unique identifier assigned to the created entity.
+     */
+    private Long id;
+}
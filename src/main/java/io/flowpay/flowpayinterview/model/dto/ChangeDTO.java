@@ -0,0 +1,39 @@
+package io.flowpay.flowpayinterview.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object representing an entry of the change log. It references the changed entity,
+ * whose current state is read through the lookup endpoints, rather than carrying it.
+ */
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class ChangeDTO {
+
+    /**
+     * Position of the entry in the change log, increasing in the order the changes were committed.
+     */
+    private long seq;
+
+    /**
+     * Type of the changed entity.
+     */
+    private ChangeEntityType entityType;
+
+    /**
+     * Unique identifier of the changed entity.
+     */
+    private Long entityId;
+
+    /**
+     * Whether the entity was deleted, in which case the entry is its tombstone.
+     */
+    private boolean deleted;
+}
@@ -0,0 +1,17 @@
+package io.flowpay.flowpayinterview.model.dto;
+
+/**
+ * The types of entities whose changes are recorded in the change log.
+ */
+public enum ChangeEntityType {
+
+    /**
+     * A company, changed also when representatives are assigned to it, unassigned from it or renamed.
+     */
+    COMPANY,
+
+    /**
+     * A representative.
+     */
+    REPRESENTATIVE
+}
@@ -0,0 +1,35 @@
+package io.flowpay.flowpayinterview.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object representing a page of the change log.
+ */
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class ChangePageDTO {
+
+    /**
+     * Entries contained in this page, ordered by sequence number.
+     */
+    private List<ChangeDTO> items;
+
+    /**
+     * Sequence number to read the next page after: the one of the last entry, or the requested one if the page is empty.
+     */
+    private long nextSince;
+
+    /**
+     * Whether more entries follow this page.
+     */
+    private boolean hasMore;
+}
@@ -0,0 +1,50 @@
+package io.flowpay.flowpayinterview.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object representing the outcome of a CSV import of companies and representatives.
+ */
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class CompanyImportResultDTO {
+
+    /**
+     * Number of data rows read from the file, excluding the header.
+     */
+    private long rows;
+
+    /**
+     * Number of rows rejected as invalid; nothing of them is imported.
+     */
+    private long rejectedRows;
+
+    /**
+     * Number of companies created. Companies already existing with the same name are reused.
+     */
+    private long companiesCreated;
+
+    /**
+     * Number of representatives created. Representatives already existing with the same first and last name are reused.
+     */
+    private long representativesCreated;
+
+    /**
+     * Number of representatives newly assigned to companies.
+     */
+    private long assignmentsCreated;
+
+    /**
+     * Reasons of the first rejected rows, each prefixed with the number of the row; capped at the configured maximum.
+     */
+    private List<String> rejects;
+}
@@ -0,0 +1,30 @@
+package io.flowpay.flowpayinterview.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object representing the result of looking up several companies by their IDs.
+ */
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class CompanyLookupDTO {
+
+    /**
+     * Companies found, in the order their IDs were requested, without duplicates.
+     */
+    private List<CompanyDTO> items;
+
+    /**
+     * Requested IDs for which no company exists, in the order they were requested.
+     */
+    private List<Long> missingIds;
+}
@@ -0,0 +1,22 @@
+package io.flowpay.flowpayinterview.model.dto;
+
+/**
+ * The ways a company name can be matched by the company name search.
+ */
+public enum CompanyNameMatch {
+
+    /**
+     * The name starts with the query, ignoring case. Results are ordered by name.
+     */
+    PREFIX,
+
+    /**
+     * The name contains the query, ignoring case. Results are ranked by similarity to the query.
+     */
+    CONTAINS,
+
+    /**
+     * The name is similar to the query, tolerating typos. Results are ranked by similarity to the query.
+     */
+    FUZZY
+}
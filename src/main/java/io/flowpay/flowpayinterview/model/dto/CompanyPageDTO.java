@@ -0,0 +1,31 @@
+package io.flowpay.flowpayinterview.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object representing a single page of companies.
+ * Pages are ordered by company ID and linked together through an opaque cursor token.
+ */
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class CompanyPageDTO {
+
+    /**
+     * Companies contained in this page, ordered by ID.
+     */
+    private List<CompanyDTO> items;
+
+    /**
+     * Cursor pointing to the next page, or {@code null} if this is the last page.
+     */
+    private String nextCursor;
+}
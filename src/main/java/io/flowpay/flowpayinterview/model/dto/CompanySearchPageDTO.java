@@ -0,0 +1,40 @@
+package io.flowpay.flowpayinterview.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object representing a single page of company name search results.
+ */
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class CompanySearchPageDTO {
+
+    /**
+     * Companies contained in this page, ordered by rank.
+     */
+    private List<CompanyDTO> items;
+
+    /**
+     * Zero-based number of this page.
+     */
+    private int page;
+
+    /**
+     * Maximum number of companies in a page.
+     */
+    private int size;
+
+    /**
+     * Whether another page of results follows.
+     */
+    private boolean hasNext;
+}
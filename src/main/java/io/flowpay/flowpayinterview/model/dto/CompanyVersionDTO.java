@@ -0,0 +1,19 @@
+package io.flowpay.flowpayinterview.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Versions of a company and of one of its representatives, read to compute the entity tag of the company
+ * without loading it. The representative is {@code null} for a company without representatives.
+ */
+@Getter
+@AllArgsConstructor
+public class CompanyVersionDTO {
+
+    private Long version;
+
+    private Long representativeId;
+
+    private Long representativeVersion;
+}
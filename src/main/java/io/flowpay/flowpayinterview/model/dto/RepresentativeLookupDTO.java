@@ -0,0 +1,30 @@
+package io.flowpay.flowpayinterview.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object representing the result of looking up several representatives by their IDs.
+ */
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class RepresentativeLookupDTO {
+
+    /**
+     * Representatives found, in the order their IDs were requested, without duplicates.
+     */
+    private List<RepresentativeDTO> items;
+
+    /**
+     * Requested IDs for which no representative exists, in the order they were requested.
+     */
+    private List<Long> missingIds;
+}
@@ -0,0 +1,40 @@
+package io.flowpay.flowpayinterview.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * The names of a representative before and after a partial update, together with the companies
+ * it is associated with, as reported by the update statement itself.
+ */
+@Getter
+@AllArgsConstructor
+public class RepresentativeNameChange {
+
+    /**
+     * First name of the representative before the update.
+     */
+    private String oldFirstName;
+
+    /**
+     * Last name of the representative before the update.
+     */
+    private String oldLastName;
+
+    /**
+     * First name of the representative after the update.
+     */
+    private String firstName;
+
+    /**
+     * Last name of the representative after the update.
+     */
+    private String lastName;
+
+    /**
+     * IDs of the companies the representative is associated with.
+     */
+    private List<Long> companyIds;
+}
@@ -0,0 +1,41 @@
+package io.flowpay.flowpayinterview.model.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object describing a transfer of several representatives from one company to another.
+ */
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class RepresentativeTransferDTO {
+
+    /**
+     * Unique identifier of the company the representatives are transferred from.
+     */
+    @NotNull(message = "Current company ID must not be null")
+    private Long currentCompanyId;
+
+    /**
+     * Unique identifier of the company the representatives are transferred to.
+     */
+    @NotNull(message = "New company ID must not be null")
+    private Long newCompanyId;
+
+    /**
+     * Unique identifiers of the representatives to transfer.
+     * Must not be empty.
+     */
+    @NotEmpty(message = "Representative IDs must not be empty")
+    private List<@NotNull(message = "Representative ID must not be null") Long> representativeIds;
+}
@@ -0,0 +1,21 @@
+package io.flowpay.flowpayinterview.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A representation together with the strong entity tag of the state it was read from.
+ *
+ * @param <T> The type of the representation.
+ */
+@Getter
+@AllArgsConstructor
+public class TaggedDTO<T> {
+
+    /**
+     * Quoted entity tag, as sent in the {@code ETag} header.
+     */
+    private String eTag;
+
+    private T content;
+}
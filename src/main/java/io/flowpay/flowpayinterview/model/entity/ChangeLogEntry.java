@@ -0,0 +1,42 @@
+package io.flowpay.flowpayinterview.model.entity;
+
+import io.flowpay.flowpayinterview.model.dto.ChangeEntityType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Entity representing an entry of the append-only change log of companies and representatives.
+ * Sequence numbers are assigned when the entries are appended, right before the transaction commits.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Entity
+@Immutable
+@Table(name = "change_log")
+public class ChangeLogEntry {
+
+    @Id
+    @EqualsAndHashCode.Include
+    private Long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 32)
+    private ChangeEntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(nullable = false)
+    private boolean deleted;
+}
@@ -1,5 +1,6 @@
 package io.flowpay.flowpayinterview.model.entity;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -9,14 +10,17 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
-import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -29,14 +33,18 @@ import java.util.Set;
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @Entity
 @Table(name = "companies")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "entity.company")
 public class Company {
 
+    // Sequence based IDs with a pooled allocation keep Hibernate's JDBC insert batching enabled.
+    // The allocation size is the increment of the sequence, which the CSV import allocates blocks of as well.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "companies_seq")
+    @SequenceGenerator(name = "companies_seq", sequenceName = "companies_seq", allocationSize = 50)
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -46,6 +54,7 @@ public class Company {
     private String name;
 
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "collection.company-representatives")
     @JoinTable(
             name = "company_representatives",
             joinColumns = @JoinColumn(name = "company_id"),
@@ -53,6 +62,17 @@ public class Company {
     )
     private Set<Representative> representatives = new HashSet<>();
 
+    // Incremented on every update of the row; assigning representatives does not touch it.
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    public Company(Long id, String name, Set<Representative> representatives) {
+        this.id = id;
+        this.name = name;
+        this.representatives = representatives;
+    }
+
     /**
      * Adds a representative to the company.
      *
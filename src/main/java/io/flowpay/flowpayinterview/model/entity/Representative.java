@@ -1,30 +1,37 @@
 package io.flowpay.flowpayinterview.model.entity;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
-import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @Entity
 @Table(name = "representatives")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "entity.representative")
 public class Representative {
 
+    // Allocated from its own sequence in blocks, the same way as the company IDs.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "representatives_seq")
+    @SequenceGenerator(name = "representatives_seq", sequenceName = "representatives_seq", allocationSize = 50)
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -37,5 +44,15 @@ public class Representative {
     @Size(max = 255)
     @Column(name = "lastname", nullable = false)
     private String lastName;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    public Representative(Long id, String firstName, String lastName) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+    }
 }
 
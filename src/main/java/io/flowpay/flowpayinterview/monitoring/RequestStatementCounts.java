@@ -0,0 +1,64 @@
+package io.flowpay.flowpayinterview.monitoring;
+
+/**
+ * Counts of the SQL statements and lazy collection initializations issued while serving the current request.
+ * Counting is bound to the thread serving the request, between {@link #start()} and {@link #stop()};
+ * work done outside such a window, e.g. on other threads, is not counted.
+ */
+public final class RequestStatementCounts {
+
+    private static final ThreadLocal<RequestStatementCounts> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private int collectionInitializations;
+
+    private RequestStatementCounts() {
+    }
+
+    /**
+     * Starts counting on the current thread, discarding any previous counts.
+     *
+     * @return The counts of the current thread.
+     */
+    public static RequestStatementCounts start() {
+        RequestStatementCounts counts = new RequestStatementCounts();
+        CURRENT.set(counts);
+        return counts;
+    }
+
+    /**
+     * Stops counting on the current thread.
+     */
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Returns the counts of the current thread, or {@code null} if it is not counting.
+     */
+    public static RequestStatementCounts current() {
+        return CURRENT.get();
+    }
+
+    static void recordStatement() {
+        RequestStatementCounts counts = CURRENT.get();
+        if (counts != null) {
+            counts.statements++;
+        }
+    }
+
+    static void recordCollectionInitialization() {
+        RequestStatementCounts counts = CURRENT.get();
+        if (counts != null) {
+            counts.collectionInitializations++;
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getCollectionInitializations() {
+        return collectionInitializations;
+    }
+}
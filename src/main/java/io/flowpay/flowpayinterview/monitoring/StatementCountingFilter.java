@@ -0,0 +1,130 @@
+package io.flowpay.flowpayinterview.monitoring;
+
+import io.flowpay.flowpayinterview.config.FlowpayProperties;
+import io.flowpay.flowpayinterview.config.MetricsConfig;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Counts the SQL statements and lazy collection initializations of each HTTP request. The counts are
+ * recorded per endpoint in the {@value #METRIC_STATEMENTS} distribution, optionally returned in the
+ * {@value #HEADER_STATEMENTS} and {@value #HEADER_COLLECTION_INITIALIZATIONS} response headers, and
+ * requests exceeding the configured threshold are logged as a warning.
+ * <p>
+ * The headers are set just before the response is committed, so they reflect the statements issued
+ * until the body starts being written.
+ */
+public class StatementCountingFilter extends OncePerRequestFilter {
+
+    public static final String HEADER_STATEMENTS = "X-SQL-Statement-Count";
+    public static final String HEADER_COLLECTION_INITIALIZATIONS = "X-SQL-Collection-Init-Count";
+    public static final String METRIC_STATEMENTS = "flowpay.request.statements";
+
+    private static final Logger log = LoggerFactory.getLogger(StatementCountingFilter.class);
+
+    private final FlowpayProperties.StatementCounter properties;
+    private final MeterRegistry meterRegistry;
+
+    public StatementCountingFilter(final FlowpayProperties flowpayProperties, final MeterRegistry meterRegistry) {
+        this.properties = flowpayProperties.getStatementCounter();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestStatementCounts counts = RequestStatementCounts.start();
+        CountHeaderResponseWrapper wrapper = properties.isHeaderEnabled() ? new CountHeaderResponseWrapper(response, counts) : null;
+        try {
+            filterChain.doFilter(request, wrapper != null ? wrapper : response);
+        } finally {
+            RequestStatementCounts.stop();
+            if (wrapper != null) {
+                wrapper.addCountHeaders();
+            }
+            record(request, counts);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestStatementCounts counts) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = pattern != null ? pattern.toString() : MetricsConfig.NO_ENDPOINT;
+        DistributionSummary.builder(METRIC_STATEMENTS)
+                .description("SQL statements issued per HTTP request")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .record(counts.getStatements());
+        if (counts.getStatements() > properties.getWarnThreshold()) {
+            log.warn("{} {} issued {} SQL statements and initialized {} collections on access, "
+                            + "exceeding the threshold of {}; check for N+1 queries",
+                    request.getMethod(), endpoint, counts.getStatements(), counts.getCollectionInitializations(),
+                    properties.getWarnThreshold());
+        }
+    }
+
+    /**
+     * Adds the count headers once the response is about to be committed, while headers can still be set.
+     */
+    private static class CountHeaderResponseWrapper extends HttpServletResponseWrapper {
+
+        private final RequestStatementCounts counts;
+        private boolean headersAdded;
+
+        CountHeaderResponseWrapper(HttpServletResponse response, RequestStatementCounts counts) {
+            super(response);
+            this.counts = counts;
+        }
+
+        void addCountHeaders() {
+            if (headersAdded || isCommitted()) {
+                return;
+            }
+            headersAdded = true;
+            setHeader(HEADER_STATEMENTS, Integer.toString(counts.getStatements()));
+            setHeader(HEADER_COLLECTION_INITIALIZATIONS, Integer.toString(counts.getCollectionInitializations()));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addCountHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addCountHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addCountHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addCountHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addCountHeaders();
+            super.sendError(sc, msg);
+        }
+    }
+}
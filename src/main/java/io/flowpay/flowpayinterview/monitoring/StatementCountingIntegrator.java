@@ -0,0 +1,42 @@
+package io.flowpay.flowpayinterview.monitoring;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Hooks the counting of {@link RequestStatementCounts} into Hibernate: every SQL statement passes the
+ * {@link #STATEMENT_INSPECTOR}, and every collection initialized on access, i.e. not fetched together
+ * with its owner, triggers the registered listener.
+ */
+public class StatementCountingIntegrator implements Integrator {
+
+    /**
+     * Statement inspector counting the statements, leaving them unchanged.
+     */
+    public static final StatementInspector STATEMENT_INSPECTOR = sql -> {
+        RequestStatementCounts.recordStatement();
+        return sql;
+    };
+
+    private static final InitializeCollectionEventListener COLLECTION_LISTENER =
+            event -> RequestStatementCounts.recordCollectionInitialization();
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        sessionFactory.getServiceRegistry()
+                .getService(EventListenerRegistry.class)
+                .appendListeners(EventType.INIT_COLLECTION, COLLECTION_LISTENER);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        // Nothing to release; the listener holds no resources.
+    }
+}
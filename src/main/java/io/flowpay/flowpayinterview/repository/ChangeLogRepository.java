@@ -0,0 +1,37 @@
+package io.flowpay.flowpayinterview.repository;
+
+import io.flowpay.flowpayinterview.model.dto.ChangeDTO;
+import io.flowpay.flowpayinterview.model.entity.ChangeLogEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for {@link ChangeLogEntry} entities.
+ * Provides methods to append to the change log and to read it incrementally.
+ */
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long>, ChangeLogRepositoryCustom {
+
+    /**
+     * Reads the entries following the given sequence number, without loading the entities.
+     * Served by the primary key, so the cost depends on the number of entries read rather than on the size of the log.
+     *
+     * @param since The sequence number after which the entries start (exclusive).
+     * @param limit The maximum number of entries to return.
+     * @return A list of DTOs of the entries, in ascending order of their sequence numbers.
+     */
+    @Query("SELECT new io.flowpay.flowpayinterview.model.dto.ChangeDTO(e.seq, e.entityType, e.entityId, e.deleted) "
+            + "FROM ChangeLogEntry e WHERE e.seq > :since ORDER BY e.seq")
+    List<ChangeDTO> findAfter(@Param("since") long since, Limit limit);
+
+    /**
+     * Reads the last sequence number handed out, including those appended by the current transaction.
+     *
+     * @return The last sequence number.
+     */
+    @Query(value = "SELECT last_seq FROM change_log_head", nativeQuery = true)
+    long findHead();
+}
@@ -0,0 +1,23 @@
+package io.flowpay.flowpayinterview.repository;
+
+import io.flowpay.flowpayinterview.model.dto.ChangeDTO;
+import io.flowpay.flowpayinterview.model.entity.ChangeLogEntry;
+
+import java.util.List;
+
+/**
+ * Custom repository operations for {@link ChangeLogEntry} entities that cannot be expressed
+ * through Spring Data query derivation.
+ */
+public interface ChangeLogRepositoryCustom {
+
+    /**
+     * Appends entries to the change log with a single statement, which advances the head of the log and inserts
+     * the entries numbered from it. The head stays locked until the transaction ends, so the entries of concurrent
+     * transactions are committed in sequence order; this is meant to be the last statement of the transaction.
+     *
+     * @param changes The changes to append, in order; their sequence numbers are ignored.
+     * @return The sequence number assigned to the last of the changes; the others precede it without gaps.
+     */
+    long append(List<ChangeDTO> changes);
+}
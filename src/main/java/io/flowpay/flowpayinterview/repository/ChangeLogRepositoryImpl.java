@@ -0,0 +1,66 @@
+package io.flowpay.flowpayinterview.repository;
+
+import io.flowpay.flowpayinterview.model.dto.ChangeDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.postgresql.PGConnection;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Implementation of {@link ChangeLogRepositoryCustom}, picked up by Spring Data
+ * as a fragment of {@link ChangeLogRepository}.
+ */
+public class ChangeLogRepositoryImpl implements ChangeLogRepositoryCustom {
+
+    // The entries are bound as three arrays, so the statement has the same four parameters for any number of them.
+    private static final String APPEND_SQL = "WITH head AS ("
+            + "  UPDATE change_log_head SET last_seq = last_seq + ? RETURNING last_seq), "
+            + "appended AS ("
+            + "  INSERT INTO change_log (seq, entity_type, entity_id, deleted)"
+            + "  SELECT head.last_seq - ? + c.ord, c.entity_type, c.entity_id, c.deleted FROM head,"
+            + "  unnest(CAST(? AS varchar(32)[]), CAST(? AS bigint[]), CAST(? AS boolean[]))"
+            + "  WITH ORDINALITY AS c(entity_type, entity_id, deleted, ord)) "
+            + "SELECT last_seq FROM head";
+
+    // The same statement for the embedded H2 database of the tests and benchmarks, which has no data-modifying CTEs
+    private static final String APPEND_SQL_H2 = "SELECT max(seq) FROM FINAL TABLE ("
+            + "  INSERT INTO change_log (seq, entity_type, entity_id, deleted)"
+            + "  SELECT head.last_seq - ? + c.ord, c.entity_type, c.entity_id, c.deleted"
+            + "  FROM FINAL TABLE (UPDATE change_log_head SET last_seq = last_seq + ?) head,"
+            + "  UNNEST(CAST(? AS VARCHAR(32) ARRAY), CAST(? AS BIGINT ARRAY), CAST(? AS BOOLEAN ARRAY))"
+            + "  WITH ORDINALITY AS c(entity_type, entity_id, deleted, ord))";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public long append(List<ChangeDTO> changes) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            String[] entityTypes = new String[changes.size()];
+            Long[] entityIds = new Long[changes.size()];
+            Boolean[] deleted = new Boolean[changes.size()];
+            for (int i = 0; i < changes.size(); i++) {
+                ChangeDTO change = changes.get(i);
+                entityTypes[i] = change.getEntityType().name();
+                entityIds[i] = change.getEntityId();
+                deleted[i] = change.isDeleted();
+            }
+            String sql = connection.isWrapperFor(PGConnection.class) ? APPEND_SQL : APPEND_SQL_H2;
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setLong(1, changes.size());
+                statement.setLong(2, changes.size());
+                statement.setArray(3, connection.createArrayOf("varchar", entityTypes));
+                statement.setArray(4, connection.createArrayOf("bigint", entityIds));
+                statement.setArray(5, connection.createArrayOf("boolean", deleted));
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getLong(1);
+                }
+            }
+        });
+    }
+}
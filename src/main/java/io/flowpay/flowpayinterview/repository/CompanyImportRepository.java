@@ -0,0 +1,221 @@
+package io.flowpay.flowpayinterview.repository;
+
+import io.flowpay.flowpayinterview.exception.InvalidRequestException;
+import io.flowpay.flowpayinterview.model.dto.CompanyImportResultDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.postgresql.PGConnection;
+import org.postgresql.util.PSQLException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Imports companies and representatives from CSV through the PostgreSQL {@code COPY} protocol.
+ * The file is streamed into a temporary staging table, validated there and merged into the
+ * {@code companies}, {@code representatives} and {@code company_representatives} tables with a single
+ * set-based statement, all on the connection of the current transaction. The same statement appends the
+ * created representatives and the changed companies to the change log, whose head then stays locked until
+ * the transaction commits.
+ * <p>
+ * Companies are identified by their name and representatives by their first and last name, both within
+ * the file and against the existing rows, of which the one with the lowest ID is used.
+ */
+// Not a @Repository, whose exception translation would turn the rejection of a malformed file into a data access error
+@Component
+public class CompanyImportRepository {
+
+    // Columns of the file, in order; the first line is a header and is skipped
+    private static final String COPY_SQL = "COPY import_rows (company_name, first_name, last_name) "
+            + "FROM STDIN WITH (FORMAT csv, HEADER true)";
+
+    // Trims the names and records why a row is rejected; the conditions see the values before trimming
+    private static final String VALIDATE_SQL = "UPDATE import_rows SET "
+            + "company_name = btrim(company_name), "
+            + "first_name = nullif(btrim(first_name), ''), "
+            + "last_name = nullif(btrim(last_name), ''), "
+            + "reject_reason = CASE "
+            + "WHEN coalesce(btrim(company_name), '') = '' THEN 'Name must not be blank' "
+            + "WHEN length(btrim(company_name)) > 255 THEN 'Name must not exceed 255 characters' "
+            + "WHEN (coalesce(btrim(first_name), '') = '') <> (coalesce(btrim(last_name), '') = '') "
+            + "THEN 'First name and last name must be given together' "
+            + "WHEN length(btrim(first_name)) > 255 THEN 'First name must not exceed 255 characters' "
+            + "WHEN length(btrim(last_name)) > 255 THEN 'Last name must not exceed 255 characters' END";
+
+    // The increment of the ID sequences. Each value taken stands for the block of IDs up to it, as for Hibernate's
+    // pooled optimizer, so the created rows are numbered in blocks instead of wasting the rest of a block per row.
+    private static final int ID_BLOCK_SIZE = 50;
+
+    // The data-modifying CTEs all see the tables as they were before the statement,
+    // so the rows they insert are joined from their RETURNING clauses.
+    private static final String MERGE_SQL = "WITH valid AS ("
+            + "  SELECT DISTINCT company_name, first_name, last_name FROM import_rows WHERE reject_reason IS NULL), "
+            + "existing_companies AS ("
+            + "  SELECT min(c.id) AS id, c.name FROM companies c"
+            + "  WHERE c.name IN (SELECT company_name FROM valid) GROUP BY c.name), "
+            + "new_company_names AS ("
+            + "  SELECT name, row_number() OVER (ORDER BY name) - 1 AS n FROM (SELECT DISTINCT v.company_name AS name"
+            + "  FROM valid v WHERE NOT EXISTS (SELECT 1 FROM existing_companies ec WHERE ec.name = v.company_name)) d), "
+            + "company_id_blocks AS ("
+            + "  SELECT b, nextval('companies_seq') AS hi"
+            + "  FROM generate_series(0, (SELECT count(*) FROM new_company_names) - 1, " + ID_BLOCK_SIZE + ") b), "
+            + "new_companies AS ("
+            + "  INSERT INTO companies (id, name)"
+            + "  SELECT ib.hi - " + (ID_BLOCK_SIZE - 1) + " + nc.n % " + ID_BLOCK_SIZE + ", nc.name FROM new_company_names nc"
+            + "  JOIN company_id_blocks ib ON ib.b = nc.n - nc.n % " + ID_BLOCK_SIZE
+            + "  RETURNING id, name), "
+            + "existing_representatives AS ("
+            + "  SELECT min(r.id) AS id, r.firstname, r.lastname FROM representatives r"
+            + "  JOIN (SELECT DISTINCT first_name, last_name FROM valid WHERE first_name IS NOT NULL) v"
+            + "    ON r.firstname = v.first_name AND r.lastname = v.last_name"
+            + "  GROUP BY r.firstname, r.lastname), "
+            + "new_representative_names AS ("
+            + "  SELECT first_name, last_name, row_number() OVER (ORDER BY first_name, last_name) - 1 AS n FROM ("
+            + "    SELECT DISTINCT v.first_name, v.last_name FROM valid v WHERE v.first_name IS NOT NULL AND NOT EXISTS ("
+            + "      SELECT 1 FROM existing_representatives er"
+            + "      WHERE er.firstname = v.first_name AND er.lastname = v.last_name)) d), "
+            + "representative_id_blocks AS ("
+            + "  SELECT b, nextval('representatives_seq') AS hi"
+            + "  FROM generate_series(0, (SELECT count(*) FROM new_representative_names) - 1, " + ID_BLOCK_SIZE + ") b), "
+            + "new_representatives AS ("
+            + "  INSERT INTO representatives (id, firstname, lastname)"
+            + "  SELECT ib.hi - " + (ID_BLOCK_SIZE - 1) + " + nr.n % " + ID_BLOCK_SIZE + ", nr.first_name, nr.last_name"
+            + "  FROM new_representative_names nr JOIN representative_id_blocks ib ON ib.b = nr.n - nr.n % " + ID_BLOCK_SIZE
+            + "  RETURNING id, firstname, lastname), "
+            + "all_companies AS ("
+            + "  SELECT id, name FROM existing_companies UNION ALL SELECT id, name FROM new_companies), "
+            + "all_representatives AS ("
+            + "  SELECT id, firstname, lastname FROM existing_representatives"
+            + "  UNION ALL SELECT id, firstname, lastname FROM new_representatives), "
+            + "new_assignments AS ("
+            + "  INSERT INTO company_representatives (company_id, representative_id)"
+            + "  SELECT DISTINCT c.id, r.id FROM valid v"
+            + "  JOIN all_companies c ON c.name = v.company_name"
+            + "  JOIN all_representatives r ON r.firstname = v.first_name AND r.lastname = v.last_name"
+            + "  ON CONFLICT DO NOTHING"
+            + "  RETURNING company_id), "
+            + "changes AS ("
+            + "  SELECT 'COMPANY' AS entity_type, id AS entity_id FROM new_companies"
+            + "  UNION SELECT 'COMPANY', company_id FROM new_assignments"
+            + "  UNION ALL SELECT 'REPRESENTATIVE', id FROM new_representatives), "
+            + "head AS ("
+            + "  UPDATE change_log_head SET last_seq = last_seq + (SELECT count(*) FROM changes)"
+            + "  WHERE EXISTS (SELECT 1 FROM changes)"
+            + "  RETURNING last_seq), "
+            + "appended AS ("
+            + "  INSERT INTO change_log (seq, entity_type, entity_id, deleted)"
+            + "  SELECT h.last_seq - (SELECT count(*) FROM changes) + row_number() OVER (ORDER BY c.entity_type, c.entity_id),"
+            + "         c.entity_type, c.entity_id, false"
+            + "  FROM head h CROSS JOIN changes c) "
+            + "SELECT (SELECT count(*) FROM new_companies), (SELECT count(*) FROM new_representatives),"
+            + "       (SELECT count(*) FROM new_assignments), (SELECT last_seq FROM head),"
+            + "       (SELECT min(id) FROM new_representatives), (SELECT max(id) FROM new_representatives)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Imports the companies and representatives of a CSV file with the columns {@code company_name},
+     * {@code first_name} and {@code last_name}. A row with empty names of the representative imports
+     * the company alone. Invalid rows are rejected and reported, while the valid ones are imported.
+     *
+     * @param csv                The CSV file, read as it is copied to the database and never held in memory.
+     * @param maxReportedRejects The maximum number of rejected rows to report individually.
+     * @param newRepresentatives Receives the lowest and highest ID of the created representatives,
+     *                           unless none were created.
+     * @param changeLogHead      Receives the sequence number of the last change log entry appended by the merge,
+     *                           unless nothing was created or assigned.
+     * @return The counts of the rows read, rejected and created.
+     * @throws InvalidRequestException  If the file is not valid CSV with the expected columns.
+     * @throws IllegalStateException    If the database is not PostgreSQL.
+     */
+    public CompanyImportResultDTO importCsv(InputStream csv, int maxReportedRejects,
+                                           BiConsumer<Long, Long> newRepresentatives,
+                                           LongConsumer changeLogHead) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            if (!connection.isWrapperFor(PGConnection.class)) {
+                throw new IllegalStateException("CSV import requires PostgreSQL");
+            }
+            try (Statement statement = connection.createStatement()) {
+                // Concurrent imports would otherwise both create a company missing from the table.
+                statement.execute("SELECT pg_advisory_xact_lock(hashtext('flowpay.company-import'))");
+                statement.execute("CREATE TEMPORARY TABLE import_rows (row_number bigint GENERATED ALWAYS AS IDENTITY, "
+                        + "company_name text, first_name text, last_name text, reject_reason text) ON COMMIT DROP");
+            }
+
+            long rows = copy(connection, csv);
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate(VALIDATE_SQL);
+                // Temporary tables are not analyzed automatically, the merge would be planned for an empty table.
+                statement.execute("ANALYZE import_rows");
+            }
+            long rejectedRows = count(connection, "SELECT count(*) FROM import_rows WHERE reject_reason IS NOT NULL");
+            List<String> rejects = new ArrayList<>();
+            try (PreparedStatement statement = connection.prepareStatement("SELECT row_number, reject_reason FROM import_rows "
+                    + "WHERE reject_reason IS NOT NULL ORDER BY row_number LIMIT ?")) {
+                statement.setInt(1, maxReportedRejects);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        rejects.add("row " + resultSet.getLong(1) + ": " + resultSet.getString(2));
+                    }
+                }
+            }
+
+            long companiesCreated;
+            long representativesCreated;
+            long assignmentsCreated;
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(MERGE_SQL)) {
+                resultSet.next();
+                companiesCreated = resultSet.getLong(1);
+                representativesCreated = resultSet.getLong(2);
+                assignmentsCreated = resultSet.getLong(3);
+                long lastSeq = resultSet.getLong(4);
+                if (!resultSet.wasNull()) {
+                    changeLogHead.accept(lastSeq);
+                }
+                long firstRepresentativeId = resultSet.getLong(5);
+                if (!resultSet.wasNull()) {
+                    newRepresentatives.accept(firstRepresentativeId, resultSet.getLong(6));
+                }
+            }
+
+            return new CompanyImportResultDTO(rows, rejectedRows, companiesCreated, representativesCreated,
+                    assignmentsCreated, rejects);
+        });
+    }
+
+    private static long copy(Connection connection, InputStream csv) throws SQLException {
+        try {
+            return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL, csv);
+        } catch (PSQLException ex) {
+            // Data exceptions report malformed files, such as rows with too many columns or unterminated quotes.
+            if (ex.getSQLState() != null && ex.getSQLState().startsWith("22")) {
+                throw new InvalidRequestException("Malformed CSV: " + ex.getServerErrorMessage().getMessage(), ex);
+            }
+            throw ex;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static long count(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -1,34 +1,137 @@
 package io.flowpay.flowpayinterview.repository;
 
+import io.flowpay.flowpayinterview.model.dto.CompanyVersionDTO;
 import io.flowpay.flowpayinterview.model.entity.Company;
 import io.flowpay.flowpayinterview.model.entity.Representative;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Spring Data JPA repository for {@link Company} entities.
  * Provides methods to perform operations on the database for Company entities.
  */
-public interface CompanyRepository extends JpaRepository<Company, Long> {
+public interface CompanyRepository extends JpaRepository<Company, Long>, CompanyRepositoryCustom {
 
     /**
-     * Finds companies by their name.
+     * Finds companies by their name, fetching their representatives in the same query.
+     * The result is kept in the query cache until one of the involved tables changes.
      *
      * @param name The name of the companies to find.
      * @return A list of companies with the given name.
      */
+    @EntityGraph(attributePaths = "representatives")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Company> findAllByName(String name);
 
+    /**
+     * Finds the IDs of the companies whose lower-cased name matches a LIKE prefix pattern, ordered by name.
+     * The "C" collation lets the prefix index serve both the match and the order, so a page is read
+     * straight from the index without sorting all matches.
+     *
+     * @param pattern The lower-cased prefix, with LIKE wildcards escaped, followed by {@code %}.
+     * @param limit   The maximum number of IDs to return.
+     * @param offset  The number of matching IDs to skip.
+     * @return A list of matching company IDs.
+     */
+    @Query(value = "SELECT c.id FROM companies c WHERE lower(c.name) COLLATE \"C\" LIKE :pattern "
+            + "ORDER BY lower(c.name) COLLATE \"C\", c.id LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Long> findIdsByNamePrefix(@Param("pattern") String pattern, @Param("limit") int limit, @Param("offset") long offset);
+
+    /**
+     * Finds the IDs of the companies whose lower-cased name matches a LIKE substring pattern,
+     * ranked by trigram similarity to the query. Backed by the trigram index.
+     *
+     * @param pattern The lower-cased query, with LIKE wildcards escaped, surrounded by {@code %}.
+     * @param query   The lower-cased query the similarity is computed against.
+     * @param limit   The maximum number of IDs to return.
+     * @param offset  The number of matching IDs to skip.
+     * @return A list of matching company IDs, most similar first.
+     */
+    @Query(value = "SELECT c.id FROM companies c WHERE lower(c.name) LIKE :pattern "
+            + "ORDER BY similarity(lower(c.name), :query) DESC, c.id LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Long> findIdsByNameContaining(@Param("pattern") String pattern, @Param("query") String query,
+                                       @Param("limit") int limit, @Param("offset") long offset);
+
+    /**
+     * Finds the IDs of the companies whose lower-cased name is similar to the query according to the
+     * {@code pg_trgm.similarity_threshold}, ranked by similarity. Backed by the trigram index.
+     *
+     * @param query  The lower-cased query.
+     * @param limit  The maximum number of IDs to return.
+     * @param offset The number of matching IDs to skip.
+     * @return A list of matching company IDs, most similar first.
+     */
+    @Query(value = "SELECT c.id FROM companies c WHERE lower(c.name) % :query "
+            + "ORDER BY similarity(lower(c.name), :query) DESC, c.id LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Long> findIdsByNameSimilarTo(@Param("query") String query, @Param("limit") int limit, @Param("offset") long offset);
+
+    /**
+     * Finds the IDs of the companies following the given ID in ID order.
+     * Backs keyset pagination, so the cost of a page does not depend on how deep the client pages.
+     *
+     * @param afterId The ID after which the page starts (exclusive).
+     * @param limit   The maximum number of IDs to return.
+     * @return A list of company IDs greater than the given one, in ascending order.
+     */
+    @Query("SELECT c.id FROM Company c WHERE c.id > :afterId ORDER BY c.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Finds companies by their IDs, fetching their representatives in the same query.
+     *
+     * @param ids The IDs of the companies to find.
+     * @return A list of the companies found, ordered by ID.
+     */
+    @EntityGraph(attributePaths = "representatives")
+    List<Company> findAllWithRepresentativesByIdInOrderByIdAsc(Collection<Long> ids);
+
+    /**
+     * Loads companies together with their representatives using one query per batch of IDs,
+     * instead of one additional query per company when the representatives are accessed.
+     *
+     * @param ids       The IDs of the companies to load, in the order the result should follow.
+     * @param batchSize The maximum number of IDs bound to a single IN query.
+     * @return A list of the companies found, in the order of the given IDs.
+     */
+    default List<Company> findAllWithRepresentativesByIds(List<Long> ids, int batchSize) {
+        List<Company> companies = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> batch = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            companies.addAll(findAllWithRepresentativesByIdInOrderByIdAsc(batch));
+        }
+        return companies;
+    }
+
+    /**
+     * Reads the version of a company together with the IDs and versions of its representatives, which its
+     * entity tag is computed from, without loading the entities.
+     *
+     * @param id The ID of the company.
+     * @return One row per representative, or a single row without representative if the company has none;
+     *         an empty list if the company does not exist.
+     */
+    @Query("SELECT new io.flowpay.flowpayinterview.model.dto.CompanyVersionDTO(c.version, r.id, r.version) "
+            + "FROM Company c LEFT JOIN c.representatives r WHERE c.id = :id")
+    List<CompanyVersionDTO> findVersionsById(@Param("id") Long id);
+
     /**
      * Finds companies that have no representatives.
+     * The (empty) representatives collection is initialized by the same query.
      *
      * @return A list of companies without any representatives.
      */
-    // This method might need a custom implementation if the method name parsing does not achieve the desired query.
+    @EntityGraph(attributePaths = "representatives")
     List<Company> findAllByRepresentativesEmpty();
 
     /**
@@ -40,13 +143,142 @@ public interface CompanyRepository extends JpaRepository<Company, Long> {
     @Query("SELECT c FROM Company c JOIN c.representatives r WHERE r.id = :representativeId")
     List<Company> findCompaniesByRepresentativeId(@Param("representativeId") Long representativeId);
 
+    /**
+     * Finds the IDs of the companies a representative is associated with.
+     *
+     * @param representativeId The ID of the representative.
+     * @return A list of IDs of the companies associated with the given representative ID.
+     */
+    @Query("SELECT c.id FROM Company c JOIN c.representatives r WHERE r.id = :representativeId")
+    List<Long> findIdsByRepresentativeId(@Param("representativeId") Long representativeId);
+
+    /**
+     * Finds the IDs of the companies any of the given representatives is associated with.
+     *
+     * @param representativeIds The IDs of the representatives.
+     * @return A list of IDs of the companies associated with any of the given representatives, without duplicates.
+     */
+    @Query("SELECT DISTINCT c.id FROM Company c JOIN c.representatives r WHERE r.id IN :representativeIds")
+    List<Long> findIdsByRepresentativeIdIn(@Param("representativeIds") Collection<Long> representativeIds);
+
+    /**
+     * Assigns a representative to a company by inserting their join table row directly, without loading
+     * the company's representatives. Inserts nothing if either does not exist or they are already associated.
+     *
+     * @param companyId        The ID of the company.
+     * @param representativeId The ID of the representative.
+     * @return 1 if the representative was assigned, 0 otherwise.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "company_representatives"))
+    @Query(value = "INSERT INTO company_representatives (company_id, representative_id) "
+            + "SELECT c.id, r.id FROM companies c, representatives r WHERE c.id = :companyId AND r.id = :representativeId "
+            + "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int assignRepresentative(@Param("companyId") Long companyId, @Param("representativeId") Long representativeId);
+
+    /**
+     * Finds the IDs of the representatives of a company by reading its join table rows only,
+     * without loading the representatives.
+     *
+     * @param companyId The ID of the company.
+     * @return The IDs of the representatives associated with the company.
+     */
+    @Query(value = "SELECT representative_id FROM company_representatives WHERE company_id = :companyId", nativeQuery = true)
+    List<Long> findRepresentativeIdsByCompanyId(@Param("companyId") Long companyId);
+
+    /**
+     * Assigns several representatives to a company by inserting their join table rows in a single statement.
+     * Representatives that do not exist or are already associated are skipped.
+     *
+     * @param companyId         The ID of the company, which must exist.
+     * @param representativeIds The IDs of the representatives to assign.
+     * @return The number of representatives assigned.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "company_representatives"))
+    @Query(value = "INSERT INTO company_representatives (company_id, representative_id) "
+            + "SELECT :companyId, r.id FROM representatives r WHERE r.id IN :representativeIds "
+            + "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int assignRepresentatives(@Param("companyId") Long companyId, @Param("representativeIds") Collection<Long> representativeIds);
+
+    /**
+     * Unassigns several representatives from a company by deleting their join table rows in a single statement.
+     * The representatives themselves are kept.
+     *
+     * @param companyId         The ID of the company.
+     * @param representativeIds The IDs of the representatives to unassign.
+     * @return The number of representatives unassigned.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "company_representatives"))
+    @Query(value = "DELETE FROM company_representatives WHERE company_id = :companyId AND representative_id IN :representativeIds",
+            nativeQuery = true)
+    int unassignRepresentatives(@Param("companyId") Long companyId, @Param("representativeIds") Collection<Long> representativeIds);
+
+    /**
+     * Unassigns a representative from a company by deleting their join table row directly,
+     * without loading the company's representatives.
+     *
+     * @param companyId        The ID of the company.
+     * @param representativeId The ID of the representative.
+     * @return 1 if the representative was unassigned, 0 if they were not associated.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "company_representatives"))
+    @Query(value = "DELETE FROM company_representatives WHERE company_id = :companyId AND representative_id = :representativeId",
+            nativeQuery = true)
+    int unassignRepresentative(@Param("companyId") Long companyId, @Param("representativeId") Long representativeId);
+
+    /**
+     * Locks the rows of the given companies for the rest of the transaction, always in ascending ID order.
+     * Transactions locking overlapping sets of companies this way wait for each other instead of deadlocking.
+     *
+     * @param ids The IDs of the companies to lock.
+     * @return The IDs of the companies found, in ascending order.
+     */
+    @Query(value = "SELECT c.id FROM companies c WHERE c.id IN :ids ORDER BY c.id FOR UPDATE", nativeQuery = true)
+    List<Long> lockByIdsInOrder(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Moves representatives from one company to another by updating the company of their join table rows
+     * in a single statement, without loading the representatives of either company. Representatives that are
+     * not associated with the current company, or are already associated with the new one, are not moved.
+     *
+     * @param currentCompanyId  The ID of the company the representatives are moved from.
+     * @param newCompanyId      The ID of the company the representatives are moved to.
+     * @param representativeIds The IDs of the representatives to move.
+     * @return The number of representatives moved.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "company_representatives"))
+    @Query(value = "UPDATE company_representatives SET company_id = :newCompanyId "
+            + "WHERE company_id = :currentCompanyId AND representative_id IN :representativeIds "
+            + "AND NOT EXISTS (SELECT 1 FROM company_representatives t "
+            + "WHERE t.company_id = :newCompanyId AND t.representative_id = company_representatives.representative_id)",
+            nativeQuery = true)
+    int transferRepresentatives(@Param("currentCompanyId") Long currentCompanyId, @Param("newCompanyId") Long newCompanyId,
+                                @Param("representativeIds") Collection<Long> representativeIds);
+
+    /**
+     * Counts how many of the given representatives are associated with a company.
+     *
+     * @param companyId         The ID of the company.
+     * @param representativeIds The IDs of the representatives.
+     * @return The number of the representatives associated with the company.
+     */
+    @Query(value = "SELECT count(*) FROM company_representatives "
+            + "WHERE company_id = :companyId AND representative_id IN :representativeIds", nativeQuery = true)
+    long countAssigned(@Param("companyId") Long companyId, @Param("representativeIds") Collection<Long> representativeIds);
+
     /**
      * Disassociates a representative from all companies based on the representative's ID.
-     * This method directly modifies the relationship in the database.
+     * Deletes the representative's rows of the join table in a single statement, located through the
+     * reverse index. Only the cached representative collections of the companies are invalidated.
      *
      * @param representativeId The ID of the representative to disassociate.
      */
     @Modifying
-    @Query("UPDATE Company c SET c.representatives = c.representatives WHERE :representativeId NOT MEMBER OF c.representatives")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "company_representatives"))
+    @Query(value = "DELETE FROM company_representatives WHERE representative_id = :representativeId", nativeQuery = true)
     void disassociateRepresentativeFromAllCompanies(@Param("representativeId") Long representativeId);
 }
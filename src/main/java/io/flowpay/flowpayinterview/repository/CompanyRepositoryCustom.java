@@ -0,0 +1,73 @@
+package io.flowpay.flowpayinterview.repository;
+
+import io.flowpay.flowpayinterview.model.entity.Company;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Custom repository operations for {@link Company} entities that cannot be expressed
+ * through Spring Data query derivation.
+ */
+public interface CompanyRepositoryCustom {
+
+    /**
+     * Streams all companies with their representatives in ID order through a forward-only cursor.
+     * The companies handed to the consumer are detached copies; the persistence context is cleared
+     * periodically, so memory usage does not depend on the number of rows.
+     *
+     * @param clearInterval The number of rows after which the persistence context is cleared,
+     *                      also used as the JDBC fetch size.
+     * @param consumer      Receives each company once all of its representatives have been read.
+     */
+    void scrollAllWithRepresentatives(int clearInterval, Consumer<Company> consumer);
+
+    /**
+     * Persists new companies, flushing and clearing the persistence context after every batch
+     * so the inserts are sent as JDBC batches and memory usage stays bounded.
+     * Representatives of the companies are referenced by ID and must already exist.
+     *
+     * @param companies The new companies; their IDs are assigned in place.
+     * @param batchSize The number of companies flushed together.
+     */
+    void persistAll(List<Company> companies, int batchSize);
+
+    /**
+     * Renames a company with a single PostgreSQL statement, without loading it first, incrementing its version.
+     * Only the cached company and the cached query results over the companies table are invalidated,
+     * both immediately and once the current transaction commits.
+     *
+     * @param id   The ID of the company.
+     * @param name The new name of the company.
+     * @return 1 if the company was renamed, 0 if it does not exist.
+     */
+    int updateName(Long id, String name);
+
+    /**
+     * Locks the rows of the companies of a transfer for the rest of the transaction, in ascending ID order.
+     * On PostgreSQL the lock is {@code FOR NO KEY UPDATE}, which does not conflict with the {@code KEY SHARE} locks
+     * taken by the foreign keys of the join table, so representatives can still be assigned to either company
+     * meanwhile. Transfers over the same companies still wait for each other, without deadlocking.
+     *
+     * @param ids The IDs of the companies to lock.
+     * @return The IDs of the companies found, in ascending order.
+     */
+    List<Long> lockForTransferInOrder(Collection<Long> ids);
+
+    /**
+     * Evicts the cached representative collections of the given companies from the second-level cache,
+     * both immediately and once the current transaction commits. Native statements on the join table
+     * must call this, as Hibernate only invalidates collection regions through the query spaces of entities.
+     *
+     * @param companyIds The IDs of the companies whose representatives were changed.
+     */
+    void evictCachedRepresentatives(Collection<Long> companyIds);
+
+    /**
+     * Evicts all cached representative collections and cached query results from the second-level cache,
+     * both immediately and once the current transaction commits. Statements executed over JDBC directly
+     * must call this, as Hibernate does not see the tables they change.
+     */
+    void evictAllCachedRepresentatives();
+}
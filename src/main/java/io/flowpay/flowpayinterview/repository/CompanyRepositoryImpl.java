@@ -0,0 +1,166 @@
+package io.flowpay.flowpayinterview.repository;
+
+import io.flowpay.flowpayinterview.model.entity.Company;
+import io.flowpay.flowpayinterview.model.entity.Representative;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.postgresql.PGConnection;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of {@link CompanyRepositoryCustom}, picked up by Spring Data
+ * as a fragment of {@link CompanyRepository}.
+ */
+public class CompanyRepositoryImpl implements CompanyRepositoryCustom {
+
+    private static final String REPRESENTATIVES_ROLE = Company.class.getName() + ".representatives";
+    private static final String[] COMPANY_SPACES = {"companies"};
+
+    private static final String UPDATE_NAME_SQL = "UPDATE companies SET name = :name, version = version + 1 "
+            + "WHERE id = :id RETURNING id";
+
+    private static final String LOCK_FOR_TRANSFER_SQL = "SELECT c.id FROM companies c WHERE c.id IN :ids ORDER BY c.id "
+            + "FOR NO KEY UPDATE";
+
+    // The embedded H2 database of the tests and benchmarks only has the stronger lock
+    private static final String LOCK_FOR_TRANSFER_SQL_H2 = "SELECT c.id FROM companies c WHERE c.id IN :ids ORDER BY c.id "
+            + "FOR UPDATE";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void scrollAllWithRepresentatives(int clearInterval, Consumer<Company> consumer) {
+        Session session = entityManager.unwrap(Session.class);
+        // The export neither reads nor populates the second-level cache, which would otherwise fill with every row.
+        // Rows are loaded while scrolling, after the query has restored any cache mode of its own, so the session's is set.
+        CacheMode cacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.IGNORE);
+        // One row per company/representative pair; ordering by company keeps the rows of a company together.
+        try (ScrollableResults<Object[]> rows = session
+                .createSelectionQuery("SELECT c, r FROM Company c LEFT JOIN c.representatives r ORDER BY c.id", Object[].class)
+                .setReadOnly(true)
+                .setFetchSize(clearInterval)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            Company current = null;
+            long rowCount = 0;
+            while (rows.next()) {
+                Object[] row = rows.get();
+                Company company = (Company) row[0];
+                if (current == null || !current.getId().equals(company.getId())) {
+                    if (current != null) {
+                        consumer.accept(current);
+                    }
+                    current = new Company(company.getId(), company.getName(), new HashSet<>());
+                }
+                if (row[1] != null) {
+                    current.addRepresentative((Representative) row[1]);
+                }
+                if (++rowCount % clearInterval == 0) {
+                    session.clear();
+                }
+            }
+            if (current != null) {
+                consumer.accept(current);
+            }
+        } finally {
+            session.setCacheMode(cacheMode);
+        }
+    }
+
+    @Override
+    public void persistAll(List<Company> companies, int batchSize) {
+        for (int i = 0; i < companies.size(); i++) {
+            Company company = companies.get(i);
+            // Reference existing representatives instead of cascading a persist onto detached instances.
+            Set<Representative> representatives = company.getRepresentatives() == null ? new HashSet<>()
+                    : company.getRepresentatives().stream()
+                    .map(representative -> entityManager.getReference(Representative.class, representative.getId()))
+                    .collect(Collectors.toSet());
+            company.setRepresentatives(representatives);
+            entityManager.persist(company);
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Override
+    public int updateName(Long id, String name) {
+        // Run as a query for its returned row; Hibernate would invalidate whole cache regions after an update statement.
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        List<Long> renamed = session.createNativeQuery(UPDATE_NAME_SQL, Long.class)
+                .setParameter("id", id)
+                .setParameter("name", name)
+                .getResultList();
+        if (renamed.isEmpty()) {
+            return 0;
+        }
+        CacheImplementor cache = session.getFactory().getCache();
+        evictNowAndAfterCommit(() -> {
+            cache.evictEntityData(Company.class, id);
+            cache.getTimestampsCache().invalidate(COMPANY_SPACES, session);
+        });
+        return 1;
+    }
+
+    @Override
+    public List<Long> lockForTransferInOrder(Collection<Long> ids) {
+        Session session = entityManager.unwrap(Session.class);
+        String sql = session.doReturningWork(connection -> connection.isWrapperFor(PGConnection.class))
+                ? LOCK_FOR_TRANSFER_SQL : LOCK_FOR_TRANSFER_SQL_H2;
+        return session.createNativeQuery(sql, Long.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    @Override
+    public void evictCachedRepresentatives(Collection<Long> companyIds) {
+        if (companyIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(companyIds);
+        org.hibernate.Cache cache = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+        evictNowAndAfterCommit(() -> ids.forEach(id -> cache.evictCollectionData(REPRESENTATIVES_ROLE, id)));
+    }
+
+    @Override
+    public void evictAllCachedRepresentatives() {
+        org.hibernate.Cache cache = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+        evictNowAndAfterCommit(() -> {
+            cache.evictCollectionData(REPRESENTATIVES_ROLE);
+            cache.evictQueryRegions();
+        });
+    }
+
+    private static void evictNowAndAfterCommit(Runnable evict) {
+        evict.run();
+        // Evicted again after commit, so a concurrent load of the old rows cannot outlive the change.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        }
+    }
+}
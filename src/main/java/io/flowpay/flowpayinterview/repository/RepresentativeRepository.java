@@ -1,15 +1,26 @@
 package io.flowpay.flowpayinterview.repository;
 
+import io.flowpay.flowpayinterview.model.dto.RepresentativeDTO;
 import io.flowpay.flowpayinterview.model.entity.Representative;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 /**
  * Spring Data JPA repository for {@link Representative} entities.
  * Provides methods to perform database operations on Representative entities.
  */
-public interface RepresentativeRepository extends JpaRepository<Representative, Long> {
+public interface RepresentativeRepository extends JpaRepository<Representative, Long>, RepresentativeRepositoryCustom {
 
     /**
      * Finds representatives by their first name and last name.
@@ -18,5 +29,66 @@ public interface RepresentativeRepository extends JpaRepository<Representative,
      * @param lastName The last name of the representative(s) to find.
      * @return A list of representatives with the given first name and last name.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Set<Representative> findAllByFirstNameAndLastName(String firstName, String lastName);
+
+    /**
+     * Reads the names of the representatives following the given ID in ID order, without loading
+     * the entities into the persistence context. Used to page through all representatives.
+     *
+     * @param afterId The ID after which the page starts (exclusive).
+     * @param limit   The maximum number of representatives to return.
+     * @return A list of DTOs of the representatives with an ID greater than the given one, in ascending order.
+     */
+    @Query("SELECT new io.flowpay.flowpayinterview.model.dto.RepresentativeDTO(r.id, r.firstName, r.lastName) "
+            + "FROM Representative r WHERE r.id > :afterId ORDER BY r.id")
+    List<RepresentativeDTO> findNamesAfter(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Reads the names of the representatives following the given ID up to another one in ID order, without
+     * loading the entities into the persistence context. Used to page through a range of representatives.
+     *
+     * @param afterId The ID after which the page starts (exclusive).
+     * @param lastId  The ID at which the range ends (inclusive).
+     * @param limit   The maximum number of representatives to return.
+     * @return A list of DTOs of the representatives with an ID in the range, in ascending order.
+     */
+    @Query("SELECT new io.flowpay.flowpayinterview.model.dto.RepresentativeDTO(r.id, r.firstName, r.lastName) "
+            + "FROM Representative r WHERE r.id > :afterId AND r.id <= :lastId ORDER BY r.id")
+    List<RepresentativeDTO> findNamesBetween(@Param("afterId") Long afterId, @Param("lastId") Long lastId, Limit limit);
+
+    /**
+     * Reads the names of the representatives with the given IDs, without loading the entities.
+     *
+     * @param ids The IDs of the representatives.
+     * @return A list of DTOs of the representatives found, in no particular order.
+     */
+    @Query("SELECT new io.flowpay.flowpayinterview.model.dto.RepresentativeDTO(r.id, r.firstName, r.lastName) "
+            + "FROM Representative r WHERE r.id IN :ids")
+    List<RepresentativeDTO> findNamesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Reads the version of a representative, which its entity tag is computed from, without loading the entity.
+     *
+     * @param id The ID of the representative.
+     * @return The version of the representative, or an empty optional if it does not exist.
+     */
+    @Query("SELECT r.version FROM Representative r WHERE r.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Deletes the representatives with the given IDs in a single statement. Their rows of the join table
+     * are removed by the cascading foreign key, located through the reverse index. Only the cached
+     * representatives and representative collections of the companies are invalidated.
+     *
+     * @param ids The IDs of the representatives to delete.
+     * @return The number of representatives deleted.
+     */
+    @Modifying
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "representatives"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "company_representatives")
+    })
+    @Query(value = "DELETE FROM representatives WHERE id IN (:ids)", nativeQuery = true)
+    int deleteAllByIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,37 @@
+package io.flowpay.flowpayinterview.repository;
+
+import io.flowpay.flowpayinterview.model.dto.RepresentativeNameChange;
+import io.flowpay.flowpayinterview.model.entity.Representative;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Custom repository operations for {@link Representative} entities that cannot be expressed
+ * through Spring Data query derivation.
+ */
+public interface RepresentativeRepositoryCustom {
+
+    /**
+     * Persists new representatives, flushing and clearing the persistence context after every batch
+     * so the inserts are sent as JDBC batches and memory usage stays bounded.
+     *
+     * @param representatives The new representatives; their IDs are assigned in place.
+     * @param batchSize       The number of representatives flushed together.
+     */
+    void persistAll(List<Representative> representatives, int batchSize);
+
+    /**
+     * Changes the names of a representative with a single PostgreSQL statement, without loading it first.
+     * The statement locks the row, increments its version and returns the previous names and the companies of the representative,
+     * which the callers need to maintain the name index and the cached companies. Only the cached representative
+     * and the cached query results over the representatives table are invalidated, both immediately
+     * and once the current transaction commits.
+     *
+     * @param id        The ID of the representative.
+     * @param firstName The new first name, or {@code null} to keep the current one.
+     * @param lastName  The new last name, or {@code null} to keep the current one.
+     * @return The names before and after the change, or an empty optional if the representative does not exist.
+     */
+    Optional<RepresentativeNameChange> updateNames(Long id, String firstName, String lastName);
+}
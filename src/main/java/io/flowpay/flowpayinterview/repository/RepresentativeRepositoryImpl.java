@@ -0,0 +1,90 @@
+package io.flowpay.flowpayinterview.repository;
+
+import io.flowpay.flowpayinterview.model.dto.RepresentativeNameChange;
+import io.flowpay.flowpayinterview.model.entity.Representative;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implementation of {@link RepresentativeRepositoryCustom}, picked up by Spring Data
+ * as a fragment of {@link RepresentativeRepository}.
+ */
+public class RepresentativeRepositoryImpl implements RepresentativeRepositoryCustom {
+
+    private static final String[] REPRESENTATIVE_SPACES = {"representatives"};
+
+    // The row is locked before its current names are read, so they cannot be those of a concurrent update.
+    private static final String UPDATE_NAMES_SQL = "WITH old AS ("
+            + "  SELECT id, firstname, lastname FROM representatives WHERE id = :id FOR UPDATE) "
+            + "UPDATE representatives r SET "
+            + "  firstname = coalesce(cast(:firstName AS varchar), old.firstname), "
+            + "  lastname = coalesce(cast(:lastName AS varchar), old.lastname), "
+            + "  version = r.version + 1 "
+            + "FROM old WHERE r.id = old.id "
+            + "RETURNING old.firstname AS old_firstname, old.lastname AS old_lastname, r.firstname, r.lastname, "
+            + "  array(SELECT cr.company_id FROM company_representatives cr WHERE cr.representative_id = r.id) AS company_ids";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void persistAll(List<Representative> representatives, int batchSize) {
+        for (int i = 0; i < representatives.size(); i++) {
+            entityManager.persist(representatives.get(i));
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Override
+    public Optional<RepresentativeNameChange> updateNames(Long id, String firstName, String lastName) {
+        // Run as a query for its returned row; Hibernate would invalidate whole cache regions after an update statement.
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        List<Object[]> rows = session.createNativeQuery(UPDATE_NAMES_SQL, Object[].class)
+                .setParameter("id", id)
+                .setParameter("firstName", firstName, StandardBasicTypes.STRING)
+                .setParameter("lastName", lastName, StandardBasicTypes.STRING)
+                .addScalar("old_firstname", String.class)
+                .addScalar("old_lastname", String.class)
+                .addScalar("firstname", String.class)
+                .addScalar("lastname", String.class)
+                .addScalar("company_ids", Long[].class)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+
+        // Only the cached representative and the cached query results over the representatives table are stale.
+        CacheImplementor cache = session.getFactory().getCache();
+        Runnable evict = () -> {
+            cache.evictEntityData(Representative.class, id);
+            cache.getTimestampsCache().invalidate(REPRESENTATIVE_SPACES, session);
+        };
+        evict.run();
+        // Evicted again after commit, so a concurrent load of the old row cannot outlive the change.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        }
+
+        Object[] row = rows.get(0);
+        return Optional.of(new RepresentativeNameChange((String) row[0], (String) row[1], (String) row[2], (String) row[3],
+                List.of((Long[]) row[4])));
+    }
+}
@@ -0,0 +1,56 @@
+package io.flowpay.flowpayinterview.service;
+
+import io.flowpay.flowpayinterview.exception.BulkValidationException;
+import io.flowpay.flowpayinterview.exception.InvalidRequestException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Validation shared by the bulk operations.
+ */
+final class BulkPayloads {
+
+    private BulkPayloads() {
+    }
+
+    /**
+     * Validates every item of a bulk payload and reports all violations at once.
+     *
+     * @param items       The items to validate.
+     * @param maxItems    The maximum number of items accepted in one request.
+     * @param validator   The bean validator checking the constraints declared on the items.
+     * @param extraChecks Additional checks returning error messages for a single item.
+     * @throws InvalidRequestException If the payload is empty or exceeds the maximum size.
+     * @throws BulkValidationException If any item is invalid.
+     */
+    static <T> void validate(List<T> items, int maxItems, Validator validator, Function<T, List<String>> extraChecks) {
+        if (items == null || items.isEmpty()) {
+            throw new InvalidRequestException("Bulk request must contain at least one item");
+        }
+        if (items.size() > maxItems) {
+            throw new InvalidRequestException("Bulk request must not contain more than " + maxItems + " items");
+        }
+
+        List<String> details = new ArrayList<>();
+        for (int index = 0; index < items.size(); index++) {
+            T item = items.get(index);
+            if (item == null) {
+                details.add("[" + index + "]: Item must not be null");
+                continue;
+            }
+            for (ConstraintViolation<T> violation : validator.validate(item)) {
+                details.add("[" + index + "] " + violation.getPropertyPath() + ": " + violation.getMessage());
+            }
+            for (String error : extraChecks.apply(item)) {
+                details.add("[" + index + "] " + error);
+            }
+        }
+        if (!details.isEmpty()) {
+            throw new BulkValidationException(details);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package io.flowpay.flowpayinterview.service;
+
+import io.flowpay.flowpayinterview.model.dto.ChangeDTO;
+import io.flowpay.flowpayinterview.model.dto.ChangeEntityType;
+import io.flowpay.flowpayinterview.repository.ChangeLogRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records the companies and representatives changed by the current transaction in the change log.
+ * <p>
+ * The changes are collected in memory, each entity once, and appended right before the transaction commits by
+ * a single statement, which advances the head of the log and inserts the entries. The head stays locked until the
+ * commit, so transactions append one after another and their entries become visible in sequence order: a consumer
+ * that has read up to a sequence number never misses an entry committed below it later.
+ * <p>
+ * Writers therefore serialize on the head for that last statement and their commit, while everything before
+ * runs concurrently: transactions recording changes commit one at a time, so their throughput is bounded by
+ * the round trip of the statement plus the commit latency of the database, whatever the size of the pool.
+ * <p>
+ * Once the transaction has committed, its entries are published as a {@link ChangesCommittedEvent}.
+ */
+@Component
+class ChangeLog {
+
+    private final ChangeLogRepository changeLogRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    ChangeLog(final ChangeLogRepository changeLogRepository,
+              final ApplicationEventPublisher eventPublisher) {
+        this.changeLogRepository = changeLogRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Records that an entity was created or changed.
+     *
+     * @param entityType The type of the entity.
+     * @param id         The ID of the entity.
+     */
+    void changed(ChangeEntityType entityType, Long id) {
+        pending().put(entityType, id, false);
+    }
+
+    /**
+     * Records that entities were created or changed.
+     *
+     * @param entityType The type of the entities.
+     * @param ids        The IDs of the entities.
+     */
+    void changed(ChangeEntityType entityType, Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            PendingChanges pending = pending();
+            ids.forEach(id -> pending.put(entityType, id, false));
+        }
+    }
+
+    /**
+     * Records that an entity was deleted, appending its tombstone.
+     *
+     * @param entityType The type of the entity.
+     * @param id         The ID of the entity.
+     */
+    void deleted(ChangeEntityType entityType, Long id) {
+        pending().put(entityType, id, true);
+    }
+
+    /**
+     * Records that entities were deleted, appending their tombstones.
+     *
+     * @param entityType The type of the entities.
+     * @param ids        The IDs of the entities.
+     */
+    void deleted(ChangeEntityType entityType, Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            PendingChanges pending = pending();
+            ids.forEach(id -> pending.put(entityType, id, true));
+        }
+    }
+
+    /**
+     * Records that the current transaction appended entries to the log itself, with a set-based statement
+     * advancing the head. They are published without their contents, for the listeners to read from the log.
+     *
+     * @param lastSeq The sequence number of the last entry appended.
+     */
+    void appended(long lastSeq) {
+        PendingChanges pending = pending();
+        pending.appendedLastSeq = Math.max(pending.appendedLastSeq, lastSeq);
+    }
+
+    /**
+     * Finds the changes collected for the current transaction, registering them on the first change.
+     * They are held by the synchronization itself, so a suspended transaction keeps its own.
+     */
+    private PendingChanges pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Changes can only be recorded within a transaction");
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingChanges pending && pending.owner() == this) {
+                return pending;
+            }
+        }
+        PendingChanges pending = new PendingChanges();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    private List<ChangeDTO> append(Map<ChangeEntityType, Map<Long, Boolean>> changes) {
+        List<ChangeDTO> entries = new ArrayList<>();
+        for (Map.Entry<ChangeEntityType, Map<Long, Boolean>> byType : changes.entrySet()) {
+            for (Map.Entry<Long, Boolean> change : byType.getValue().entrySet()) {
+                entries.add(new ChangeDTO(0, byType.getKey(), change.getKey(), change.getValue()));
+            }
+        }
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+        // Pending entity changes are written first, so the head is locked by the last statement of the transaction.
+        changeLogRepository.flush();
+        long seq = changeLogRepository.append(entries) - entries.size();
+        for (ChangeDTO entry : entries) {
+            entry.setSeq(++seq);
+        }
+        return entries;
+    }
+
+    private class PendingChanges implements TransactionSynchronization {
+
+        // The latest change of an entity wins, so a deletion is not followed by an older change.
+        private final Map<ChangeEntityType, Map<Long, Boolean>> changes = new EnumMap<>(ChangeEntityType.class);
+        private List<ChangeDTO> appended = List.of();
+        private long appendedLastSeq;
+
+        void put(ChangeEntityType entityType, Long id, boolean deleted) {
+            changes.computeIfAbsent(entityType, type -> new LinkedHashMap<>()).put(id, deleted);
+        }
+
+        ChangeLog owner() {
+            return ChangeLog.this;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            appended = append(changes);
+        }
+
+        @Override
+        public void afterCommit() {
+            if (appendedLastSeq > 0) {
+                long lastSeq = appended.isEmpty() ? appendedLastSeq
+                        : Math.max(appendedLastSeq, appended.get(appended.size() - 1).getSeq());
+                eventPublisher.publishEvent(new ChangesCommittedEvent(lastSeq));
+            } else if (!appended.isEmpty()) {
+                eventPublisher.publishEvent(new ChangesCommittedEvent(appended));
+            }
+        }
+    }
+}
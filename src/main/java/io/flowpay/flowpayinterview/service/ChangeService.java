@@ -0,0 +1,84 @@
+package io.flowpay.flowpayinterview.service;
+
+import io.flowpay.flowpayinterview.config.FlowpayProperties;
+import io.flowpay.flowpayinterview.config.MetricsConfig;
+import io.flowpay.flowpayinterview.exception.InvalidRequestException;
+import io.flowpay.flowpayinterview.model.dto.ChangeDTO;
+import io.flowpay.flowpayinterview.model.dto.ChangePageDTO;
+import io.flowpay.flowpayinterview.repository.ChangeLogRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Provides the incremental change feed of companies and representatives, read from the change log.
+ * Consumers keep the sequence number of the last entry they processed and read the entries after it,
+ * at a cost depending on the number of changes rather than on the number of entities.
+ */
+@Service
+@Transactional(readOnly = true)
+@Timed(MetricsConfig.METRIC_SERVICE)
+public class ChangeService {
+
+    private final ChangeLogRepository changeLogRepository;
+    private final FlowpayProperties.Changes changes;
+
+    public ChangeService(final ChangeLogRepository changeLogRepository,
+                         final FlowpayProperties flowpayProperties) {
+        this.changeLogRepository = changeLogRepository;
+        this.changes = flowpayProperties.getChanges();
+    }
+
+    /**
+     * Retrieves the entries of the change log following the given sequence number.
+     *
+     * @param since The sequence number of the last entry already processed, or {@code null} to read from the start.
+     * @param limit The requested number of entries, or {@code null} for the default; capped at the configured maximum.
+     * @return The DTO representing the page of entries, ordered by sequence number.
+     * @throws InvalidRequestException If the sequence number is negative or the limit is not positive.
+     */
+    public ChangePageDTO getChanges(Long since, Integer limit) {
+        if (since != null && since < 0) {
+            throw new InvalidRequestException("Sequence number must not be negative");
+        }
+        if (limit != null && limit < 1) {
+            throw new InvalidRequestException("Limit must be positive");
+        }
+        long after = since == null ? 0 : since;
+        int pageSize = Math.min(limit == null ? changes.getDefaultLimit() : limit, changes.getMaxLimit());
+
+        // Fetch one extra entry to find out whether more follow without a count query.
+        List<ChangeDTO> entries = changeLogRepository.findAfter(after, Limit.of(pageSize + 1));
+        boolean hasMore = entries.size() > pageSize;
+        List<ChangeDTO> items = hasMore ? entries.subList(0, pageSize) : entries;
+        long nextSince = items.isEmpty() ? after : items.get(items.size() - 1).getSeq();
+        return new ChangePageDTO(items, nextSince, hasMore);
+    }
+
+    /**
+     * Retrieves the entries of the change log following the given sequence number from the primary database.
+     * Used by the {@link ChangeStream}, which continues with the entries pushed after commit: a lagging read
+     * replica would leave a gap between the two.
+     *
+     * @param since The sequence number of the last entry already processed.
+     * @param limit The maximum number of entries; capped at the configured maximum.
+     * @return The DTO representing the page of entries, ordered by sequence number.
+     */
+    @Transactional
+    ChangePageDTO getCommittedChanges(long since, int limit) {
+        return getChanges(since, limit);
+    }
+
+    /**
+     * Retrieves the sequence number of the last entry appended to the change log, from the primary database.
+     *
+     * @return The sequence number, or 0 if the log is empty.
+     */
+    @Transactional
+    long getLastSeq() {
+        return changeLogRepository.findHead();
+    }
+}
@@ -0,0 +1,404 @@
+package io.flowpay.flowpayinterview.service;
+
+import io.flowpay.flowpayinterview.config.FlowpayProperties;
+import io.flowpay.flowpayinterview.exception.InvalidRequestException;
+import io.flowpay.flowpayinterview.exception.SubscriptionLimitExceededException;
+import io.flowpay.flowpayinterview.model.dto.ChangeDTO;
+import io.flowpay.flowpayinterview.model.dto.ChangeEntityType;
+import io.flowpay.flowpayinterview.model.dto.ChangePageDTO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes the committed changes of companies and representatives to subscribers, either of all changes
+ * or of the changes of a single company.
+ * <p>
+ * The changes arrive as {@link ChangesCommittedEvent}s on the committing threads, which only add them to the
+ * bounded buffers of the matching subscriptions; the buffers are sent on the executor of the stream, sized by the
+ * {@code ChangeStreamConfig}. A subscription whose
+ * buffer is full is dropped: it is sent what it has buffered, followed by an overflow notice with the sequence
+ * number to resume after, and closed. Slow subscribers therefore neither hold back the writers nor accumulate
+ * memory. Resuming replays the missed changes from the change log before continuing with the pushed ones.
+ * <p>
+ * Transactions run their after-commit callbacks in any order, so the events may arrive out of sequence.
+ * An event not continuing the last dispatched entry is not dispatched; the missing entries, committed by then,
+ * are read from the change log instead, as are the entries of bulk appends, which are published without them. Entries appended by other instances are read the same way, on the
+ * next local commit.
+ */
+public class ChangeStream {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeStream.class);
+
+    private final ChangeService changeService;
+    private final Executor executor;
+    private final FlowpayProperties.Changes properties;
+
+    private final Object lock = new Object();
+    // Guarded by the lock: the sequence number of the last dispatched entry, -1 until the first subscription
+    private long lastSeq = -1;
+    // Concurrent sets, as a subscription failing to be scheduled is removed while the sets are iterated
+    private final Set<Subscription> allChanges = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<Subscription>> companyChanges = new HashMap<>();
+    private int subscriptionCount;
+
+    private final AtomicBoolean catchUpScheduled = new AtomicBoolean();
+
+    /**
+     * Creates the change stream.
+     *
+     * @param changeService     The service reading the change log.
+     * @param executor          The executor the changes are sent on, owned by the stream.
+     * @param flowpayProperties The application properties holding the settings of the change stream.
+     */
+    public ChangeStream(final ChangeService changeService,
+                        final Executor executor,
+                        final FlowpayProperties flowpayProperties) {
+        this.changeService = changeService;
+        this.executor = executor;
+        this.properties = flowpayProperties.getChanges();
+    }
+
+    /**
+     * Subscribes to the changes committed from now on, or following a sequence number.
+     *
+     * @param companyId The ID of the company whose changes are sent, or {@code null} for all changes.
+     * @param since     The sequence number of the last change already processed, or {@code null} to start now.
+     * @param sink      The receiver of the changes; called by one thread at a time.
+     * @return The subscription, to be cancelled once the client goes away.
+     * @throws InvalidRequestException            If the sequence number is negative.
+     * @throws SubscriptionLimitExceededException If the maximum number of subscribers is reached.
+     */
+    public Subscription subscribe(Long companyId, Long since, Sink sink) {
+        if (since != null && since < 0) {
+            throw new InvalidRequestException("Sequence number must not be negative");
+        }
+        start();
+        Subscription subscription = new Subscription(companyId, sink);
+        synchronized (lock) {
+            if (subscriptionCount >= properties.getMaxSubscribers()) {
+                throw new SubscriptionLimitExceededException("Too many subscribers of the change stream");
+            }
+            if (companyId == null) {
+                allChanges.add(subscription);
+            } else {
+                companyChanges.computeIfAbsent(companyId, id -> ConcurrentHashMap.newKeySet()).add(subscription);
+            }
+            subscriptionCount++;
+            // Entries up to here are replayed from the log, later ones are buffered.
+            subscription.lastSent = since == null ? lastSeq : since;
+            subscription.replayUntil = lastSeq;
+        }
+        subscription.schedule();
+        return subscription;
+    }
+
+    /**
+     * Reports the number of open subscriptions.
+     *
+     * @return The number of subscriptions.
+     */
+    public int getSubscriptionCount() {
+        synchronized (lock) {
+            return subscriptionCount;
+        }
+    }
+
+    /**
+     * Dispatches the entries of a committed transaction to the subscriptions, or reads them from the log
+     * if entries committed before them have not been dispatched yet.
+     *
+     * @param event The event carrying the entries.
+     */
+    @EventListener
+    void onCommitted(ChangesCommittedEvent event) {
+        List<ChangeDTO> changes = event.getChanges();
+        long last = event.getLastSeq();
+        synchronized (lock) {
+            if (lastSeq < 0 || last <= lastSeq) {
+                return;
+            }
+            if (!changes.isEmpty() && changes.get(0).getSeq() == lastSeq + 1) {
+                dispatch(changes);
+                return;
+            }
+            if (subscriptionCount == 0) {
+                // Subscribers joining later replay the skipped entries from the log.
+                lastSeq = last;
+                return;
+            }
+        }
+        catchUp();
+    }
+
+    /**
+     * Closes all subscriptions on shutdown, so the clients reconnect elsewhere, and stops the executor.
+     */
+    @PreDestroy
+    public void close() {
+        List<Subscription> subscriptions = new ArrayList<>();
+        synchronized (lock) {
+            subscriptions.addAll(allChanges);
+            companyChanges.values().forEach(subscriptions::addAll);
+        }
+        subscriptions.forEach(Subscription::cancel);
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Starts tracking the log from its current head, on the first subscription.
+     */
+    private void start() {
+        synchronized (lock) {
+            if (lastSeq >= 0) {
+                return;
+            }
+        }
+        long head = changeService.getLastSeq();
+        synchronized (lock) {
+            if (lastSeq < 0) {
+                lastSeq = head;
+            }
+        }
+        // Events of commits following the read of the head may have been ignored.
+        catchUp();
+    }
+
+    private void catchUp() {
+        if (catchUpScheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::readMissedChanges);
+            } catch (RejectedExecutionException e) {
+                catchUpScheduled.set(false);
+                log.warn("Failed to schedule the read of the missed changes", e);
+            }
+        }
+    }
+
+    private void readMissedChanges() {
+        catchUpScheduled.set(false);
+        try {
+            ChangePageDTO page;
+            do {
+                long since;
+                synchronized (lock) {
+                    since = lastSeq;
+                }
+                page = changeService.getCommittedChanges(since, properties.getMaxLimit());
+                synchronized (lock) {
+                    // The entries read are gapless, so those not dispatched meanwhile continue the last dispatched one.
+                    List<ChangeDTO> missed = page.getItems().stream()
+                            .filter(change -> change.getSeq() > lastSeq)
+                            .toList();
+                    if (!missed.isEmpty()) {
+                        dispatch(missed);
+                    }
+                }
+            } while (page.isHasMore());
+        } catch (RuntimeException e) {
+            // Retried with the next commit that does not continue the dispatched entries.
+            log.warn("Failed to read the missed changes from the change log", e);
+        }
+    }
+
+    // Called with the lock held
+    private void dispatch(List<ChangeDTO> changes) {
+        for (Subscription subscription : allChanges) {
+            subscription.offer(changes);
+        }
+        if (!companyChanges.isEmpty()) {
+            for (ChangeDTO change : changes) {
+                if (change.getEntityType() == ChangeEntityType.COMPANY) {
+                    Set<Subscription> subscriptions = companyChanges.get(change.getEntityId());
+                    if (subscriptions != null) {
+                        List<ChangeDTO> single = List.of(change);
+                        subscriptions.forEach(subscription -> subscription.offer(single));
+                    }
+                }
+            }
+        }
+        lastSeq = changes.get(changes.size() - 1).getSeq();
+    }
+
+    private void unregister(Subscription subscription) {
+        synchronized (lock) {
+            boolean removed;
+            if (subscription.companyId == null) {
+                removed = allChanges.remove(subscription);
+            } else {
+                Set<Subscription> subscriptions = companyChanges.get(subscription.companyId);
+                removed = subscriptions != null && subscriptions.remove(subscription);
+                if (removed && subscriptions.isEmpty()) {
+                    companyChanges.remove(subscription.companyId);
+                }
+            }
+            if (removed) {
+                subscriptionCount--;
+            }
+        }
+    }
+
+    /**
+     * Receiver of the changes of a subscription, such as a Server-Sent Events connection.
+     */
+    public interface Sink {
+
+        /**
+         * Called first, before any change.
+         *
+         * @param since The sequence number the subscription continues after.
+         */
+        void open(long since) throws IOException;
+
+        /**
+         * Called for every change, in sequence order.
+         *
+         * @param change The change.
+         */
+        void change(ChangeDTO change) throws IOException;
+
+        /**
+         * Called when the subscriber fell too far behind, right before the subscription is closed.
+         *
+         * @param resumeAfter The sequence number to resume the subscription after.
+         */
+        void overflow(long resumeAfter) throws IOException;
+
+        /**
+         * Called once the subscription is closed, for whatever reason.
+         */
+        void close();
+    }
+
+    /**
+     * Subscription to the change stream, buffering the changes not sent yet.
+     */
+    public final class Subscription {
+
+        private final Long companyId;
+        private final Sink sink;
+        private final BlockingQueue<ChangeDTO> buffer;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean overflowed;
+
+        // Used by one send task at a time, handed over through the scheduled flag
+        private long lastSent;
+        private long replayUntil;
+        private boolean opened;
+
+        private Subscription(Long companyId, Sink sink) {
+            this.companyId = companyId;
+            this.sink = sink;
+            // Allocated as changes are buffered, so idle subscriptions stay small
+            this.buffer = new LinkedBlockingQueue<>(properties.getSubscriberBufferSize());
+        }
+
+        /**
+         * Closes the subscription, dropping the buffered changes.
+         */
+        public void cancel() {
+            if (closed.compareAndSet(false, true)) {
+                unregister(this);
+                buffer.clear();
+                sink.close();
+            }
+        }
+
+        // Called with the lock held, so the changes of all transactions are buffered in sequence order
+        private void offer(List<ChangeDTO> changes) {
+            if (overflowed || closed.get()) {
+                return;
+            }
+            if (changes.size() > buffer.remainingCapacity()) {
+                overflowed = true;
+            } else {
+                buffer.addAll(changes);
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (!closed.get() && scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::send);
+                } catch (RejectedExecutionException e) {
+                    // Never fails the committing thread; the client reconnects and resumes.
+                    log.debug("Closing the change subscription as its changes cannot be sent", e);
+                    cancel();
+                }
+            }
+        }
+
+        private void send() {
+            try {
+                if (!opened) {
+                    opened = true;
+                    sink.open(lastSent);
+                    replay();
+                }
+                ChangeDTO change;
+                while (!closed.get() && (change = buffer.poll()) != null) {
+                    send(change);
+                }
+                if (overflowed && !closed.get()) {
+                    sink.overflow(lastSent);
+                    cancel();
+                }
+            } catch (IOException | RuntimeException e) {
+                log.debug("Closing the change subscription after a failed send", e);
+                cancel();
+            }
+            scheduled.set(false);
+            if (!buffer.isEmpty() || overflowed) {
+                schedule();
+            }
+        }
+
+        private void replay() throws IOException {
+            if (lastSent >= replayUntil) {
+                return;
+            }
+            long cursor = lastSent;
+            ChangePageDTO page;
+            do {
+                page = changeService.getCommittedChanges(cursor, properties.getMaxLimit());
+                for (ChangeDTO change : page.getItems()) {
+                    if (change.getSeq() > replayUntil) {
+                        break;
+                    }
+                    if (companyId == null
+                            || change.getEntityType() == ChangeEntityType.COMPANY && companyId.equals(change.getEntityId())) {
+                        send(change);
+                    }
+                }
+                cursor = page.getNextSince();
+            } while (page.isHasMore() && cursor < replayUntil);
+            lastSent = Math.max(lastSent, replayUntil);
+        }
+
+        private void send(ChangeDTO change) throws IOException {
+            if (change.getSeq() > lastSent) {
+                sink.change(change);
+                lastSent = change.getSeq();
+            }
+        }
+    }
+}
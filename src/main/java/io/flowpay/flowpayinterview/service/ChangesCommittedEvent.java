@@ -0,0 +1,35 @@
+package io.flowpay.flowpayinterview.service;
+
+import io.flowpay.flowpayinterview.model.dto.ChangeDTO;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published by the {@link ChangeLog} once a transaction has committed, with the entries it appended, or only
+ * the sequence number of the last of them if they were appended in bulk and are to be read from the log.
+ * Listeners run on the committing thread, so they must hand the entries over rather than process them.
+ */
+@Getter
+class ChangesCommittedEvent {
+
+    /**
+     * The appended entries, ordered by their gapless sequence numbers; empty if they were appended in bulk.
+     */
+    private final List<ChangeDTO> changes;
+
+    /**
+     * The sequence number of the last appended entry.
+     */
+    private final long lastSeq;
+
+    ChangesCommittedEvent(List<ChangeDTO> changes) {
+        this.changes = changes;
+        this.lastSeq = changes.get(changes.size() - 1).getSeq();
+    }
+
+    ChangesCommittedEvent(long lastSeq) {
+        this.changes = List.of();
+        this.lastSeq = lastSeq;
+    }
+}
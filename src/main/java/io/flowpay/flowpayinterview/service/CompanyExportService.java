@@ -0,0 +1,70 @@
+package io.flowpay.flowpayinterview.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.flowpay.flowpayinterview.config.FlowpayProperties;
+import io.flowpay.flowpayinterview.mapper.CommonMapper;
+import io.flowpay.flowpayinterview.repository.CompanyRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Provides the export of all companies and their representatives as newline delimited JSON.
+ * Companies are read through a database cursor and written as they arrive, so neither the
+ * persistence context nor the response is ever materialized in full.
+ */
+@Service
+public class CompanyExportService {
+
+    private final CompanyRepository companyRepository;
+    private final CommonMapper commonMapper;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter objectWriter;
+    private final int clearInterval;
+
+    public CompanyExportService(final CompanyRepository companyRepository,
+                                final CommonMapper commonMapper,
+                                final ObjectMapper objectMapper,
+                                final FlowpayProperties flowpayProperties) {
+        this.companyRepository = companyRepository;
+        this.commonMapper = commonMapper;
+        this.objectMapper = objectMapper;
+        // Flushing is done in batches below rather than after every company.
+        this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.clearInterval = flowpayProperties.getExport().getClearInterval();
+    }
+
+    /**
+     * Writes every company, including its representatives, as one JSON document per line.
+     *
+     * @param outputStream The stream to write to; it is flushed but not closed.
+     * @throws IOException If writing to the stream fails.
+     */
+    @Transactional(readOnly = true)
+    public void exportCompanies(OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            long[] written = {0};
+            companyRepository.scrollAllWithRepresentatives(clearInterval, company -> {
+                try {
+                    objectWriter.writeValue(generator, commonMapper.companyToDto(company));
+                    generator.writeRaw('\n');
+                    if (++written[0] % clearInterval == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package io.flowpay.flowpayinterview.service;
+
+import io.flowpay.flowpayinterview.config.CacheConfig;
+import io.flowpay.flowpayinterview.config.FlowpayProperties;
+import io.flowpay.flowpayinterview.config.MetricsConfig;
+import io.flowpay.flowpayinterview.exception.InvalidRequestException;
+import io.flowpay.flowpayinterview.model.dto.CompanyImportResultDTO;
+import io.flowpay.flowpayinterview.repository.CompanyImportRepository;
+import io.flowpay.flowpayinterview.repository.CompanyRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.InputStream;
+
+/**
+ * Provides the import of companies and representatives from CSV. The file is streamed into the database
+ * and merged there, so it is never held in memory, and all of it is imported in one transaction.
+ */
+@Service
+@Timed(MetricsConfig.METRIC_SERVICE)
+public class CompanyImportService {
+
+    private final CompanyImportRepository companyImportRepository;
+    private final CompanyRepository companyRepository;
+    private final RepresentativeNameIndex representativeNameIndex;
+    private final FlowpayProperties flowpayProperties;
+    private final ChangeLog changeLog;
+
+    public CompanyImportService(final CompanyImportRepository companyImportRepository,
+                                final CompanyRepository companyRepository,
+                                final RepresentativeNameIndex representativeNameIndex,
+                                final FlowpayProperties flowpayProperties,
+                                final ChangeLog changeLog) {
+        this.companyImportRepository = companyImportRepository;
+        this.companyRepository = companyRepository;
+        this.representativeNameIndex = representativeNameIndex;
+        this.flowpayProperties = flowpayProperties;
+        this.changeLog = changeLog;
+    }
+
+    /**
+     * Imports companies and representatives from a CSV file with a header and the columns
+     * {@code company_name}, {@code first_name} and {@code last_name}. Companies are matched by name and
+     * representatives by first and last name, so rows naming existing ones only add the missing assignments.
+     * Invalid rows are skipped and reported, up to the configured number.
+     *
+     * @param csv The CSV file.
+     * @return The counts of the rows read, rejected and created.
+     * @throws InvalidRequestException If the file is not valid CSV with the expected columns.
+     */
+    @Transactional
+    // Existing representatives are never changed, only the companies they are assigned to.
+    @CacheEvict(cacheNames = CacheConfig.CACHE_COMPANIES, allEntries = true)
+    public CompanyImportResultDTO importCsv(InputStream csv) {
+        // The name index reads the new representatives back after commit; the merge appends the change log itself.
+        CompanyImportResultDTO result = companyImportRepository.importCsv(csv,
+                flowpayProperties.getCsvImport().getMaxReportedRejects(), representativeNameIndex::addRange,
+                changeLog::appended);
+        companyRepository.evictAllCachedRepresentatives();
+        return result;
+    }
+}
@@ -1,18 +1,49 @@
 package io.flowpay.flowpayinterview.service;
 
+import io.flowpay.flowpayinterview.config.CacheConfig;
+import io.flowpay.flowpayinterview.config.FlowpayProperties;
+import io.flowpay.flowpayinterview.config.MetricsConfig;
+import io.flowpay.flowpayinterview.datasource.ReadFromPrimary;
+import io.flowpay.flowpayinterview.exception.InvalidRequestException;
+import io.flowpay.flowpayinterview.exception.PreconditionFailedException;
+import io.flowpay.flowpayinterview.exception.TransferConflictException;
 import io.flowpay.flowpayinterview.mapper.CommonMapper;
+import io.flowpay.flowpayinterview.model.dto.BulkItemResultDTO;
+import io.flowpay.flowpayinterview.model.dto.ChangeEntityType;
 import io.flowpay.flowpayinterview.model.dto.CompanyDTO;
+import io.flowpay.flowpayinterview.model.dto.CompanyLookupDTO;
+import io.flowpay.flowpayinterview.model.dto.CompanyNameMatch;
+import io.flowpay.flowpayinterview.model.dto.CompanyPageDTO;
+import io.flowpay.flowpayinterview.model.dto.CompanySearchPageDTO;
+import io.flowpay.flowpayinterview.model.dto.CompanyVersionDTO;
 import io.flowpay.flowpayinterview.model.dto.RepresentativeDTO;
+import io.flowpay.flowpayinterview.model.dto.RepresentativeTransferDTO;
+import io.flowpay.flowpayinterview.model.dto.TaggedDTO;
 import io.flowpay.flowpayinterview.model.entity.Company;
 import io.flowpay.flowpayinterview.model.entity.Representative;
 import io.flowpay.flowpayinterview.repository.CompanyRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.Validator;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Provides services for managing companies, including CRUD operations,
@@ -20,18 +51,42 @@ import java.util.stream.Collectors;
  */
 @Service
 @Transactional
+@Timed(MetricsConfig.METRIC_SERVICE)
 public class CompanyService {
 
     private final CompanyRepository companyRepository;
     private final RepresentativeService representativeService;
     private final CommonMapper commonMapper;
+    private final FlowpayProperties.Pagination pagination;
+    private final int fetchBatchSize;
+    private final int maxLookupIds;
+    private final FlowpayProperties.Bulk bulk;
+    private final FlowpayProperties.Search search;
+    private final Validator validator;
+    private final CacheManager cacheManager;
+    private final RepresentativeNameIndex representativeNameIndex;
+    private final ChangeLog changeLog;
 
     public CompanyService(final CompanyRepository companyRepository,
                           final RepresentativeService representativeService,
-                          final CommonMapper commonMapper) {
+                          final CommonMapper commonMapper,
+                          final FlowpayProperties flowpayProperties,
+                          final Validator validator,
+                          final CacheManager cacheManager,
+                          final RepresentativeNameIndex representativeNameIndex,
+                          final ChangeLog changeLog) {
         this.companyRepository = companyRepository;
         this.representativeService = representativeService;
         this.commonMapper = commonMapper;
+        this.pagination = flowpayProperties.getPagination();
+        this.fetchBatchSize = flowpayProperties.getFetch().getBatchSize();
+        this.maxLookupIds = flowpayProperties.getFetch().getMaxLookupIds();
+        this.bulk = flowpayProperties.getBulk();
+        this.search = flowpayProperties.getSearch();
+        this.validator = validator;
+        this.cacheManager = cacheManager;
+        this.representativeNameIndex = representativeNameIndex;
+        this.changeLog = changeLog;
     }
 
     /**
@@ -41,8 +96,38 @@ public class CompanyService {
      * @return The DTO representing the created company.
      */
     public CompanyDTO createCompany(CompanyDTO companyDTO) {
-        Company company = commonMapper.companyDtoToEntity(companyDTO);
-        return commonMapper.companyToDto(companyRepository.save(company));
+        Company company = companyRepository.save(commonMapper.companyDtoToEntity(companyDTO));
+        changeLog.changed(ChangeEntityType.COMPANY, company.getId());
+        return commonMapper.companyToDto(company);
+    }
+
+    /**
+     * Creates multiple companies at once. The whole payload is validated first, so either all
+     * companies are created or none; the inserts are then sent in JDBC batches.
+     * Representatives of the companies must already exist and are referenced by their IDs.
+     *
+     * @param companyDTOs The DTOs containing the companies' information.
+     * @return The results of the items, in payload order, carrying the IDs of the created companies.
+     * @throws InvalidRequestException If the payload is empty or too large.
+     * @throws io.flowpay.flowpayinterview.exception.BulkValidationException If any of the companies is invalid.
+     */
+    public List<BulkItemResultDTO> createCompanies(List<CompanyDTO> companyDTOs) {
+        BulkPayloads.validate(companyDTOs, bulk.getMaxItems(), validator, companyDTO ->
+                companyDTO.getRepresentatives() != null
+                        && companyDTO.getRepresentatives().stream().anyMatch(r -> r == null || r.getId() == null)
+                        ? List.of("representatives: Representatives must be referenced by ID")
+                        : List.of());
+
+        List<Company> companies = companyDTOs.stream()
+                .map(commonMapper::companyDtoToEntity)
+                .collect(Collectors.toList());
+        // IDs are always assigned by the database sequence.
+        companies.forEach(company -> company.setId(null));
+        companyRepository.persistAll(companies, bulk.getBatchSize());
+        changeLog.changed(ChangeEntityType.COMPANY, companies.stream().map(Company::getId).toList());
+        return IntStream.range(0, companies.size())
+                .mapToObj(index -> new BulkItemResultDTO(index, companies.get(index).getId()))
+                .collect(Collectors.toList());
     }
 
     /**
@@ -52,16 +137,71 @@ public class CompanyService {
      * @return The DTO representing the retrieved company.
      * @throws EntityNotFoundException If the company with the given ID does not exist.
      */
+    @Transactional(readOnly = true)
     public CompanyDTO getCompanyById(Long id) {
         return commonMapper.companyToDto(findCompanyById(id));
     }
 
+    /**
+     * Retrieves a company by its ID together with its entity tag, both taken from the same read,
+     * so the cached company and its tag always describe the same state.
+     *
+     * @param id The ID of the company.
+     * @return The DTO representing the retrieved company, tagged with the entity tag of the company.
+     * @throws EntityNotFoundException If the company with the given ID does not exist.
+     */
+    @Transactional(readOnly = true)
+    @ReadFromPrimary
+    @Cacheable(cacheNames = CacheConfig.CACHE_COMPANIES, key = "#id")
+    public TaggedDTO<CompanyDTO> getTaggedCompanyById(Long id) {
+        Company company = findCompanyById(id);
+        return new TaggedDTO<>(EntityTags.of(company), commonMapper.companyToDto(company));
+    }
+
+    /**
+     * Computes the entity tag of a company from the versions of the company and its representatives,
+     * without loading or mapping them, to answer conditional requests.
+     *
+     * @param id The ID of the company.
+     * @return The quoted strong entity tag of the company.
+     * @throws EntityNotFoundException If the company with the given ID does not exist.
+     */
+    @Transactional(readOnly = true)
+    @ReadFromPrimary
+    public String getCompanyETag(Long id) {
+        List<CompanyVersionDTO> versions = companyRepository.findVersionsById(id);
+        if (versions.isEmpty()) {
+            throw new EntityNotFoundException("Company not found with id " + id);
+        }
+        return EntityTags.company(versions);
+    }
+
+    /**
+     * Retrieves several companies by their IDs, loading them with their representatives in one query
+     * per batch of IDs. IDs of companies that do not exist are reported instead of failing the lookup.
+     *
+     * @param ids The IDs of the companies; repeated IDs are looked up once.
+     * @return The DTO carrying the companies found in the requested order and the IDs not found.
+     * @throws InvalidRequestException If no IDs, a null ID or more than the configured maximum of IDs are given.
+     */
+    @Transactional(readOnly = true)
+    public CompanyLookupDTO getCompaniesByIds(List<Long> ids) {
+        List<Long> distinctIds = LookupIds.distinct(ids, maxLookupIds);
+        Map<Long, CompanyDTO> found = companyRepository.findAllWithRepresentativesByIds(distinctIds, fetchBatchSize).stream()
+                .map(commonMapper::companyToDto)
+                .collect(Collectors.toMap(CompanyDTO::getId, Function.identity()));
+        return new CompanyLookupDTO(
+                distinctIds.stream().map(found::get).filter(Objects::nonNull).collect(Collectors.toList()),
+                distinctIds.stream().filter(id -> !found.containsKey(id)).collect(Collectors.toList()));
+    }
+
     /**
      * Retrieves companies by their name.
      *
      * @param name The name of the companies to retrieve.
      * @return A list of DTOs representing the retrieved companies.
      */
+    @Transactional(readOnly = true)
     public List<CompanyDTO> getCompanyByName(String name) {
         return companyRepository.findAllByName(name).stream()
                 .map(commonMapper::companyToDto)
@@ -73,6 +213,7 @@ public class CompanyService {
      *
      * @return A list of DTOs representing the companies without representatives.
      */
+    @Transactional(readOnly = true)
     public List<CompanyDTO> getCompaniesWithoutRepresentative() {
         return companyRepository.findAllByRepresentativesEmpty().stream()
                 .map(commonMapper::companyToDto)
@@ -80,69 +221,234 @@ public class CompanyService {
     }
 
     /**
-     * Retrieves all existing companies.
+     * Retrieves all existing companies, up to the configured hard row cap.
+     * Clients needing the complete data set should page through {@link #getCompaniesPage(String, Integer)}.
      *
-     * @return A list of DTOs representing all existing companies.
+     * @return A list of DTOs representing the existing companies, ordered by ID.
      */
+    @Transactional(readOnly = true)
     public List<CompanyDTO> getAllCompanies() {
-        return companyRepository.findAll().stream()
+        List<Long> ids = companyRepository.findIdsAfter(0L, Limit.of(pagination.getUnpagedMaxRows()));
+        return companyRepository.findAllWithRepresentativesByIds(ids, fetchBatchSize).stream()
                 .map(commonMapper::companyToDto)
                 .collect(Collectors.toList());
     }
 
     /**
-     * Updates the details of an existing company.
+     * Retrieves a page of companies ordered by ID, starting after the given cursor.
+     *
+     * @param cursor The cursor returned with the previous page, or {@code null} for the first page.
+     * @param size   The requested page size, or {@code null} for the default; capped at the configured maximum.
+     * @return The DTO representing the page, including the cursor of the next page if there is one.
+     * @throws InvalidRequestException If the cursor is malformed or the size is not positive.
+     */
+    @Transactional(readOnly = true)
+    public CompanyPageDTO getCompaniesPage(String cursor, Integer size) {
+        long afterId = KeysetCursor.decode(cursor);
+        int pageSize = resolvePageSize(size);
+
+        // Fetch one extra ID to find out whether another page follows without a count query.
+        List<Long> ids = companyRepository.findIdsAfter(afterId, Limit.of(pageSize + 1));
+        boolean hasNext = ids.size() > pageSize;
+        List<Long> pageIds = hasNext ? ids.subList(0, pageSize) : ids;
+        List<CompanyDTO> items = companyRepository.findAllWithRepresentativesByIds(pageIds, fetchBatchSize).stream()
+                .map(commonMapper::companyToDto)
+                .collect(Collectors.toList());
+
+        String nextCursor = hasNext ? KeysetCursor.encode(pageIds.get(pageIds.size() - 1)) : null;
+        return new CompanyPageDTO(items, nextCursor);
+    }
+
+    /**
+     * Searches companies by name, as used for type-ahead suggestions.
+     *
+     * @param query The text to search for; matched case-insensitively.
+     * @param match How the name is matched against the query, or {@code null} for prefix matching.
+     * @param page  The zero-based number of the page, or {@code null} for the first page.
+     * @param size  The requested page size, or {@code null} for the default; capped at the configured maximum.
+     * @return The DTO representing the page of matching companies, ordered by rank.
+     * @throws InvalidRequestException  If the query is blank or too short for the match type,
+     *                                  or the page or size is out of range.
+     */
+    @Transactional(readOnly = true)
+    public CompanySearchPageDTO searchCompanies(String query, CompanyNameMatch match, Integer page, Integer size) {
+        String normalizedQuery = query == null ? "" : query.strip().toLowerCase(Locale.ROOT);
+        CompanyNameMatch nameMatch = match == null ? CompanyNameMatch.PREFIX : match;
+        if (normalizedQuery.isEmpty()) {
+            throw new InvalidRequestException("Search query must not be blank");
+        }
+        if (nameMatch != CompanyNameMatch.PREFIX && normalizedQuery.length() < search.getMinTrigramQueryLength()) {
+            throw new InvalidRequestException("Search query must have at least "
+                    + search.getMinTrigramQueryLength() + " characters for " + nameMatch + " matching");
+        }
+        if (page != null && page < 0) {
+            throw new InvalidRequestException("Page must not be negative");
+        }
+        int pageNumber = page == null ? 0 : page;
+        int pageSize = size == null ? Math.min(search.getDefaultPageSize(), pagination.getMaxPageSize()) : resolvePageSize(size);
+        long offset = (long) pageNumber * pageSize;
+
+        // Fetch one extra ID to find out whether another page follows without a count query.
+        List<Long> ids = switch (nameMatch) {
+            case PREFIX -> companyRepository.findIdsByNamePrefix(escapeLike(normalizedQuery) + "%", pageSize + 1, offset);
+            case CONTAINS -> companyRepository.findIdsByNameContaining(
+                    "%" + escapeLike(normalizedQuery) + "%", normalizedQuery, pageSize + 1, offset);
+            case FUZZY -> companyRepository.findIdsByNameSimilarTo(normalizedQuery, pageSize + 1, offset);
+        };
+        boolean hasNext = ids.size() > pageSize;
+        List<Long> pageIds = hasNext ? ids.subList(0, pageSize) : ids;
+
+        Map<Long, Company> companiesById = companyRepository.findAllWithRepresentativesByIds(pageIds, fetchBatchSize).stream()
+                .collect(Collectors.toMap(Company::getId, Function.identity()));
+        List<CompanyDTO> items = pageIds.stream()
+                .map(companiesById::get)
+                .filter(Objects::nonNull)
+                .map(commonMapper::companyToDto)
+                .collect(Collectors.toList());
+        return new CompanySearchPageDTO(items, pageNumber, pageSize, hasNext);
+    }
+
+    /**
+     * Updates the details of an existing company. If representatives are given, they replace the current ones:
+     * only the join table rows of the added and removed representatives are inserted and deleted, in batches,
+     * so the cost depends on the number of changes rather than on the number of representatives.
      *
      * @param id               The ID of the company to update.
-     * @param updatedCompanyDTO The updated details of the company.
+     * @param updatedCompanyDTO The updated details of the company; representatives are referenced by their IDs,
+     *                          and {@code null} representatives leave the current ones unchanged.
      * @return The DTO representing the updated company.
-     * @throws EntityNotFoundException If the company with the given ID does not exist.
+     * @throws EntityNotFoundException  If the company or any of the representatives does not exist.
+     * @throws InvalidRequestException  If a representative is not referenced by ID.
      */
+    @CacheEvict(cacheNames = CacheConfig.CACHE_COMPANIES, key = "#id")
     public CompanyDTO updateCompany(Long id, CompanyDTO updatedCompanyDTO) {
+        return updateCompany(id, updatedCompanyDTO, null);
+    }
+
+    /**
+     * Updates the details of an existing company, provided it is still in the state the client last read.
+     * The company is locked before its entity tag is checked, so it cannot change in between.
+     *
+     * @param id                The ID of the company to update.
+     * @param updatedCompanyDTO The updated details of the company, as for {@link #updateCompany(Long, CompanyDTO)}.
+     * @param ifMatch           The {@code If-Match} header, or {@code null} to update unconditionally.
+     * @return The DTO representing the updated company.
+     * @throws PreconditionFailedException If the company does not exist or does not match the header.
+     * @throws EntityNotFoundException     If the company or any of the representatives does not exist.
+     * @throws InvalidRequestException     If a representative is not referenced by ID.
+     */
+    @CacheEvict(cacheNames = CacheConfig.CACHE_COMPANIES, key = "#id")
+    public CompanyDTO updateCompany(Long id, CompanyDTO updatedCompanyDTO, String ifMatch) {
+        Set<Long> representativeIds = commonMapper.representativeIds(updatedCompanyDTO);
+        if (ifMatch != null) {
+            requireCompanyMatches(id, ifMatch);
+        }
         Company existingCompany = findCompanyById(id);
         commonMapper.updateCompanyFromDto(updatedCompanyDTO, existingCompany);
+        if (representativeIds != null) {
+            replaceRepresentatives(id, representativeIds);
+        }
+        changeLog.changed(ChangeEntityType.COMPANY, id);
         return commonMapper.companyToDto(companyRepository.save(existingCompany));
     }
 
+    /**
+     * Partially updates a company according to a JSON Merge Patch document. The supplied fields are written
+     * by a single update statement without reading the company first.
+     *
+     * @param id    The ID of the company to update.
+     * @param patch The merge patch document; only the name can be patched.
+     * @throws EntityNotFoundException  If the company with the given ID does not exist.
+     * @throws InvalidRequestException  If the patch is empty, invalid or names a field that cannot be patched.
+     */
+    @CacheEvict(cacheNames = CacheConfig.CACHE_COMPANIES, key = "#id")
+    public void patchCompany(Long id, Map<String, Object> patch) {
+        Map<String, String> fields = MergePatches.textFields(patch, CompanyDTO.class, Set.of("name"), validator);
+        if (companyRepository.updateName(id, fields.get("name")) == 0) {
+            throw new EntityNotFoundException("Company not found with id " + id);
+        }
+        changeLog.changed(ChangeEntityType.COMPANY, id);
+    }
+
     /**
      * Deletes a company by its ID.
      *
      * @param id The ID of the company to delete.
      */
+    @CacheEvict(cacheNames = CacheConfig.CACHE_COMPANIES, key = "#id")
     public void deleteCompany(Long id) {
-        companyRepository.deleteById(id);
+        deleteCompany(id, null);
     }
 
     /**
-     * Assigns a representative to a company, updating both entities.
+     * Deletes a company by its ID, provided it is still in the state the client last read.
+     *
+     * @param id      The ID of the company to delete.
+     * @param ifMatch The {@code If-Match} header, or {@code null} to delete unconditionally.
+     * @throws PreconditionFailedException If the company does not exist or does not match the header.
+     */
+    @CacheEvict(cacheNames = CacheConfig.CACHE_COMPANIES, key = "#id")
+    public void deleteCompany(Long id, String ifMatch) {
+        if (ifMatch != null) {
+            requireCompanyMatches(id, ifMatch);
+        }
+        companyRepository.findById(id).ifPresent(company -> {
+            // The representatives of the company are deleted with it.
+            List<Long> representativeIds = company.getRepresentatives().stream()
+                    .map(Representative::getId)
+                    .toList();
+            Cache representatives = cacheManager.getCache(CacheConfig.CACHE_REPRESENTATIVES);
+            if (representatives != null) {
+                representativeIds.forEach(representatives::evict);
+            }
+            company.getRepresentatives().forEach(representative -> representativeNameIndex.remove(
+                    representative.getId(), representative.getFirstName(), representative.getLastName()));
+            changeLog.deleted(ChangeEntityType.REPRESENTATIVE, representativeIds);
+            companyRepository.delete(company);
+            changeLog.deleted(ChangeEntityType.COMPANY, id);
+        });
+    }
+
+    /**
+     * Assigns a representative to a company. The association is inserted directly, so the change does not
+     * depend on the number of representatives the company already has; only the returned company is read
+     * with all of them. Assigning a representative that is already assigned has no effect.
      *
      * @param companyId         The ID of the company.
      * @param representativeId  The ID of the representative to assign.
      * @return The updated company DTO.
      * @throws EntityNotFoundException If either the company or representative does not exist.
      */
+    @CacheEvict(cacheNames = CacheConfig.CACHE_COMPANIES, key = "#companyId")
     public CompanyDTO assignRepresentativeToCompany(Long companyId, Long representativeId) {
-        Company company = findCompanyById(companyId);
-        RepresentativeDTO representativeDTO = representativeService.getRepresentativeById(representativeId);
-
-        company.addRepresentative(commonMapper.representativeDtoToEntity(representativeDTO));
-        return commonMapper.companyToDto(companyRepository.save(company));
+        if (companyRepository.assignRepresentative(companyId, representativeId) == 0) {
+            // Nothing inserted: either already assigned, or one of them does not exist.
+            requireCompanyAndRepresentative(companyId, representativeId);
+        } else {
+            companyRepository.evictCachedRepresentatives(List.of(companyId));
+            changeLog.changed(ChangeEntityType.COMPANY, companyId);
+        }
+        // Read within the transaction of the change, so the company is never read from a lagging replica.
+        return commonMapper.companyToDto(findCompanyById(companyId));
     }
 
     /**
-     * Unassigns a representative from a company.
+     * Unassigns a representative from a company. The association is deleted directly, so the cost does not
+     * depend on the number of representatives the company has.
      *
      * @param companyId        The ID of the company.
      * @param representativeId The ID of the representative to unassign.
      * @throws EntityNotFoundException If either the company or representative does not exist.
      */
+    @CacheEvict(cacheNames = CacheConfig.CACHE_COMPANIES, key = "#companyId")
     public void unassignRepresentativeFromCompany(Long companyId, Long representativeId) {
-        Company company = findCompanyById(companyId);
-        Representative representative = commonMapper.representativeDtoToEntity(representativeService.getRepresentativeById(representativeId));
-
-        if (company.getRepresentatives().removeIf(r -> r.getId().equals(representative.getId()))) {
-            companyRepository.save(company);
+        if (companyRepository.unassignRepresentative(companyId, representativeId) == 0) {
+            // Nothing deleted: either not assigned, or one of them does not exist.
+            requireCompanyAndRepresentative(companyId, representativeId);
+            return;
         }
+        companyRepository.evictCachedRepresentatives(List.of(companyId));
+        changeLog.changed(ChangeEntityType.COMPANY, companyId);
     }
 
     /**
@@ -152,6 +458,7 @@ public class CompanyService {
      * @return A set of DTOs for all representatives.
      * @throws EntityNotFoundException If the company is not found.
      */
+    @Transactional(readOnly = true)
     public Set<RepresentativeDTO> getAllRepresentativesForCompany(Long companyId) {
         Company company = findCompanyById(companyId);
         return company.getRepresentatives().stream()
@@ -160,26 +467,174 @@ public class CompanyService {
     }
 
     /**
-     * Transfers a representative from one company to another.
+     * Retrieves all representatives of a specific company together with the entity tag of the company,
+     * computed from the loaded entities rather than read separately.
+     *
+     * @param companyId The ID of the company.
+     * @return The DTOs for all representatives, tagged with the entity tag of the company.
+     * @throws EntityNotFoundException If the company is not found.
+     */
+    @Transactional(readOnly = true)
+    @ReadFromPrimary
+    public TaggedDTO<Set<RepresentativeDTO>> getTaggedRepresentativesForCompany(Long companyId) {
+        Company company = findCompanyById(companyId);
+        return new TaggedDTO<>(EntityTags.of(company), company.getRepresentatives().stream()
+                .map(commonMapper::representativeToDto)
+                .collect(Collectors.toSet()));
+    }
+
+    /**
+     * Transfers a representative from one company to another. The association is moved by a single
+     * conditional update, after locking both companies in ID order so that opposing transfers cannot deadlock.
      *
      * @param currentCompanyId The ID of the current company.
      * @param newCompanyId     The ID of the new company.
      * @param representativeId The ID of the representative to transfer.
-     * @throws EntityNotFoundException If any entity is not found.
-     * @throws IllegalStateException   If the representative is not part of the current company.
+     * @throws EntityNotFoundException   If any entity is not found.
+     * @throws InvalidRequestException   If both companies are the same.
+     * @throws TransferConflictException If the representative is not part of the current company
+     *                                   or already part of the new one.
      */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CACHE_COMPANIES, key = "#currentCompanyId"),
+            @CacheEvict(cacheNames = CacheConfig.CACHE_COMPANIES, key = "#newCompanyId")
+    })
     public void transferRepresentative(Long currentCompanyId, Long newCompanyId, Long representativeId) {
-        Company currentCompany = findCompanyById(currentCompanyId);
-        Company newCompany = findCompanyById(newCompanyId);
-        Representative representative = commonMapper.representativeDtoToEntity(representativeService.getRepresentativeById(representativeId));
+        lockCompaniesOfTransfer(currentCompanyId, newCompanyId);
+        if (companyRepository.transferRepresentatives(currentCompanyId, newCompanyId, List.of(representativeId)) == 0) {
+            representativeService.getRepresentativeById(representativeId);
+            throw new TransferConflictException(
+                    companyRepository.countAssigned(newCompanyId, List.of(representativeId)) > 0
+                            ? "Representative already assigned to target company"
+                            : "Representative not part of current company");
+        }
+        companyRepository.evictCachedRepresentatives(List.of(currentCompanyId, newCompanyId));
+        changeLog.changed(ChangeEntityType.COMPANY, List.of(currentCompanyId, newCompanyId));
+    }
+
+    /**
+     * Transfers several representatives from one company to another in a single statement.
+     * Either all representatives are transferred or none.
+     *
+     * @param transferDTO The DTO describing the companies and the representatives to transfer.
+     * @return The number of representatives transferred.
+     * @throws EntityNotFoundException   If either company is not found.
+     * @throws InvalidRequestException   If both companies are the same or too many representatives are given.
+     * @throws TransferConflictException If any of the representatives is not part of the current company
+     *                                   or already part of the new one.
+     */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CACHE_COMPANIES, key = "#transferDTO.currentCompanyId"),
+            @CacheEvict(cacheNames = CacheConfig.CACHE_COMPANIES, key = "#transferDTO.newCompanyId")
+    })
+    public int transferRepresentatives(RepresentativeTransferDTO transferDTO) {
+        Long currentCompanyId = transferDTO.getCurrentCompanyId();
+        Long newCompanyId = transferDTO.getNewCompanyId();
+        Set<Long> representativeIds = new HashSet<>(transferDTO.getRepresentativeIds());
+        if (representativeIds.size() > bulk.getMaxTransferItems()) {
+            throw new InvalidRequestException("Transfer must not exceed " + bulk.getMaxTransferItems() + " representatives");
+        }
+
+        lockCompaniesOfTransfer(currentCompanyId, newCompanyId);
+        int transferred = companyRepository.transferRepresentatives(currentCompanyId, newCompanyId, representativeIds);
+        if (transferred < representativeIds.size()) {
+            // The representatives moved by the statement are part of the new company as well, until rolled back.
+            long alreadyAssigned = companyRepository.countAssigned(newCompanyId, representativeIds) - transferred;
+            long notPart = representativeIds.size() - transferred - alreadyAssigned;
+            List<String> conflicts = new ArrayList<>();
+            if (alreadyAssigned > 0) {
+                conflicts.add(alreadyAssigned + " of " + representativeIds.size()
+                        + " representatives already assigned to target company");
+            }
+            if (notPart > 0) {
+                conflicts.add(notPart + " of " + representativeIds.size() + " representatives not part of current company");
+            }
+            throw new TransferConflictException(String.join(", ", conflicts));
+        }
+        companyRepository.evictCachedRepresentatives(List.of(currentCompanyId, newCompanyId));
+        changeLog.changed(ChangeEntityType.COMPANY, List.of(currentCompanyId, newCompanyId));
+        return transferred;
+    }
+
+    /**
+     * Escapes the LIKE wildcards in the given text, using the default backslash escape character.
+     */
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return Math.min(pagination.getDefaultPageSize(), pagination.getMaxPageSize());
+        }
+        if (size < 1) {
+            throw new InvalidRequestException("Page size must be positive");
+        }
+        return Math.min(size, pagination.getMaxPageSize());
+    }
+
+    private void requireCompanyAndRepresentative(Long companyId, Long representativeId) {
+        if (!companyRepository.existsById(companyId)) {
+            throw new EntityNotFoundException("Company not found with id " + companyId);
+        }
+        representativeService.getRepresentativeById(representativeId);
+    }
 
-        if (!currentCompany.getRepresentatives().contains(representative)) {
-            throw new IllegalStateException("Representative not part of current company");
+    /**
+     * Makes the given representatives the only ones of a company, inserting and deleting the join table rows
+     * of the difference to the current ones in statements of up to the configured batch size.
+     */
+    private void replaceRepresentatives(Long companyId, Set<Long> representativeIds) {
+        Set<Long> currentIds = new HashSet<>(companyRepository.findRepresentativeIdsByCompanyId(companyId));
+        List<Long> removedIds = currentIds.stream().filter(representativeId -> !representativeIds.contains(representativeId)).toList();
+        List<Long> addedIds = representativeIds.stream().filter(representativeId -> !currentIds.contains(representativeId)).toList();
+        if (removedIds.isEmpty() && addedIds.isEmpty()) {
+            return;
+        }
+
+        for (int from = 0; from < removedIds.size(); from += bulk.getBatchSize()) {
+            companyRepository.unassignRepresentatives(companyId,
+                    removedIds.subList(from, Math.min(from + bulk.getBatchSize(), removedIds.size())));
         }
+        for (int from = 0; from < addedIds.size(); from += bulk.getBatchSize()) {
+            List<Long> batch = addedIds.subList(from, Math.min(from + bulk.getBatchSize(), addedIds.size()));
+            if (companyRepository.assignRepresentatives(companyId, batch) < batch.size()) {
+                // Fewer rows inserted: some representative does not exist, unless assigned concurrently.
+                Set<Long> assignedIds = new HashSet<>(companyRepository.findRepresentativeIdsByCompanyId(companyId));
+                batch.stream().filter(representativeId -> !assignedIds.contains(representativeId)).findFirst()
+                        .ifPresent(representativeId -> {
+                            throw new EntityNotFoundException("Representative not found with id: " + representativeId);
+                        });
+            }
+        }
+        // The collection has not been loaded, so it is read after the change once evicted from the cache.
+        companyRepository.evictCachedRepresentatives(List.of(companyId));
+    }
 
-        currentCompany.removeRepresentative(representative);
-        newCompany.addRepresentative(representative);
-        companyRepository.saveAll(List.of(currentCompany, newCompany));
+    /**
+     * Locks both companies of a transfer in ascending ID order, checking that they exist.
+     */
+    private void lockCompaniesOfTransfer(Long currentCompanyId, Long newCompanyId) {
+        if (currentCompanyId.equals(newCompanyId)) {
+            throw new InvalidRequestException("Current and new company must differ");
+        }
+        List<Long> lockedIds = companyRepository.lockForTransferInOrder(List.of(currentCompanyId, newCompanyId));
+        for (Long id : List.of(currentCompanyId, newCompanyId)) {
+            if (!lockedIds.contains(id)) {
+                throw new EntityNotFoundException("Company not found with id " + id);
+            }
+        }
+    }
+
+    /**
+     * Locks a company and checks that its entity tag matches the {@code If-Match} header.
+     */
+    private void requireCompanyMatches(Long id, String ifMatch) {
+        List<CompanyVersionDTO> versions = companyRepository.lockByIdsInOrder(List.of(id)).isEmpty()
+                ? List.of() : companyRepository.findVersionsById(id);
+        if (versions.isEmpty() || !EntityTags.matches(ifMatch, EntityTags.company(versions))) {
+            throw new PreconditionFailedException("Company with id " + id + " does not match " + ifMatch);
+        }
     }
 
     private Company findCompanyById(Long id) {
@@ -0,0 +1,92 @@
+package io.flowpay.flowpayinterview.service;
+
+import io.flowpay.flowpayinterview.model.dto.CompanyVersionDTO;
+import io.flowpay.flowpayinterview.model.entity.Company;
+import io.flowpay.flowpayinterview.model.entity.Representative;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Strong entity tags of companies and representatives, computed from their versions.
+ * <p>
+ * A representative is tagged with its version. A company embeds its representatives, whose assignment and
+ * renaming leave the company row as it is, so its tag combines the version of the company with a digest
+ * of the IDs and versions of its representatives.
+ */
+final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    static String of(Representative representative) {
+        return representative(representative.getVersion());
+    }
+
+    static String representative(long version) {
+        return "\"" + version + "\"";
+    }
+
+    static String of(Company company) {
+        return company(company.getVersion(), company.getRepresentatives().stream()
+                .collect(Collectors.toMap(Representative::getId, Representative::getVersion)));
+    }
+
+    /**
+     * Computes the tag of a company from the rows read by
+     * {@link io.flowpay.flowpayinterview.repository.CompanyRepository#findVersionsById(Long)}.
+     *
+     * @param versions The rows of the company; must not be empty.
+     * @return The quoted entity tag.
+     */
+    static String company(List<CompanyVersionDTO> versions) {
+        return company(versions.get(0).getVersion(), versions.stream()
+                .filter(row -> row.getRepresentativeId() != null)
+                .collect(Collectors.toMap(CompanyVersionDTO::getRepresentativeId, CompanyVersionDTO::getRepresentativeVersion)));
+    }
+
+    private static String company(long version, Map<Long, Long> representativeVersions) {
+        MessageDigest digest = sha256();
+        ByteBuffer row = ByteBuffer.allocate(2 * Long.BYTES);
+        SortedMap<Long, Long> sorted = new TreeMap<>(representativeVersions);
+        sorted.forEach((id, representativeVersion) -> {
+            row.clear();
+            digest.update(row.putLong(id).putLong(representativeVersion).array());
+        });
+        return "\"" + version + "-" + HexFormat.of().formatHex(digest.digest(), 0, 8) + "\"";
+    }
+
+    /**
+     * Evaluates an {@code If-Match} header against the current tag of a resource, using the strong comparison:
+     * weak tags never match.
+     *
+     * @param ifMatch The header value: {@code *} or a comma separated list of quoted tags.
+     * @param eTag    The current tag of the resource.
+     * @return Whether the precondition holds.
+     */
+    static boolean matches(String ifMatch, String eTag) {
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+}
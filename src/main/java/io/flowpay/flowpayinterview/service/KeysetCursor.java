@@ -0,0 +1,52 @@
+package io.flowpay.flowpayinterview.service;
+
+import io.flowpay.flowpayinterview.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque cursor tokens used by keyset paginated endpoints.
+ * A cursor carries the ID of the last row of the previous page, so the next page
+ * can be fetched with an index range scan instead of an offset.
+ */
+public final class KeysetCursor {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * Encodes the given ID into a cursor token.
+     *
+     * @param lastId The ID of the last row returned.
+     * @return The opaque cursor token.
+     */
+    public static String encode(long lastId) {
+        return ENCODER.encodeToString(Long.toString(lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Decodes a cursor token back into the ID it was created from.
+     *
+     * @param cursor The cursor token, may be {@code null} for the first page.
+     * @return The ID after which the next page starts, {@code 0} for the first page.
+     * @throws InvalidRequestException If the cursor is malformed.
+     */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            long lastId = Long.parseLong(new String(DECODER.decode(cursor), StandardCharsets.US_ASCII));
+            if (lastId < 0) {
+                throw new InvalidRequestException("Invalid cursor: " + cursor);
+            }
+            return lastId;
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidRequestException("Invalid cursor: " + cursor, ex);
+        }
+    }
+}
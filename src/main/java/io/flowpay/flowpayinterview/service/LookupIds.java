@@ -0,0 +1,40 @@
+package io.flowpay.flowpayinterview.service;
+
+import io.flowpay.flowpayinterview.exception.InvalidRequestException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Validation shared by the lookups of several entities by their IDs.
+ */
+final class LookupIds {
+
+    private LookupIds() {
+    }
+
+    /**
+     * Validates the requested IDs and removes repeated ones.
+     *
+     * @param ids    The requested IDs.
+     * @param maxIds The maximum number of IDs accepted in one request.
+     * @return The distinct IDs, in the order they were first requested.
+     * @throws InvalidRequestException If no IDs are given, too many are given or any of them is null.
+     */
+    static List<Long> distinct(List<Long> ids, int maxIds) {
+        if (ids == null || ids.isEmpty()) {
+            throw new InvalidRequestException("At least one ID must be given");
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new InvalidRequestException("IDs must not be null");
+        }
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        if (distinct.size() > maxIds) {
+            throw new InvalidRequestException("No more than " + maxIds + " IDs can be looked up at once");
+        }
+        return new ArrayList<>(distinct);
+    }
+}
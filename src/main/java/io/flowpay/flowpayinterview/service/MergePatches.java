@@ -0,0 +1,58 @@
+package io.flowpay.flowpayinterview.service;
+
+import io.flowpay.flowpayinterview.exception.InvalidRequestException;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Validation shared by the partial updates accepting JSON Merge Patch documents (RFC 7396).
+ */
+final class MergePatches {
+
+    private MergePatches() {
+    }
+
+    /**
+     * Validates a merge patch of text fields against the constraints declared on the DTO.
+     * Removing a field by setting it to {@code null} is rejected, as all patchable fields are required.
+     *
+     * @param patch     The merge patch document.
+     * @param dtoType   The DTO type declaring the fields and their constraints.
+     * @param patchable The names of the fields that may be patched.
+     * @param validator The bean validator checking the constraints.
+     * @return The patched fields and their new values.
+     * @throws InvalidRequestException  If the patch is empty, names a field that cannot be patched,
+     *                                  or any value is missing, not text or invalid.
+     */
+    static Map<String, String> textFields(Map<String, Object> patch, Class<?> dtoType, Set<String> patchable,
+                                          Validator validator) {
+        if (patch == null || patch.isEmpty()) {
+            throw new InvalidRequestException("Patch must contain at least one field");
+        }
+        Map<String, String> fields = new LinkedHashMap<>();
+        List<String> errors = new ArrayList<>();
+        patch.forEach((field, value) -> {
+            if (!patchable.contains(field)) {
+                errors.add(field + ": Field cannot be patched");
+            } else if (!(value instanceof String text)) {
+                errors.add(field + ": Value must be " + (value == null ? "given" : "text"));
+            } else {
+                for (ConstraintViolation<?> violation : validator.validateValue(dtoType, field, text)) {
+                    errors.add(field + ": " + violation.getMessage());
+                }
+                fields.put(field, text);
+            }
+        });
+        if (!errors.isEmpty()) {
+            throw new InvalidRequestException(String.join(", ", errors));
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,278 @@
+package io.flowpay.flowpayinterview.service;
+
+import io.flowpay.flowpayinterview.config.FlowpayProperties;
+import io.flowpay.flowpayinterview.model.dto.RepresentativeDTO;
+import io.flowpay.flowpayinterview.repository.RepresentativeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory index of representatives by their exact first and last name, serving the lookups by name
+ * without a database round-trip. Each name maps to the sorted IDs of the representatives bearing it,
+ * kept as a primitive array that is replaced on every change, so readers never need a lock.
+ * <p>
+ * The index is warmed from the database once the application is ready and is updated incrementally
+ * after each committed change. Until the warm-up completes, or when disabled, {@link #lookup} returns
+ * {@code null} and callers fall back to the database.
+ */
+@Component
+public class RepresentativeNameIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(RepresentativeNameIndex.class);
+
+    // Rough sizes of a compressed-oops 64-bit JVM, used for the footprint estimate.
+    private static final long STRING_OVERHEAD = 24 + 16;
+    private static final long ARRAY_OVERHEAD = 16;
+    private static final long MAP_ENTRY_OVERHEAD = 32 + 4;
+
+    private final RepresentativeRepository representativeRepository;
+    private final FlowpayProperties.NameIndex properties;
+
+    private final ConcurrentHashMap<String, long[]> postings = new ConcurrentHashMap<>();
+    // IDs changed while warming up; the warm-up must not overwrite their newer state with what it read.
+    private final Set<Long> changedDuringWarmUp = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    public RepresentativeNameIndex(final RepresentativeRepository representativeRepository,
+                                   final FlowpayProperties flowpayProperties) {
+        this.representativeRepository = representativeRepository;
+        this.properties = flowpayProperties.getNameIndex();
+    }
+
+    /**
+     * Loads all representatives into the index, reading them page by page in ID order.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        long afterId = 0;
+        List<RepresentativeDTO> page;
+        do {
+            page = representativeRepository.findNamesAfter(afterId, Limit.of(properties.getWarmUpPageSize()));
+            for (RepresentativeDTO representative : page) {
+                if (!changedDuringWarmUp.contains(representative.getId())) {
+                    insert(key(representative.getFirstName(), representative.getLastName()), representative.getId());
+                }
+            }
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == properties.getWarmUpPageSize());
+
+        ready = true;
+        changedDuringWarmUp.clear();
+        log.info("Representative name index warmed up with {} names in {} ms",
+                postings.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Looks up the IDs of the representatives with exactly the given first and last name.
+     *
+     * @param firstName The first name of the representatives.
+     * @param lastName  The last name of the representatives.
+     * @return The sorted IDs of the matching representatives, possibly empty,
+     *         or {@code null} if the index cannot serve the lookup and the database must be queried.
+     */
+    public long[] lookup(String firstName, String lastName) {
+        if (!ready) {
+            fallbacks.increment();
+            return null;
+        }
+        lookups.increment();
+        long[] ids = postings.get(key(firstName, lastName));
+        if (ids == null) {
+            return new long[0];
+        }
+        hits.increment();
+        return ids;
+    }
+
+    /**
+     * Adds a representative to the index once the current transaction commits.
+     *
+     * @param id        The ID of the representative.
+     * @param firstName The first name of the representative.
+     * @param lastName  The last name of the representative.
+     */
+    public void add(Long id, String firstName, String lastName) {
+        String key = key(firstName, lastName);
+        afterCommit(id, () -> insert(key, id));
+    }
+
+    /**
+     * Adds the representatives within a range of IDs to the index once the current transaction commits,
+     * reading their names back from the database page by page, so they are never all held in memory.
+     * Representatives of other transactions within the range are read with their committed names as well.
+     *
+     * @param firstId The lowest ID of the range.
+     * @param lastId  The highest ID of the range.
+     */
+    public void addRange(long firstId, long lastId) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        afterCommit(List.of(), () -> {
+            long afterId = firstId - 1;
+            List<RepresentativeDTO> page;
+            do {
+                page = representativeRepository.findNamesBetween(afterId, lastId, Limit.of(properties.getWarmUpPageSize()));
+                for (RepresentativeDTO representative : page) {
+                    if (!ready) {
+                        changedDuringWarmUp.add(representative.getId());
+                    }
+                    insert(key(representative.getFirstName(), representative.getLastName()), representative.getId());
+                }
+                if (!page.isEmpty()) {
+                    afterId = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == properties.getWarmUpPageSize());
+        });
+    }
+
+    /**
+     * Removes a representative from the index once the current transaction commits.
+     *
+     * @param id        The ID of the representative.
+     * @param firstName The first name the representative was indexed under.
+     * @param lastName  The last name the representative was indexed under.
+     */
+    public void remove(Long id, String firstName, String lastName) {
+        String key = key(firstName, lastName);
+        afterCommit(id, () -> delete(key, id));
+    }
+
+    /**
+     * Moves a renamed representative to its new name once the current transaction commits.
+     *
+     * @param id           The ID of the representative.
+     * @param oldFirstName The first name the representative was indexed under.
+     * @param oldLastName  The last name the representative was indexed under.
+     * @param newFirstName The new first name of the representative.
+     * @param newLastName  The new last name of the representative.
+     */
+    public void rename(Long id, String oldFirstName, String oldLastName, String newFirstName, String newLastName) {
+        String oldKey = key(oldFirstName, oldLastName);
+        String newKey = key(newFirstName, newLastName);
+        if (!oldKey.equals(newKey)) {
+            afterCommit(id, () -> {
+                delete(oldKey, id);
+                insert(newKey, id);
+            });
+        }
+    }
+
+    /**
+     * Reports the size, estimated memory footprint and hit rate of the index.
+     *
+     * @return The statistics, keyed by name.
+     */
+    public Map<String, Object> statistics() {
+        long ids = 0;
+        long bytes = 0;
+        for (Map.Entry<String, long[]> entry : postings.entrySet()) {
+            ids += entry.getValue().length;
+            bytes += MAP_ENTRY_OVERHEAD + STRING_OVERHEAD + entry.getKey().length()
+                    + ARRAY_OVERHEAD + (long) Long.BYTES * entry.getValue().length;
+        }
+        long lookupCount = lookups.sum();
+        long hitCount = hits.sum();
+
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("enabled", properties.isEnabled());
+        statistics.put("ready", ready);
+        statistics.put("names", postings.size());
+        statistics.put("representatives", ids);
+        statistics.put("estimatedBytes", bytes);
+        statistics.put("lookups", lookupCount);
+        statistics.put("hits", hitCount);
+        statistics.put("hitRate", lookupCount == 0 ? 0.0 : (double) hitCount / lookupCount);
+        statistics.put("fallbacks", fallbacks.sum());
+        return statistics;
+    }
+
+    private void afterCommit(Long id, Runnable change) {
+        afterCommit(List.of(id), change);
+    }
+
+    private void afterCommit(List<Long> ids, Runnable change) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Runnable tracked = () -> {
+            if (!ready) {
+                changedDuringWarmUp.addAll(ids);
+            }
+            change.run();
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    tracked.run();
+                }
+            });
+        } else {
+            tracked.run();
+        }
+    }
+
+    private void insert(String key, long id) {
+        postings.compute(key, (k, ids) -> {
+            if (ids == null) {
+                return new long[]{id};
+            }
+            int position = Arrays.binarySearch(ids, id);
+            if (position >= 0) {
+                return ids;
+            }
+            int insertAt = -position - 1;
+            long[] updated = new long[ids.length + 1];
+            System.arraycopy(ids, 0, updated, 0, insertAt);
+            updated[insertAt] = id;
+            System.arraycopy(ids, insertAt, updated, insertAt + 1, ids.length - insertAt);
+            return updated;
+        });
+    }
+
+    private void delete(String key, long id) {
+        postings.computeIfPresent(key, (k, ids) -> {
+            int position = Arrays.binarySearch(ids, id);
+            if (position < 0) {
+                return ids;
+            }
+            if (ids.length == 1) {
+                return null;
+            }
+            long[] updated = new long[ids.length - 1];
+            System.arraycopy(ids, 0, updated, 0, position);
+            System.arraycopy(ids, position + 1, updated, position, ids.length - position - 1);
+            return updated;
+        });
+    }
+
+    // The names are matched exactly, like the database lookup; the separator cannot occur in either name.
+    private static String key(String firstName, String lastName) {
+        return firstName + '\u0000' + lastName;
+    }
+}
@@ -0,0 +1,32 @@
+package io.flowpay.flowpayinterview.service;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint exposing the statistics of the {@link RepresentativeNameIndex},
+ * available at {@code /actuator/representativenameindex}.
+ */
+@Component
+@Endpoint(id = "representativenameindex")
+public class RepresentativeNameIndexEndpoint {
+
+    private final RepresentativeNameIndex representativeNameIndex;
+
+    public RepresentativeNameIndexEndpoint(final RepresentativeNameIndex representativeNameIndex) {
+        this.representativeNameIndex = representativeNameIndex;
+    }
+
+    /**
+     * Reports the size, estimated memory footprint and hit rate of the index.
+     *
+     * @return The statistics of the index.
+     */
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        return representativeNameIndex.statistics();
+    }
+}
@@ -1,18 +1,42 @@
 package io.flowpay.flowpayinterview.service;
 
+import io.flowpay.flowpayinterview.config.CacheConfig;
+import io.flowpay.flowpayinterview.config.FlowpayProperties;
+import io.flowpay.flowpayinterview.config.MetricsConfig;
+import io.flowpay.flowpayinterview.datasource.ReadFromPrimary;
+import io.flowpay.flowpayinterview.exception.InvalidRequestException;
+import io.flowpay.flowpayinterview.exception.PreconditionFailedException;
 import io.flowpay.flowpayinterview.mapper.CommonMapper;
+import io.flowpay.flowpayinterview.model.dto.BulkItemResultDTO;
+import io.flowpay.flowpayinterview.model.dto.ChangeEntityType;
 import io.flowpay.flowpayinterview.model.dto.RepresentativeDTO;
+import io.flowpay.flowpayinterview.model.dto.RepresentativeLookupDTO;
+import io.flowpay.flowpayinterview.model.dto.RepresentativeNameChange;
+import io.flowpay.flowpayinterview.model.dto.TaggedDTO;
 import io.flowpay.flowpayinterview.model.entity.Company;
 import io.flowpay.flowpayinterview.model.entity.Representative;
 import io.flowpay.flowpayinterview.repository.CompanyRepository;
 import io.flowpay.flowpayinterview.repository.RepresentativeRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.Validator;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Service for managing representatives. It provides functionality for creating, updating,
@@ -21,18 +45,36 @@ import java.util.stream.Collectors;
  */
 @Service
 @Transactional
+@Timed(MetricsConfig.METRIC_SERVICE)
 public class RepresentativeService {
 
     private final RepresentativeRepository representativeRepository;
     private final CompanyRepository companyRepository;
     private final CommonMapper commonMapper;
+    private final FlowpayProperties.Bulk bulk;
+    private final FlowpayProperties.Fetch fetch;
+    private final Validator validator;
+    private final CacheManager cacheManager;
+    private final RepresentativeNameIndex representativeNameIndex;
+    private final ChangeLog changeLog;
 
     public RepresentativeService(final RepresentativeRepository representativeRepository,
                                  final CompanyRepository companyRepository,
-                                 final CommonMapper commonMapper) {
+                                 final CommonMapper commonMapper,
+                                 final FlowpayProperties flowpayProperties,
+                                 final Validator validator,
+                                 final CacheManager cacheManager,
+                                 final RepresentativeNameIndex representativeNameIndex,
+                                 final ChangeLog changeLog) {
         this.representativeRepository = representativeRepository;
         this.companyRepository = companyRepository;
         this.commonMapper = commonMapper;
+        this.bulk = flowpayProperties.getBulk();
+        this.fetch = flowpayProperties.getFetch();
+        this.validator = validator;
+        this.cacheManager = cacheManager;
+        this.representativeNameIndex = representativeNameIndex;
+        this.changeLog = changeLog;
     }
 
     /**
@@ -42,8 +84,36 @@ public class RepresentativeService {
      * @return DTO representation of the created representative, including its new ID.
      */
     public RepresentativeDTO createRepresentative(RepresentativeDTO representativeDTO) {
-        Representative representative = commonMapper.representativeDtoToEntity(representativeDTO);
-        return commonMapper.representativeToDto(representativeRepository.save(representative));
+        Representative representative = representativeRepository.save(commonMapper.representativeDtoToEntity(representativeDTO));
+        representativeNameIndex.add(representative.getId(), representative.getFirstName(), representative.getLastName());
+        changeLog.changed(ChangeEntityType.REPRESENTATIVE, representative.getId());
+        return commonMapper.representativeToDto(representative);
+    }
+
+    /**
+     * Creates multiple representatives at once. The whole payload is validated first, so either all
+     * representatives are created or none; the inserts are then sent in JDBC batches.
+     *
+     * @param representativeDTOs DTOs containing the data for the new representatives.
+     * @return The results of the items, in payload order, carrying the IDs of the created representatives.
+     * @throws InvalidRequestException If the payload is empty or too large.
+     * @throws io.flowpay.flowpayinterview.exception.BulkValidationException If any of the representatives is invalid.
+     */
+    public List<BulkItemResultDTO> createRepresentatives(List<RepresentativeDTO> representativeDTOs) {
+        BulkPayloads.validate(representativeDTOs, bulk.getMaxItems(), validator, representativeDTO -> List.of());
+
+        List<Representative> representatives = representativeDTOs.stream()
+                .map(commonMapper::representativeDtoToEntity)
+                .collect(Collectors.toList());
+        // IDs are always assigned by the database sequence.
+        representatives.forEach(representative -> representative.setId(null));
+        representativeRepository.persistAll(representatives, bulk.getBatchSize());
+        representatives.forEach(representative ->
+                representativeNameIndex.add(representative.getId(), representative.getFirstName(), representative.getLastName()));
+        changeLog.changed(ChangeEntityType.REPRESENTATIVE, representatives.stream().map(Representative::getId).toList());
+        return IntStream.range(0, representatives.size())
+                .mapToObj(index -> new BulkItemResultDTO(index, representatives.get(index).getId()))
+                .collect(Collectors.toList());
     }
 
     /**
@@ -59,14 +129,76 @@ public class RepresentativeService {
     }
 
     /**
-     * Finds representatives by their first and last names.
+     * Retrieves a representative by its unique ID together with its entity tag, both taken from the same read,
+     * so the cached representative and its tag always describe the same state.
+     *
+     * @param id The ID of the representative to retrieve.
+     * @return DTO representing the retrieved representative, tagged with the entity tag of the representative.
+     * @throws EntityNotFoundException If no representative is found with the given ID.
+     */
+    @Transactional(readOnly = true)
+    @ReadFromPrimary
+    @Cacheable(cacheNames = CacheConfig.CACHE_REPRESENTATIVES, key = "#id")
+    public TaggedDTO<RepresentativeDTO> getTaggedRepresentativeById(Long id) {
+        Representative representative = findRepresentativeById(id);
+        return new TaggedDTO<>(EntityTags.of(representative), commonMapper.representativeToDto(representative));
+    }
+
+    /**
+     * Reads the entity tag of a representative from its version, without loading or mapping it,
+     * to answer conditional requests.
+     *
+     * @param id The ID of the representative.
+     * @return The quoted strong entity tag of the representative.
+     * @throws EntityNotFoundException If no representative is found with the given ID.
+     */
+    @Transactional(readOnly = true)
+    @ReadFromPrimary
+    public String getRepresentativeETag(Long id) {
+        return representativeRepository.findVersionById(id)
+                .map(EntityTags::representative)
+                .orElseThrow(() -> new EntityNotFoundException("Representative not found with id: " + id));
+    }
+
+    /**
+     * Retrieves several representatives by their IDs, reading their names in one query per batch of IDs
+     * without loading the entities. IDs of representatives that do not exist are reported instead of
+     * failing the lookup.
+     *
+     * @param ids The IDs of the representatives; repeated IDs are looked up once.
+     * @return The DTO carrying the representatives found in the requested order and the IDs not found.
+     * @throws InvalidRequestException If no IDs, a null ID or more than the configured maximum of IDs are given.
+     */
+    @Transactional(readOnly = true)
+    public RepresentativeLookupDTO getRepresentativesByIds(List<Long> ids) {
+        List<Long> distinctIds = LookupIds.distinct(ids, fetch.getMaxLookupIds());
+        Map<Long, RepresentativeDTO> found = new HashMap<>(distinctIds.size());
+        for (int from = 0; from < distinctIds.size(); from += fetch.getBatchSize()) {
+            List<Long> batch = distinctIds.subList(from, Math.min(from + fetch.getBatchSize(), distinctIds.size()));
+            representativeRepository.findNamesByIdIn(batch).forEach(representative -> found.put(representative.getId(), representative));
+        }
+        return new RepresentativeLookupDTO(
+                distinctIds.stream().map(found::get).filter(Objects::nonNull).collect(Collectors.toList()),
+                distinctIds.stream().filter(id -> !found.containsKey(id)).collect(Collectors.toList()));
+    }
+
+    /**
+     * Finds representatives by their first and last names. The lookup is served by the in-memory
+     * name index when it is enabled and warmed up, and by the database otherwise. As the index
+     * does not need a transaction, none is started here.
      *
      * @param firstName The first name of the representatives to find.
      * @param lastName  The last name of the representatives to find.
      * @return A set of DTOs representing the found representatives.
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Set<RepresentativeDTO> getRepresentativesByFirstNameAndLastName(String firstName, String lastName) {
+        long[] ids = representativeNameIndex.lookup(firstName, lastName);
+        if (ids != null) {
+            return Arrays.stream(ids)
+                    .mapToObj(id -> new RepresentativeDTO(id, firstName, lastName))
+                    .collect(Collectors.toSet());
+        }
         return representativeRepository.findAllByFirstNameAndLastName(firstName, lastName).stream()
                 .map(commonMapper::representativeToDto)
                 .collect(Collectors.toSet());
@@ -92,10 +224,62 @@ public class RepresentativeService {
      * @return DTO representing the updated representative.
      * @throws EntityNotFoundException If no representative is found with the given ID.
      */
+    @CacheEvict(cacheNames = CacheConfig.CACHE_REPRESENTATIVES, key = "#id")
     public RepresentativeDTO updateRepresentative(Long id, RepresentativeDTO updatedRepresentativeDTO) {
-        Representative representative = findRepresentativeById(id);
+        return updateRepresentative(id, updatedRepresentativeDTO, null);
+    }
+
+    /**
+     * Updates an existing representative, provided it is still in the state the client last read.
+     * The version checked against the header is also the one the update is conditioned on.
+     *
+     * @param id                       The ID of the representative to update.
+     * @param updatedRepresentativeDTO DTO with updated representative data.
+     * @param ifMatch                  The {@code If-Match} header, or {@code null} to update unconditionally.
+     * @return DTO representing the updated representative.
+     * @throws PreconditionFailedException If the representative does not exist or does not match the header.
+     * @throws EntityNotFoundException     If no representative is found with the given ID.
+     */
+    @CacheEvict(cacheNames = CacheConfig.CACHE_REPRESENTATIVES, key = "#id")
+    public RepresentativeDTO updateRepresentative(Long id, RepresentativeDTO updatedRepresentativeDTO, String ifMatch) {
+        Representative representative = ifMatch == null ? findRepresentativeById(id)
+                : requireMatches(representativeRepository.findById(id), id, ifMatch);
+        List<Long> companyIds = evictCompaniesOfRepresentative(id);
+        String oldFirstName = representative.getFirstName();
+        String oldLastName = representative.getLastName();
         commonMapper.updateRepresentativeFromDto(updatedRepresentativeDTO, representative);
-        return commonMapper.representativeToDto(representativeRepository.save(representative));
+        Representative saved = representativeRepository.save(representative);
+        representativeNameIndex.rename(id, oldFirstName, oldLastName, saved.getFirstName(), saved.getLastName());
+        // Companies embed their representatives, so they changed as well.
+        changeLog.changed(ChangeEntityType.REPRESENTATIVE, id);
+        changeLog.changed(ChangeEntityType.COMPANY, companyIds);
+        return commonMapper.representativeToDto(saved);
+    }
+
+    /**
+     * Partially updates a representative according to a JSON Merge Patch document. The supplied fields are
+     * written by a single update statement without reading the representative first; the statement also
+     * reports the previous names and the companies, whose cached entries are evicted.
+     *
+     * @param id    The ID of the representative to update.
+     * @param patch The merge patch document; the first and last name can be patched.
+     * @throws EntityNotFoundException  If no representative is found with the given ID.
+     * @throws InvalidRequestException  If the patch is empty, invalid or names a field that cannot be patched.
+     */
+    @CacheEvict(cacheNames = CacheConfig.CACHE_REPRESENTATIVES, key = "#id")
+    public void patchRepresentative(Long id, Map<String, Object> patch) {
+        Map<String, String> fields = MergePatches.textFields(patch, RepresentativeDTO.class,
+                Set.of("firstName", "lastName"), validator);
+        RepresentativeNameChange change = representativeRepository.updateNames(id, fields.get("firstName"), fields.get("lastName"))
+                .orElseThrow(() -> new EntityNotFoundException("Representative not found with id: " + id));
+        Cache companies = cacheManager.getCache(CacheConfig.CACHE_COMPANIES);
+        if (companies != null) {
+            change.getCompanyIds().forEach(companies::evict);
+        }
+        representativeNameIndex.rename(id, change.getOldFirstName(), change.getOldLastName(),
+                change.getFirstName(), change.getLastName());
+        changeLog.changed(ChangeEntityType.REPRESENTATIVE, id);
+        changeLog.changed(ChangeEntityType.COMPANY, change.getCompanyIds());
     }
 
     /**
@@ -104,9 +288,87 @@ public class RepresentativeService {
      * @param representativeId The ID of the representative to delete.
      * @throws EntityNotFoundException If no representative is found with the given ID.
      */
+    @CacheEvict(cacheNames = CacheConfig.CACHE_REPRESENTATIVES, key = "#representativeId")
     public void deleteRepresentative(Long representativeId) {
+        deleteRepresentative(representativeId, null);
+    }
+
+    /**
+     * Deletes a representative by its ID, provided it is still in the state the client last read.
+     *
+     * @param representativeId The ID of the representative to delete.
+     * @param ifMatch          The {@code If-Match} header, or {@code null} to delete unconditionally.
+     * @throws PreconditionFailedException If the representative does not exist or does not match the header.
+     */
+    @CacheEvict(cacheNames = CacheConfig.CACHE_REPRESENTATIVES, key = "#representativeId")
+    public void deleteRepresentative(Long representativeId, String ifMatch) {
+        // Loaded into the persistence context first, so the deletion does not read it again.
+        Optional<Representative> representative = representativeRepository.findById(representativeId);
+        if (ifMatch != null) {
+            requireMatches(representative, representativeId, ifMatch);
+        }
+        List<Long> companyIds = evictCompaniesOfRepresentative(representativeId);
         companyRepository.disassociateRepresentativeFromAllCompanies(representativeId);
+        companyRepository.evictCachedRepresentatives(companyIds);
         representativeRepository.deleteById(representativeId);
+        representative.ifPresent(deleted -> {
+            representativeNameIndex.remove(representativeId, deleted.getFirstName(), deleted.getLastName());
+            changeLog.deleted(ChangeEntityType.REPRESENTATIVE, representativeId);
+        });
+        changeLog.changed(ChangeEntityType.COMPANY, companyIds);
+    }
+
+    /**
+     * Deletes multiple representatives at once, together with their associations to companies.
+     * The representatives are deleted with one statement per batch of IDs; IDs of representatives
+     * that do not exist are ignored.
+     *
+     * @param representativeIds The IDs of the representatives to delete.
+     * @return The number of representatives deleted.
+     * @throws InvalidRequestException If the payload is empty or too large.
+     * @throws io.flowpay.flowpayinterview.exception.BulkValidationException If any of the IDs is null.
+     */
+    public int deleteRepresentatives(List<Long> representativeIds) {
+        BulkPayloads.validate(representativeIds, bulk.getMaxItems(), validator, representativeId -> List.of());
+
+        List<Long> ids = representativeIds.stream().distinct().collect(Collectors.toList());
+        Cache representatives = cacheManager.getCache(CacheConfig.CACHE_REPRESENTATIVES);
+        Cache companies = cacheManager.getCache(CacheConfig.CACHE_COMPANIES);
+        int deleted = 0;
+        for (int from = 0; from < ids.size(); from += bulk.getBatchSize()) {
+            List<Long> batch = ids.subList(from, Math.min(from + bulk.getBatchSize(), ids.size()));
+            List<RepresentativeDTO> names = representativeRepository.findNamesByIdIn(batch);
+            List<Long> companyIds = companyRepository.findIdsByRepresentativeIdIn(batch);
+            if (companies != null) {
+                companyIds.forEach(companies::evict);
+            }
+            deleted += representativeRepository.deleteAllByIds(batch);
+            for (RepresentativeDTO name : names) {
+                if (representatives != null) {
+                    representatives.evict(name.getId());
+                }
+                representativeNameIndex.remove(name.getId(), name.getFirstName(), name.getLastName());
+            }
+            changeLog.deleted(ChangeEntityType.REPRESENTATIVE, names.stream().map(RepresentativeDTO::getId).toList());
+            changeLog.changed(ChangeEntityType.COMPANY, companyIds);
+        }
+        return deleted;
+    }
+
+    /**
+     * Evicts the cached DTOs of the companies the representative is associated with,
+     * as each of them embeds the representative's details.
+     *
+     * @param representativeId The ID of the representative.
+     * @return The IDs of the companies the representative is associated with.
+     */
+    private List<Long> evictCompaniesOfRepresentative(Long representativeId) {
+        List<Long> companyIds = companyRepository.findIdsByRepresentativeId(representativeId);
+        Cache companies = cacheManager.getCache(CacheConfig.CACHE_COMPANIES);
+        if (companies != null) {
+            companyIds.forEach(companies::evict);
+        }
+        return companyIds;
     }
 
     /**
@@ -120,4 +382,13 @@ public class RepresentativeService {
         return representativeRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Representative not found with id: " + id));
     }
+
+    /**
+     * Checks that the representative exists and its entity tag matches the {@code If-Match} header.
+     */
+    private static Representative requireMatches(Optional<Representative> representative, Long id, String ifMatch) {
+        return representative
+                .filter(current -> EntityTags.matches(ifMatch, EntityTags.of(current)))
+                .orElseThrow(() -> new PreconditionFailedException("Representative with id " + id + " does not match " + ifMatch));
+    }
 }
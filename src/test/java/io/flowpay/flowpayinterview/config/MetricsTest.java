@@ -0,0 +1,70 @@
+package io.flowpay.flowpayinterview.config;
+
+import io.flowpay.flowpayinterview.model.dto.CompanyDTO;
+import io.flowpay.flowpayinterview.service.CompanyService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies the metrics exposed on the Prometheus scrape endpoint against the real application context.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CompanyService companyService;
+
+    @Test
+    void serviceCallsAreTimedPerEndpointIncludingErrors() throws Exception {
+        CompanyDTO company = companyService.createCompany(new CompanyDTO(null, "Acme Corporation", null));
+        mockMvc.perform(get(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_BY_ID, company.getId()))
+                .andExpect(status().isOk());
+        mockMvc.perform(get(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_BY_ID, -1L))
+                .andExpect(status().isNotFound());
+
+        String scrape = scrape();
+
+        String endpoint = "endpoint=\"" + ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_BY_ID + "\"";
+        assertThat(scrape).contains("flowpay_service_seconds_count{class=\"CompanyService\","
+                + endpoint + ",exception=\"none\",method=\"getTaggedCompanyById\",}");
+        assertThat(scrape).contains("flowpay_service_seconds_count{class=\"CompanyService\","
+                + endpoint + ",exception=\"EntityNotFoundException\",method=\"getTaggedCompanyById\",} 1.0");
+        assertThat(scrape).contains("flowpay_service_seconds_count{class=\"CompanyService\","
+                + "endpoint=\"none\",exception=\"none\",method=\"createCompany\",}");
+        assertThat(scrape).contains("flowpay_service_seconds{class=\"CompanyService\"", "quantile=\"0.99\"");
+        assertThat(scrape).contains("flowpay_service_seconds_bucket{class=\"CompanyService\"");
+    }
+
+    @Test
+    void persistenceMetricsAreExported() throws Exception {
+        companyService.getAllCompanies();
+
+        assertThat(scrape()).contains(
+                "hibernate_statements_total",
+                "hibernate_entities_loads_total",
+                "hibernate_collections_fetches_total",
+                "hibernate_second_level_cache_requests_total",
+                "hikaricp_connections_active");
+    }
+
+    private String scrape() throws Exception {
+        return mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,59 @@
+package io.flowpay.flowpayinterview.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.flowpay.flowpayinterview.datasource.ReplicaPool;
+import io.flowpay.flowpayinterview.datasource.TransactionConcurrencyLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VirtualThreadConfigTest {
+
+    private final VirtualThreadConfig config = new VirtualThreadConfig();
+    private final FlowpayProperties flowpayProperties = new FlowpayProperties();
+    private final StaticListableBeanFactory beans = new StaticListableBeanFactory();
+
+    @Test
+    void limitIsSizedFromThePrimaryAndTheReplicas() {
+        beans.addBean("primaryDataSource", pool(20));
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", pool(15));
+        replicas.put("replica-2", pool(5));
+        beans.addBean("replicaPool", new ReplicaPool(replicas, "", Duration.ofSeconds(10), Duration.ofSeconds(1)));
+
+        assertThat(limiter().getMaxConcurrentTransactions()).isEqualTo(40);
+    }
+
+    @Test
+    void limitIsSizedFromThePrimaryWithoutReplicas() {
+        beans.addBean("dataSource", pool(20));
+
+        assertThat(limiter().getMaxConcurrentTransactions()).isEqualTo(20);
+    }
+
+    @Test
+    void configuredLimitWins() {
+        flowpayProperties.getVirtualThreads().setMaxConcurrentTransactions(7);
+        beans.addBean("dataSource", pool(20));
+
+        assertThat(limiter().getMaxConcurrentTransactions()).isEqualTo(7);
+    }
+
+    private TransactionConcurrencyLimiter limiter() {
+        return config.transactionConcurrencyLimiter(flowpayProperties, beans.getBeanProvider(HikariDataSource.class),
+                beans.getBeanProvider(ReplicaPool.class), new SimpleMeterRegistry());
+    }
+
+    private static HikariDataSource pool(int size) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setMaximumPoolSize(size);
+        return pool;
+    }
+}
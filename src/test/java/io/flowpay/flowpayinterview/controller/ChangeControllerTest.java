@@ -0,0 +1,134 @@
+package io.flowpay.flowpayinterview.controller;
+
+import io.flowpay.flowpayinterview.config.ApiUrls;
+import io.flowpay.flowpayinterview.config.FlowpayProperties;
+import io.flowpay.flowpayinterview.exception.GlobalExceptionHandler;
+import io.flowpay.flowpayinterview.exception.InvalidRequestException;
+import io.flowpay.flowpayinterview.exception.SubscriptionLimitExceededException;
+import io.flowpay.flowpayinterview.model.dto.ChangeDTO;
+import io.flowpay.flowpayinterview.model.dto.ChangeEntityType;
+import io.flowpay.flowpayinterview.model.dto.ChangePageDTO;
+import io.flowpay.flowpayinterview.service.ChangeService;
+import io.flowpay.flowpayinterview.service.ChangeStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+class ChangeControllerTest {
+
+    @Mock
+    private ChangeService changeService;
+
+    @Mock
+    private ChangeStream changeStream;
+
+    @Spy
+    private FlowpayProperties flowpayProperties = new FlowpayProperties();
+
+    @InjectMocks
+    private ChangeController changeController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(changeController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void getChanges() throws Exception {
+        when(changeService.getChanges(41L, 2)).thenReturn(new ChangePageDTO(List.of(
+                new ChangeDTO(42L, ChangeEntityType.COMPANY, 7L, false),
+                new ChangeDTO(43L, ChangeEntityType.REPRESENTATIVE, 3L, true)), 43L, true));
+
+        mockMvc.perform(get(ApiUrls.URL_CHANGES).param("since", "41").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].entityType").value("COMPANY"))
+                .andExpect(jsonPath("$.items[0].entityId").value(7L))
+                .andExpect(jsonPath("$.items[1].deleted").value(true))
+                .andExpect(jsonPath("$.nextSince").value(43L))
+                .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    void getChangesWithInvalidSequenceNumber() throws Exception {
+        when(changeService.getChanges(-1L, null)).thenThrow(new InvalidRequestException("Sequence number must not be negative"));
+
+        mockMvc.perform(get(ApiUrls.URL_CHANGES).param("since", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamChanges() throws Exception {
+        ChangeStream.Subscription subscription = mock(ChangeStream.Subscription.class);
+        ArgumentCaptor<ChangeStream.Sink> sink = ArgumentCaptor.forClass(ChangeStream.Sink.class);
+        when(changeStream.subscribe(eq(7L), eq(42L), sink.capture())).thenReturn(subscription);
+
+        // A reconnecting client resumes after the last event it received.
+        MvcResult result = mockMvc.perform(get(ApiUrls.URL_CHANGES + ApiUrls.URL_CHANGES_STREAM)
+                        .param("companyId", "7")
+                        .param("since", "1")
+                        .header("Last-Event-ID", "42")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        sink.getValue().open(42L);
+        sink.getValue().change(new ChangeDTO(43L, ChangeEntityType.COMPANY, 7L, false));
+        sink.getValue().overflow(43L);
+        sink.getValue().close();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+        assertThat(result.getResponse().getContentAsString()).isEqualTo("""
+                event:open
+                id:42
+                data:42
+
+                event:change
+                id:43
+                data:{"seq":43,"entityType":"COMPANY","entityId":7,"deleted":false}
+
+                event:overflow
+                id:43
+                data:43
+
+                """);
+        verify(subscription).cancel();
+    }
+
+    @Test
+    void streamChangesBeyondSubscriberLimit() throws Exception {
+        when(changeStream.subscribe(eq(null), eq(null), any()))
+                .thenThrow(new SubscriptionLimitExceededException("Too many subscribers of the change stream"));
+
+        mockMvc.perform(get(ApiUrls.URL_CHANGES + ApiUrls.URL_CHANGES_STREAM).accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.message").value("Too many subscribers of the change stream"));
+    }
+}
@@ -2,10 +2,23 @@ package io.flowpay.flowpayinterview.controller;
 
 import io.flowpay.flowpayinterview.config.ApiUrls;
 import io.flowpay.flowpayinterview.exception.GlobalExceptionHandler;
+import io.flowpay.flowpayinterview.exception.InvalidRequestException;
+import io.flowpay.flowpayinterview.exception.PreconditionFailedException;
+import io.flowpay.flowpayinterview.exception.TransferConflictException;
+import io.flowpay.flowpayinterview.model.dto.BulkItemResultDTO;
 import io.flowpay.flowpayinterview.model.dto.CompanyDTO;
+import io.flowpay.flowpayinterview.model.dto.CompanyImportResultDTO;
+import io.flowpay.flowpayinterview.model.dto.CompanyLookupDTO;
+import io.flowpay.flowpayinterview.model.dto.CompanyNameMatch;
+import io.flowpay.flowpayinterview.model.dto.CompanyPageDTO;
+import io.flowpay.flowpayinterview.model.dto.CompanySearchPageDTO;
 import io.flowpay.flowpayinterview.model.dto.RepresentativeDTO;
+import io.flowpay.flowpayinterview.model.dto.RepresentativeTransferDTO;
+import io.flowpay.flowpayinterview.model.dto.TaggedDTO;
 import io.flowpay.flowpayinterview.model.entity.Company;
 import io.flowpay.flowpayinterview.model.entity.Representative;
+import io.flowpay.flowpayinterview.service.CompanyExportService;
+import io.flowpay.flowpayinterview.service.CompanyImportService;
 import io.flowpay.flowpayinterview.service.CompanyService;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,12 +27,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -32,10 +50,17 @@ public class CompanyControllerTest {
 
     private static final String COMPANY_NAME = "Acme Corporation";
     private static final String UPDATED_COMPANY_NAME = "Acme Corp";
+    private static final String COMPANY_ETAG = "\"3-0123456789abcdef\"";
 
     @Mock
     private CompanyService companyService;
 
+    @Mock
+    private CompanyExportService companyExportService;
+
+    @Mock
+    private CompanyImportService companyImportService;
+
     @InjectMocks
     private CompanyController companyController;
 
@@ -62,24 +87,222 @@ public class CompanyControllerTest {
         verify(companyService, times(1)).createCompany(any(CompanyDTO.class));
     }
 
+    @Test
+    public void createCompanies() throws Exception {
+        when(companyService.createCompanies(anyList())).thenReturn(List.of(new BulkItemResultDTO(0, 1L)));
+
+        mockMvc.perform(post(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_BULK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\":\"Acme Corporation\"}]"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$[0].index").value(0))
+                .andExpect(jsonPath("$[0].id").value(1L));
+
+        verify(companyService).createCompanies(anyList());
+    }
+
     @Test
     public void getCompanyById() throws Exception {
         CompanyDTO companyDTO = new CompanyDTO(1L, COMPANY_NAME, null);
-        when(companyService.getCompanyById(1L)).thenReturn(companyDTO);
+        when(companyService.getTaggedCompanyById(1L)).thenReturn(new TaggedDTO<>(COMPANY_ETAG, companyDTO));
 
         mockMvc.perform(get(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_BY_ID, 1L)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, COMPANY_ETAG))
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.name").value(COMPANY_NAME));
 
-        verify(companyService).getCompanyById(1L);
+        verify(companyService).getTaggedCompanyById(1L);
+        verify(companyService, never()).getCompanyETag(anyLong());
+    }
+
+    @Test
+    public void getUnchangedCompanyById() throws Exception {
+        when(companyService.getCompanyETag(1L)).thenReturn(COMPANY_ETAG);
+
+        mockMvc.perform(get(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_BY_ID, 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, COMPANY_ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, COMPANY_ETAG))
+                .andExpect(content().string(""));
+
+        verify(companyService, never()).getTaggedCompanyById(anyLong());
+    }
+
+    @Test
+    public void getChangedCompanyById() throws Exception {
+        String changedETag = "\"4-0123456789abcdef\"";
+        when(companyService.getCompanyETag(1L)).thenReturn(changedETag);
+        when(companyService.getTaggedCompanyById(1L))
+                .thenReturn(new TaggedDTO<>(changedETag, new CompanyDTO(1L, COMPANY_NAME, null)));
+
+        mockMvc.perform(get(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_BY_ID, 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, COMPANY_ETAG))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, changedETag))
+                .andExpect(jsonPath("$.name").value(COMPANY_NAME));
+    }
+
+    @Test
+    public void getCompaniesByIds() throws Exception {
+        CompanyLookupDTO lookup = new CompanyLookupDTO(List.of(new CompanyDTO(2L, COMPANY_NAME, null)), List.of(5L));
+        when(companyService.getCompaniesByIds(List.of(2L, 5L))).thenReturn(lookup);
+
+        mockMvc.perform(get(ApiUrls.URL_COMPANIES).param("ids", "2,5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(2L))
+                .andExpect(jsonPath("$.items[0].name").value(COMPANY_NAME))
+                .andExpect(jsonPath("$.missingIds[0]").value(5L));
+    }
+
+    @Test
+    public void lookupCompanies() throws Exception {
+        CompanyLookupDTO lookup = new CompanyLookupDTO(List.of(new CompanyDTO(2L, COMPANY_NAME, null)), List.of(5L));
+        when(companyService.getCompaniesByIds(List.of(2L, 5L))).thenReturn(lookup);
+
+        mockMvc.perform(post(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_LOOKUP)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[2,5]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(2L))
+                .andExpect(jsonPath("$.missingIds[0]").value(5L));
+    }
+
+    @Test
+    public void getCompaniesPage() throws Exception {
+        CompanyPageDTO page = new CompanyPageDTO(List.of(new CompanyDTO(1L, COMPANY_NAME, null)), "MQ");
+        when(companyService.getCompaniesPage("MA", 1)).thenReturn(page);
+
+        mockMvc.perform(get(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_PAGE)
+                        .param("cursor", "MA")
+                        .param("size", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name").value(COMPANY_NAME))
+                .andExpect(jsonPath("$.nextCursor").value("MQ"));
+
+        verify(companyService).getCompaniesPage("MA", 1);
+    }
+
+    @Test
+    public void searchCompanies() throws Exception {
+        CompanySearchPageDTO result = new CompanySearchPageDTO(List.of(new CompanyDTO(1L, COMPANY_NAME, null)), 0, 10, true);
+        when(companyService.searchCompanies("acm", CompanyNameMatch.CONTAINS, null, null)).thenReturn(result);
+
+        mockMvc.perform(get(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_SEARCH)
+                        .param("query", "acm")
+                        .param("match", "CONTAINS")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name").value(COMPANY_NAME))
+                .andExpect(jsonPath("$.hasNext").value(true));
+
+        verify(companyService).searchCompanies("acm", CompanyNameMatch.CONTAINS, null, null);
+    }
+
+    @Test
+    public void searchCompaniesWithTooShortQuery() throws Exception {
+        when(companyService.searchCompanies("a", CompanyNameMatch.FUZZY, null, null))
+                .thenThrow(new InvalidRequestException("Search query must have at least 3 characters for FUZZY matching"));
+
+        mockMvc.perform(get(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_SEARCH)
+                        .param("query", "a")
+                        .param("match", "FUZZY")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Search query must have at least 3 characters for FUZZY matching"));
+    }
+
+    @Test
+    public void getCompaniesPageWithInvalidCursor() throws Exception {
+        when(companyService.getCompaniesPage(eq("bogus"), isNull())).thenThrow(new InvalidRequestException("Invalid cursor: bogus"));
+
+        mockMvc.perform(get(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_PAGE)
+                        .param("cursor", "bogus"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid cursor: bogus"));
+    }
+
+    @Test
+    public void getCompaniesPageWithInternalIllegalArgument() throws Exception {
+        when(companyService.getCompaniesPage(isNull(), isNull())).thenThrow(new IllegalArgumentException("Negative limit"));
+
+        mockMvc.perform(get(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_PAGE))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.message").value("An unexpected error occurred"));
+    }
+
+    @Test
+    public void exportCompanies() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(0);
+            outputStream.write("{\"id\":1,\"name\":\"Acme Corporation\"}\n".getBytes());
+            return null;
+        }).when(companyExportService).exportCompanies(any());
+
+        MvcResult result = mockMvc.perform(get(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_EXPORT))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1,\"name\":\"Acme Corporation\"}\n"));
+    }
+
+    @Test
+    public void importCompanies() throws Exception {
+        CompanyImportResultDTO importResult = new CompanyImportResultDTO(2, 1, 1, 1, 1, List.of("row 2: Name must not be blank"));
+        when(companyImportService.importCsv(any(InputStream.class))).thenReturn(importResult);
+
+        mockMvc.perform(post(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_IMPORT)
+                        .contentType("text/csv")
+                        .content("company_name,first_name,last_name\nAcme Corporation,John,Doe\n,Jane,Doe\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows").value(2))
+                .andExpect(jsonPath("$.rejectedRows").value(1))
+                .andExpect(jsonPath("$.companiesCreated").value(1))
+                .andExpect(jsonPath("$.rejects[0]").value("row 2: Name must not be blank"));
+    }
+
+    @Test
+    public void importCompaniesMalformedCsv() throws Exception {
+        when(companyImportService.importCsv(any(InputStream.class)))
+                .thenThrow(new InvalidRequestException("Malformed CSV: extra data after last expected column"));
+
+        mockMvc.perform(post(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_IMPORT)
+                        .contentType("text/csv")
+                        .content("company_name,first_name,last_name\nAcme,John,Doe,Extra\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Malformed CSV: extra data after last expected column"));
+    }
+
+    @Test
+    public void patchCompany() throws Exception {
+        mockMvc.perform(patch(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_BY_ID, 1L)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"name\":\"" + UPDATED_COMPANY_NAME + "\"}"))
+                .andExpect(status().isNoContent());
+
+        verify(companyService).patchCompany(1L, Map.of("name", UPDATED_COMPANY_NAME));
+    }
+
+    @Test
+    public void patchNonExistingCompany() throws Exception {
+        doThrow(new EntityNotFoundException("Company not found with id 99"))
+                .when(companyService).patchCompany(eq(99L), any());
+
+        mockMvc.perform(patch(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_BY_ID, 99L)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"name\":\"" + UPDATED_COMPANY_NAME + "\"}"))
+                .andExpect(status().isNotFound());
     }
 
     @Test
     public void updateCompany() throws Exception {
         CompanyDTO updatedCompanyDTO = new CompanyDTO(1L, UPDATED_COMPANY_NAME, null);
-        when(companyService.updateCompany(eq(1L), any(CompanyDTO.class))).thenReturn(updatedCompanyDTO);
+        when(companyService.updateCompany(eq(1L), any(CompanyDTO.class), isNull())).thenReturn(updatedCompanyDTO);
 
         mockMvc.perform(put(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_BY_ID, 1L)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -87,34 +310,56 @@ public class CompanyControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.name").value(UPDATED_COMPANY_NAME));
 
-        verify(companyService).updateCompany(eq(1L), any(CompanyDTO.class));
+        verify(companyService).updateCompany(eq(1L), any(CompanyDTO.class), isNull());
+    }
+
+    @Test
+    public void updateChangedCompany() throws Exception {
+        when(companyService.updateCompany(eq(1L), any(CompanyDTO.class), eq(COMPANY_ETAG)))
+                .thenThrow(new PreconditionFailedException("Company with id 1 does not match " + COMPANY_ETAG));
+
+        mockMvc.perform(put(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_BY_ID, 1L)
+                        .header(HttpHeaders.IF_MATCH, COMPANY_ETAG)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"" + UPDATED_COMPANY_NAME + "\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value("Company with id 1 does not match " + COMPANY_ETAG));
     }
 
     @Test
     public void deleteCompany() throws Exception {
-        doNothing().when(companyService).deleteCompany(1L);
+        doNothing().when(companyService).deleteCompany(1L, null);
 
         mockMvc.perform(delete(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_BY_ID, 1L))
                 .andExpect(status().isNoContent());
 
-        verify(companyService).deleteCompany(1L);
+        verify(companyService).deleteCompany(1L, null);
+    }
+
+    @Test
+    public void deleteCompanyIfUnchanged() throws Exception {
+        mockMvc.perform(delete(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_BY_ID, 1L)
+                        .header(HttpHeaders.IF_MATCH, COMPANY_ETAG))
+                .andExpect(status().isNoContent());
+
+        verify(companyService).deleteCompany(1L, COMPANY_ETAG);
     }
 
     @Test
     public void getNonExistingCompanyById() throws Exception {
-        when(companyService.getCompanyById(anyLong())).thenThrow(new EntityNotFoundException("Company not found"));
+        when(companyService.getTaggedCompanyById(anyLong())).thenThrow(new EntityNotFoundException("Company not found"));
 
         mockMvc.perform(get(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_BY_ID, 99L))
                 .andExpect(status().isNotFound())
                 .andExpect(result -> assertTrue(result.getResolvedException() instanceof EntityNotFoundException))
                 .andExpect(jsonPath("$.message").value("Company not found"));
 
-        verify(companyService).getCompanyById(anyLong());
+        verify(companyService).getTaggedCompanyById(anyLong());
     }
 
     @Test
     public void updateNonExistingCompany() throws Exception {
-        when(companyService.updateCompany(eq(99L), any(CompanyDTO.class)))
+        when(companyService.updateCompany(eq(99L), any(CompanyDTO.class), isNull()))
                 .thenThrow(new EntityNotFoundException("Company not found"));
 
         mockMvc.perform(put(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_BY_ID, 99L)
@@ -124,18 +369,33 @@ public class CompanyControllerTest {
                 .andExpect(result -> assertTrue(result.getResolvedException() instanceof EntityNotFoundException))
                 .andExpect(jsonPath("$.message").value("Company not found"));
 
-        verify(companyService).updateCompany(eq(99L), any(CompanyDTO.class));
+        verify(companyService).updateCompany(eq(99L), any(CompanyDTO.class), isNull());
     }
 
     @Test
     void assignRepresentativeToCompany() throws Exception {
+        CompanyDTO companyDTO = new CompanyDTO(1L, COMPANY_NAME, Set.of(new RepresentativeDTO(1L, "John", "Doe")));
+        when(companyService.assignRepresentativeToCompany(1L, 1L)).thenReturn(companyDTO);
+
         mockMvc.perform(post(ApiUrls.URL_COMPANIES + ApiUrls.URL_ASSIGN_REPRESENTATIVE_TO_COMPANY, 1L, 1L)
                         .contentType(MediaType.APPLICATION_JSON))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value(COMPANY_NAME))
+                .andExpect(jsonPath("$.representatives[0].id").value(1));
 
         verify(companyService).assignRepresentativeToCompany(1L, 1L);
     }
 
+    @Test
+    void assignNonExistingRepresentativeToCompany() throws Exception {
+        when(companyService.assignRepresentativeToCompany(1L, 2L))
+                .thenThrow(new EntityNotFoundException("Representative not found with id: 2"));
+
+        mockMvc.perform(post(ApiUrls.URL_COMPANIES + ApiUrls.URL_ASSIGN_REPRESENTATIVE_TO_COMPANY, 1L, 2L)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void unassignRepresentativeFromCompany() throws Exception {
         mockMvc.perform(post(ApiUrls.URL_COMPANIES + ApiUrls.URL_UNASSIGN_REPRESENTATIVE_FROM_COMPANY, 1L, 1L)
@@ -150,16 +410,29 @@ public class CompanyControllerTest {
         Set<RepresentativeDTO> representatives = new HashSet<>();
         representatives.add(new RepresentativeDTO(1L, "John", "Doe"));
 
-        when(companyService.getAllRepresentativesForCompany(anyLong())).thenReturn(representatives);
+        when(companyService.getTaggedRepresentativesForCompany(anyLong())).thenReturn(new TaggedDTO<>(COMPANY_ETAG, representatives));
 
         mockMvc.perform(get(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANY_REPRESENTATIVES_ALL, 1L)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, COMPANY_ETAG))
                 .andExpect(jsonPath("$[0].id").value(1L))
                 .andExpect(jsonPath("$[0].firstName").value("John"))
                 .andExpect(jsonPath("$[0].lastName").value("Doe"));
 
-        verify(companyService).getAllRepresentativesForCompany(1L);
+        verify(companyService).getTaggedRepresentativesForCompany(1L);
+        verify(companyService, never()).getCompanyETag(anyLong());
+    }
+
+    @Test
+    void getUnchangedRepresentativesForCompany() throws Exception {
+        when(companyService.getCompanyETag(1L)).thenReturn(COMPANY_ETAG);
+
+        mockMvc.perform(get(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANY_REPRESENTATIVES_ALL, 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, COMPANY_ETAG))
+                .andExpect(status().isNotModified());
+
+        verify(companyService, never()).getTaggedRepresentativesForCompany(anyLong());
     }
 
     @Test
@@ -173,4 +446,36 @@ public class CompanyControllerTest {
 
         verify(companyService).transferRepresentative(1L, 2L, 2L);
     }
+
+    @Test
+    void transferRepresentatives() throws Exception {
+        mockMvc.perform(post(ApiUrls.URL_COMPANIES + ApiUrls.URL_TRANSFER_REPRESENTATIVES_BETWEEN_COMPANIES)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"currentCompanyId\":1,\"newCompanyId\":2,\"representativeIds\":[3,4]}"))
+                .andExpect(status().isNoContent());
+
+        verify(companyService).transferRepresentatives(new RepresentativeTransferDTO(1L, 2L, List.of(3L, 4L)));
+    }
+
+    @Test
+    void transferRepresentativesNotPartOfCurrentCompany() throws Exception {
+        when(companyService.transferRepresentatives(any(RepresentativeTransferDTO.class)))
+                .thenThrow(new TransferConflictException("1 of 2 representatives not part of current company"));
+
+        mockMvc.perform(post(ApiUrls.URL_COMPANIES + ApiUrls.URL_TRANSFER_REPRESENTATIVES_BETWEEN_COMPANIES)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"currentCompanyId\":1,\"newCompanyId\":2,\"representativeIds\":[3,4]}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("1 of 2 representatives not part of current company"));
+    }
+
+    @Test
+    void transferRepresentativesWithoutRepresentatives() throws Exception {
+        mockMvc.perform(post(ApiUrls.URL_COMPANIES + ApiUrls.URL_TRANSFER_REPRESENTATIVES_BETWEEN_COMPANIES)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"currentCompanyId\":1,\"newCompanyId\":2,\"representativeIds\":[]}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(companyService);
+    }
 }
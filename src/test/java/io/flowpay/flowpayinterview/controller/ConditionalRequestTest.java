@@ -0,0 +1,120 @@
+package io.flowpay.flowpayinterview.controller;
+
+import io.flowpay.flowpayinterview.config.ApiUrls;
+import io.flowpay.flowpayinterview.model.dto.CompanyDTO;
+import io.flowpay.flowpayinterview.model.dto.RepresentativeDTO;
+import io.flowpay.flowpayinterview.service.CompanyService;
+import io.flowpay.flowpayinterview.service.RepresentativeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies the entity tags of companies and representatives against the real application context:
+ * revalidation with {@code If-None-Match} and optimistic concurrency with {@code If-Match}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConditionalRequestTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CompanyService companyService;
+
+    @Autowired
+    private RepresentativeService representativeService;
+
+    private CompanyDTO company;
+
+    private RepresentativeDTO representative;
+
+    @BeforeEach
+    void setUp() {
+        representative = representativeService.createRepresentative(new RepresentativeDTO(null, "John", "Doe"));
+        company = companyService.createCompany(new CompanyDTO(null, "Acme Corporation", null));
+        companyService.assignRepresentativeToCompany(company.getId(), representative.getId());
+    }
+
+    @Test
+    void companyTagChangesWithItsRepresentatives() throws Exception {
+        String eTag = companyETag();
+        mockMvc.perform(get(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_BY_ID, company.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(put(ApiUrls.URL_REPRESENTATIVES + ApiUrls.URL_REPRESENTATIVES_BY_ID, representative.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"Jane\",\"lastName\":\"Doe\"}"))
+                .andExpect(status().isOk());
+        String renamedETag = companyETag();
+        companyService.unassignRepresentativeFromCompany(company.getId(), representative.getId());
+        String unassignedETag = companyETag();
+
+        assertThat(renamedETag).isNotEqualTo(eTag);
+        assertThat(unassignedETag).isNotIn(eTag, renamedETag);
+        mockMvc.perform(get(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_BY_ID, company.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void companyIsUpdatedOnlyIfUnchanged() throws Exception {
+        String eTag = companyETag();
+        String body = "{\"name\":\"Acme Corp\"}";
+
+        mockMvc.perform(put(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_BY_ID, company.getId())
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk());
+        mockMvc.perform(put(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_BY_ID, company.getId())
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Acme Inc\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_BY_ID, company.getId())
+                        .header(HttpHeaders.IF_MATCH, eTag))
+                .andExpect(status().isPreconditionFailed());
+
+        assertThat(companyService.getCompanyById(company.getId()).getName()).isEqualTo("Acme Corp");
+        mockMvc.perform(delete(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_BY_ID, company.getId())
+                        .header(HttpHeaders.IF_MATCH, companyETag()))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void representativeIsDeletedOnlyIfUnchanged() throws Exception {
+        String eTag = mockMvc.perform(get(ApiUrls.URL_REPRESENTATIVES + ApiUrls.URL_REPRESENTATIVES_BY_ID, representative.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        representativeService.updateRepresentative(representative.getId(), new RepresentativeDTO(null, "Jane", "Doe"));
+
+        mockMvc.perform(delete(ApiUrls.URL_REPRESENTATIVES + ApiUrls.URL_REPRESENTATIVES_BY_ID, representative.getId())
+                        .header(HttpHeaders.IF_MATCH, eTag))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete(ApiUrls.URL_REPRESENTATIVES + ApiUrls.URL_REPRESENTATIVES_BY_ID, representative.getId())
+                        .header(HttpHeaders.IF_MATCH, representativeService.getRepresentativeETag(representative.getId())))
+                .andExpect(status().isNoContent());
+    }
+
+    private String companyETag() throws Exception {
+        return mockMvc.perform(get(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_BY_ID, company.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
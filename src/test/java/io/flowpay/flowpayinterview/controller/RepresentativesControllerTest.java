@@ -1,8 +1,14 @@
 package io.flowpay.flowpayinterview.controller;
 
 import io.flowpay.flowpayinterview.config.ApiUrls;
+import io.flowpay.flowpayinterview.exception.BulkValidationException;
 import io.flowpay.flowpayinterview.exception.GlobalExceptionHandler;
+import io.flowpay.flowpayinterview.exception.InvalidRequestException;
+import io.flowpay.flowpayinterview.exception.PreconditionFailedException;
+import io.flowpay.flowpayinterview.model.dto.BulkItemResultDTO;
 import io.flowpay.flowpayinterview.model.dto.RepresentativeDTO;
+import io.flowpay.flowpayinterview.model.dto.RepresentativeLookupDTO;
+import io.flowpay.flowpayinterview.model.dto.TaggedDTO;
 import io.flowpay.flowpayinterview.model.entity.Representative;
 import io.flowpay.flowpayinterview.service.RepresentativeService;
 import jakarta.persistence.EntityNotFoundException;
@@ -11,12 +17,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -29,6 +37,7 @@ class RepresentativesControllerTest {
     public static final String FIRST_NAME = "John";
     public static final String LAST_NAME = "Doe";
     public static final String UPDATED_FIRST_NAME = "Jane";
+    public static final String REPRESENTATIVE_ETAG = "\"2\"";
     @Mock
     private RepresentativeService representativeService;
 
@@ -53,14 +62,73 @@ class RepresentativesControllerTest {
 
     @Test
     void getRepresentativeById() throws Exception {
-        when(representativeService.getRepresentativeById(anyLong())).thenReturn(representative);
+        when(representativeService.getTaggedRepresentativeById(1L))
+                .thenReturn(new TaggedDTO<>(REPRESENTATIVE_ETAG, representative));
 
         mockMvc.perform(get(ApiUrls.URL_REPRESENTATIVES + ApiUrls.URL_REPRESENTATIVES_BY_ID, 1L))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, REPRESENTATIVE_ETAG))
                 .andExpect(jsonPath("$.firstName").value(FIRST_NAME))
                 .andExpect(jsonPath("$.lastName").value(LAST_NAME));
 
-        verify(representativeService).getRepresentativeById(1L);
+        verify(representativeService).getTaggedRepresentativeById(1L);
+    }
+
+    @Test
+    void getUnchangedRepresentativeById() throws Exception {
+        when(representativeService.getTaggedRepresentativeById(1L))
+                .thenReturn(new TaggedDTO<>(REPRESENTATIVE_ETAG, representative));
+
+        mockMvc.perform(get(ApiUrls.URL_REPRESENTATIVES + ApiUrls.URL_REPRESENTATIVES_BY_ID, 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"1\", " + REPRESENTATIVE_ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getRepresentativesByIds() throws Exception {
+        when(representativeService.getRepresentativesByIds(List.of(1L, 7L)))
+                .thenReturn(new RepresentativeLookupDTO(List.of(representative), List.of(7L)));
+
+        mockMvc.perform(get(ApiUrls.URL_REPRESENTATIVES).param("ids", "1", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].firstName").value(FIRST_NAME))
+                .andExpect(jsonPath("$.missingIds[0]").value(7L));
+    }
+
+    @Test
+    void patchRepresentative() throws Exception {
+        mockMvc.perform(patch(ApiUrls.URL_REPRESENTATIVES + ApiUrls.URL_REPRESENTATIVES_BY_ID, 1L)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"lastName\":\"Roe\"}"))
+                .andExpect(status().isNoContent());
+
+        verify(representativeService).patchRepresentative(1L, Map.of("lastName", "Roe"));
+    }
+
+    @Test
+    void patchRepresentativeWithInvalidField() throws Exception {
+        doThrow(new InvalidRequestException("lastName: Value must be given"))
+                .when(representativeService).patchRepresentative(eq(1L), any());
+
+        mockMvc.perform(patch(ApiUrls.URL_REPRESENTATIVES + ApiUrls.URL_REPRESENTATIVES_BY_ID, 1L)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"lastName\":null}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("lastName: Value must be given"));
+    }
+
+    @Test
+    void lookupRepresentatives() throws Exception {
+        when(representativeService.getRepresentativesByIds(List.of(1L, 7L)))
+                .thenReturn(new RepresentativeLookupDTO(List.of(representative), List.of(7L)));
+
+        mockMvc.perform(post(ApiUrls.URL_REPRESENTATIVES + ApiUrls.URL_REPRESENTATIVES_LOOKUP)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1,7]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].lastName").value(LAST_NAME))
+                .andExpect(jsonPath("$.missingIds[0]").value(7L));
     }
 
     @Test
@@ -92,6 +160,34 @@ class RepresentativesControllerTest {
         verify(representativeService).createRepresentative(any(RepresentativeDTO.class));
     }
 
+    @Test
+    void createRepresentatives() throws Exception {
+        when(representativeService.createRepresentatives(anyList()))
+                .thenReturn(List.of(new BulkItemResultDTO(0, 1L), new BulkItemResultDTO(1, 2L)));
+
+        mockMvc.perform(post(ApiUrls.URL_REPRESENTATIVES + ApiUrls.URL_REPRESENTATIVES_BULK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"firstName\":\"Jane\", \"lastName\":\"Doe\"}, {\"firstName\":\"John\", \"lastName\":\"Doe\"}]"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$[0].index").value(0))
+                .andExpect(jsonPath("$[1].id").value(2L));
+
+        verify(representativeService).createRepresentatives(anyList());
+    }
+
+    @Test
+    void createRepresentativesWithInvalidItems() throws Exception {
+        when(representativeService.createRepresentatives(anyList()))
+                .thenThrow(new BulkValidationException(List.of("[0] firstName: First name must not be blank")));
+
+        mockMvc.perform(post(ApiUrls.URL_REPRESENTATIVES + ApiUrls.URL_REPRESENTATIVES_BULK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"firstName\":\"\", \"lastName\":\"Doe\"}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Validation failed"))
+                .andExpect(jsonPath("$.details[0]").value("[0] firstName: First name must not be blank"));
+    }
+
     @Test
     void updateRepresentative() throws Exception {
         RepresentativeDTO updatedRepresentative = RepresentativeDTO.builder()
@@ -100,27 +196,50 @@ class RepresentativesControllerTest {
                 .lastName(LAST_NAME)
                 .build();
 
-        when(representativeService.updateRepresentative(eq(representative.getId()), any(RepresentativeDTO.class)))
+        when(representativeService.updateRepresentative(eq(representative.getId()), any(RepresentativeDTO.class), eq(REPRESENTATIVE_ETAG)))
                 .thenReturn(updatedRepresentative);
 
         mockMvc.perform(put(ApiUrls.URL_REPRESENTATIVES + ApiUrls.URL_REPRESENTATIVES_BY_ID, representative.getId())
+                        .header(HttpHeaders.IF_MATCH, REPRESENTATIVE_ETAG)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content("{\"firstName\":\"Jane\", \"lastName\":\"Doe\"}"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.firstName").value(UPDATED_FIRST_NAME))
                 .andExpect(jsonPath("$.lastName").value(LAST_NAME));
 
-        verify(representativeService).updateRepresentative(eq(representative.getId()), any(RepresentativeDTO.class));
+        verify(representativeService).updateRepresentative(eq(representative.getId()), any(RepresentativeDTO.class), eq(REPRESENTATIVE_ETAG));
     }
 
     @Test
     void deleteRepresentative() throws Exception {
-        doNothing().when(representativeService).deleteRepresentative(representative.getId());
+        doNothing().when(representativeService).deleteRepresentative(representative.getId(), null);
 
         mockMvc.perform(delete(ApiUrls.URL_REPRESENTATIVES + ApiUrls.URL_REPRESENTATIVES_BY_ID, representative.getId()))
                 .andExpect(status().isNoContent());
 
-        verify(representativeService).deleteRepresentative(representative.getId());
+        verify(representativeService).deleteRepresentative(representative.getId(), null);
+    }
+
+    @Test
+    void deleteChangedRepresentative() throws Exception {
+        doThrow(new PreconditionFailedException("Representative with id 1 does not match \"1\""))
+                .when(representativeService).deleteRepresentative(1L, "\"1\"");
+
+        mockMvc.perform(delete(ApiUrls.URL_REPRESENTATIVES + ApiUrls.URL_REPRESENTATIVES_BY_ID, 1L)
+                        .header(HttpHeaders.IF_MATCH, "\"1\""))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void deleteRepresentatives() throws Exception {
+        when(representativeService.deleteRepresentatives(List.of(1L, 2L))).thenReturn(2);
+
+        mockMvc.perform(delete(ApiUrls.URL_REPRESENTATIVES)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, 2]"))
+                .andExpect(status().isNoContent());
+
+        verify(representativeService).deleteRepresentatives(List.of(1L, 2L));
     }
 
     @Test
@@ -129,7 +248,7 @@ class RepresentativesControllerTest {
         updatedRepresentative.setFirstName(UPDATED_FIRST_NAME);
         updatedRepresentative.setLastName(LAST_NAME);
 
-        when(representativeService.updateRepresentative(eq(99L), any(RepresentativeDTO.class)))
+        when(representativeService.updateRepresentative(eq(99L), any(RepresentativeDTO.class), isNull()))
                 .thenThrow(new EntityNotFoundException("Representative not found with id: 99"));
 
         mockMvc.perform(put(ApiUrls.URL_REPRESENTATIVES + ApiUrls.URL_REPRESENTATIVES_BY_ID, 99L)
@@ -137,17 +256,17 @@ class RepresentativesControllerTest {
                         .content("{\"firstName\":\"Jane\", \"lastName\":\"Doe\"}"))
                 .andExpect(status().isNotFound());
 
-        verify(representativeService, times(1)).updateRepresentative(eq(99L), any(RepresentativeDTO.class));
+        verify(representativeService, times(1)).updateRepresentative(eq(99L), any(RepresentativeDTO.class), isNull());
     }
 
     @Test
     void deleteNonExistingRepresentative() throws Exception {
         doThrow(new EntityNotFoundException("Representative not found with id: 99"))
-                .when(representativeService).deleteRepresentative(99L);
+                .when(representativeService).deleteRepresentative(99L, null);
 
         mockMvc.perform(delete(ApiUrls.URL_REPRESENTATIVES + ApiUrls.URL_REPRESENTATIVES_BY_ID, 99L))
                 .andExpect(status().isNotFound());
 
-        verify(representativeService, times(1)).deleteRepresentative(99L);
+        verify(representativeService, times(1)).deleteRepresentative(99L, null);
     }
 }
@@ -0,0 +1,115 @@
+package io.flowpay.flowpayinterview.datasource;
+
+import io.flowpay.flowpayinterview.model.dto.CompanyDTO;
+import io.flowpay.flowpayinterview.model.dto.TaggedDTO;
+import io.flowpay.flowpayinterview.service.CompanyService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies the routing of transactions between two in-process databases standing in for the primary and a replica.
+ * The replica holds a company the primary does not know, revealing which database served a read.
+ */
+@SpringBootTest(properties = {
+        "flowpay.read-replicas.enabled=true",
+        "flowpay.read-replicas.nodes[0].url=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "flowpay.read-replicas.lag-query=SELECT seconds FROM replica_lag",
+        "flowpay.read-replicas.health-check-interval=1h"
+})
+@ActiveProfiles("test")
+class ReadReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica-routing;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE";
+
+    private static final String REPLICA_ONLY_COMPANY = "Replica Only Corporation";
+
+    @Autowired
+    private CompanyService companyService;
+
+    @Autowired
+    private ReplicaPool replicaPool;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @BeforeEach
+    void setUp() {
+        replica.execute("CREATE TABLE IF NOT EXISTS companies "
+                + "(id BIGINT PRIMARY KEY, name VARCHAR(255) NOT NULL, version BIGINT DEFAULT 0 NOT NULL)");
+        replica.execute("CREATE TABLE IF NOT EXISTS representatives "
+                + "(id BIGINT PRIMARY KEY, firstname VARCHAR(255) NOT NULL, lastname VARCHAR(255) NOT NULL, version BIGINT DEFAULT 0 NOT NULL)");
+        replica.execute("CREATE TABLE IF NOT EXISTS company_representatives "
+                + "(company_id BIGINT NOT NULL, representative_id BIGINT NOT NULL, PRIMARY KEY (company_id, representative_id))");
+        replica.execute("CREATE TABLE IF NOT EXISTS replica_lag (seconds DOUBLE PRECISION)");
+        replica.execute("MERGE INTO companies (id, name) KEY (id) VALUES (1000000, '" + REPLICA_ONLY_COMPANY + "')");
+        replica.execute("DELETE FROM replica_lag");
+        replica.execute("INSERT INTO replica_lag VALUES (0)");
+        replicaPool.checkHealth();
+    }
+
+    @AfterEach
+    void tearDown() {
+        replica.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void readOnlyTransactionsAreServedByReplica() {
+        assertThat(names(companyService.getAllCompanies())).contains(REPLICA_ONLY_COMPANY);
+    }
+
+    @Test
+    void writesAreSentToPrimary() {
+        companyService.createCompany(new CompanyDTO(null, "Acme Corporation", null));
+
+        assertThat(replica.queryForObject("SELECT count(*) FROM companies WHERE name = 'Acme Corporation'", Long.class))
+                .isZero();
+    }
+
+    @Test
+    void laggingReplicaIsEjectedInFavourOfPrimary() {
+        replica.update("UPDATE replica_lag SET seconds = 60");
+        replicaPool.checkHealth();
+
+        assertThat(names(companyService.getAllCompanies())).doesNotContain(REPLICA_ONLY_COMPANY);
+
+        replica.update("UPDATE replica_lag SET seconds = 0");
+        replicaPool.checkHealth();
+
+        assertThat(names(companyService.getAllCompanies())).contains(REPLICA_ONLY_COMPANY);
+    }
+
+    @Test
+    void cachedReadAfterUpdateIsServedByPrimary() {
+        CompanyDTO company = companyService.createCompany(new CompanyDTO(null, "Acme Corporation", null));
+        // The replica has not caught up with the update yet.
+        replica.update("MERGE INTO companies (id, name) KEY (id) VALUES (?, 'Acme Corporation')", company.getId());
+        TaggedDTO<CompanyDTO> cached = companyService.getTaggedCompanyById(company.getId());
+        assertThat(cached.getContent().getName()).isEqualTo("Acme Corporation");
+
+        companyService.updateCompany(company.getId(), new CompanyDTO(null, "Acme Industries", null));
+        entityManagerFactory.getCache().evictAll();
+
+        TaggedDTO<CompanyDTO> updated = companyService.getTaggedCompanyById(company.getId());
+        assertThat(updated.getContent().getName()).isEqualTo("Acme Industries");
+        assertThat(updated.getETag()).isNotEqualTo(cached.getETag());
+        assertThat(companyService.getCompanyETag(company.getId())).isEqualTo(updated.getETag());
+        assertThat(names(companyService.getAllCompanies())).contains("Acme Corporation");
+    }
+
+    private static List<String> names(List<CompanyDTO> companies) {
+        return companies.stream().map(CompanyDTO::getName).toList();
+    }
+}
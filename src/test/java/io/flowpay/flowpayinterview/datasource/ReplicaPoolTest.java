@@ -0,0 +1,105 @@
+package io.flowpay.flowpayinterview.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaPoolTest {
+
+    private static final String LAG_QUERY = "SELECT seconds FROM replica_lag";
+
+    private final Map<String, DataSource> replicas = new LinkedHashMap<>();
+
+    private ReplicaPool replicaPool;
+
+    @BeforeEach
+    void setUp() {
+        replicas.put("replica-1", replica(0));
+        replicas.put("replica-2", replica(0));
+        replicaPool = new ReplicaPool(replicas, LAG_QUERY, Duration.ofSeconds(10), Duration.ofSeconds(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        replicas.values().forEach(replica -> new JdbcTemplate(replica).execute("SHUTDOWN"));
+    }
+
+    @Test
+    void nextRotatesOverHealthyReplicas() {
+        replicaPool.checkHealth();
+
+        assertThat(replicaPool.getHealthy()).containsExactly("replica-1", "replica-2");
+        assertThat(replicaPool.next()).contains("replica-1");
+        assertThat(replicaPool.next()).contains("replica-2");
+        assertThat(replicaPool.next()).contains("replica-1");
+    }
+
+    @Test
+    void nextIsEmptyBeforeFirstCheck() {
+        assertThat(replicaPool.next()).isEmpty();
+    }
+
+    @Test
+    void laggingReplicaIsEjectedUntilItCatchesUp() {
+        setLag("replica-2", 30);
+        replicaPool.checkHealth();
+
+        assertThat(replicaPool.getHealthy()).containsExactly("replica-1");
+        assertThat(replicaPool.next()).contains("replica-1");
+        assertThat(replicaPool.next()).contains("replica-1");
+
+        setLag("replica-2", 5);
+        replicaPool.checkHealth();
+
+        assertThat(replicaPool.getHealthy()).containsExactly("replica-1", "replica-2");
+    }
+
+    @Test
+    void failingReplicaIsEjected() {
+        new JdbcTemplate(replicas.get("replica-1")).execute("DROP TABLE replica_lag");
+        replicaPool.checkHealth();
+
+        assertThat(replicaPool.getHealthy()).containsExactly("replica-2");
+    }
+
+    @Test
+    void nextIsEmptyWhenNoReplicaIsHealthy() {
+        setLag("replica-1", 30);
+        setLag("replica-2", 30);
+        replicaPool.checkHealth();
+
+        assertThat(replicaPool.next()).isEmpty();
+    }
+
+    @Test
+    void blankLagQueryOnlyChecksConnectivity() {
+        setLag("replica-1", 30);
+        ReplicaPool connectivityOnly = new ReplicaPool(replicas, "", Duration.ofSeconds(10), Duration.ofSeconds(1));
+        connectivityOnly.checkHealth();
+
+        assertThat(connectivityOnly.getHealthy()).containsExactly("replica-1", "replica-2");
+    }
+
+    private void setLag(String name, double seconds) {
+        new JdbcTemplate(replicas.get(name)).update("UPDATE replica_lag SET seconds = ?", seconds);
+    }
+
+    private static DataSource replica(double lagSeconds) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:replica-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE replica_lag (seconds DOUBLE PRECISION)");
+        jdbcTemplate.update("INSERT INTO replica_lag VALUES (?)", lagSeconds);
+        return dataSource;
+    }
+}
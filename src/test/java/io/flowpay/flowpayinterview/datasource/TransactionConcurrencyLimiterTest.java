@@ -0,0 +1,112 @@
+package io.flowpay.flowpayinterview.datasource;
+
+import io.flowpay.flowpayinterview.exception.ConcurrencyLimitExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionConcurrencyLimiterTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void callBeyondLimitIsRejectedAfterTimeout() throws Exception {
+        TransactionConcurrencyLimiter limiter = new TransactionConcurrencyLimiter(2, Duration.ofMillis(100));
+        Service service = proxy(limiter);
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<?> first = executor.submit(() -> service.await(started, release));
+        Future<?> second = executor.submit(() -> service.await(started, release));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(limiter.getActive()).isEqualTo(2);
+        assertThatThrownBy(() -> service.call(() -> "third"))
+                .isInstanceOf(ConcurrencyLimitExceededException.class);
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertThat(limiter.getActive()).isZero();
+        assertThat(service.call(() -> "fourth")).isEqualTo("fourth");
+    }
+
+    @Test
+    void waitingCallProceedsOncePermitIsReleased() throws Exception {
+        TransactionConcurrencyLimiter limiter = new TransactionConcurrencyLimiter(1, Duration.ofSeconds(5));
+        Service service = proxy(limiter);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<?> first = executor.submit(() -> service.await(started, release));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<String> second = executor.submit(() -> service.call(() -> "second"));
+        while (limiter.getWaiting() == 0) {
+            Thread.onSpinWait();
+        }
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("second");
+    }
+
+    @Test
+    void nestedCallReusesPermitOfOuterCall() {
+        TransactionConcurrencyLimiter limiter = new TransactionConcurrencyLimiter(1, Duration.ofMillis(100));
+        Service service = proxy(limiter);
+
+        assertThat(service.call(() -> service.call(() -> "nested"))).isEqualTo("nested");
+        assertThat(limiter.getActive()).isZero();
+    }
+
+    @Test
+    void permitIsReleasedWhenCallFails() {
+        TransactionConcurrencyLimiter limiter = new TransactionConcurrencyLimiter(1, Duration.ofMillis(100));
+        Service service = proxy(limiter);
+
+        assertThatThrownBy(() -> service.call(() -> {
+            throw new IllegalStateException("failed");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(limiter.getActive()).isZero();
+    }
+
+    private static Service proxy(TransactionConcurrencyLimiter limiter) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Service());
+        factory.addAspect(limiter);
+        return factory.getProxy();
+    }
+
+    @Transactional
+    static class Service {
+
+        public <T> T call(Supplier<T> body) {
+            return body.get();
+        }
+
+        public void await(CountDownLatch started, CountDownLatch release) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
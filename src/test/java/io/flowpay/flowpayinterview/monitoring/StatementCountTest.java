@@ -0,0 +1,153 @@
+package io.flowpay.flowpayinterview.monitoring;
+
+import io.flowpay.flowpayinterview.config.ApiUrls;
+import io.flowpay.flowpayinterview.model.dto.BulkItemResultDTO;
+import io.flowpay.flowpayinterview.model.dto.CompanyDTO;
+import io.flowpay.flowpayinterview.model.dto.RepresentativeDTO;
+import io.flowpay.flowpayinterview.service.CompanyService;
+import io.flowpay.flowpayinterview.service.RepresentativeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards the number of SQL statements of the endpoints against N+1 regressions,
+ * using the counts reported by the {@link StatementCountingFilter}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StatementCountTest {
+
+    private static final int COMPANIES = 30;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CompanyService companyService;
+
+    @Autowired
+    private RepresentativeService representativeService;
+
+    private Long companyId;
+
+    @BeforeEach
+    void setUp() {
+        List<BulkItemResultDTO> representatives = representativeService.createRepresentatives(IntStream.range(0, COMPANIES * 2)
+                .mapToObj(i -> new RepresentativeDTO(null, "John", "Doe " + i))
+                .toList());
+        List<CompanyDTO> companies = new ArrayList<>();
+        for (int i = 0; i < COMPANIES; i++) {
+            companies.add(new CompanyDTO(null, "Company " + i, Set.of(
+                    new RepresentativeDTO(representatives.get(2 * i).getId(), null, null),
+                    new RepresentativeDTO(representatives.get(2 * i + 1).getId(), null, null))));
+        }
+        companyId = companyService.createCompanies(companies).get(0).getId();
+    }
+
+    @Test
+    void allCompaniesIssueConstantNumberOfStatements() throws Exception {
+        mockMvc.perform(get(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_ALL))
+                .andExpect(status().isOk())
+                .andExpect(atMostStatements(3))
+                .andExpect(header().string(StatementCountingFilter.HEADER_COLLECTION_INITIALIZATIONS, "0"));
+    }
+
+    @Test
+    void representativesOfCompanyIssueConstantNumberOfStatements() throws Exception {
+        mockMvc.perform(get(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANY_REPRESENTATIVES_ALL, companyId))
+                .andExpect(status().isOk())
+                .andExpect(atMostStatements(2))
+                .andExpect(header().string(StatementCountingFilter.HEADER_COLLECTION_INITIALIZATIONS, "1"));
+    }
+
+    @Test
+    void revalidatingRepresentativesOfCompanyReadsTheVersionsOnly() throws Exception {
+        String eTag = mockMvc.perform(get(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANY_REPRESENTATIVES_ALL, companyId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANY_REPRESENTATIVES_ALL, companyId)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(atMostStatements(1))
+                .andExpect(header().string(StatementCountingFilter.HEADER_COLLECTION_INITIALIZATIONS, "0"));
+    }
+
+    @Test
+    void revalidatingCompanyReadsTheVersionsOnly() throws Exception {
+        // The company is not cached yet, so a revalidation loading it would show in the counts.
+        String eTag = companyService.getCompanyETag(companyId);
+
+        mockMvc.perform(get(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_BY_ID, companyId)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(atMostStatements(1))
+                .andExpect(header().string(StatementCountingFilter.HEADER_COLLECTION_INITIALIZATIONS, "0"));
+    }
+
+    @Test
+    void updatingRepresentativesIssuesStatementsForTheChangesOnly() throws Exception {
+        List<Long> representativeIds = representativeService.createRepresentatives(IntStream.range(0, 203)
+                        .mapToObj(i -> new RepresentativeDTO(null, "Jane", "Roe " + i))
+                        .toList()).stream()
+                .map(BulkItemResultDTO::getId)
+                .toList();
+        Long largeCompanyId = companyService.createCompanies(List.of(new CompanyDTO(null, "Large Company",
+                        representativeIds.subList(0, 200).stream()
+                                .map(id -> new RepresentativeDTO(id, null, null))
+                                .collect(Collectors.toSet()))))
+                .get(0).getId();
+
+        // Two representatives removed and three added, out of two hundred
+        String body = representativeIds.subList(2, 203).stream()
+                .map(id -> "{\"id\":" + id + "}")
+                .collect(Collectors.joining(",", "{\"name\":\"Large Company\",\"representatives\":[", "]}"));
+        mockMvc.perform(put(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_BY_ID, largeCompanyId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                // Three more append the company to the change log
+                .andExpect(atMostStatements(9));
+
+        assertThat(companyService.getAllRepresentativesForCompany(largeCompanyId))
+                .extracting(RepresentativeDTO::getId)
+                .containsExactlyInAnyOrderElementsOf(representativeIds.subList(2, 203));
+        assertThat(representativeService.getRepresentativeById(representativeIds.get(0))).isNotNull();
+    }
+
+    @Test
+    void countsAreReportedForResponsesWithoutBody() throws Exception {
+        mockMvc.perform(get(ApiUrls.URL_COMPANIES + ApiUrls.URL_COMPANIES_BY_ID, -1L))
+                .andExpect(status().isNotFound())
+                .andExpect(atMostStatements(1));
+    }
+
+    private static ResultMatcher atMostStatements(int statements) {
+        return result -> {
+            String count = result.getResponse().getHeader(StatementCountingFilter.HEADER_STATEMENTS);
+            assertThat(count).as("statement count header").isNotNull();
+            assertThat(Integer.parseInt(count)).as("SQL statements issued").isLessThanOrEqualTo(statements);
+        };
+    }
+}
@@ -0,0 +1,199 @@
+package io.flowpay.flowpayinterview.repository;
+
+import io.flowpay.flowpayinterview.mapper.CommonMapper;
+import io.flowpay.flowpayinterview.model.dto.CompanyDTO;
+import io.flowpay.flowpayinterview.model.entity.Company;
+import io.flowpay.flowpayinterview.model.entity.Representative;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class CompanyRepositoryTest {
+
+    private static final int REPRESENTATIVES_PER_COMPANY = 3;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final CommonMapper commonMapper = Mappers.getMapper(CommonMapper.class);
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void findAllWithRepresentativesByIdsIssuesConstantNumberOfStatements() {
+        persistCompanies("Acme", 5);
+        long smallResult = countStatements(() -> companyRepository.findAllWithRepresentativesByIds(
+                companyRepository.findIdsAfter(0L, Limit.of(5)), 100));
+
+        persistCompanies("Globex", 45);
+        long largeResult = countStatements(() -> companyRepository.findAllWithRepresentativesByIds(
+                companyRepository.findIdsAfter(0L, Limit.of(50)), 100));
+
+        assertThat(smallResult).isEqualTo(2);
+        assertThat(largeResult).isEqualTo(smallResult);
+    }
+
+    @Test
+    void findAllWithRepresentativesByIdsIssuesOneStatementPerBatch() {
+        persistCompanies("Acme", 10);
+        List<Long> ids = companyRepository.findIdsAfter(0L, Limit.of(10));
+
+        long statements = countStatements(() -> companyRepository.findAllWithRepresentativesByIds(ids, 4));
+
+        assertThat(statements).isEqualTo(3);
+    }
+
+    @Test
+    void findAllByNameIssuesConstantNumberOfStatements() {
+        persistCompanies("Acme", 2);
+        long smallResult = countStatements(() -> companyRepository.findAllByName("Acme"));
+
+        persistCompanies("Acme", 30);
+        long largeResult = countStatements(() -> companyRepository.findAllByName("Acme"));
+
+        assertThat(smallResult).isEqualTo(1);
+        assertThat(largeResult).isEqualTo(smallResult);
+    }
+
+    @Test
+    void findAllByRepresentativesEmptyIssuesConstantNumberOfStatements() {
+        persistCompaniesWithoutRepresentatives(2);
+        long smallResult = countStatements(() -> companyRepository.findAllByRepresentativesEmpty());
+
+        persistCompaniesWithoutRepresentatives(30);
+        long largeResult = countStatements(() -> companyRepository.findAllByRepresentativesEmpty());
+
+        assertThat(smallResult).isEqualTo(1);
+        assertThat(largeResult).isEqualTo(smallResult);
+    }
+
+    @Test
+    void scrollAllWithRepresentativesGroupsRowsPerCompany() {
+        persistCompanies("Acme", 4);
+        persistCompaniesWithoutRepresentatives(1);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Company> companies = new ArrayList<>();
+        companyRepository.scrollAllWithRepresentatives(2, companies::add);
+
+        assertThat(companies).hasSize(5);
+        assertThat(companies).extracting(Company::getId).isSorted().doesNotHaveDuplicates();
+        assertThat(companies.subList(0, 4)).allSatisfy(company ->
+                assertThat(company.getRepresentatives()).hasSize(REPRESENTATIVES_PER_COMPANY));
+        assertThat(companies.get(4).getRepresentatives()).isEmpty();
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount())
+                .isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void persistAllAssignsSequenceIdsAndReferencesRepresentatives() {
+        Representative representative = new Representative(null, "John", "Doe");
+        entityManager.persist(representative);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Company> companies = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Set<Representative> representatives = new HashSet<>();
+            if (i == 0) {
+                representatives.add(new Representative(representative.getId(), null, null));
+            }
+            companies.add(new Company(null, "Company " + i, representatives));
+        }
+        companyRepository.persistAll(companies, 2);
+
+        assertThat(companies).extracting(Company::getId).doesNotContainNull().doesNotHaveDuplicates();
+        Company first = companyRepository.findAllWithRepresentativesByIds(List.of(companies.get(0).getId()), 10).get(0);
+        assertThat(first.getRepresentatives()).extracting(Representative::getFirstName).containsExactly("John");
+        assertThat(companyRepository.count()).isEqualTo(5);
+    }
+
+    @Test
+    void transferRepresentativesMovesOnlyRepresentativesOfCurrentCompany() {
+        persistCompanies("Acme", 2);
+        entityManager.flush();
+        entityManager.clear();
+        List<Company> companies = companyRepository.findAllWithRepresentativesByIds(companyRepository.findIdsAfter(0L, Limit.of(2)), 10);
+        List<Long> sourceIds = companies.get(0).getRepresentatives().stream().map(Representative::getId).sorted().toList();
+        Long otherId = companies.get(1).getRepresentatives().iterator().next().getId();
+        entityManager.clear();
+
+        int transferred = companyRepository.transferRepresentatives(companies.get(0).getId(), companies.get(1).getId(),
+                List.of(sourceIds.get(0), sourceIds.get(1), otherId));
+
+        assertThat(transferred).isEqualTo(2);
+        assertThat(companyRepository.findIdsByRepresentativeId(sourceIds.get(0))).containsExactly(companies.get(1).getId());
+        assertThat(companyRepository.findIdsByRepresentativeId(sourceIds.get(2))).containsExactly(companies.get(0).getId());
+        assertThat(companyRepository.lockByIdsInOrder(List.of(companies.get(1).getId(), companies.get(0).getId(), -1L)))
+                .containsExactly(companies.get(0).getId(), companies.get(1).getId());
+        assertThat(companyRepository.lockForTransferInOrder(List.of(companies.get(1).getId(), companies.get(0).getId(), -1L)))
+                .containsExactly(companies.get(0).getId(), companies.get(1).getId());
+        assertThat(companyRepository.countAssigned(companies.get(1).getId(), List.of(sourceIds.get(0), sourceIds.get(2), otherId)))
+                .isEqualTo(2);
+    }
+
+    /**
+     * Runs the query, maps the result the way the services do and returns the number of
+     * JDBC statements prepared, starting from an empty persistence context.
+     */
+    private long countStatements(Supplier<List<Company>> query) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<CompanyDTO> companies = query.get().stream()
+                .map(commonMapper::companyToDto)
+                .toList();
+
+        assertThat(companies).allSatisfy(company -> assertThat(company.getRepresentatives()).isNotNull());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void persistCompanies(String name, int count) {
+        for (int i = 0; i < count; i++) {
+            Company company = new Company(null, name, new HashSet<>());
+            for (int r = 0; r < REPRESENTATIVES_PER_COMPANY; r++) {
+                // Persisted up front, representatives without an ID would be equal to each other.
+                Representative representative = new Representative(null, "John" + r, name + i);
+                entityManager.persist(representative);
+                company.addRepresentative(representative);
+            }
+            entityManager.persist(company);
+        }
+    }
+
+    private void persistCompaniesWithoutRepresentatives(int count) {
+        for (int i = 0; i < count; i++) {
+            entityManager.persist(new Company(null, "Initech", new HashSet<>()));
+        }
+    }
+}
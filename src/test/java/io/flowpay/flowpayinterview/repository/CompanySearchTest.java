@@ -0,0 +1,102 @@
+package io.flowpay.flowpayinterview.repository;
+
+import io.flowpay.flowpayinterview.PostgresIntegrationTest;
+import io.flowpay.flowpayinterview.model.dto.CompanyDTO;
+import io.flowpay.flowpayinterview.model.dto.CompanyNameMatch;
+import io.flowpay.flowpayinterview.service.CompanyService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies the results and the query plans of the company name search against PostgreSQL.
+ */
+class CompanySearchTest extends PostgresIntegrationTest {
+
+    private static final int ROWS = 50_000;
+
+    @Autowired
+    private CompanyService companyService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO companies (id, name) SELECT i, 'Company ' || md5(i::text) FROM generate_series(1, ?) i", ROWS);
+        jdbcTemplate.update("INSERT INTO companies (id, name) VALUES "
+                + "(?, 'Flowpay'), (?, 'Flowpay Holding'), (?, 'The Flowpay Group'), (?, 'Flow_pay Labs'), (?, 'Cashflow')",
+                ROWS + 1, ROWS + 2, ROWS + 3, ROWS + 4, ROWS + 5);
+        jdbcTemplate.execute("ANALYZE companies");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE companies, representatives, company_representatives");
+    }
+
+    @Test
+    void prefixMatchIgnoresCaseAndOrdersByName() {
+        assertThat(names(companyService.searchCompanies("FLOWPAY", CompanyNameMatch.PREFIX, null, null).getItems()))
+                .containsExactly("Flowpay", "Flowpay Holding");
+    }
+
+    @Test
+    void prefixMatchTreatsWildcardsLiterally() {
+        assertThat(names(companyService.searchCompanies("flow_", CompanyNameMatch.PREFIX, null, null).getItems()))
+                .containsExactly("Flow_pay Labs");
+    }
+
+    @Test
+    void containsMatchRanksBySimilarity() {
+        assertThat(names(companyService.searchCompanies("flowpay", CompanyNameMatch.CONTAINS, null, null).getItems()))
+                .containsExactly("Flowpay", "Flowpay Holding", "The Flowpay Group");
+    }
+
+    @Test
+    void fuzzyMatchToleratesTypos() {
+        assertThat(names(companyService.searchCompanies("flowpai", CompanyNameMatch.FUZZY, null, null).getItems()))
+                .startsWith("Flowpay")
+                .doesNotContain("Cashflow");
+    }
+
+    @Test
+    void searchPagesThroughResults() {
+        var first = companyService.searchCompanies("flowpay", CompanyNameMatch.CONTAINS, 0, 2);
+        var second = companyService.searchCompanies("flowpay", CompanyNameMatch.CONTAINS, 1, 2);
+
+        assertThat(first.isHasNext()).isTrue();
+        assertThat(names(second.getItems())).containsExactly("The Flowpay Group");
+        assertThat(second.isHasNext()).isFalse();
+    }
+
+    @Test
+    void searchQueriesUseIndexes() {
+        assertThat(explain("SELECT c.id FROM companies c WHERE lower(c.name) COLLATE \"C\" LIKE ? "
+                + "ORDER BY lower(c.name) COLLATE \"C\", c.id LIMIT 11", "flow%"))
+                .contains("idx_companies_name_prefix")
+                .doesNotContain("Seq Scan");
+        assertThat(explain("SELECT c.id FROM companies c WHERE lower(c.name) LIKE ? "
+                + "ORDER BY similarity(lower(c.name), ?) DESC, c.id LIMIT 11", "%flowpay%", "flowpay"))
+                .contains("idx_companies_name_trgm")
+                .doesNotContain("Seq Scan");
+        assertThat(explain("SELECT c.id FROM companies c WHERE lower(c.name) % ? "
+                + "ORDER BY similarity(lower(c.name), ?) DESC, c.id LIMIT 11", "flowpai", "flowpai"))
+                .contains("idx_companies_name_trgm")
+                .doesNotContain("Seq Scan");
+    }
+
+    private static List<String> names(List<CompanyDTO> companies) {
+        return companies.stream().map(CompanyDTO::getName).toList();
+    }
+
+    private String explain(String sql, Object... args) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args));
+    }
+}
@@ -0,0 +1,72 @@
+package io.flowpay.flowpayinterview.repository;
+
+import io.flowpay.flowpayinterview.PostgresIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies from the query plans that the lookups by name and by representative use their indexes.
+ */
+class IndexUsageTest extends PostgresIntegrationTest {
+
+    private static final int ROWS = 20_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO companies (id, name) SELECT i, 'Company ' || i FROM generate_series(1, ?) i", ROWS);
+        jdbcTemplate.update("INSERT INTO representatives (id, firstname, lastname) "
+                + "SELECT i, 'First ' || (i % 100), 'Last ' || i FROM generate_series(1, ?) i", ROWS);
+        jdbcTemplate.update("INSERT INTO company_representatives (company_id, representative_id) "
+                + "SELECT i, i FROM generate_series(1, ?) i", ROWS);
+        jdbcTemplate.execute("ANALYZE companies, representatives, company_representatives");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE companies, representatives, company_representatives");
+    }
+
+    @Test
+    void findByNameUsesNameIndex() {
+        assertThat(explain("SELECT * FROM companies WHERE name = ?", "Company 42"))
+                .contains("idx_companies_name")
+                .doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void findByFirstNameAndLastNameUsesNameIndex() {
+        assertThat(explain("SELECT * FROM representatives WHERE firstname = ? AND lastname = ?", "First 42", "Last 42"))
+                .contains("idx_representatives_firstname_lastname")
+                .doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void findCompaniesByRepresentativeUsesReverseIndex() {
+        assertThat(explain("SELECT c.* FROM companies c "
+                + "JOIN company_representatives cr ON cr.company_id = c.id WHERE cr.representative_id = ?", 42L))
+                .contains("idx_company_representatives_representative_company")
+                .doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void representativeDeletionCascadeUsesReverseIndex() {
+        assertThat(explain("DELETE FROM company_representatives WHERE representative_id = ?", 42L))
+                .contains("idx_company_representatives_representative_company")
+                .doesNotContain("Seq Scan");
+    }
+
+    private String explain(String sql, Object... args) {
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args);
+        return String.join("\n", plan);
+    }
+}
@@ -0,0 +1,214 @@
+package io.flowpay.flowpayinterview.repository;
+
+import io.flowpay.flowpayinterview.model.entity.Company;
+import io.flowpay.flowpayinterview.model.entity.Representative;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the database round-trips avoided by the Hibernate second-level and query caches.
+ * Every read runs in its own transaction, so nothing is served from the persistence context.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SecondLevelCacheTest.class);
+
+    private static final int COMPANIES = 50;
+
+    private static final int REPRESENTATIVES_PER_COMPANY = 3;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private RepresentativeRepository representativeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+
+    private SessionFactory sessionFactory;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+    }
+
+    @Test
+    void findByIdWithRepresentativesIsServedFromCache() {
+        List<Long> ids = persistCompanies("Initech");
+        // Committed inserts are written through to the cache; start from a cold one.
+        sessionFactory.getCache().evictAllRegions();
+
+        long cold = countStatements(() -> loadWithRepresentatives(ids));
+        long warm = countStatements(() -> loadWithRepresentatives(ids));
+
+        report("findById + representatives", ids.size(), cold, warm);
+        assertThat(cold).isEqualTo(2L * COMPANIES);
+        assertThat(warm).isZero();
+    }
+
+    @Test
+    void findAllByNameIsServedFromQueryCache() {
+        persistCompanies("Umbrella");
+
+        long cold = countStatements(() -> transactionTemplate.execute(status ->
+                companyRepository.findAllByName("Umbrella").stream().mapToInt(c -> c.getRepresentatives().size()).sum()));
+        long warm = countStatements(() -> transactionTemplate.execute(status ->
+                companyRepository.findAllByName("Umbrella").stream().mapToInt(c -> c.getRepresentatives().size()).sum()));
+
+        report("findAllByName", 1, cold, warm);
+        assertThat(cold).isEqualTo(1);
+        assertThat(warm).isZero();
+    }
+
+    @Test
+    void findAllByFirstNameAndLastNameIsServedFromQueryCache() {
+        transactionTemplate.executeWithoutResult(status ->
+                representativeRepository.save(new Representative(null, "Peter", "Gibbons")));
+
+        long cold = countStatements(() -> transactionTemplate.execute(status ->
+                representativeRepository.findAllByFirstNameAndLastName("Peter", "Gibbons")));
+        long warm = countStatements(() -> transactionTemplate.execute(status ->
+                representativeRepository.findAllByFirstNameAndLastName("Peter", "Gibbons")));
+
+        report("findAllByFirstNameAndLastName", 1, cold, warm);
+        assertThat(cold).isEqualTo(1);
+        assertThat(warm).isZero();
+    }
+
+    @Test
+    void updateInvalidatesCachedQueryResult() {
+        Representative representative = transactionTemplate.execute(status ->
+                representativeRepository.save(new Representative(null, "Bill", "Lumbergh")));
+        assertThat(representativeRepository.findAllByFirstNameAndLastName("Bill", "Lumbergh")).hasSize(1);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Representative managed = representativeRepository.findById(representative.getId()).orElseThrow();
+            managed.setLastName("Lumbergh Jr.");
+        });
+
+        assertThat(representativeRepository.findAllByFirstNameAndLastName("Bill", "Lumbergh")).isEmpty();
+        assertThat(representativeRepository.findById(representative.getId()).orElseThrow().getLastName())
+                .isEqualTo("Lumbergh Jr.");
+    }
+
+    @Test
+    void deletingRepresentativesInvalidatesCachedCollections() {
+        List<Long> ids = persistCompanies("Hooli");
+        loadWithRepresentatives(ids);
+        Company company = transactionTemplate.execute(status -> {
+            Company loaded = companyRepository.findById(ids.get(0)).orElseThrow();
+            loaded.getRepresentatives().size();
+            return loaded;
+        });
+        List<Long> representativeIds = company.getRepresentatives().stream().map(Representative::getId).toList();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            companyRepository.disassociateRepresentativeFromAllCompanies(representativeIds.get(0));
+            representativeRepository.deleteAllByIds(representativeIds.subList(1, representativeIds.size()));
+        });
+
+        assertThat(loadWithRepresentatives(ids.subList(0, 1))).isZero();
+        assertThat(representativeRepository.findById(representativeIds.get(0))).isPresent();
+        assertThat(representativeRepository.findById(representativeIds.get(1))).isEmpty();
+        assertThat(loadWithRepresentatives(ids.subList(1, 2))).isEqualTo(REPRESENTATIVES_PER_COMPANY);
+    }
+
+    @Test
+    void joinTableStatementsInvalidateCachedCollectionOfTheCompany() {
+        List<Long> ids = persistCompanies("Globex");
+        loadWithRepresentatives(ids);
+        Long representativeId = transactionTemplate.execute(status ->
+                companyRepository.findById(ids.get(0)).orElseThrow().getRepresentatives().iterator().next().getId());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            companyRepository.unassignRepresentative(ids.get(0), representativeId);
+            companyRepository.evictCachedRepresentatives(List.of(ids.get(0)));
+        });
+        assertThat(loadWithRepresentatives(ids.subList(0, 1))).isEqualTo(REPRESENTATIVES_PER_COMPANY - 1);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            companyRepository.assignRepresentative(ids.get(1), representativeId);
+            companyRepository.evictCachedRepresentatives(List.of(ids.get(1)));
+        });
+        assertThat(loadWithRepresentatives(ids.subList(1, 2))).isEqualTo(REPRESENTATIVES_PER_COMPANY + 1);
+    }
+
+    @Test
+    void exportBypassesTheCache() {
+        persistCompanies("Vandelay");
+        sessionFactory.getCache().evictAllRegions();
+        statistics.clear();
+
+        int exported = transactionTemplate.execute(status -> {
+            List<Company> companies = new ArrayList<>();
+            companyRepository.scrollAllWithRepresentatives(10, companies::add);
+            return companies.size();
+        });
+
+        assertThat(exported).isGreaterThanOrEqualTo(COMPANIES);
+        assertThat(statistics.getSecondLevelCachePutCount()).isZero();
+    }
+
+    private int loadWithRepresentatives(List<Long> ids) {
+        return transactionTemplate.execute(status -> ids.stream()
+                .map(id -> companyRepository.findById(id).orElseThrow())
+                .mapToInt(company -> company.getRepresentatives().size())
+                .sum());
+    }
+
+    private List<Long> persistCompanies(String name) {
+        return transactionTemplate.execute(status -> {
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < COMPANIES; i++) {
+                Set<Representative> representatives = new HashSet<>();
+                for (int j = 0; j < REPRESENTATIVES_PER_COMPANY; j++) {
+                    representatives.add(representativeRepository.save(new Representative(null, "First" + j, "Last" + i)));
+                }
+                ids.add(companyRepository.save(new Company(null, name, representatives)).getId());
+            }
+            return ids;
+        });
+    }
+
+    private long countStatements(Supplier<?> action) {
+        statistics.clear();
+        long start = System.nanoTime();
+        action.get();
+        long elapsedMicros = (System.nanoTime() - start) / 1_000;
+        long statements = statistics.getPrepareStatementCount();
+        log.info("{} statements in {} µs, L2 hits {}, query cache hits {}", statements, elapsedMicros,
+                statistics.getSecondLevelCacheHitCount(), statistics.getQueryCacheHitCount());
+        return statements;
+    }
+
+    private void report(String operation, int calls, long cold, long warm) {
+        log.info("{} x{}: {} round-trips cold, {} warm, {} avoided", operation, calls, cold, warm, cold - warm);
+    }
+}
@@ -0,0 +1,110 @@
+package io.flowpay.flowpayinterview.service;
+
+import io.flowpay.flowpayinterview.config.CacheConfig;
+import io.flowpay.flowpayinterview.model.dto.CompanyDTO;
+import io.flowpay.flowpayinterview.model.dto.RepresentativeDTO;
+import io.flowpay.flowpayinterview.repository.CompanyRepository;
+import io.flowpay.flowpayinterview.repository.RepresentativeRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Verifies the cache annotations of the services against the real application context.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CachingTest {
+
+    @Autowired
+    private CompanyService companyService;
+
+    @Autowired
+    private RepresentativeService representativeService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @SpyBean
+    private CompanyRepository companyRepository;
+
+    @SpyBean
+    private RepresentativeRepository representativeRepository;
+
+    private CompanyDTO company;
+
+    private RepresentativeDTO representative;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        company = companyService.createCompany(new CompanyDTO(null, "Acme Corporation", null));
+        representative = representativeService.createRepresentative(new RepresentativeDTO(null, "John", "Doe"));
+        companyService.assignRepresentativeToCompany(company.getId(), representative.getId());
+        representativeService.getTaggedRepresentativeById(representative.getId());
+        clearInvocations(companyRepository, representativeRepository);
+    }
+
+    @Test
+    void getTaggedCompanyByIdIsServedFromCache() {
+        companyService.getTaggedCompanyById(company.getId());
+        companyService.getTaggedCompanyById(company.getId());
+
+        verify(companyRepository, times(1)).findById(company.getId());
+    }
+
+    @Test
+    void updateCompanyEvictsCompany() {
+        companyService.getTaggedCompanyById(company.getId());
+        companyService.updateCompany(company.getId(), new CompanyDTO(null, "Acme Corp", null));
+
+        assertThat(companyService.getTaggedCompanyById(company.getId()).getContent().getName()).isEqualTo("Acme Corp");
+    }
+
+    @Test
+    void updateRepresentativeEvictsRepresentativeAndItsCompanies() {
+        representativeService.getTaggedRepresentativeById(representative.getId());
+        assertThat(companyService.getTaggedCompanyById(company.getId()).getContent().getRepresentatives())
+                .extracting(RepresentativeDTO::getFirstName)
+                .containsExactly("John");
+
+        representativeService.updateRepresentative(representative.getId(), new RepresentativeDTO(null, "Jane", "Doe"));
+
+        assertThat(representativeService.getTaggedRepresentativeById(representative.getId()).getContent().getFirstName()).isEqualTo("Jane");
+        assertThat(companyService.getTaggedCompanyById(company.getId()).getContent().getRepresentatives())
+                .extracting(RepresentativeDTO::getFirstName)
+                .containsExactly("Jane");
+        verify(representativeRepository, times(2)).findById(representative.getId());
+    }
+
+    @Test
+    void unassignRepresentativeEvictsCompany() {
+        companyService.getTaggedCompanyById(company.getId());
+        companyService.unassignRepresentativeFromCompany(company.getId(), representative.getId());
+
+        assertThat(companyService.getTaggedCompanyById(company.getId()).getContent().getRepresentatives()).isEmpty();
+        assertThat(cacheManager.getCache(CacheConfig.CACHE_REPRESENTATIVES).get(representative.getId())).isNotNull();
+    }
+
+    @Test
+    void deleteCompanyEvictsItsRepresentatives() {
+        assertThat(cacheManager.getCache(CacheConfig.CACHE_REPRESENTATIVES).get(representative.getId())).isNotNull();
+
+        companyService.deleteCompany(company.getId());
+
+        assertThat(cacheManager.getCache(CacheConfig.CACHE_REPRESENTATIVES).get(representative.getId())).isNull();
+        assertThatThrownBy(() -> representativeService.getTaggedRepresentativeById(representative.getId()))
+                .isInstanceOf(EntityNotFoundException.class);
+    }
+}
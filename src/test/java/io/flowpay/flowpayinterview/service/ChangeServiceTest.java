@@ -0,0 +1,201 @@
+package io.flowpay.flowpayinterview.service;
+
+import io.flowpay.flowpayinterview.exception.TransferConflictException;
+import io.flowpay.flowpayinterview.model.dto.BulkItemResultDTO;
+import io.flowpay.flowpayinterview.model.dto.ChangeDTO;
+import io.flowpay.flowpayinterview.model.dto.ChangeEntityType;
+import io.flowpay.flowpayinterview.model.dto.ChangePageDTO;
+import io.flowpay.flowpayinterview.model.dto.CompanyDTO;
+import io.flowpay.flowpayinterview.model.dto.RepresentativeDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Verifies that the writes of the services are recorded in the change log and read back incrementally.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ChangeServiceTest {
+
+    @Autowired
+    private ChangeService changeService;
+
+    @Autowired
+    private CompanyService companyService;
+
+    @Autowired
+    private RepresentativeService representativeService;
+
+    @Autowired
+    private ChangeStream changeStream;
+
+    private long since;
+
+    @BeforeEach
+    void setUp() {
+        // Reads up to the end of the log, as the context and its log are shared with other tests.
+        ChangePageDTO page;
+        do {
+            page = changeService.getChanges(since, null);
+            since = page.getNextSince();
+        } while (page.isHasMore());
+    }
+
+    @Test
+    void createdEntitiesAreRecordedInCommitOrder() {
+        RepresentativeDTO john = representativeService.createRepresentative(new RepresentativeDTO(null, "John", "Doe"));
+        CompanyDTO acme = companyService.createCompany(new CompanyDTO(null, "Acme", null));
+        companyService.assignRepresentativeToCompany(acme.getId(), john.getId());
+
+        ChangePageDTO page = changeService.getChanges(since, null);
+
+        assertThat(page.getItems())
+                .extracting(ChangeDTO::getSeq, ChangeDTO::getEntityType, ChangeDTO::getEntityId, ChangeDTO::isDeleted)
+                .containsExactly(
+                        tuple(since + 1, ChangeEntityType.REPRESENTATIVE, john.getId(), false),
+                        tuple(since + 2, ChangeEntityType.COMPANY, acme.getId(), false),
+                        tuple(since + 3, ChangeEntityType.COMPANY, acme.getId(), false));
+        assertThat(page.getNextSince()).isEqualTo(since + 3);
+        assertThat(page.isHasMore()).isFalse();
+    }
+
+    @Test
+    void changesOfRepresentativesAreRecordedForTheirCompanies() {
+        RepresentativeDTO john = representativeService.createRepresentative(new RepresentativeDTO(null, "John", "Doe"));
+        CompanyDTO acme = companyService.createCompany(new CompanyDTO(null, "Acme", null));
+        companyService.assignRepresentativeToCompany(acme.getId(), john.getId());
+        since = changeService.getChanges(since, null).getNextSince();
+
+        representativeService.updateRepresentative(john.getId(), new RepresentativeDTO(null, "John", "Roe"));
+        representativeService.updateRepresentative(john.getId(), new RepresentativeDTO(null, "Johnny", "Roe"));
+
+        assertThat(changeService.getChanges(since, null).getItems())
+                .extracting(ChangeDTO::getEntityType, ChangeDTO::getEntityId)
+                .containsExactly(
+                        tuple(ChangeEntityType.COMPANY, acme.getId()),
+                        tuple(ChangeEntityType.REPRESENTATIVE, john.getId()),
+                        tuple(ChangeEntityType.COMPANY, acme.getId()),
+                        tuple(ChangeEntityType.REPRESENTATIVE, john.getId()));
+    }
+
+    @Test
+    void deletionsAreRecordedAsTombstones() {
+        RepresentativeDTO john = representativeService.createRepresentative(new RepresentativeDTO(null, "John", "Doe"));
+        RepresentativeDTO jane = representativeService.createRepresentative(new RepresentativeDTO(null, "Jane", "Roe"));
+        CompanyDTO acme = companyService.createCompany(new CompanyDTO(null, "Acme", null));
+        companyService.assignRepresentativeToCompany(acme.getId(), john.getId());
+        CompanyDTO globex = companyService.createCompany(new CompanyDTO(null, "Globex", null));
+        companyService.assignRepresentativeToCompany(globex.getId(), jane.getId());
+        since = changeService.getChanges(since, null).getNextSince();
+
+        representativeService.deleteRepresentative(john.getId());
+        companyService.deleteCompany(globex.getId());
+
+        assertThat(changeService.getChanges(since, null).getItems())
+                .extracting(ChangeDTO::getEntityType, ChangeDTO::getEntityId, ChangeDTO::isDeleted)
+                .containsExactly(
+                        tuple(ChangeEntityType.COMPANY, acme.getId(), false),
+                        tuple(ChangeEntityType.REPRESENTATIVE, john.getId(), true),
+                        tuple(ChangeEntityType.COMPANY, globex.getId(), true),
+                        tuple(ChangeEntityType.REPRESENTATIVE, jane.getId(), true));
+    }
+
+    @Test
+    void transfersAreRecordedForBothCompanies() {
+        RepresentativeDTO john = representativeService.createRepresentative(new RepresentativeDTO(null, "John", "Doe"));
+        CompanyDTO acme = companyService.createCompany(new CompanyDTO(null, "Acme", null));
+        companyService.assignRepresentativeToCompany(acme.getId(), john.getId());
+        CompanyDTO globex = companyService.createCompany(new CompanyDTO(null, "Globex", null));
+        since = changeService.getChanges(since, null).getNextSince();
+
+        companyService.transferRepresentative(acme.getId(), globex.getId(), john.getId());
+        assertThatThrownBy(() -> companyService.transferRepresentative(acme.getId(), globex.getId(), john.getId()))
+                .isInstanceOf(TransferConflictException.class);
+
+        // The failed transfer is rolled back together with its changes.
+        assertThat(changeService.getChanges(since, null).getItems())
+                .extracting(ChangeDTO::getEntityType, ChangeDTO::getEntityId)
+                .containsExactly(
+                        tuple(ChangeEntityType.COMPANY, acme.getId()),
+                        tuple(ChangeEntityType.COMPANY, globex.getId()));
+    }
+
+    @Test
+    void changesAreReadInPages() {
+        List<Long> ids = companyService.createCompanies(List.of(
+                        new CompanyDTO(null, "Acme", null),
+                        new CompanyDTO(null, "Globex", null),
+                        new CompanyDTO(null, "Initech", null))).stream()
+                .map(BulkItemResultDTO::getId)
+                .toList();
+
+        ChangePageDTO first = changeService.getChanges(since, 2);
+        ChangePageDTO second = changeService.getChanges(first.getNextSince(), 2);
+
+        assertThat(first.getItems()).extracting(ChangeDTO::getEntityId).containsExactlyElementsOf(ids.subList(0, 2));
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(second.getItems()).extracting(ChangeDTO::getEntityId).containsExactly(ids.get(2));
+        assertThat(second.isHasMore()).isFalse();
+        assertThat(changeService.getChanges(second.getNextSince(), 2).getItems()).isEmpty();
+        assertThat(changeService.getChanges(second.getNextSince(), 2).getNextSince()).isEqualTo(second.getNextSince());
+    }
+
+    @Test
+    void invalidRequestsAreRejected() {
+        assertThatThrownBy(() -> changeService.getChanges(-1L, null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> changeService.getChanges(0L, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void committedChangesArePushedToSubscribers() throws Exception {
+        RepresentativeDTO john = representativeService.createRepresentative(new RepresentativeDTO(null, "John", "Doe"));
+        CompanyDTO acme = companyService.createCompany(new CompanyDTO(null, "Acme", null));
+        CompanyDTO globex = companyService.createCompany(new CompanyDTO(null, "Globex", null));
+        List<ChangeDTO> pushed = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch received = new CountDownLatch(2);
+        ChangeStream.Subscription subscription = changeStream.subscribe(acme.getId(), null, new ChangeStream.Sink() {
+            @Override
+            public void open(long since) {
+            }
+
+            @Override
+            public void change(ChangeDTO change) {
+                pushed.add(change);
+                received.countDown();
+            }
+
+            @Override
+            public void overflow(long resumeAfter) {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+
+        companyService.assignRepresentativeToCompany(acme.getId(), john.getId());
+        companyService.transferRepresentative(acme.getId(), globex.getId(), john.getId());
+        assertThatThrownBy(() -> companyService.transferRepresentative(acme.getId(), globex.getId(), john.getId()))
+                .isInstanceOf(TransferConflictException.class);
+
+        assertThat(received.await(10, TimeUnit.SECONDS)).isTrue();
+        subscription.cancel();
+        List<ChangeDTO> logged = changeService.getChanges(since, null).getItems().stream()
+                .filter(change -> change.getEntityType() == ChangeEntityType.COMPANY && change.getEntityId().equals(acme.getId()))
+                .toList();
+        assertThat(pushed).hasSize(2).containsExactlyElementsOf(logged.subList(logged.size() - 2, logged.size()));
+    }
+}
@@ -0,0 +1,295 @@
+package io.flowpay.flowpayinterview.service;
+
+import io.flowpay.flowpayinterview.config.FlowpayProperties;
+import io.flowpay.flowpayinterview.exception.SubscriptionLimitExceededException;
+import io.flowpay.flowpayinterview.model.dto.ChangeDTO;
+import io.flowpay.flowpayinterview.model.dto.ChangeEntityType;
+import io.flowpay.flowpayinterview.model.dto.ChangePageDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+
+/**
+ * Verifies the delivery of the committed changes to the subscribers of the change stream, fed with events
+ * the way the {@link ChangeLog} publishes them and reading a change log kept in memory.
+ */
+@ExtendWith(MockitoExtension.class)
+class ChangeStreamTest {
+
+    @Mock
+    private ChangeService changeService;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(16);
+    private final List<ChangeDTO> changeLog = new ArrayList<>();
+    private FlowpayProperties flowpayProperties;
+
+    @BeforeEach
+    void setUp() {
+        flowpayProperties = new FlowpayProperties();
+        lenient().when(changeService.getLastSeq()).thenAnswer(invocation -> {
+            synchronized (changeLog) {
+                return (long) changeLog.size();
+            }
+        });
+        lenient().when(changeService.getCommittedChanges(anyLong(), anyInt())).thenAnswer(invocation -> {
+            long since = invocation.getArgument(0);
+            int limit = invocation.getArgument(1);
+            synchronized (changeLog) {
+                List<ChangeDTO> items = changeLog.subList((int) since, Math.min(changeLog.size(), (int) since + limit));
+                long nextSince = items.isEmpty() ? since : items.get(items.size() - 1).getSeq();
+                return new ChangePageDTO(List.copyOf(items), nextSince, nextSince < changeLog.size());
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void thousandsOfConcurrentSubscribersReceiveTheirChangesInOrder() throws Exception {
+        flowpayProperties.getChanges().setSubscriberBufferSize(1000);
+        ChangeStream changeStream = new ChangeStream(changeService, executor, flowpayProperties);
+        int subscribers = 4000;
+        int companies = 50;
+        int transactions = 500;
+
+        // Subscribes from several threads while the transactions commit.
+        ExecutorService clients = Executors.newFixedThreadPool(16);
+        List<Future<RecordingSink>> subscribed = new ArrayList<>();
+        List<Long> companyIds = new ArrayList<>();
+        for (int i = 0; i < subscribers; i++) {
+            Long companyId = i % 2 == 0 ? null : (long) (i % companies) + 1;
+            companyIds.add(companyId);
+            subscribed.add(clients.submit(() -> {
+                RecordingSink sink = new RecordingSink();
+                changeStream.subscribe(companyId, null, sink);
+                return sink;
+            }));
+        }
+        for (int t = 0; t < transactions; t++) {
+            changeStream.onCommitted(commit(
+                    new ChangeDTO(0, ChangeEntityType.COMPANY, (long) (t % companies) + 1, false),
+                    new ChangeDTO(0, ChangeEntityType.REPRESENTATIVE, (long) t, false)));
+        }
+        List<RecordingSink> sinks = new ArrayList<>();
+        for (Future<RecordingSink> sink : subscribed) {
+            sinks.add(sink.get(10, TimeUnit.SECONDS));
+        }
+        clients.shutdown();
+
+        assertThat(changeStream.getSubscriptionCount()).isEqualTo(subscribers);
+        for (int i = 0; i < subscribers; i++) {
+            RecordingSink sink = sinks.get(i);
+            Long companyId = companyIds.get(i);
+            awaitUntil(() -> sink.opened >= 0);
+            List<Long> expected = changeLog.stream()
+                    .filter(change -> change.getSeq() > sink.opened)
+                    .filter(change -> companyId == null || change.getEntityType() == ChangeEntityType.COMPANY
+                            && companyId.equals(change.getEntityId()))
+                    .map(ChangeDTO::getSeq)
+                    .toList();
+            awaitUntil(() -> sink.seqs.size() >= expected.size());
+            assertThat(sink.seqs).containsExactlyElementsOf(expected);
+            assertThat(sink.overflowAt).isNull();
+        }
+    }
+
+    @Test
+    void slowSubscriberIsDroppedWithoutHoldingBackTheWriters() throws Exception {
+        flowpayProperties.getChanges().setSubscriberBufferSize(8);
+        ChangeStream changeStream = new ChangeStream(changeService, executor, flowpayProperties);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink slow = new RecordingSink() {
+            @Override
+            public void change(ChangeDTO change) {
+                super.change(change);
+                awaitQuietly(release);
+            }
+        };
+        RecordingSink fast = new RecordingSink();
+        changeStream.subscribe(null, null, slow);
+        changeStream.subscribe(null, null, fast);
+
+        for (int t = 0; t < 100; t++) {
+            changeStream.onCommitted(commit(new ChangeDTO(0, ChangeEntityType.REPRESENTATIVE, (long) t, false)));
+            // Paced by the fast subscriber only, which keeps up.
+            int sent = t + 1;
+            awaitUntil(() -> fast.seqs.size() == sent);
+        }
+        release.countDown();
+
+        assertThat(slow.closed.await(5, TimeUnit.SECONDS)).isTrue();
+        // The change being sent when the buffer overflowed, and the buffered ones.
+        assertThat(slow.seqs).hasSizeBetween(1, 1 + 8).containsExactlyElementsOf(
+                LongStream.rangeClosed(1, slow.seqs.size()).boxed().toList());
+        assertThat(slow.overflowAt).isEqualTo(slow.seqs.size());
+        assertThat(fast.seqs).containsExactlyElementsOf(LongStream.rangeClosed(1, 100).boxed().toList());
+        assertThat(changeStream.getSubscriptionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void subscriptionResumesAfterSequenceNumber() {
+        for (int t = 0; t < 5; t++) {
+            commit(new ChangeDTO(0, ChangeEntityType.COMPANY, (long) t % 2, false));
+        }
+        ChangeStream changeStream = new ChangeStream(changeService, executor, flowpayProperties);
+        RecordingSink all = new RecordingSink();
+        RecordingSink company = new RecordingSink();
+        changeStream.subscribe(null, 2L, all);
+        changeStream.subscribe(1L, 0L, company);
+
+        changeStream.onCommitted(commit(new ChangeDTO(0, ChangeEntityType.COMPANY, 1L, false)));
+        changeStream.onCommitted(commit(new ChangeDTO(0, ChangeEntityType.REPRESENTATIVE, 1L, false)));
+
+        awaitUntil(() -> all.seqs.size() == 5);
+        awaitUntil(() -> company.seqs.size() == 3);
+        assertThat(all.opened).isEqualTo(2);
+        assertThat(all.seqs).containsExactly(3L, 4L, 5L, 6L, 7L);
+        assertThat(company.seqs).containsExactly(2L, 4L, 6L);
+    }
+
+    @Test
+    void changesCommittedOutOfOrderAreReadFromTheLog() {
+        ChangeStream changeStream = new ChangeStream(changeService, executor, flowpayProperties);
+        RecordingSink sink = new RecordingSink();
+        changeStream.subscribe(null, null, sink);
+        awaitUntil(() -> sink.opened == 0);
+
+        ChangesCommittedEvent first = commit(
+                new ChangeDTO(0, ChangeEntityType.COMPANY, 1L, false),
+                new ChangeDTO(0, ChangeEntityType.COMPANY, 2L, false));
+        ChangesCommittedEvent second = commit(new ChangeDTO(0, ChangeEntityType.COMPANY, 3L, true));
+        changeStream.onCommitted(second);
+        awaitUntil(() -> sink.seqs.size() == 3);
+        changeStream.onCommitted(first);
+        changeStream.onCommitted(commit(new ChangeDTO(0, ChangeEntityType.COMPANY, 4L, false)));
+
+        awaitUntil(() -> sink.seqs.size() == 4);
+        assertThat(sink.seqs).containsExactly(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void changesAppendedInBulkAreReadFromTheLog() {
+        ChangeStream changeStream = new ChangeStream(changeService, executor, flowpayProperties);
+        RecordingSink sink = new RecordingSink();
+        changeStream.subscribe(null, null, sink);
+        awaitUntil(() -> sink.opened == 0);
+
+        commit(new ChangeDTO(0, ChangeEntityType.COMPANY, 1L, false),
+                new ChangeDTO(0, ChangeEntityType.REPRESENTATIVE, 1L, false));
+        changeStream.onCommitted(new ChangesCommittedEvent(2));
+        changeStream.onCommitted(commit(new ChangeDTO(0, ChangeEntityType.COMPANY, 2L, false)));
+
+        awaitUntil(() -> sink.seqs.size() == 3);
+        assertThat(sink.seqs).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void subscriptionsBeyondTheLimitAreRejected() {
+        flowpayProperties.getChanges().setMaxSubscribers(2);
+        ChangeStream changeStream = new ChangeStream(changeService, executor, flowpayProperties);
+        ChangeStream.Subscription first = changeStream.subscribe(null, null, new RecordingSink());
+        changeStream.subscribe(1L, null, new RecordingSink());
+
+        assertThatThrownBy(() -> changeStream.subscribe(null, null, new RecordingSink()))
+                .isInstanceOf(SubscriptionLimitExceededException.class);
+        assertThatThrownBy(() -> changeStream.subscribe(null, -1L, new RecordingSink()))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        first.cancel();
+        changeStream.subscribe(null, null, new RecordingSink());
+        assertThat(changeStream.getSubscriptionCount()).isEqualTo(2);
+    }
+
+    @Test
+    void closingTheStreamClosesTheSubscriptionsAndStopsTheExecutor() {
+        ChangeStream changeStream = new ChangeStream(changeService, executor, flowpayProperties);
+        RecordingSink sink = new RecordingSink();
+        changeStream.subscribe(null, null, sink);
+
+        changeStream.close();
+
+        assertThat(sink.closed.getCount()).isZero();
+        assertThat(changeStream.getSubscriptionCount()).isZero();
+        assertThat(executor.isShutdown()).isTrue();
+    }
+
+    /**
+     * Appends the changes to the log, numbering them, and returns the event published after their commit.
+     */
+    private ChangesCommittedEvent commit(ChangeDTO... changes) {
+        synchronized (changeLog) {
+            for (ChangeDTO change : changes) {
+                change.setSeq(changeLog.size() + 1);
+                changeLog.add(change);
+            }
+        }
+        return new ChangesCommittedEvent(List.of(changes));
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition met in time").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class RecordingSink implements ChangeStream.Sink {
+
+        final List<Long> seqs = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch closed = new CountDownLatch(1);
+        volatile long opened = -1;
+        volatile Long overflowAt;
+
+        @Override
+        public void open(long since) {
+            opened = since;
+        }
+
+        @Override
+        public void change(ChangeDTO change) {
+            seqs.add(change.getSeq());
+        }
+
+        @Override
+        public void overflow(long resumeAfter) {
+            overflowAt = resumeAfter;
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+    }
+}
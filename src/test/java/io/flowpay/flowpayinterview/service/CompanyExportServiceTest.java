@@ -0,0 +1,78 @@
+package io.flowpay.flowpayinterview.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.flowpay.flowpayinterview.config.FlowpayProperties;
+import io.flowpay.flowpayinterview.mapper.CommonMapper;
+import io.flowpay.flowpayinterview.model.entity.Company;
+import io.flowpay.flowpayinterview.model.entity.Representative;
+import io.flowpay.flowpayinterview.repository.CompanyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class CompanyExportServiceTest {
+
+    @Mock
+    private CompanyRepository companyRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private CompanyExportService companyExportService;
+
+    @BeforeEach
+    void setUp() {
+        FlowpayProperties flowpayProperties = new FlowpayProperties();
+        flowpayProperties.getExport().setClearInterval(2);
+        CommonMapper commonMapper = Mappers.getMapper(CommonMapper.class);
+        companyExportService = new CompanyExportService(companyRepository, commonMapper, objectMapper, flowpayProperties);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportCompaniesWritesOneJsonDocumentPerLine() throws Exception {
+        Company acme = new Company(1L, "Acme Corporation", new HashSet<>(Set.of(new Representative(1L, "John", "Doe"))));
+        Company globex = new Company(2L, "Globex", new HashSet<>());
+        Company initech = new Company(3L, "Initech", new HashSet<>());
+        doAnswer(invocation -> {
+            Consumer<Company> consumer = invocation.getArgument(1);
+            consumer.accept(acme);
+            consumer.accept(globex);
+            consumer.accept(initech);
+            return null;
+        }).when(companyRepository).scrollAllWithRepresentatives(eq(2), any(Consumer.class));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        companyExportService.exportCompanies(outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(3);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("name").asText()).isEqualTo("Acme Corporation");
+        assertThat(first.get("representatives").get(0).get("firstName").asText()).isEqualTo("John");
+        assertThat(objectMapper.readTree(lines[2]).get("id").asLong()).isEqualTo(3L);
+    }
+
+    @Test
+    void exportCompaniesWithoutCompaniesWritesNothing() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        companyExportService.exportCompanies(outputStream);
+
+        assertThat(outputStream.size()).isZero();
+    }
+}
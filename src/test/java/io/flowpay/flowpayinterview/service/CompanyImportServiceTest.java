@@ -0,0 +1,135 @@
+package io.flowpay.flowpayinterview.service;
+
+import io.flowpay.flowpayinterview.PostgresIntegrationTest;
+import io.flowpay.flowpayinterview.model.dto.ChangeDTO;
+import io.flowpay.flowpayinterview.model.dto.ChangeEntityType;
+import io.flowpay.flowpayinterview.model.dto.CompanyDTO;
+import io.flowpay.flowpayinterview.model.dto.CompanyImportResultDTO;
+import io.flowpay.flowpayinterview.model.dto.RepresentativeDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifies the CSV import of companies and representatives through COPY against PostgreSQL.
+ */
+class CompanyImportServiceTest extends PostgresIntegrationTest {
+
+    private static final String HEADER = "company_name,first_name,last_name\n";
+
+    @Autowired
+    private CompanyImportService companyImportService;
+
+    @Autowired
+    private CompanyService companyService;
+
+    @Autowired
+    private RepresentativeService representativeService;
+
+    @Autowired
+    private ChangeService changeService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE companies, representatives, company_representatives");
+    }
+
+    @Test
+    void importsCompaniesAndRepresentativesWithoutDuplicates() {
+        long since = jdbcTemplate.queryForObject("SELECT last_seq FROM change_log_head", Long.class);
+
+        CompanyImportResultDTO result = companyImportService.importCsv(csv(HEADER
+                + "Acme,John,Doe\n"
+                + "Acme,Jane,Roe\n"
+                + "Acme,John,Doe\n"
+                + "Globex,John,Doe\n"
+                + "\"Initech, Inc.\",,\n"));
+
+        assertThat(result.getRows()).isEqualTo(5);
+        assertThat(result.getRejectedRows()).isZero();
+        assertThat(result.getCompaniesCreated()).isEqualTo(3);
+        assertThat(result.getRepresentativesCreated()).isEqualTo(2);
+        assertThat(result.getAssignmentsCreated()).isEqualTo(3);
+        assertThat(count("companies")).isEqualTo(3);
+        assertThat(count("representatives")).isEqualTo(2);
+        assertThat(count("company_representatives")).isEqualTo(3);
+        assertThat(companyService.getCompanyByName("Initech, Inc.")).hasSize(1);
+        // The IDs of the created rows are taken from a single block of their sequence.
+        assertThat(jdbcTemplate.queryForObject("SELECT max(id) - min(id) FROM companies", Long.class)).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT max(id) - min(id) FROM representatives", Long.class)).isEqualTo(1);
+        assertThat(changeService.getChanges(since, null).getItems())
+                .extracting(ChangeDTO::getEntityType)
+                .containsExactly(ChangeEntityType.COMPANY, ChangeEntityType.COMPANY, ChangeEntityType.COMPANY,
+                        ChangeEntityType.REPRESENTATIVE, ChangeEntityType.REPRESENTATIVE);
+        // Hibernate keeps allocating the IDs of the entities from blocks of its own.
+        assertThat(companyService.createCompany(new CompanyDTO(null, "Umbrella", null)).getId()).isNotNull();
+    }
+
+    @Test
+    void reusesExistingCompaniesAndRepresentatives() {
+        RepresentativeDTO john = representativeService.createRepresentative(new RepresentativeDTO(null, "John", "Doe"));
+        CompanyDTO acme = companyService.createCompany(new CompanyDTO(null, "Acme", null));
+        companyService.assignRepresentativeToCompany(acme.getId(), john.getId());
+        // Caches the representatives of the company, which the import must evict.
+        assertThat(companyService.getAllRepresentativesForCompany(acme.getId())).hasSize(1);
+
+        CompanyImportResultDTO result = companyImportService.importCsv(csv(HEADER
+                + "Acme,John,Doe\n"
+                + "Acme,Mary,Major\n"));
+
+        assertThat(result.getCompaniesCreated()).isZero();
+        assertThat(result.getRepresentativesCreated()).isEqualTo(1);
+        assertThat(result.getAssignmentsCreated()).isEqualTo(1);
+        assertThat(companyService.getAllRepresentativesForCompany(acme.getId()))
+                .extracting(RepresentativeDTO::getFirstName)
+                .containsExactlyInAnyOrder("John", "Mary");
+        // The name index is not cleared between the tests, so the name is not used by any other.
+        assertThat(representativeService.getRepresentativesByFirstNameAndLastName("Mary", "Major")).hasSize(1);
+    }
+
+    @Test
+    void rejectsInvalidRowsAndImportsTheRest() {
+        CompanyImportResultDTO result = companyImportService.importCsv(csv(HEADER
+                + "Acme,John,Doe\n"
+                + " ,Jane,Roe\n"
+                + "Globex,Jane,\n"
+                + "Initech,,\n"));
+
+        assertThat(result.getRows()).isEqualTo(4);
+        assertThat(result.getRejectedRows()).isEqualTo(2);
+        assertThat(result.getRejects()).containsExactly(
+                "row 2: Name must not be blank",
+                "row 3: First name and last name must be given together");
+        assertThat(result.getCompaniesCreated()).isEqualTo(2);
+        assertThat(result.getRepresentativesCreated()).isEqualTo(1);
+    }
+
+    @Test
+    void malformedCsvIsRejectedAsAWhole() {
+        assertThatThrownBy(() -> companyImportService.importCsv(csv(HEADER + "Acme,John,Doe,Extra\n")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Malformed CSV");
+        assertThat(count("companies")).isZero();
+    }
+
+    private long count(String table) {
+        List<Long> counts = jdbcTemplate.queryForList("SELECT count(*) FROM " + table, Long.class);
+        return counts.get(0);
+    }
+
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
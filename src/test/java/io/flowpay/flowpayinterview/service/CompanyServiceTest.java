@@ -1,12 +1,27 @@
 package io.flowpay.flowpayinterview.service;
 
+import io.flowpay.flowpayinterview.config.CacheConfig;
+import io.flowpay.flowpayinterview.config.FlowpayProperties;
+import io.flowpay.flowpayinterview.exception.BulkValidationException;
+import io.flowpay.flowpayinterview.exception.PreconditionFailedException;
+import io.flowpay.flowpayinterview.exception.TransferConflictException;
 import io.flowpay.flowpayinterview.mapper.CommonMapper;
+import io.flowpay.flowpayinterview.model.dto.BulkItemResultDTO;
+import io.flowpay.flowpayinterview.model.dto.ChangeEntityType;
 import io.flowpay.flowpayinterview.model.dto.CompanyDTO;
+import io.flowpay.flowpayinterview.model.dto.CompanyLookupDTO;
+import io.flowpay.flowpayinterview.model.dto.CompanyNameMatch;
+import io.flowpay.flowpayinterview.model.dto.CompanyPageDTO;
+import io.flowpay.flowpayinterview.model.dto.CompanySearchPageDTO;
+import io.flowpay.flowpayinterview.model.dto.CompanyVersionDTO;
 import io.flowpay.flowpayinterview.model.dto.RepresentativeDTO;
+import io.flowpay.flowpayinterview.model.dto.RepresentativeTransferDTO;
 import io.flowpay.flowpayinterview.model.entity.Company;
 import io.flowpay.flowpayinterview.model.entity.Representative;
 import io.flowpay.flowpayinterview.repository.CompanyRepository;
+import io.flowpay.flowpayinterview.repository.RepresentativeRepository;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.Validation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,24 +29,33 @@ import org.mapstruct.factory.Mappers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Limit;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.anyList;
 import static org.mockito.Mockito.anyLong;
-import static org.mockito.Mockito.doNothing;
-import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,17 +65,34 @@ public class CompanyServiceTest {
     private CompanyRepository companyRepository;
     @Mock
     private RepresentativeService representativeService;
+    @Mock
+    private RepresentativeRepository representativeRepository;
+    @Mock
+    private ChangeLog changeLog;
     private CommonMapper commonMapper;
     private CompanyService companyService;
     private Company company;
     private Representative representative;
+    private FlowpayProperties flowpayProperties;
+    private RepresentativeNameIndex representativeNameIndex;
 
     @BeforeEach
     void setUp() {
         company = new Company(1L, "Acme Corporation", new HashSet<>());
         representative = new Representative(1L, "John", "Doe");
         commonMapper = Mappers.getMapper(CommonMapper.class);
-        companyService = new CompanyService(companyRepository, representativeService, commonMapper);
+        flowpayProperties = new FlowpayProperties();
+        flowpayProperties.getPagination().setDefaultPageSize(2);
+        flowpayProperties.getPagination().setMaxPageSize(3);
+        flowpayProperties.getPagination().setUnpagedMaxRows(5);
+        flowpayProperties.getFetch().setBatchSize(10);
+        flowpayProperties.getFetch().setMaxLookupIds(3);
+        flowpayProperties.getBulk().setBatchSize(2);
+        representativeNameIndex = new RepresentativeNameIndex(representativeRepository, flowpayProperties);
+        companyService = new CompanyService(companyRepository, representativeService, commonMapper, flowpayProperties,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ConcurrentMapCacheManager(CacheConfig.CACHE_COMPANIES, CacheConfig.CACHE_REPRESENTATIVES),
+                representativeNameIndex, changeLog);
     }
 
     @Test
@@ -63,6 +104,36 @@ public class CompanyServiceTest {
         assertEquals("Acme Corporation", savedCompany.getName());
     }
 
+    @Test
+    public void createCompanies() {
+        doAnswer(invocation -> {
+            List<Company> companies = invocation.getArgument(0);
+            for (int i = 0; i < companies.size(); i++) {
+                companies.get(i).setId(10L + i);
+            }
+            return null;
+        }).when(companyRepository).persistAll(anyList(), eq(2));
+
+        List<BulkItemResultDTO> results = companyService.createCompanies(List.of(
+                new CompanyDTO(null, "Acme Corporation", null),
+                new CompanyDTO(null, "Globex", Set.of(commonMapper.representativeToDto(representative)))));
+
+        assertThat(results).containsExactly(new BulkItemResultDTO(0, 10L), new BulkItemResultDTO(1, 11L));
+    }
+
+    @Test
+    public void createCompaniesWithInvalidItems() {
+        BulkValidationException thrown = assertThrows(BulkValidationException.class, () ->
+                companyService.createCompanies(List.of(
+                        new CompanyDTO(null, " ", null),
+                        new CompanyDTO(null, "Globex", Set.of(new RepresentativeDTO(null, "John", "Doe"))))));
+
+        assertThat(thrown.getDetails()).containsExactly(
+                "[0] name: Name must not be blank",
+                "[1] representatives: Representatives must be referenced by ID");
+        verify(companyRepository, never()).persistAll(anyList(), anyInt());
+    }
+
     @Test
     public void getCompanyById() {
         Company company = new Company(1L, "Acme Corporation", Set.of());
@@ -96,6 +167,113 @@ public class CompanyServiceTest {
                 .containsExactlyInAnyOrder(companyName);
     }
 
+    @Test
+    public void getAllCompaniesIsCapped() {
+        when(companyRepository.findIdsAfter(0L, Limit.of(5))).thenReturn(List.of(1L));
+        when(companyRepository.findAllWithRepresentativesByIds(List.of(1L), 10)).thenReturn(List.of(company));
+        List<CompanyDTO> companies = companyService.getAllCompanies();
+        assertThat(companies)
+                .extracting(CompanyDTO::getId)
+                .containsExactly(1L);
+    }
+
+    @Test
+    public void getCompaniesByIds() {
+        when(companyRepository.findAllWithRepresentativesByIds(List.of(3L, 1L, 2L), 10)).thenReturn(List.of(
+                new Company(1L, "Company A", Set.of()),
+                new Company(3L, "Company C", Set.of())));
+
+        CompanyLookupDTO lookup = companyService.getCompaniesByIds(List.of(3L, 1L, 3L, 2L));
+
+        assertThat(lookup.getItems())
+                .extracting(CompanyDTO::getId)
+                .containsExactly(3L, 1L);
+        assertThat(lookup.getMissingIds()).containsExactly(2L);
+    }
+
+    @Test
+    public void getCompaniesByIdsRejectsInvalidIds() {
+        assertThrows(IllegalArgumentException.class, () -> companyService.getCompaniesByIds(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> companyService.getCompaniesByIds(List.of(1L, 2L, 3L, 4L)));
+        assertThrows(IllegalArgumentException.class, () -> companyService.getCompaniesByIds(Arrays.asList(1L, null)));
+        verifyNoInteractions(companyRepository);
+    }
+
+    @Test
+    public void getCompaniesPage() {
+        when(companyRepository.findIdsAfter(0L, Limit.of(3))).thenReturn(List.of(1L, 2L, 3L));
+        when(companyRepository.findAllWithRepresentativesByIds(List.of(1L, 2L), 10)).thenReturn(List.of(
+                new Company(1L, "Company A", Set.of()),
+                new Company(2L, "Company B", Set.of())));
+
+        CompanyPageDTO page = companyService.getCompaniesPage(null, null);
+
+        assertThat(page.getItems())
+                .extracting(CompanyDTO::getId)
+                .containsExactly(1L, 2L);
+        assertNotNull(page.getNextCursor());
+
+        when(companyRepository.findIdsAfter(2L, Limit.of(3))).thenReturn(List.of(3L));
+        when(companyRepository.findAllWithRepresentativesByIds(List.of(3L), 10)).thenReturn(List.of(
+                new Company(3L, "Company C", Set.of())));
+
+        CompanyPageDTO nextPage = companyService.getCompaniesPage(page.getNextCursor(), null);
+
+        assertThat(nextPage.getItems())
+                .extracting(CompanyDTO::getId)
+                .containsExactly(3L);
+        assertNull(nextPage.getNextCursor());
+    }
+
+    @Test
+    public void getCompaniesPageCapsRequestedSize() {
+        when(companyRepository.findIdsAfter(0L, Limit.of(4))).thenReturn(List.of());
+
+        CompanyPageDTO page = companyService.getCompaniesPage(null, 50);
+
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void searchCompaniesKeepsRankOrder() {
+        when(companyRepository.findIdsByNameContaining("%acme\\_co%", "acme_co", 3, 0L)).thenReturn(List.of(3L, 1L, 2L));
+        when(companyRepository.findAllWithRepresentativesByIds(List.of(3L, 1L), 10)).thenReturn(List.of(
+                new Company(1L, "Acme_Co", Set.of()),
+                new Company(3L, "Big Acme_Co", Set.of())));
+
+        CompanySearchPageDTO page = companyService.searchCompanies(" Acme_Co ", CompanyNameMatch.CONTAINS, null, 2);
+
+        assertThat(page.getItems())
+                .extracting(CompanyDTO::getId)
+                .containsExactly(3L, 1L);
+        assertTrue(page.isHasNext());
+    }
+
+    @Test
+    public void searchCompaniesByPrefixByDefault() {
+        when(companyRepository.findIdsByNamePrefix("ac\\%%", 4, 6L)).thenReturn(List.of());
+
+        CompanySearchPageDTO page = companyService.searchCompanies("AC%", null, 2, 3);
+
+        assertTrue(page.getItems().isEmpty());
+        assertEquals(2, page.getPage());
+        assertEquals(3, page.getSize());
+    }
+
+    @Test
+    public void searchCompaniesWithInvalidQuery() {
+        assertThrows(IllegalArgumentException.class, () -> companyService.searchCompanies(" ", null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> companyService.searchCompanies("ac", CompanyNameMatch.FUZZY, null, null));
+        assertThrows(IllegalArgumentException.class, () -> companyService.searchCompanies("acme", null, -1, null));
+    }
+
+    @Test
+    public void getCompaniesPageWithInvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> companyService.getCompaniesPage("not-a-cursor!", null));
+        assertThrows(IllegalArgumentException.class, () -> companyService.getCompaniesPage(null, 0));
+    }
+
     @Test
     public void updateCompany() {
         Company company = new Company(1L, "Acme Corporation", Set.of());
@@ -107,11 +285,163 @@ public class CompanyServiceTest {
         assertEquals("Acme Corp", updatedCompany.getName());
     }
 
+    @Test
+    public void getCompanyETagFollowsTheRepresentatives() {
+        when(companyRepository.findVersionsById(1L)).thenReturn(List.of(
+                new CompanyVersionDTO(3L, 1L, 0L), new CompanyVersionDTO(3L, 2L, 0L)));
+        String eTag = companyService.getCompanyETag(1L);
+        when(companyRepository.findVersionsById(1L)).thenReturn(List.of(
+                new CompanyVersionDTO(3L, 2L, 0L), new CompanyVersionDTO(3L, 1L, 1L)));
+        String renamedETag = companyService.getCompanyETag(1L);
+        when(companyRepository.findVersionsById(1L)).thenReturn(List.of(new CompanyVersionDTO(3L, null, null)));
+        String withoutRepresentativesETag = companyService.getCompanyETag(1L);
+
+        assertThat(eTag).startsWith("\"3-").endsWith("\"");
+        assertThat(List.of(eTag, renamedETag, withoutRepresentativesETag)).doesNotHaveDuplicates();
+        Representative first = new Representative(1L, "John", "Doe");
+        first.setVersion(0L);
+        Representative second = new Representative(2L, "Jane", "Roe");
+        second.setVersion(0L);
+        company.setVersion(3L);
+        company.setRepresentatives(Set.of(second, first));
+        assertEquals(eTag, EntityTags.of(company));
+    }
+
+    @Test
+    public void getNonExistingCompanyETag() {
+        when(companyRepository.findVersionsById(1L)).thenReturn(List.of());
+
+        assertThrows(EntityNotFoundException.class, () -> companyService.getCompanyETag(1L));
+    }
+
+    @Test
+    public void updateCompanyIfUnchanged() {
+        List<CompanyVersionDTO> versions = List.of(new CompanyVersionDTO(3L, null, null));
+        when(companyRepository.lockByIdsInOrder(List.of(1L))).thenReturn(List.of(1L));
+        when(companyRepository.findVersionsById(1L)).thenReturn(versions);
+        when(companyRepository.findById(1L)).thenReturn(Optional.of(company));
+        when(companyRepository.save(company)).thenReturn(company);
+
+        CompanyDTO updatedCompany = companyService.updateCompany(1L, new CompanyDTO(null, "Acme Corp", null),
+                "\"1-0000000000000000\", " + EntityTags.company(versions));
+
+        assertEquals("Acme Corp", updatedCompany.getName());
+    }
+
+    @Test
+    public void updateChangedCompany() {
+        when(companyRepository.lockByIdsInOrder(List.of(1L))).thenReturn(List.of(1L));
+        when(companyRepository.findVersionsById(1L)).thenReturn(List.of(new CompanyVersionDTO(4L, null, null)));
+        String staleETag = EntityTags.company(List.of(new CompanyVersionDTO(3L, null, null)));
+
+        assertThrows(PreconditionFailedException.class,
+                () -> companyService.updateCompany(1L, new CompanyDTO(null, "Acme Corp", null), staleETag));
+
+        verify(companyRepository, never()).findById(anyLong());
+        verify(companyRepository, never()).save(any(Company.class));
+    }
+
+    @Test
+    public void deleteNonExistingCompanyIfUnchanged() {
+        when(companyRepository.lockByIdsInOrder(List.of(1L))).thenReturn(List.of());
+
+        assertThrows(PreconditionFailedException.class, () -> companyService.deleteCompany(1L, "*"));
+
+        verify(companyRepository, never()).delete(any(Company.class));
+    }
+
+    @Test
+    public void updateCompanyAppliesOnlyTheChangedRepresentatives() {
+        when(companyRepository.findById(1L)).thenReturn(Optional.of(company));
+        when(companyRepository.findRepresentativeIdsByCompanyId(1L)).thenReturn(List.of(1L, 2L, 3L, 4L));
+        when(companyRepository.assignRepresentatives(eq(1L), anyList()))
+                .thenAnswer(invocation -> invocation.getArgument(1, List.class).size());
+        when(companyRepository.save(company)).thenReturn(company);
+        Set<RepresentativeDTO> representatives = Set.of(4L, 5L, 6L, 7L).stream()
+                .map(id -> new RepresentativeDTO(id, null, null))
+                .collect(Collectors.toSet());
+
+        companyService.updateCompany(1L, new CompanyDTO(null, "Acme Corp", representatives));
+
+        // Three removed and three added representatives, in batches of two
+        verify(companyRepository, times(2)).unassignRepresentatives(eq(1L), anyList());
+        verify(companyRepository, times(2)).assignRepresentatives(eq(1L), anyList());
+        verify(companyRepository).evictCachedRepresentatives(List.of(1L));
+        assertEquals("Acme Corp", company.getName());
+    }
+
+    @Test
+    public void updateCompanyWithUnknownRepresentative() {
+        when(companyRepository.findById(1L)).thenReturn(Optional.of(company));
+        when(companyRepository.findRepresentativeIdsByCompanyId(1L)).thenReturn(List.of());
+        when(companyRepository.assignRepresentatives(1L, List.of(9L))).thenReturn(0);
+
+        EntityNotFoundException thrown = assertThrows(EntityNotFoundException.class, () -> companyService.updateCompany(1L,
+                new CompanyDTO(null, "Acme Corp", Set.of(new RepresentativeDTO(9L, null, null)))));
+
+        assertEquals("Representative not found with id: 9", thrown.getMessage());
+    }
+
+    @Test
+    public void updateCompanyRequiresRepresentativeIds() {
+        assertThrows(IllegalArgumentException.class, () -> companyService.updateCompany(1L,
+                new CompanyDTO(null, "Acme Corp", Set.of(new RepresentativeDTO(null, "John", "Doe")))));
+        verifyNoInteractions(companyRepository);
+    }
+
+    @Test
+    public void patchCompanyUpdatesWithoutReading() {
+        when(companyRepository.updateName(1L, "Acme Corp")).thenReturn(1);
+
+        companyService.patchCompany(1L, Map.of("name", "Acme Corp"));
+
+        verify(companyRepository).updateName(1L, "Acme Corp");
+        verify(companyRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    public void patchNonExistingCompany() {
+        when(companyRepository.updateName(1L, "Acme Corp")).thenReturn(0);
+
+        EntityNotFoundException thrown = assertThrows(EntityNotFoundException.class,
+                () -> companyService.patchCompany(1L, Map.of("name", "Acme Corp")));
+
+        assertEquals("Company not found with id 1", thrown.getMessage());
+    }
+
+    @Test
+    public void patchCompanyWithInvalidFields() {
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+                () -> companyService.patchCompany(1L, Map.of("name", "", "representatives", List.of())));
+
+        assertThat(thrown.getMessage())
+                .contains("name: Name must not be blank")
+                .contains("representatives: Field cannot be patched");
+        verifyNoInteractions(companyRepository);
+    }
+
     @Test
     public void deleteCompany() {
-        doNothing().when(companyRepository).deleteById(anyLong());
+        company.getRepresentatives().add(representative);
+        when(companyRepository.findById(1L)).thenReturn(Optional.of(company));
         companyService.deleteCompany(1L);
-        verify(companyRepository, times(1)).deleteById(1L);
+        verify(companyRepository, times(1)).delete(company);
+        verify(changeLog).deleted(ChangeEntityType.COMPANY, 1L);
+        verify(changeLog).deleted(ChangeEntityType.REPRESENTATIVE, List.of(1L));
+    }
+
+    @Test
+    public void deleteCompanyRemovesItsRepresentativesFromTheNameIndex() {
+        flowpayProperties.getNameIndex().setEnabled(true);
+        when(representativeRepository.findNamesAfter(anyLong(), any()))
+                .thenReturn(List.of(new RepresentativeDTO(1L, "John", "Doe")));
+        representativeNameIndex.warmUp();
+        company.getRepresentatives().add(representative);
+        when(companyRepository.findById(1L)).thenReturn(Optional.of(company));
+
+        companyService.deleteCompany(1L);
+
+        assertThat(representativeNameIndex.lookup("John", "Doe")).isEmpty();
     }
 
     @Test
@@ -144,40 +474,78 @@ public class CompanyServiceTest {
 
     @Test
     public void deleteNonExistingCompany() {
-        doThrow(new EntityNotFoundException("Company not found with id 1")).when(companyRepository).deleteById(1L);
+        when(companyRepository.findById(1L)).thenReturn(Optional.empty());
 
-        EntityNotFoundException thrown = assertThrows(
-                EntityNotFoundException.class,
-                () -> companyService.deleteCompany(1L),
-                "Expected deleteCompany to throw, but it didn't"
-        );
+        companyService.deleteCompany(1L);
 
-        assertTrue(thrown.getMessage().contains("Company not found with id 1"));
+        verify(companyRepository, never()).delete(any(Company.class));
+        verifyNoInteractions(changeLog);
     }
 
     @Test
     void assignRepresentativeToCompany() {
-        when(companyRepository.findById(anyLong())).thenReturn(Optional.of(company));
-        when(representativeService.getRepresentativeById(anyLong())).thenReturn(commonMapper.representativeToDto(representative));
-        when(companyRepository.save(any(Company.class))).thenReturn(company);
+        when(companyRepository.assignRepresentative(company.getId(), representative.getId())).thenReturn(1);
+        when(companyRepository.findById(company.getId())).thenReturn(Optional.of(company));
+
+        CompanyDTO result = companyService.assignRepresentativeToCompany(company.getId(), representative.getId());
+
+        assertEquals(company.getId(), result.getId());
+        verify(companyRepository, never()).save(any(Company.class));
+        verifyNoInteractions(representativeService);
+        verify(changeLog).changed(ChangeEntityType.COMPANY, company.getId());
+    }
+
+    @Test
+    void assignAlreadyAssignedRepresentativeToCompany() {
+        when(companyRepository.assignRepresentative(company.getId(), representative.getId())).thenReturn(0);
+        when(companyRepository.existsById(company.getId())).thenReturn(true);
+        when(representativeService.getRepresentativeById(representative.getId())).thenReturn(commonMapper.representativeToDto(representative));
+        when(companyRepository.findById(company.getId())).thenReturn(Optional.of(company));
 
-        CompanyDTO updatedCompany = companyService.assignRepresentativeToCompany(company.getId(), representative.getId());
+        companyService.assignRepresentativeToCompany(company.getId(), representative.getId());
 
         verify(representativeService).getRepresentativeById(representative.getId());
-        verify(companyRepository).save(company);
-        assertTrue(updatedCompany.getRepresentatives().contains(commonMapper.representativeToDto(representative)));
+        verifyNoInteractions(changeLog);
+    }
+
+    @Test
+    void assignRepresentativeToNonExistingCompany() {
+        when(companyRepository.assignRepresentative(company.getId(), representative.getId())).thenReturn(0);
+        when(companyRepository.existsById(company.getId())).thenReturn(false);
+
+        EntityNotFoundException thrown = assertThrows(EntityNotFoundException.class,
+                () -> companyService.assignRepresentativeToCompany(company.getId(), representative.getId()));
+
+        assertEquals("Company not found with id 1", thrown.getMessage());
+    }
+
+    @Test
+    void assignNonExistingRepresentativeToCompany() {
+        when(companyRepository.assignRepresentative(company.getId(), 2L)).thenReturn(0);
+        when(companyRepository.existsById(company.getId())).thenReturn(true);
+        when(representativeService.getRepresentativeById(2L)).thenThrow(new EntityNotFoundException("Representative not found with id: 2"));
+
+        assertThrows(EntityNotFoundException.class, () -> companyService.assignRepresentativeToCompany(company.getId(), 2L));
     }
 
     @Test
     void unassignRepresentativeFromCompany() {
-        company.addRepresentative(representative);
-        when(companyRepository.findById(anyLong())).thenReturn(Optional.of(company));
-        when(representativeService.getRepresentativeById(anyLong())).thenReturn(commonMapper.representativeToDto(representative));
+        when(companyRepository.unassignRepresentative(company.getId(), representative.getId())).thenReturn(1);
 
         companyService.unassignRepresentativeFromCompany(company.getId(), representative.getId());
 
-        verify(companyRepository).save(company);
-        assertFalse(company.getRepresentatives().contains(representative));
+        verify(companyRepository, never()).findById(anyLong());
+        verify(companyRepository, never()).save(any(Company.class));
+        verifyNoInteractions(representativeService);
+    }
+
+    @Test
+    void unassignRepresentativeFromNonExistingCompany() {
+        when(companyRepository.unassignRepresentative(company.getId(), representative.getId())).thenReturn(0);
+        when(companyRepository.existsById(company.getId())).thenReturn(false);
+
+        assertThrows(EntityNotFoundException.class,
+                () -> companyService.unassignRepresentativeFromCompany(company.getId(), representative.getId()));
     }
 
     @Test
@@ -193,20 +561,105 @@ public class CompanyServiceTest {
 
     @Test
     void transferRepresentative() {
-        Company currentCompany = new Company(1L, "Company A", new HashSet<>());
-        currentCompany.addRepresentative(representative);
-        Company newCompany = new Company(2L, "Company B", new HashSet<>());
+        when(companyRepository.lockForTransferInOrder(List.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+        when(companyRepository.transferRepresentatives(1L, 2L, List.of(representative.getId()))).thenReturn(1);
 
-        when(representativeService.getRepresentativeById(anyLong())).thenReturn(commonMapper.representativeToDto(representative));
-        when(companyRepository.findById(currentCompany.getId())).thenReturn(Optional.of(currentCompany));
-        when(companyRepository.findById(newCompany.getId())).thenReturn(Optional.of(newCompany));
+        companyService.transferRepresentative(1L, 2L, representative.getId());
 
-        companyService.transferRepresentative(currentCompany.getId(), newCompany.getId(), representative.getId());
+        verify(companyRepository).evictCachedRepresentatives(List.of(1L, 2L));
+        verify(companyRepository, never()).findById(anyLong());
+        verify(companyRepository, never()).saveAll(anyList());
+        verifyNoInteractions(representativeService);
+    }
+
+    @Test
+    void transferRepresentativeNotPartOfCurrentCompany() {
+        when(companyRepository.lockForTransferInOrder(List.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+        when(companyRepository.transferRepresentatives(1L, 2L, List.of(representative.getId()))).thenReturn(0);
+        when(representativeService.getRepresentativeById(representative.getId())).thenReturn(commonMapper.representativeToDto(representative));
 
-        verify(companyRepository).saveAll(List.of(company, newCompany));
-        assertTrue(newCompany.getRepresentatives().contains(representative));
-        assertFalse(company.getRepresentatives().contains(representative));
+        TransferConflictException thrown = assertThrows(TransferConflictException.class,
+                () -> companyService.transferRepresentative(1L, 2L, representative.getId()));
+
+        assertEquals("Representative not part of current company", thrown.getMessage());
+        verify(companyRepository, never()).evictCachedRepresentatives(anyList());
     }
-}
 
+    @Test
+    void transferRepresentativeAlreadyPartOfNewCompany() {
+        when(companyRepository.lockForTransferInOrder(List.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+        when(companyRepository.transferRepresentatives(1L, 2L, List.of(representative.getId()))).thenReturn(0);
+        when(representativeService.getRepresentativeById(representative.getId())).thenReturn(commonMapper.representativeToDto(representative));
+        when(companyRepository.countAssigned(2L, List.of(representative.getId()))).thenReturn(1L);
+
+        TransferConflictException thrown = assertThrows(TransferConflictException.class,
+                () -> companyService.transferRepresentative(1L, 2L, representative.getId()));
+
+        assertEquals("Representative already assigned to target company", thrown.getMessage());
+    }
+
+    @Test
+    void transferRepresentativeToNonExistingCompany() {
+        when(companyRepository.lockForTransferInOrder(List.of(1L, 2L))).thenReturn(List.of(1L));
+
+        EntityNotFoundException thrown = assertThrows(EntityNotFoundException.class,
+                () -> companyService.transferRepresentative(1L, 2L, representative.getId()));
+
+        assertEquals("Company not found with id 2", thrown.getMessage());
+        verify(companyRepository, never()).transferRepresentatives(anyLong(), anyLong(), anyList());
+    }
+
+    @Test
+    void transferRepresentativeWithinSameCompany() {
+        assertThrows(IllegalArgumentException.class, () -> companyService.transferRepresentative(1L, 1L, representative.getId()));
+
+        verifyNoInteractions(companyRepository);
+    }
 
+    @Test
+    void transferRepresentatives() {
+        when(companyRepository.lockForTransferInOrder(List.of(2L, 1L))).thenReturn(List.of(1L, 2L));
+        when(companyRepository.transferRepresentatives(2L, 1L, Set.of(3L, 4L))).thenReturn(2);
+
+        int transferred = companyService.transferRepresentatives(new RepresentativeTransferDTO(2L, 1L, List.of(3L, 4L, 3L)));
+
+        assertEquals(2, transferred);
+        verify(companyRepository).evictCachedRepresentatives(List.of(2L, 1L));
+    }
+
+    @Test
+    void transferRepresentativesNotAllPartOfCurrentCompany() {
+        when(companyRepository.lockForTransferInOrder(List.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+        when(companyRepository.transferRepresentatives(1L, 2L, Set.of(3L, 4L))).thenReturn(1);
+        when(companyRepository.countAssigned(2L, Set.of(3L, 4L))).thenReturn(1L);
+
+        TransferConflictException thrown = assertThrows(TransferConflictException.class,
+                () -> companyService.transferRepresentatives(new RepresentativeTransferDTO(1L, 2L, List.of(3L, 4L))));
+
+        assertEquals("1 of 2 representatives not part of current company", thrown.getMessage());
+    }
+
+    @Test
+    void transferRepresentativesPartlyAlreadyPartOfNewCompany() {
+        when(companyRepository.lockForTransferInOrder(List.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+        when(companyRepository.transferRepresentatives(1L, 2L, Set.of(3L, 4L, 5L))).thenReturn(1);
+        // The representative moved counts as assigned to the new company until the transfer is rolled back.
+        when(companyRepository.countAssigned(2L, Set.of(3L, 4L, 5L))).thenReturn(2L);
+
+        TransferConflictException thrown = assertThrows(TransferConflictException.class,
+                () -> companyService.transferRepresentatives(new RepresentativeTransferDTO(1L, 2L, List.of(3L, 4L, 5L))));
+
+        assertEquals("1 of 3 representatives already assigned to target company, "
+                + "1 of 3 representatives not part of current company", thrown.getMessage());
+    }
+
+    @Test
+    void transferRepresentativesRejectsTooManyRepresentatives() {
+        flowpayProperties.getBulk().setMaxTransferItems(1);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> companyService.transferRepresentatives(new RepresentativeTransferDTO(1L, 2L, List.of(3L, 4L))));
+
+        verifyNoInteractions(companyRepository);
+    }
+}
@@ -0,0 +1,137 @@
+package io.flowpay.flowpayinterview.service;
+
+import io.flowpay.flowpayinterview.PostgresIntegrationTest;
+import io.flowpay.flowpayinterview.model.dto.ChangeDTO;
+import io.flowpay.flowpayinterview.model.dto.ChangeEntityType;
+import io.flowpay.flowpayinterview.model.dto.CompanyDTO;
+import io.flowpay.flowpayinterview.model.dto.RepresentativeDTO;
+import io.flowpay.flowpayinterview.model.entity.Company;
+import io.flowpay.flowpayinterview.model.entity.Representative;
+import io.flowpay.flowpayinterview.repository.RepresentativeRepository;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Verifies the merge patches of companies and representatives against PostgreSQL, including the caches
+ * and the name index that the single-statement updates keep current.
+ */
+class PartialUpdateTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private CompanyService companyService;
+
+    @Autowired
+    private RepresentativeService representativeService;
+
+    @Autowired
+    private ChangeService changeService;
+
+    @Autowired
+    private RepresentativeRepository representativeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE companies, representatives, company_representatives");
+    }
+
+    @Test
+    void patchesTheNameOfACompany() {
+        CompanyDTO company = companyService.createCompany(new CompanyDTO(null, "Patchable Ltd", null));
+        // Caches the company, which the patch must evict.
+        companyService.getTaggedCompanyById(company.getId());
+
+        companyService.patchCompany(company.getId(), Map.of("name", "Patched Ltd"));
+
+        assertThat(companyService.getTaggedCompanyById(company.getId()).getContent().getName()).isEqualTo("Patched Ltd");
+    }
+
+    @Test
+    void patchesTheNamesOfARepresentative() {
+        RepresentativeDTO representative = representativeService.createRepresentative(new RepresentativeDTO(null, "Peter", "Patch"));
+        CompanyDTO company = companyService.createCompany(new CompanyDTO(null, "Patch Holdings", null));
+        companyService.assignRepresentativeToCompany(company.getId(), representative.getId());
+        // Caches the representative and the company embedding it, both of which the patch must evict.
+        representativeService.getTaggedRepresentativeById(representative.getId());
+        companyService.getTaggedCompanyById(company.getId());
+        long since = jdbcTemplate.queryForObject("SELECT last_seq FROM change_log_head", Long.class);
+
+        representativeService.patchRepresentative(representative.getId(), Map.of("lastName", "Patched"));
+
+        RepresentativeDTO patched = representativeService.getTaggedRepresentativeById(representative.getId()).getContent();
+        assertThat(patched.getFirstName()).isEqualTo("Peter");
+        assertThat(patched.getLastName()).isEqualTo("Patched");
+        assertThat(companyService.getTaggedCompanyById(company.getId()).getContent().getRepresentatives())
+                .extracting(RepresentativeDTO::getLastName)
+                .containsExactly("Patched");
+        assertThat(representativeService.getRepresentativesByFirstNameAndLastName("Peter", "Patch")).isEmpty();
+        assertThat(representativeService.getRepresentativesByFirstNameAndLastName("Peter", "Patched"))
+                .extracting(RepresentativeDTO::getId)
+                .containsExactly(representative.getId());
+        assertThat(changeService.getChanges(since, null).getItems())
+                .extracting(ChangeDTO::getEntityType, ChangeDTO::getEntityId)
+                .containsExactly(
+                        tuple(ChangeEntityType.COMPANY, company.getId()),
+                        tuple(ChangeEntityType.REPRESENTATIVE, representative.getId()));
+    }
+
+    @Test
+    void patchesInvalidateOnlyTheAffectedSecondLevelCacheEntries() {
+        CompanyDTO company = companyService.createCompany(new CompanyDTO(null, "Patchable Inc", null));
+        CompanyDTO other = companyService.createCompany(new CompanyDTO(null, "Untouched Ltd", null));
+        RepresentativeDTO representative = representativeService.createRepresentative(new RepresentativeDTO(null, "Paula", "Patch"));
+        RepresentativeDTO otherRepresentative = representativeService.createRepresentative(new RepresentativeDTO(null, "Otto", "Other"));
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        Cache cache = sessionFactory.getCache();
+        cache.evictAllRegions();
+        // Loads the entities into the second-level cache, and caches a query over the representatives table.
+        companyService.getCompanyById(company.getId());
+        companyService.getCompanyById(other.getId());
+        representativeService.getRepresentativeById(representative.getId());
+        representativeService.getRepresentativeById(otherRepresentative.getId());
+        representativeRepository.findAllByFirstNameAndLastName("Otto", "Other");
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+
+        companyService.patchCompany(company.getId(), Map.of("name", "Patched Ltd"));
+
+        assertThat(cache.containsEntity(Company.class, company.getId())).isFalse();
+        assertThat(cache.containsEntity(Company.class, other.getId())).isTrue();
+        assertThat(representativeRepository.findAllByFirstNameAndLastName("Otto", "Other")).hasSize(1);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+
+        representativeService.patchRepresentative(representative.getId(), Map.of("lastName", "Patched"));
+
+        assertThat(cache.containsEntity(Representative.class, representative.getId())).isFalse();
+        assertThat(cache.containsEntity(Representative.class, otherRepresentative.getId())).isTrue();
+        assertThat(cache.containsEntity(Company.class, other.getId())).isTrue();
+        assertThat(representativeRepository.findAllByFirstNameAndLastName("Otto", "Other")).hasSize(1);
+        assertThat(statistics.getQueryCacheMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    void patchingMissingRowsFails() {
+        assertThatThrownBy(() -> companyService.patchCompany(-1L, Map.of("name", "Nobody")))
+                .isInstanceOf(EntityNotFoundException.class);
+        assertThatThrownBy(() -> representativeService.patchRepresentative(-1L, Map.of("firstName", "Nobody")))
+                .isInstanceOf(EntityNotFoundException.class);
+    }
+}
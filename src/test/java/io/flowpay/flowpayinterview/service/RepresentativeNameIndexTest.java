@@ -0,0 +1,172 @@
+package io.flowpay.flowpayinterview.service;
+
+import io.flowpay.flowpayinterview.config.FlowpayProperties;
+import io.flowpay.flowpayinterview.model.dto.RepresentativeDTO;
+import io.flowpay.flowpayinterview.repository.RepresentativeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RepresentativeNameIndexTest {
+
+    @Mock
+    private RepresentativeRepository representativeRepository;
+
+    private FlowpayProperties flowpayProperties;
+
+    private RepresentativeNameIndex representativeNameIndex;
+
+    @BeforeEach
+    void setUp() {
+        flowpayProperties = new FlowpayProperties();
+        flowpayProperties.getNameIndex().setEnabled(true);
+        flowpayProperties.getNameIndex().setWarmUpPageSize(2);
+        representativeNameIndex = new RepresentativeNameIndex(representativeRepository, flowpayProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void warmUpReadsAllPages() {
+        when(representativeRepository.findNamesAfter(0L, Limit.of(2))).thenReturn(List.of(
+                new RepresentativeDTO(7L, "John", "Doe"),
+                new RepresentativeDTO(9L, "Jane", "Doe")));
+        when(representativeRepository.findNamesAfter(9L, Limit.of(2))).thenReturn(List.of(
+                new RepresentativeDTO(12L, "John", "Doe")));
+
+        representativeNameIndex.warmUp();
+
+        assertThat(representativeNameIndex.lookup("John", "Doe")).containsExactly(7L, 12L);
+        assertThat(representativeNameIndex.lookup("Jane", "Doe")).containsExactly(9L);
+        assertThat(representativeNameIndex.lookup("john", "doe")).isEmpty();
+    }
+
+    @Test
+    void lookupFallsBackUntilWarmedUp() {
+        assertNull(representativeNameIndex.lookup("John", "Doe"));
+
+        flowpayProperties.getNameIndex().setEnabled(false);
+        representativeNameIndex.warmUp();
+
+        assertNull(representativeNameIndex.lookup("John", "Doe"));
+        verify(representativeRepository, never()).findNamesAfter(any(), any());
+    }
+
+    @Test
+    void keepsIdsSortedAndUnique() {
+        representativeNameIndex.warmUp();
+
+        representativeNameIndex.add(5L, "John", "Doe");
+        representativeNameIndex.add(1L, "John", "Doe");
+        representativeNameIndex.add(3L, "John", "Doe");
+        representativeNameIndex.add(3L, "John", "Doe");
+        assertThat(representativeNameIndex.lookup("John", "Doe")).containsExactly(1L, 3L, 5L);
+
+        representativeNameIndex.remove(3L, "John", "Doe");
+        representativeNameIndex.remove(4L, "John", "Doe");
+        assertThat(representativeNameIndex.lookup("John", "Doe")).containsExactly(1L, 5L);
+
+        representativeNameIndex.rename(1L, "John", "Doe", "Jane", "Doe");
+        representativeNameIndex.remove(5L, "John", "Doe");
+        assertThat(representativeNameIndex.lookup("John", "Doe")).isEmpty();
+        assertThat(representativeNameIndex.lookup("Jane", "Doe")).containsExactly(1L);
+    }
+
+    @Test
+    void appliesChangesOnlyAfterCommit() {
+        representativeNameIndex.warmUp();
+        TransactionSynchronizationManager.initSynchronization();
+
+        representativeNameIndex.add(1L, "John", "Doe");
+        assertThat(representativeNameIndex.lookup("John", "Doe")).isEmpty();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(representativeNameIndex.lookup("John", "Doe")).containsExactly(1L);
+    }
+
+    @Test
+    void addsRangeInPagesAfterCommit() {
+        representativeNameIndex.warmUp();
+        TransactionSynchronizationManager.initSynchronization();
+        when(representativeRepository.findNamesBetween(9L, 13L, Limit.of(2))).thenReturn(List.of(
+                new RepresentativeDTO(10L, "John", "Doe"),
+                new RepresentativeDTO(11L, "Jane", "Doe")));
+        when(representativeRepository.findNamesBetween(11L, 13L, Limit.of(2))).thenReturn(List.of(
+                new RepresentativeDTO(13L, "John", "Doe")));
+
+        representativeNameIndex.addRange(10L, 13L);
+        verify(representativeRepository, never()).findNamesBetween(any(), any(), any());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(representativeNameIndex.lookup("John", "Doe")).containsExactly(10L, 13L);
+        assertThat(representativeNameIndex.lookup("Jane", "Doe")).containsExactly(11L);
+    }
+
+    @Test
+    void addRangeIsSkippedWhenDisabled() {
+        flowpayProperties.getNameIndex().setEnabled(false);
+        TransactionSynchronizationManager.initSynchronization();
+
+        representativeNameIndex.addRange(10L, 13L);
+
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).isEmpty();
+    }
+
+    @Test
+    void warmUpKeepsChangesMadeMeanwhile() {
+        // The representative is renamed after the warm-up read its old name.
+        doAnswer(invocation -> {
+            representativeNameIndex.rename(7L, "John", "Doe", "Jane", "Doe");
+            return List.of(new RepresentativeDTO(7L, "John", "Doe"));
+        }).when(representativeRepository).findNamesAfter(eq(0L), any());
+
+        representativeNameIndex.warmUp();
+
+        assertThat(representativeNameIndex.lookup("John", "Doe")).isEmpty();
+        assertThat(representativeNameIndex.lookup("Jane", "Doe")).containsExactly(7L);
+    }
+
+    @Test
+    void reportsStatistics() {
+        representativeNameIndex.warmUp();
+        representativeNameIndex.add(1L, "John", "Doe");
+        representativeNameIndex.add(2L, "John", "Doe");
+
+        representativeNameIndex.lookup("John", "Doe");
+        representativeNameIndex.lookup("Jane", "Doe");
+
+        Map<String, Object> statistics = representativeNameIndex.statistics();
+        assertThat(statistics)
+                .containsEntry("ready", true)
+                .containsEntry("names", 1)
+                .containsEntry("representatives", 2L)
+                .containsEntry("lookups", 2L)
+                .containsEntry("hits", 1L)
+                .containsEntry("hitRate", 0.5);
+        assertThat((Long) statistics.get("estimatedBytes")).isPositive();
+    }
+}
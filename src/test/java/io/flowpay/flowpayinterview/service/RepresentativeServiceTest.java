@@ -1,12 +1,21 @@
 package io.flowpay.flowpayinterview.service;
 
+import io.flowpay.flowpayinterview.config.CacheConfig;
+import io.flowpay.flowpayinterview.config.FlowpayProperties;
+import io.flowpay.flowpayinterview.exception.BulkValidationException;
+import io.flowpay.flowpayinterview.exception.PreconditionFailedException;
 import io.flowpay.flowpayinterview.mapper.CommonMapper;
+import io.flowpay.flowpayinterview.model.dto.BulkItemResultDTO;
+import io.flowpay.flowpayinterview.model.dto.ChangeEntityType;
 import io.flowpay.flowpayinterview.model.dto.RepresentativeDTO;
+import io.flowpay.flowpayinterview.model.dto.RepresentativeLookupDTO;
+import io.flowpay.flowpayinterview.model.dto.RepresentativeNameChange;
 import io.flowpay.flowpayinterview.model.entity.Company;
 import io.flowpay.flowpayinterview.model.entity.Representative;
 import io.flowpay.flowpayinterview.repository.CompanyRepository;
 import io.flowpay.flowpayinterview.repository.RepresentativeRepository;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.Validation;
 import org.assertj.core.groups.Tuple;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,12 +23,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mapstruct.factory.Mappers;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.Mock;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -32,12 +46,21 @@ class RepresentativeServiceTest {
     @Mock
     private CompanyRepository companyRepository;
 
+    @Mock
+    private ChangeLog changeLog;
+
     private CommonMapper commonMapper;
 
     private RepresentativeService representativeService;
 
     private Representative representative;
 
+    private CacheManager cacheManager;
+
+    private FlowpayProperties flowpayProperties;
+
+    private RepresentativeNameIndex representativeNameIndex;
+
     @BeforeEach
     void setUp() {
         representative = new Representative();
@@ -45,7 +68,15 @@ class RepresentativeServiceTest {
         representative.setFirstName("John");
         representative.setLastName("Doe");
         commonMapper = Mappers.getMapper(CommonMapper.class);
-        representativeService = new RepresentativeService(representativeRepository, companyRepository, commonMapper);
+        flowpayProperties = new FlowpayProperties();
+        flowpayProperties.getBulk().setMaxItems(3);
+        flowpayProperties.getBulk().setBatchSize(2);
+        flowpayProperties.getFetch().setBatchSize(2);
+        cacheManager = new ConcurrentMapCacheManager(CacheConfig.CACHE_COMPANIES, CacheConfig.CACHE_REPRESENTATIVES);
+        representativeNameIndex = new RepresentativeNameIndex(representativeRepository, flowpayProperties);
+        representativeService = new RepresentativeService(representativeRepository, companyRepository, commonMapper,
+                flowpayProperties, Validation.buildDefaultValidatorFactory().getValidator(), cacheManager,
+                representativeNameIndex, changeLog);
     }
 
     @Test
@@ -58,6 +89,21 @@ class RepresentativeServiceTest {
                 .containsExactlyInAnyOrder("John", "Doe");
     }
 
+    @Test
+    void getRepresentativesByIds() {
+        when(representativeRepository.findNamesByIdIn(List.of(3L, 1L))).thenReturn(List.of(
+                new RepresentativeDTO(1L, "John", "Doe"),
+                new RepresentativeDTO(3L, "Jane", "Roe")));
+        when(representativeRepository.findNamesByIdIn(List.of(2L))).thenReturn(List.of());
+
+        RepresentativeLookupDTO lookup = representativeService.getRepresentativesByIds(List.of(3L, 1L, 1L, 2L));
+
+        assertThat(lookup.getItems())
+                .extracting(RepresentativeDTO::getId)
+                .containsExactly(3L, 1L);
+        assertThat(lookup.getMissingIds()).containsExactly(2L);
+    }
+
     @Test
     void getRepresentativeFirstNameAndLastName() {
         when(representativeRepository.findAllByFirstNameAndLastName("John", "Doe")).thenReturn(Set.of(representative));
@@ -68,6 +114,81 @@ class RepresentativeServiceTest {
                 .containsExactlyInAnyOrder(Tuple.tuple("John", "Doe"));
     }
 
+    @Test
+    void getRepresentativesByFirstNameAndLastNameFromNameIndex() {
+        flowpayProperties.getNameIndex().setEnabled(true);
+        when(representativeRepository.findNamesAfter(eq(0L), any())).thenReturn(List.of(
+                new RepresentativeDTO(1L, "John", "Doe"),
+                new RepresentativeDTO(2L, "John", "Doe"),
+                new RepresentativeDTO(3L, "Jane", "Doe")));
+        representativeNameIndex.warmUp();
+
+        Set<RepresentativeDTO> representatives = representativeService.getRepresentativesByFirstNameAndLastName("John", "Doe");
+
+        assertThat(representatives).containsExactlyInAnyOrder(
+                new RepresentativeDTO(1L, "John", "Doe"),
+                new RepresentativeDTO(2L, "John", "Doe"));
+        assertThat(representativeService.getRepresentativesByFirstNameAndLastName("John", "Smith")).isEmpty();
+        verify(representativeRepository, never()).findAllByFirstNameAndLastName(anyString(), anyString());
+    }
+
+    @Test
+    void nameIndexFollowsChanges() {
+        flowpayProperties.getNameIndex().setEnabled(true);
+        representativeNameIndex.warmUp();
+        when(representativeRepository.save(any(Representative.class))).thenReturn(representative);
+        when(representativeRepository.findById(representative.getId())).thenReturn(Optional.of(representative));
+
+        representativeService.createRepresentative(commonMapper.representativeToDto(representative));
+        assertThat(representativeNameIndex.lookup("John", "Doe")).containsExactly(1L);
+
+        representativeService.updateRepresentative(representative.getId(), new RepresentativeDTO(null, "Jane", "Doe"));
+        assertThat(representativeNameIndex.lookup("John", "Doe")).isEmpty();
+        assertThat(representativeNameIndex.lookup("Jane", "Doe")).containsExactly(1L);
+
+        representativeService.deleteRepresentative(representative.getId());
+        assertThat(representativeNameIndex.lookup("Jane", "Doe")).isEmpty();
+    }
+
+    @Test
+    void patchRepresentativeUpdatesWithoutReading() {
+        flowpayProperties.getNameIndex().setEnabled(true);
+        when(representativeRepository.findNamesAfter(anyLong(), any())).thenReturn(List.of(new RepresentativeDTO(1L, "John", "Doe")));
+        representativeNameIndex.warmUp();
+        cacheManager.getCache(CacheConfig.CACHE_COMPANIES).put(5L, "cached company");
+        when(representativeRepository.updateNames(1L, "Jane", null))
+                .thenReturn(Optional.of(new RepresentativeNameChange("John", "Doe", "Jane", "Doe", List.of(5L))));
+
+        representativeService.patchRepresentative(1L, Map.of("firstName", "Jane"));
+
+        verify(representativeRepository, never()).findById(anyLong());
+        assertThat(cacheManager.getCache(CacheConfig.CACHE_COMPANIES).get(5L)).isNull();
+        assertThat(representativeNameIndex.lookup("John", "Doe")).isEmpty();
+        assertThat(representativeNameIndex.lookup("Jane", "Doe")).containsExactly(1L);
+    }
+
+    @Test
+    void patchNonExistingRepresentative() {
+        when(representativeRepository.updateNames(1L, "Jane", "Roe")).thenReturn(Optional.empty());
+
+        EntityNotFoundException thrown = assertThrows(EntityNotFoundException.class,
+                () -> representativeService.patchRepresentative(1L, Map.of("firstName", "Jane", "lastName", "Roe")));
+
+        assertEquals("Representative not found with id: 1", thrown.getMessage());
+    }
+
+    @Test
+    void patchRepresentativeWithInvalidFields() {
+        Map<String, Object> removal = new HashMap<>();
+        removal.put("lastName", null);
+
+        assertThrows(IllegalArgumentException.class, () -> representativeService.patchRepresentative(1L, Map.of()));
+        assertThrows(IllegalArgumentException.class, () -> representativeService.patchRepresentative(1L, Map.of("firstName", " ")));
+        assertThrows(IllegalArgumentException.class, () -> representativeService.patchRepresentative(1L, Map.of("id", 2)));
+        assertThrows(IllegalArgumentException.class, () -> representativeService.patchRepresentative(1L, removal));
+        verifyNoInteractions(representativeRepository);
+    }
+
     @Test
     void createRepresentative() {
         when(representativeRepository.save(any(Representative.class))).thenReturn(representative);
@@ -76,6 +197,45 @@ class RepresentativeServiceTest {
         verify(representativeRepository).save(representative);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void createRepresentatives() {
+        doAnswer(invocation -> {
+            List<Representative> representatives = invocation.getArgument(0);
+            for (int i = 0; i < representatives.size(); i++) {
+                assertNull(representatives.get(i).getId());
+                representatives.get(i).setId(10L + i);
+            }
+            return null;
+        }).when(representativeRepository).persistAll(anyList(), eq(2));
+
+        List<BulkItemResultDTO> results = representativeService.createRepresentatives(List.of(
+                new RepresentativeDTO(99L, "John", "Doe"),
+                new RepresentativeDTO(null, "Jane", "Doe")));
+
+        assertThat(results).containsExactly(new BulkItemResultDTO(0, 10L), new BulkItemResultDTO(1, 11L));
+    }
+
+    @Test
+    void createRepresentativesWithInvalidItems() {
+        BulkValidationException thrown = assertThrows(BulkValidationException.class, () ->
+                representativeService.createRepresentatives(List.of(
+                        new RepresentativeDTO(null, "John", "Doe"),
+                        new RepresentativeDTO(null, "", "Doe"))));
+
+        assertThat(thrown.getDetails()).containsExactly("[1] firstName: First name must not be blank");
+        verify(representativeRepository, never()).persistAll(anyList(), anyInt());
+    }
+
+    @Test
+    void createRepresentativesWithTooManyItems() {
+        RepresentativeDTO representativeDTO = new RepresentativeDTO(null, "John", "Doe");
+
+        assertThrows(IllegalArgumentException.class, () -> representativeService.createRepresentatives(
+                List.of(representativeDTO, representativeDTO, representativeDTO, representativeDTO)));
+        assertThrows(IllegalArgumentException.class, () -> representativeService.createRepresentatives(List.of()));
+    }
+
     @Test
     void updateRepresentative() {
         RepresentativeDTO updatedRepresentative = RepresentativeDTO.builder()
@@ -93,6 +253,61 @@ class RepresentativeServiceTest {
                 .containsExactlyInAnyOrder("Jane", "Doe");
     }
 
+    @Test
+    void getRepresentativeETag() {
+        when(representativeRepository.findVersionById(1L)).thenReturn(Optional.of(4L));
+
+        assertEquals("\"4\"", representativeService.getRepresentativeETag(1L));
+    }
+
+    @Test
+    void updateChangedRepresentative() {
+        representative.setVersion(5L);
+        when(representativeRepository.findById(representative.getId())).thenReturn(Optional.of(representative));
+
+        assertThrows(PreconditionFailedException.class, () -> representativeService.updateRepresentative(representative.getId(),
+                new RepresentativeDTO(null, "Jane", "Doe"), "\"4\""));
+
+        verify(representativeRepository, never()).save(any(Representative.class));
+        assertThat(representative.getFirstName()).isEqualTo("John");
+    }
+
+    @Test
+    void deleteChangedRepresentative() {
+        representative.setVersion(5L);
+        when(representativeRepository.findById(representative.getId())).thenReturn(Optional.of(representative));
+
+        assertThrows(PreconditionFailedException.class,
+                () -> representativeService.deleteRepresentative(representative.getId(), "W/\"5\""));
+
+        verify(representativeRepository, never()).deleteById(anyLong());
+        verifyNoInteractions(companyRepository);
+    }
+
+    @Test
+    void updateRepresentativeEvictsCachedCompanies() {
+        cacheManager.getCache(CacheConfig.CACHE_COMPANIES).put(1L, "company 1");
+        cacheManager.getCache(CacheConfig.CACHE_COMPANIES).put(2L, "company 2");
+        when(representativeRepository.findById(representative.getId())).thenReturn(Optional.of(representative));
+        when(representativeRepository.save(any(Representative.class))).thenReturn(representative);
+        when(companyRepository.findIdsByRepresentativeId(representative.getId())).thenReturn(List.of(1L));
+
+        representativeService.updateRepresentative(representative.getId(), commonMapper.representativeToDto(representative));
+
+        assertNull(cacheManager.getCache(CacheConfig.CACHE_COMPANIES).get(1L));
+        assertNotNull(cacheManager.getCache(CacheConfig.CACHE_COMPANIES).get(2L));
+    }
+
+    @Test
+    void deleteRepresentativeEvictsCachedCompanies() {
+        cacheManager.getCache(CacheConfig.CACHE_COMPANIES).put(1L, "company 1");
+        when(companyRepository.findIdsByRepresentativeId(representative.getId())).thenReturn(List.of(1L));
+
+        representativeService.deleteRepresentative(representative.getId());
+
+        assertNull(cacheManager.getCache(CacheConfig.CACHE_COMPANIES).get(1L));
+    }
+
     @Test
     void deleteRepresentative() {
         doNothing().when(representativeRepository).deleteById(representative.getId());
@@ -109,6 +324,35 @@ class RepresentativeServiceTest {
         verify(companyRepository).disassociateRepresentativeFromAllCompanies(representative.getId());
     }
 
+    @Test
+    void deleteRepresentativesInBatches() {
+        cacheManager.getCache(CacheConfig.CACHE_COMPANIES).put(7L, "company 7");
+        cacheManager.getCache(CacheConfig.CACHE_REPRESENTATIVES).put(1L, "representative 1");
+        when(representativeRepository.findNamesByIdIn(List.of(1L, 2L))).thenReturn(List.of(new RepresentativeDTO(1L, "John", "Doe")));
+        when(representativeRepository.findNamesByIdIn(List.of(3L))).thenReturn(List.of(new RepresentativeDTO(3L, "Jane", "Doe")));
+        when(companyRepository.findIdsByRepresentativeIdIn(List.of(1L, 2L))).thenReturn(List.of(7L));
+        when(representativeRepository.deleteAllByIds(List.of(1L, 2L))).thenReturn(1);
+        when(representativeRepository.deleteAllByIds(List.of(3L))).thenReturn(1);
+
+        int deleted = representativeService.deleteRepresentatives(List.of(1L, 2L, 3L));
+
+        assertEquals(2, deleted);
+        verify(representativeRepository, times(2)).deleteAllByIds(anyList());
+        assertNull(cacheManager.getCache(CacheConfig.CACHE_COMPANIES).get(7L));
+        assertNull(cacheManager.getCache(CacheConfig.CACHE_REPRESENTATIVES).get(1L));
+        verify(changeLog).deleted(ChangeEntityType.REPRESENTATIVE, List.of(1L));
+        verify(changeLog).deleted(ChangeEntityType.REPRESENTATIVE, List.of(3L));
+        verify(changeLog).changed(ChangeEntityType.COMPANY, List.of(7L));
+    }
+
+    @Test
+    void deleteRepresentativesWithInvalidPayload() {
+        assertThrows(IllegalArgumentException.class, () -> representativeService.deleteRepresentatives(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> representativeService.deleteRepresentatives(List.of(1L, 2L, 3L, 4L)));
+        assertThrows(BulkValidationException.class, () -> representativeService.deleteRepresentatives(Arrays.asList(1L, null)));
+        verify(representativeRepository, never()).deleteAllByIds(anyList());
+    }
+
     @Test
     void getNonExistingRepresentativeById() {
         when(representativeRepository.findById(anyLong())).thenReturn(Optional.empty());
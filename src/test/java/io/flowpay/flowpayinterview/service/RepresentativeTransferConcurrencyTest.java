@@ -0,0 +1,126 @@
+package io.flowpay.flowpayinterview.service;
+
+import io.flowpay.flowpayinterview.PostgresIntegrationTest;
+import io.flowpay.flowpayinterview.model.dto.RepresentativeTransferDTO;
+import io.flowpay.flowpayinterview.repository.CompanyRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers opposing transfers of representatives between the same two companies against PostgreSQL,
+ * verifying that none of them fails with a deadlock or lock timeout and that no association is lost,
+ * and that the companies locked by a transfer can still be assigned representatives.
+ */
+class RepresentativeTransferConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final long COMPANY_A = 1;
+    private static final long COMPANY_B = 2;
+    private static final int THREADS = 8;
+    private static final int REPRESENTATIVES_PER_THREAD = 20;
+    private static final int ROUND_TRIPS = 50;
+
+    @Autowired
+    private CompanyService companyService;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO companies (id, name) VALUES (?, 'Acme'), (?, 'Globex')", COMPANY_A, COMPANY_B);
+        jdbcTemplate.update("INSERT INTO representatives (id, firstname, lastname) "
+                + "SELECT i, 'John', 'Doe ' || i FROM generate_series(1, ?) i", THREADS * REPRESENTATIVES_PER_THREAD);
+        // Representatives of even threads start in company A, those of odd threads in company B.
+        jdbcTemplate.update("INSERT INTO company_representatives (company_id, representative_id) "
+                + "SELECT CASE WHEN ((i - 1) / ?) % 2 = 0 THEN ? ELSE ? END, i FROM generate_series(1, ?) i",
+                REPRESENTATIVES_PER_THREAD, COMPANY_A, COMPANY_B, THREADS * REPRESENTATIVES_PER_THREAD);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE companies, representatives, company_representatives");
+    }
+
+    @Test
+    void opposingTransfersNeitherDeadlockNorLoseRepresentatives() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            int owner = thread;
+            long from = thread % 2 == 0 ? COMPANY_A : COMPANY_B;
+            long to = thread % 2 == 0 ? COMPANY_B : COMPANY_A;
+            List<Long> ids = LongStream.rangeClosed(1, REPRESENTATIVES_PER_THREAD)
+                    .map(id -> id + (long) owner * REPRESENTATIVES_PER_THREAD)
+                    .boxed()
+                    .toList();
+            results.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ROUND_TRIPS; i++) {
+                    companyService.transferRepresentatives(new RepresentativeTransferDTO(from, to, ids));
+                    companyService.transferRepresentative(to, from, ids.get(i % ids.size()));
+                    companyService.transferRepresentative(from, to, ids.get(i % ids.size()));
+                    companyService.transferRepresentatives(new RepresentativeTransferDTO(to, from, ids));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        for (Future<?> result : results) {
+            // Rethrows the failure of the thread, if any.
+            result.get();
+        }
+
+        assertThat(countRepresentatives(COMPANY_A)).isEqualTo(THREADS / 2 * REPRESENTATIVES_PER_THREAD);
+        assertThat(countRepresentatives(COMPANY_B)).isEqualTo(THREADS / 2 * REPRESENTATIVES_PER_THREAD);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(DISTINCT representative_id) FROM company_representatives", Long.class))
+                .isEqualTo((long) THREADS * REPRESENTATIVES_PER_THREAD);
+    }
+
+    @Test
+    void transferLockDoesNotBlockAssigns() {
+        long representativeId = THREADS * REPRESENTATIVES_PER_THREAD + 1;
+        jdbcTemplate.update("INSERT INTO representatives (id, firstname, lastname) VALUES (?, 'Jane', 'Doe')", representativeId);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            companyRepository.lockForTransferInOrder(List.of(COMPANY_A, COMPANY_B));
+            // Assigns in another transaction, which fails instead of waiting if the lock conflicts with its foreign key.
+            int assigned = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(assign -> {
+                jdbcTemplate.execute("SET LOCAL lock_timeout = '2s'");
+                return jdbcTemplate.update("INSERT INTO company_representatives (company_id, representative_id) VALUES (?, ?)",
+                        COMPANY_A, representativeId);
+            })).join();
+            assertThat(assigned).isEqualTo(1);
+        });
+    }
+
+        private long countRepresentatives(long companyId) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM company_representatives WHERE company_id = ?", Long.class, companyId);
+    }
+}